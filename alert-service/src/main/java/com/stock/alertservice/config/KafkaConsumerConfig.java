@@ -1,5 +1,6 @@
 package com.stock.alertservice.config;
 
+import com.stock.alertservice.event.incoming.AlertBatchEvent;
 import com.stock.alertservice.event.incoming.InventoryEvent;
 import com.stock.alertservice.event.incoming.ItemEvent;
 import com.stock.alertservice.event.incoming.UserEvent;
@@ -145,6 +146,33 @@ public class KafkaConsumerConfig {
         return factory;
     }
 
+    // ========== AlertBatchEvent Consumer ==========
+
+    @Bean
+    public ConsumerFactory<String, AlertBatchEvent> alertBatchEventConsumerFactory() {
+        Map<String, Object> props = consumerConfigs();
+        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, AlertBatchEvent.class.getName());
+
+        return new DefaultKafkaConsumerFactory<>(
+                props,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new JsonDeserializer<>(AlertBatchEvent.class, false))
+        );
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, AlertBatchEvent> alertBatchEventListenerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, AlertBatchEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+
+        factory.setConsumerFactory(alertBatchEventConsumerFactory());
+        factory.setConcurrency(3);
+        factory.getContainerProperties().setPollTimeout(3000);
+        factory.setCommonErrorHandler(errorHandler());
+
+        return factory;
+    }
+
     // ========== Generic Consumer ==========
 
     @Bean
@@ -0,0 +1,59 @@
+package com.stock.alertservice.event.consumer;
+
+import com.stock.alertservice.enums.AlertLevel;
+import com.stock.alertservice.enums.AlertType;
+import com.stock.alertservice.event.incoming.AlertBatchEvent;
+import com.stock.alertservice.service.AlertService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumer des lots d'alertes (alert.batch) émis par les autres services
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AlertBatchEventConsumer {
+
+    private final AlertService alertService;
+
+    @KafkaListener(
+            topics = "alert.batch",
+            groupId = "alert-service-group",
+            containerFactory = "alertBatchEventListenerFactory"
+    )
+    public void handleAlertBatch(@Payload AlertBatchEvent batch) {
+        if (batch == null || batch.getAlerts() == null || batch.getAlerts().isEmpty()) {
+            return;
+        }
+
+        log.info("📥 Received alert batch {} from {} ({} alerts)",
+                batch.getBatchId(), batch.getSource(), batch.getAlerts().size());
+
+        int created = 0;
+        for (AlertBatchEvent.AlertRequest request : batch.getAlerts()) {
+            // One bad alert must not poison the rest of the batch
+            try {
+                alertService.createAlert(
+                        AlertType.valueOf(request.getType()),
+                        AlertLevel.valueOf(request.getLevel()),
+                        request.getEntityType(),
+                        request.getEntityId(),
+                        request.getMessage(),
+                        request.getData(),
+                        null
+                );
+                created++;
+            } catch (Exception e) {
+                log.error("❌ Failed to create {} alert for entity {} from batch {}",
+                        request.getAlertReason(), request.getEntityId(), batch.getBatchId(), e);
+            }
+        }
+
+        log.info("✅ Alert batch {} processed: {}/{} alerts created",
+                batch.getBatchId(), created, batch.getAlerts().size());
+    }
+}
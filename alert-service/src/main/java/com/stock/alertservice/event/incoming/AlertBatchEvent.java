@@ -0,0 +1,39 @@
+package com.stock.alertservice.event.incoming;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch of alert requests published by other services on alert.batch
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertBatchEvent {
+    private String batchId;
+    private String source;
+    private List<AlertRequest> alerts;
+    private LocalDateTime timestamp;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AlertRequest {
+        private String type;
+        private String level;
+        private String entityType;
+        private String entityId;
+        private String message;
+        private String alertReason;
+        private Map<String, Object> data;
+        private LocalDateTime timestamp;
+    }
+}
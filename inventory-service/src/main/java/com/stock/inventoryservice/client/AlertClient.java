@@ -1,38 +1,26 @@
 package com.stock.inventoryservice.client;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stock.inventoryservice.entity.StockAlertLevel;
+import com.stock.inventoryservice.event.dto.AlertRequestEvent;
+import com.stock.inventoryservice.service.impl.AlertEventPublisher;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.Map;
 
 /**
  * 🚨 Alert Service Client
- * REST client for creating alerts in the Alert Service with JWT Authentication
+ * Builds alert requests and hands them to AlertEventPublisher, which deduplicates
+ * and ships them to the Alert Service in batches over Kafka (alert.batch).
+ * Never blocks the calling write path.
  */
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class AlertClient {
 
-    private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
-
-    @Value("${services.alert-service.url:http://localhost:8088}")
-    private String alertServiceUrl;
-
-    public AlertClient(RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
-        this.objectMapper = new ObjectMapper();
-    }
+    private final AlertEventPublisher alertEventPublisher;
 
     /**
      * Create a location capacity alert
@@ -47,7 +35,7 @@ public class AlertClient {
             Double percentageFull
     ) {
         try {
-            log.info("🚨 Creating location capacity alert - Location: {}, Severity: {}, Percentage: {}%",
+            log.info("🚨 Queueing location capacity alert - Location: {}, Severity: {}, Percentage: {}%",
                     locationCode, severity, percentageFull);
 
             Map<String, Object> data = Map.of(
@@ -59,48 +47,34 @@ public class AlertClient {
                     "alertReason", "LOCATION_CAPACITY"
             );
 
-            String dataJson = objectMapper.writeValueAsString(data);
-
-            String url = UriComponentsBuilder
-                    .fromHttpUrl(alertServiceUrl + "/api/alerts")
-                    .queryParam("type", mapSeverityToAlertType(severity))
-                    .queryParam("level", mapSeverityToAlertLevel(severity))
-                    .queryParam("entityType", "LOCATION")
-                    .queryParam("entityId", locationId)
-                    .queryParam("message", message)
-                    .queryParam("data", dataJson)
-                    .toUriString();
-
-            HttpHeaders headers = createHeadersWithToken();
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-            restTemplate.exchange(url, HttpMethod.POST, entity, Void.class);
-
-            log.info("✅ Location capacity alert created successfully");
+            alertEventPublisher.enqueue(AlertRequestEvent.builder()
+                    .type(mapSeverityToAlertType(severity))
+                    .level(mapSeverityToAlertLevel(severity))
+                    .entityType("LOCATION")
+                    .entityId(locationId)
+                    .message(message)
+                    .alertReason("LOCATION_CAPACITY")
+                    .data(data)
+                    .build());
 
         } catch (Exception e) {
-            log.error("❌ Failed to create location capacity alert: {}", e.getMessage(), e);
+            log.error("❌ Failed to queue location capacity alert: {}", e.getMessage(), e);
         }
     }
 
     /**
-     * Create a low stock alert (with duplicate prevention)
+     * Create a low stock alert (duplicates are collapsed by AlertEventPublisher)
+     * The level is the one evaluated against the row's reorder threshold
      */
     public void createLowStockAlert(
             String itemId,
             String locationId,
             Double currentQuantity,
-            Double threshold
+            Double threshold,
+            StockAlertLevel level
     ) {
         try {
-            // Check if an active alert already exists for this item+location
-            if (hasActiveAlert(itemId, locationId)) {
-                log.debug("⏭️ Skipping alert creation - Active alert already exists for item {} at location {}",
-                        itemId, locationId);
-                return;
-            }
-
-            log.info("⚠️ Creating low stock alert - Item: {}, Location: {}, Quantity: {}",
+            log.info("⚠️ Queueing low stock alert - Item: {}, Location: {}, Quantity: {}",
                     itemId, locationId, currentQuantity);
 
             Map<String, Object> data = Map.of(
@@ -111,90 +85,21 @@ public class AlertClient {
                     "alertReason", "LOW_STOCK"
             );
 
-            String dataJson = objectMapper.writeValueAsString(data);
             String message = String.format("Low stock detected for item %s at location %s. Current: %.2f, Threshold: %.2f",
                     itemId, locationId, currentQuantity, threshold);
 
-            String url = UriComponentsBuilder
-                    .fromHttpUrl(alertServiceUrl + "/api/alerts")
-                    .queryParam("type", "LOW_STOCK")
-                    .queryParam("level", determineStockAlertLevel(currentQuantity))
-                    .queryParam("entityType", "ITEM")
-                    .queryParam("entityId", itemId)
-                    .queryParam("message", message)
-                    .queryParam("data", dataJson)
-                    .toUriString();
-
-            HttpHeaders headers = createHeadersWithToken();
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-            restTemplate.exchange(url, HttpMethod.POST, entity, Void.class);
-
-            log.info("✅ Low stock alert created successfully");
+            alertEventPublisher.enqueue(AlertRequestEvent.builder()
+                    .type("LOW_STOCK")
+                    .level(level.name())
+                    .entityType("ITEM")
+                    .entityId(itemId)
+                    .message(message)
+                    .alertReason("LOW_STOCK")
+                    .data(data)
+                    .build());
 
         } catch (Exception e) {
-            log.error("❌ Failed to create low stock alert: {}", e.getMessage(), e);
-        }
-    }
-
-    /**
-     * Check if an active alert already exists for this item at this location
-     */
-    private boolean hasActiveAlert(String itemId, String locationId) {
-        try {
-            String url = UriComponentsBuilder
-                    .fromHttpUrl(alertServiceUrl + "/api/alerts/type/LOW_STOCK")
-                    .queryParam("page", 0)
-                    .queryParam("size", 100)
-                    .toUriString();
-
-            HttpHeaders headers = createHeadersWithToken();
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-            @SuppressWarnings("unchecked")
-            var response = restTemplate.exchange(url, HttpMethod.GET, entity, Map.class);
-            Map<String, Object> responseBody = response.getBody();
-
-            if (responseBody != null && responseBody.containsKey("content")) {
-                @SuppressWarnings("unchecked")
-                var alerts = (java.util.List<Map<String, Object>>) responseBody.get("content");
-
-                for (Map<String, Object> alert : alerts) {
-                    String status = (String) alert.get("status");
-                    String data = (String) alert.get("data");
-
-                    // Only check ACTIVE or ESCALATED alerts
-                    if (("ACTIVE".equals(status) || "ESCALATED".equals(status)) && data != null) {
-                        try {
-                            @SuppressWarnings("unchecked")
-                            Map<String, Object> dataMap = objectMapper.readValue(data, Map.class);
-
-                            // Data might be wrapped in rawData field
-                            String rawData = (String) dataMap.get("rawData");
-                            if (rawData != null) {
-                                // URL decode the rawData
-                                rawData = java.net.URLDecoder.decode(rawData, "UTF-8");
-                                dataMap = objectMapper.readValue(rawData, Map.class);
-                            }
-
-                            String alertItemId = (String) dataMap.get("itemId");
-                            String alertLocationId = (String) dataMap.get("locationId");
-
-                            if (itemId.equals(alertItemId) && locationId.equals(alertLocationId)) {
-                                return true;
-                            }
-                        } catch (Exception e) {
-                            log.warn("Failed to parse alert data: {}", e.getMessage());
-                        }
-                    }
-                }
-            }
-
-            return false;
-
-        } catch (Exception e) {
-            log.warn("Failed to check for existing alerts: {}", e.getMessage());
-            return false; // If check fails, allow alert creation
+            log.error("❌ Failed to queue low stock alert: {}", e.getMessage(), e);
         }
     }
 
@@ -208,7 +113,7 @@ public class AlertClient {
             Integer daysUntilExpiry
     ) {
         try {
-            log.info("⚠️ Creating expiry alert - Item: {}, Lot: {}, Days until expiry: {}",
+            log.info("⚠️ Queueing expiry alert - Item: {}, Lot: {}, Days until expiry: {}",
                     itemId, lotId, daysUntilExpiry);
 
             Map<String, Object> data = Map.of(
@@ -219,52 +124,24 @@ public class AlertClient {
                     "alertReason", "EXPIRY_WARNING"
             );
 
-            String dataJson = objectMapper.writeValueAsString(data);
             String message = String.format("Item %s (Lot: %s) will expire in %d days on %s",
                     itemId, lotId, daysUntilExpiry, expiryDate);
 
-            String url = UriComponentsBuilder
-                    .fromHttpUrl(alertServiceUrl + "/api/alerts")
-                    .queryParam("type", "EXPIRY")
-                    .queryParam("level", determineExpiryAlertLevel(daysUntilExpiry))
-                    .queryParam("entityType", "LOT")
-                    .queryParam("entityId", lotId)
-                    .queryParam("message", message)
-                    .queryParam("data", dataJson)
-                    .toUriString();
-
-            HttpHeaders headers = createHeadersWithToken();
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-            restTemplate.exchange(url, HttpMethod.POST, entity, Void.class);
-
-            log.info("✅ Expiry alert created successfully");
+            alertEventPublisher.enqueue(AlertRequestEvent.builder()
+                    .type("EXPIRY")
+                    .level(determineExpiryAlertLevel(daysUntilExpiry))
+                    .entityType("LOT")
+                    .entityId(lotId)
+                    .message(message)
+                    .alertReason("EXPIRY_WARNING")
+                    .data(data)
+                    .build());
 
         } catch (Exception e) {
-            log.error("❌ Failed to create expiry alert: {}", e.getMessage(), e);
+            log.error("❌ Failed to queue expiry alert: {}", e.getMessage(), e);
         }
     }
 
-    private HttpHeaders createHeadersWithToken() {
-        HttpHeaders headers = new HttpHeaders();
-
-        try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            
-            if (authentication != null && authentication.getPrincipal() instanceof Jwt) {
-                Jwt jwt = (Jwt) authentication.getPrincipal();
-                headers.setBearerAuth(jwt.getTokenValue());
-                log.debug("✅ Added Bearer token to request headers");
-            } else {
-                log.warn("⚠️ No JWT token found in SecurityContext");
-            }
-        } catch (Exception e) {
-            log.error("❌ Failed to extract JWT token: {}", e.getMessage());
-        }
-
-        return headers;
-    }
-
     private String mapSeverityToAlertType(String severity) {
         return severity.equalsIgnoreCase("CRITICAL") || severity.equalsIgnoreCase("WARNING") 
                 ? "LOCATION" : "SYSTEM";
@@ -278,12 +155,6 @@ public class AlertClient {
         }
     }
 
-    private String determineStockAlertLevel(Double quantity) {
-        if (quantity < 5.0) return "CRITICAL";
-        else if (quantity < 10.0) return "WARNING";
-        else return "INFO";
-    }
-
     private String determineExpiryAlertLevel(Integer daysUntilExpiry) {
         if (daysUntilExpiry <= 7) return "CRITICAL";
         else if (daysUntilExpiry <= 30) return "WARNING";
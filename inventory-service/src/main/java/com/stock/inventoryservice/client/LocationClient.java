@@ -1,7 +1,12 @@
 package com.stock.inventoryservice.client;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.stock.inventoryservice.dto.external.LocationResponseDTO;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
@@ -10,48 +15,153 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Location Service client with an in-process near-cache
+ *
+ * - Bounded (max-size) with a hard TTL (expire-after-write)
+ * - Stale-while-revalidate: entries older than refresh-after are served
+ *   immediately while one background reload refreshes them
+ * - Single-flight: concurrent misses for the same location share one HTTP call
+ * - Invalidated by location.updated / location.deleted events (LocationEventConsumer)
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class LocationClient {
 
     private final WebClient webClient;
+    private final Cache<String, CachedLocation> cache;
+    private final Map<String, CompletableFuture<Void>> refreshesInFlight = new ConcurrentHashMap<>();
+    private final ExecutorService refreshExecutor;
+    private final Timer loadTimer;
+    private final Duration refreshAfter;
 
     @Value("${services.location-service.url}")
     private String locationServiceUrl;
 
+    public LocationClient(WebClient webClient,
+                          MeterRegistry meterRegistry,
+                          @Value("${inventory.location-cache.max-size:10000}") long maxSize,
+                          @Value("${inventory.location-cache.ttl:10m}") Duration ttl,
+                          @Value("${inventory.location-cache.refresh-after:1m}") Duration refreshAfter) {
+        this.webClient = webClient;
+        this.refreshAfter = refreshAfter;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.loadTimer = Timer.builder("location.cache.load")
+                .description("Time spent fetching locations from location-service")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "locations");
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.refreshExecutor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "location-cache-refresh-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     public LocationResponseDTO getLocationById(String locationId) {
+        String token = getJwtToken();
+
+        CachedLocation cached = cache.get(locationId, id -> {
+            LocationResponseDTO location = fetchLocation(id, token);
+            return location != null ? new CachedLocation(location, System.nanoTime()) : null;
+        });
+
+        if (cached != null && System.nanoTime() - cached.loadedAtNanos() > refreshAfter.toNanos()) {
+            refreshInBackground(locationId, token);
+        }
+
+        return cached != null ? cached.location() : null;
+    }
+
+    /**
+     * Drop a location from the near-cache (next read reloads it)
+     */
+    public void evictLocation(String locationId) {
+        cache.invalidate(locationId);
+        log.debug("Evicted location {} from near-cache", locationId);
+    }
+
+    /**
+     * Drop every cached location
+     */
+    public void evictAll() {
+        cache.invalidateAll();
+        log.info("Cleared location near-cache");
+    }
+
+    private void refreshInBackground(String locationId, String token) {
+        CompletableFuture<Void> marker = new CompletableFuture<>();
+        if (refreshesInFlight.putIfAbsent(locationId, marker) != null) {
+            return; // A refresh for this location is already running
+        }
+
+        CompletableFuture
+                .runAsync(() -> {
+                    LocationResponseDTO fresh = fetchLocation(locationId, token);
+                    if (fresh != null) {
+                        cache.put(locationId, new CachedLocation(fresh, System.nanoTime()));
+                    }
+                }, refreshExecutor)
+                .whenComplete((ignored, ex) -> {
+                    refreshesInFlight.remove(locationId, marker);
+                    marker.complete(null);
+                    if (ex != null) {
+                        // Keep serving the stale entry until its TTL expires
+                        log.warn("⚠️ Background refresh failed for location {}: {}", locationId, ex.getMessage());
+                    }
+                });
+    }
+
+    private LocationResponseDTO fetchLocation(String locationId, String token) {
         try {
             log.info("🔍 Fetching location with ID: {}", locationId);
-            
-            // Get the JWT token from Security Context
-            String token = getJwtToken();
-            
-            return webClient.get()
+
+            return loadTimer.record(() -> webClient.get()
                     .uri(locationServiceUrl + "/api/locations/{id}", locationId)
                     .header("Authorization", "Bearer " + token)  // 🔥 ADD JWT TOKEN!
                     .retrieve()
                     .bodyToMono(LocationResponseDTO.class)
-                    .block();
-                    
+                    .block());
+
         } catch (Exception e) {
             log.error("❌ Failed to fetch location with ID: {}", locationId, e);
             throw new RuntimeException("Unable to fetch location details from location-service", e);
         }
     }
-    
+
     /**
      * Extract JWT token from Security Context
      */
     private String getJwtToken() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        
+
         if (authentication != null && authentication.getPrincipal() instanceof Jwt) {
             Jwt jwt = (Jwt) authentication.getPrincipal();
             return jwt.getTokenValue();
         }
-        
+
         log.warn("⚠️ No JWT token found in Security Context!");
         return "";
     }
-}
\ No newline at end of file
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private record CachedLocation(LocationResponseDTO location, long loadedAtNanos) {
+    }
+}
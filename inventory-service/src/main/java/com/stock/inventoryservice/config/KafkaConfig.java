@@ -24,6 +24,9 @@ public class KafkaConfig {
     public static final String ITEM_VARIANT_UPDATED_TOPIC = "itemvariant.updated";
     public static final String ITEM_VARIANT_DELETED_TOPIC = "itemvariant.deleted";
 
+    // Alert Topics
+    public static final String ALERT_BATCH_TOPIC = "alert.batch";
+
     // Item Topics
     @Bean
     public NewTopic itemCreatedTopic() {
@@ -107,4 +110,14 @@ public class KafkaConfig {
                 .replicas(1)
                 .build();
     }
+
+    // Alert Topics
+    @Bean
+    public NewTopic alertBatchTopic() {
+        return TopicBuilder
+                .name(ALERT_BATCH_TOPIC)
+                .partitions(3)
+                .replicas(1)
+                .build();
+    }
 }
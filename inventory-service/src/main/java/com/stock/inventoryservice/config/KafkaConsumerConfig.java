@@ -1,6 +1,9 @@
 package com.stock.inventoryservice.config;
 
+import com.stock.inventoryservice.event.dto.InventoryEvent;
+import com.stock.inventoryservice.event.dto.InventoryImportedEvent;
 import com.stock.inventoryservice.event.dto.ItemEvent;
+import com.stock.inventoryservice.event.dto.LotEvent;
 import com.stock.inventoryservice.event.dto.MovementCompletedEvent;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
@@ -11,6 +14,7 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 
@@ -27,6 +31,20 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${inventory.movements.max-batch-size:500}")
+    private int movementMaxBatchSize;
+
+    // Write-combining window: 0 = poll as soon as any record is available
+    @Value("${inventory.movements.write-combining.window-ms:0}")
+    private int movementCombiningWindowMs;
+
+    @Value("${inventory.movements.write-combining.min-bytes:65536}")
+    private int movementCombiningMinBytes;
+
+    // Listener threads for movement.completed (at most one per partition does work)
+    @Value("${inventory.movements.consumer-concurrency:3}")
+    private int movementConsumerConcurrency;
+
     /**
      * 🔥 Consumer Factory for MovementCompletedEvent
      */
@@ -37,7 +55,14 @@ public class KafkaConsumerConfig {
         config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false); // Offsets are acknowledged after the DB commit
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, movementMaxBatchSize);
+        if (movementCombiningWindowMs > 0) {
+            // Let the broker hold each fetch for up to the window so a receiving wave arrives
+            // as one poll: increments to the same row are netted and written in one commit
+            config.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, movementCombiningMinBytes);
+            config.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, movementCombiningWindowMs);
+        }
         config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
 
         // Error handling deserializer wraps the actual deserializer
@@ -58,6 +83,8 @@ public class KafkaConsumerConfig {
 
     /**
      * 🔥 Kafka Listener Container Factory for MovementCompletedEvent
+     * Batch listener with manual acknowledgment: a poll is applied in one
+     * transaction and its offsets are committed only after that transaction
      */
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, MovementCompletedEvent> movementKafkaListenerContainerFactory() {
@@ -65,8 +92,10 @@ public class KafkaConsumerConfig {
                 new ConcurrentKafkaListenerContainerFactory<>();
 
         factory.setConsumerFactory(movementEventConsumerFactory());
-        factory.setConcurrency(3);
+        factory.setConcurrency(movementConsumerConcurrency);
+        factory.setBatchListener(true); // One poll = one DB transaction
         factory.getContainerProperties().setPollTimeout(3000);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
 
         // Error handling
         factory.setCommonErrorHandler(new org.springframework.kafka.listener.DefaultErrorHandler());
@@ -120,4 +149,179 @@ public class KafkaConsumerConfig {
 
         return factory;
     }
-}
\ No newline at end of file
+
+    /**
+     * Consumer Factory for location events (near-cache invalidation)
+     * Only the record key (location ID) is used, so values are read as plain strings
+     */
+    @Bean
+    public ConsumerFactory<String, String> locationEventConsumerFactory() {
+        Map<String, Object> config = new HashMap<>();
+
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+
+        return new DefaultKafkaConsumerFactory<>(config, new StringDeserializer(), new StringDeserializer());
+    }
+
+    /**
+     * Kafka Listener Container Factory for location events
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> locationKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+
+        factory.setConsumerFactory(locationEventConsumerFactory());
+        factory.setConcurrency(1);
+        factory.getContainerProperties().setPollTimeout(3000);
+
+        // Error handling
+        factory.setCommonErrorHandler(new org.springframework.kafka.listener.DefaultErrorHandler());
+
+        return factory;
+    }
+
+    /**
+     * Consumer Factory for this service's own InventoryEvents (ATP index feed)
+     * Starts at the latest offset: the index is bootstrapped from the database
+     */
+    @Bean
+    public ConsumerFactory<String, InventoryEvent> inventoryEventConsumerFactory() {
+        Map<String, Object> config = new HashMap<>();
+
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+
+        // Error handling deserializer wraps the actual deserializer
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        config.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class.getName());
+
+        // JsonDeserializer configuration
+        config.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
+        config.put(JsonDeserializer.VALUE_DEFAULT_TYPE, InventoryEvent.class.getName());
+        config.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+
+        return new DefaultKafkaConsumerFactory<>(
+                config,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new JsonDeserializer<>(InventoryEvent.class, false))
+        );
+    }
+
+    /**
+     * Kafka Listener Container Factory for InventoryEvent
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, InventoryEvent> inventoryEventListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, InventoryEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+
+        factory.setConsumerFactory(inventoryEventConsumerFactory());
+        factory.setConcurrency(1);
+        factory.getContainerProperties().setPollTimeout(3000);
+
+        // Error handling
+        factory.setCommonErrorHandler(new org.springframework.kafka.listener.DefaultErrorHandler());
+
+        return factory;
+    }
+
+    /**
+     * Consumer Factory for InventoryImportedEvent (bulk import chunks, same readers as InventoryEvent)
+     */
+    @Bean
+    public ConsumerFactory<String, InventoryImportedEvent> inventoryImportConsumerFactory() {
+        Map<String, Object> config = new HashMap<>();
+
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+
+        // Error handling deserializer wraps the actual deserializer
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        config.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class.getName());
+
+        // JsonDeserializer configuration
+        config.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
+        config.put(JsonDeserializer.VALUE_DEFAULT_TYPE, InventoryImportedEvent.class.getName());
+        config.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+
+        return new DefaultKafkaConsumerFactory<>(
+                config,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new JsonDeserializer<>(InventoryImportedEvent.class, false))
+        );
+    }
+
+    /**
+     * Kafka Listener Container Factory for InventoryImportedEvent
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, InventoryImportedEvent> inventoryImportListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, InventoryImportedEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+
+        factory.setConsumerFactory(inventoryImportConsumerFactory());
+        factory.setConcurrency(1);
+        factory.getContainerProperties().setPollTimeout(3000);
+
+        // Error handling
+        factory.setCommonErrorHandler(new org.springframework.kafka.listener.DefaultErrorHandler());
+
+        return factory;
+    }
+
+    /**
+     * Consumer Factory for LotEvent (FEFO allocator invalidation)
+     * Starts at the latest offset: lots are loaded from the database on demand
+     */
+    @Bean
+    public ConsumerFactory<String, LotEvent> lotEventConsumerFactory() {
+        Map<String, Object> config = new HashMap<>();
+
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+
+        // Error handling deserializer wraps the actual deserializer
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        config.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class.getName());
+
+        // JsonDeserializer configuration
+        config.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
+        config.put(JsonDeserializer.VALUE_DEFAULT_TYPE, LotEvent.class.getName());
+        config.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+
+        return new DefaultKafkaConsumerFactory<>(
+                config,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new JsonDeserializer<>(LotEvent.class, false))
+        );
+    }
+
+    /**
+     * Kafka Listener Container Factory for LotEvent
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, LotEvent> lotEventListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, LotEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+
+        factory.setConsumerFactory(lotEventConsumerFactory());
+        factory.setConcurrency(1);
+        factory.getContainerProperties().setPollTimeout(3000);
+
+        // Error handling
+        factory.setCommonErrorHandler(new org.springframework.kafka.listener.DefaultErrorHandler());
+
+        return factory;
+    }
+}
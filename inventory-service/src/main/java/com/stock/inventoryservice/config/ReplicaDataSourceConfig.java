@@ -0,0 +1,94 @@
+package com.stock.inventoryservice.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read replica routing (off unless inventory.datasource.replicas.enabled=true)
+ *
+ * - Primary pool: spring.datasource.* and spring.datasource.hikari.*, as before
+ * - One pool per URL in inventory.datasource.replicas.urls, same credentials unless overridden
+ * - Every pool reports hikaricp.* metrics under its own pool name
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "inventory.datasource.replicas", name = "enabled", havingValue = "true")
+@Slf4j
+public class ReplicaDataSourceConfig {
+
+    @Value("${inventory.datasource.replicas.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${inventory.datasource.replicas.username:}")
+    private String replicaUsername;
+
+    @Value("${inventory.datasource.replicas.password:}")
+    private String replicaPassword;
+
+    @Value("${inventory.datasource.replicas.maximum-pool-size:10}")
+    private int replicaPoolSize;
+
+    @Value("${inventory.datasource.replicas.max-lag:2s}")
+    private Duration maxLag;
+
+    @Value("${inventory.datasource.replicas.read-your-writes-window:5s}")
+    private Duration readYourWritesWindow;
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties,
+                                                             Environment environment,
+                                                             MeterRegistry meterRegistry) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("inventory-primary");
+        primary.setMetricRegistry(meterRegistry);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            primary.copyStateTo(config);
+            config.setJdbcUrl(replicaUrls.get(i).trim());
+            if (!replicaUsername.isBlank()) {
+                config.setUsername(replicaUsername);
+                config.setPassword(replicaPassword);
+            }
+            config.setPoolName("inventory-replica-" + (i + 1));
+            config.setMaximumPoolSize(replicaPoolSize);
+            config.setMinimumIdle(Math.min(config.getMinimumIdle(), replicaPoolSize));
+            config.setReadOnly(true);
+            config.setMetricRegistry(meterRegistry);
+            replicas.put(config.getPoolName(), new HikariDataSource(config));
+        }
+
+        log.info("✅ Read-only transactions routed to {} read replica(s) (max lag {}, read-your-writes window {})",
+                replicas.size(), maxLag, readYourWritesWindow);
+        return new ReplicaRoutingDataSource(primary, replicas, maxLag, readYourWritesWindow, meterRegistry);
+    }
+
+    /**
+     * The DataSource used by JPA and JDBC: connections are taken on first statement,
+     * once the transaction's read-only flag is known
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
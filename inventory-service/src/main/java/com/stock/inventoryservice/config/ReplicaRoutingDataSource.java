@@ -0,0 +1,180 @@
+package com.stock.inventoryservice.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a read replica, everything else to the primary
+ *
+ * - Only replicas whose replay lag is within max-lag are used (checkLag, ReplicaLagCheckJob);
+ *   with none available, reads fall back to the primary
+ * - Read-your-writes: after a read-write transaction commits, reads by the same caller
+ *   (authenticated user, or thread for consumers and jobs) stay on the primary for
+ *   read-your-writes-window
+ * - Must be wrapped in a LazyConnectionDataSourceProxy: the read-only flag is only
+ *   known once the transaction has started, i.e. after the connection would be taken
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+
+    private static final String REPLICATION_LAG =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 " +
+            "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Cache<String, Boolean> recentWriters;
+    private final Duration maxLag;
+
+    private final Counter primaryReadWriteRoutes;
+    private final Counter primaryRecentWriteRoutes;
+    private final Counter primaryFallbackRoutes;
+    private final Counter replicaRoutes;
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    Map<String, DataSource> replicasByName,
+                                    Duration maxLag,
+                                    Duration readYourWritesWindow,
+                                    MeterRegistry meterRegistry) {
+        this.maxLag = maxLag;
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(readYourWritesWindow)
+                .build();
+
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        targets.put(PRIMARY, primary);
+        replicasByName.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            replicas.add(replica);
+            targets.put(name, dataSource);
+            Gauge.builder("inventory.datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .tag("replica", name)
+                    .description("Replay lag of a read replica in seconds (NaN when unreachable)")
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        this.primaryReadWriteRoutes = routeCounter(meterRegistry, PRIMARY, "read-write");
+        this.primaryRecentWriteRoutes = routeCounter(meterRegistry, PRIMARY, "recent-write");
+        this.primaryFallbackRoutes = routeCounter(meterRegistry, PRIMARY, "no-replica");
+        this.replicaRoutes = routeCounter(meterRegistry, "replica", "read-only");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                String caller = callerKey();
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status == STATUS_COMMITTED) {
+                            recentWriters.put(caller, Boolean.TRUE);
+                        }
+                    }
+                });
+            }
+            primaryReadWriteRoutes.increment();
+            return PRIMARY;
+        }
+
+        if (recentWriters.getIfPresent(callerKey()) != null) {
+            primaryRecentWriteRoutes.increment();
+            return PRIMARY;
+        }
+
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                replicaRoutes.increment();
+                return replica.name;
+            }
+        }
+        primaryFallbackRoutes.increment();
+        return PRIMARY;
+    }
+
+    /**
+     * Measure every replica's replay lag; replicas behind by more than max-lag
+     * (or unreachable) stop receiving reads until they catch up
+     */
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            boolean wasHealthy = replica.healthy;
+            try {
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(replica.dataSource);
+                jdbcTemplate.setQueryTimeout(5);
+                Double lag = jdbcTemplate.queryForObject(REPLICATION_LAG, Double.class);
+                replica.lagSeconds = lag != null ? lag : 0.0;
+                replica.healthy = replica.lagSeconds <= maxLag.toMillis() / 1000.0;
+            } catch (Exception e) {
+                replica.lagSeconds = Double.NaN;
+                replica.healthy = false;
+                if (wasHealthy) {
+                    log.warn("⚠️ Read replica {} unreachable, reads fall back: {}", replica.name, e.getMessage());
+                }
+            }
+            if (wasHealthy != replica.healthy) {
+                log.info("🔄 Read replica {} {} (lag {} s)", replica.name,
+                        replica.healthy ? "back in rotation" : "taken out of rotation", replica.lagSeconds);
+            }
+        }
+    }
+
+    private static String callerKey() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && authentication.getName() != null) {
+            return "user:" + authentication.getName();
+        }
+        return "thread:" + Thread.currentThread().getId();
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String route, String reason) {
+        return Counter.builder("inventory.datasource.routes")
+                .tag("route", route)
+                .tag("reason", reason)
+                .description("Connections routed to the primary or a read replica")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Health is written by the lag check and read on every routing decision
+     */
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = false; // Until the first lag check
+        private volatile double lagSeconds = Double.NaN;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
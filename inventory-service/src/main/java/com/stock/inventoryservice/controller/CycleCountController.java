@@ -0,0 +1,121 @@
+package com.stock.inventoryservice.controller;
+
+import com.stock.inventoryservice.dto.CycleCountBatchDTO;
+import com.stock.inventoryservice.dto.CycleCountReconciliationResult;
+import com.stock.inventoryservice.dto.CycleCountSessionDTO;
+import com.stock.inventoryservice.dto.request.CycleCountSessionCreateRequest;
+import com.stock.inventoryservice.dto.request.CycleCountSubmitRequest;
+import com.stock.inventoryservice.service.CycleCountService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/inventory/cycle-counts")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Cycle Counts", description = "Batched physical counts with frozen book quantities")
+public class CycleCountController {
+
+    private final CycleCountService cycleCountService;
+
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER')")
+    @Operation(summary = "Open cycle count session",
+            description = "Count every row of a warehouse not counted since a day, batch by batch in location order")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Session opened"),
+            @ApiResponse(responseCode = "409", description = "A session is already open for the warehouse")
+    })
+    public ResponseEntity<CycleCountSessionDTO> openSession(@Valid @RequestBody CycleCountSessionCreateRequest request) {
+        log.info("REST request to open cycle count session for warehouse: {}", request.getWarehouseId());
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(cycleCountService.openSession(request));
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF', 'VIEWER')")
+    @Operation(summary = "Get cycle count session", description = "Retrieve a session and its progress")
+    public ResponseEntity<CycleCountSessionDTO> getSession(
+            @Parameter(description = "Session ID", required = true)
+            @PathVariable String id) {
+        log.info("REST request to get cycle count session: {}", id);
+
+        return ResponseEntity.ok(cycleCountService.getSession(id));
+    }
+
+    @PostMapping("/{id}/batches")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF')")
+    @Operation(summary = "Freeze next batch",
+            description = "Cut the next batch of rows to count and freeze their book quantities")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Batch frozen"),
+            @ApiResponse(responseCode = "204", description = "Every candidate is already in a batch")
+    })
+    public ResponseEntity<CycleCountBatchDTO> freezeNextBatch(
+            @Parameter(description = "Session ID", required = true)
+            @PathVariable String id) {
+        log.info("REST request to freeze next batch of cycle count session: {}", id);
+
+        CycleCountBatchDTO batch = cycleCountService.freezeNextBatch(id);
+        return batch != null ? ResponseEntity.status(HttpStatus.CREATED).body(batch) : ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/{id}/batches/{batchNo}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF', 'VIEWER')")
+    @Operation(summary = "Get batch", description = "Lines of a batch in location order")
+    public ResponseEntity<CycleCountBatchDTO> getBatch(@PathVariable String id, @PathVariable int batchNo) {
+        log.info("REST request to get batch {} of cycle count session: {}", batchNo, id);
+
+        return ResponseEntity.ok(cycleCountService.getBatch(id, batchNo));
+    }
+
+    @PostMapping("/{id}/batches/{batchNo}/counts")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF')")
+    @Operation(summary = "Submit counts", description = "Record counted quantities; a recount replaces the earlier count")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Counts recorded"),
+            @ApiResponse(responseCode = "400", description = "Some lines are not open lines of the batch")
+    })
+    public ResponseEntity<CycleCountBatchDTO> submitCounts(
+            @PathVariable String id,
+            @PathVariable int batchNo,
+            @Valid @RequestBody CycleCountSubmitRequest request) {
+        log.info("REST request to submit {} counts for batch {} of cycle count session: {}",
+                request.getCounts().size(), batchNo, id);
+
+        return ResponseEntity.ok(cycleCountService.submitCounts(id, batchNo, request));
+    }
+
+    @PostMapping("/{id}/batches/{batchNo}/reconcile")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER')")
+    @Operation(summary = "Reconcile batch",
+            description = "Post the variances of every counted line; lines not counted are skipped")
+    public ResponseEntity<CycleCountReconciliationResult> reconcileBatch(@PathVariable String id, @PathVariable int batchNo) {
+        log.info("REST request to reconcile batch {} of cycle count session: {}", batchNo, id);
+
+        return ResponseEntity.ok(cycleCountService.reconcileBatch(id, batchNo));
+    }
+
+    @PostMapping("/{id}/complete")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER')")
+    @Operation(summary = "Complete session", description = "Close the session; lines never counted are skipped")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Session completed"),
+            @ApiResponse(responseCode = "400", description = "Counted lines are not reconciled yet")
+    })
+    public ResponseEntity<CycleCountSessionDTO> completeSession(@PathVariable String id) {
+        log.info("REST request to complete cycle count session: {}", id);
+
+        return ResponseEntity.ok(cycleCountService.completeSession(id));
+    }
+}
@@ -1,12 +1,28 @@
 package com.stock.inventoryservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stock.inventoryservice.dto.AvailabilityBatchResult;
+import com.stock.inventoryservice.dto.BulkReservationResult;
+import com.stock.inventoryservice.dto.CursorPage;
+import com.stock.inventoryservice.dto.InventoryChangePage;
 import com.stock.inventoryservice.dto.InventoryDTO;
+import com.stock.inventoryservice.dto.InventoryImportReport;
+import com.stock.inventoryservice.dto.InventorySummaryDTO;
 import com.stock.inventoryservice.dto.InventoryWithItemDTO;
+import com.stock.inventoryservice.dto.OccupancyReconciliationReport;
+import com.stock.inventoryservice.dto.StockSummaryReconciliationReport;
+import com.stock.inventoryservice.dto.request.AvailabilityBatchRequest;
+import com.stock.inventoryservice.dto.request.BulkReservationRequest;
 import com.stock.inventoryservice.dto.request.InventoryAdjustmentRequest;
 import com.stock.inventoryservice.dto.request.InventoryCreateRequest;
 import com.stock.inventoryservice.dto.request.InventoryReserveRequest;
+import com.stock.inventoryservice.dto.request.InventorySearchRequest;
 import com.stock.inventoryservice.dto.request.InventoryUpdateRequest;
+import com.stock.inventoryservice.service.InventoryImportService;
 import com.stock.inventoryservice.service.InventoryService;
+import com.stock.inventoryservice.service.LocationOccupancyService;
+import com.stock.inventoryservice.service.StockSummaryService;
+import com.stock.inventoryservice.service.StockReservationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,15 +30,22 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/api/inventory")
@@ -32,6 +55,11 @@ import java.util.List;
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final InventoryImportService inventoryImportService;
+    private final LocationOccupancyService locationOccupancyService;
+    private final StockSummaryService stockSummaryService;
+    private final StockReservationService stockReservationService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER')")
@@ -50,6 +78,21 @@ public class InventoryController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    @PostMapping(value = "/import", consumes = {InventoryImportService.CSV, MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER')")
+    @Operation(summary = "Import inventories",
+            description = "Stream a CSV (header row of field names) or NDJSON upload; rows are validated and upserted " +
+                    "by (itemId, locationId) in chunks. Invalid rows are skipped and listed in the report")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import report with per-row errors"),
+            @ApiResponse(responseCode = "400", description = "Unreadable upload")
+    })
+    public ResponseEntity<InventoryImportReport> importInventories(HttpServletRequest request) throws IOException {
+        log.info("REST request to import inventories ({})", request.getContentType());
+
+        return ResponseEntity.ok(inventoryImportService.importInventories(request.getInputStream(), request.getContentType()));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF', 'VIEWER')")
     @Operation(summary = "Get inventory by ID", description = "Retrieve inventory details by ID")
@@ -77,6 +120,59 @@ public class InventoryController {
         return ResponseEntity.ok(inventories);
     }
 
+    @GetMapping(params = "limit")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF', 'VIEWER')")
+    @Operation(summary = "Get inventories (keyset page)", description = "Retrieve one page of inventory records; pass nextCursor back as cursor")
+    public ResponseEntity<CursorPage<InventoryDTO>> getInventoriesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam int limit) {
+        log.info("REST request to get inventory page (limit: {})", limit);
+
+        return ResponseEntity.ok(inventoryService.getInventoriesPage(null, null, cursor, limit));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF', 'VIEWER')")
+    @Operation(summary = "Stream all inventories", description = "Stream every inventory record as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> streamAllInventories() {
+        log.info("REST request to stream all inventories");
+
+        return ndjson(sink -> inventoryService.streamInventories(null, null, sink));
+    }
+
+    @GetMapping("/changes")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF', 'ORDER_MANAGER', 'VIEWER')")
+    @Operation(summary = "Get inventory changes",
+            description = "Rows changed since a token, oldest first, with their current state; pass token back as since. " +
+                    "Without since, returns the current head token: take it before a full load, then poll")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of changes and the next token"),
+            @ApiResponse(responseCode = "400", description = "Invalid or expired token")
+    })
+    public ResponseEntity<InventoryChangePage> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit) {
+        log.debug("REST request to get inventory changes (limit: {})", limit);
+
+        return ResponseEntity.ok(inventoryService.getChanges(since, limit));
+    }
+
+    @PostMapping("/search")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF', 'VIEWER')")
+    @Operation(summary = "Search inventories",
+            description = "Combine any criteria (item, warehouse, location, status, lot, serial, quantity ranges, " +
+                    "expiry window, low stock) in one query; keyset paginated, pass nextCursor back as cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of matching inventories"),
+            @ApiResponse(responseCode = "400", description = "Invalid criteria or cursor")
+    })
+    public ResponseEntity<CursorPage<InventoryDTO>> searchInventories(
+            @Valid @RequestBody InventorySearchRequest request) {
+        log.info("REST request to search inventories");
+
+        return ResponseEntity.ok(inventoryService.searchInventories(request));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER')")
     @Operation(summary = "Update inventory", description = "Update an existing inventory record")
@@ -132,6 +228,28 @@ public class InventoryController {
         return ResponseEntity.ok(inventories);
     }
 
+    @GetMapping(value = "/warehouse/{warehouseId}", params = "limit")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF', 'VIEWER')")
+    @Operation(summary = "Get inventories by warehouse (keyset page)", description = "Retrieve one page of inventory records for a warehouse")
+    public ResponseEntity<CursorPage<InventoryDTO>> getInventoriesPageByWarehouse(
+            @PathVariable String warehouseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam int limit) {
+        log.info("REST request to get inventory page for warehouse: {} (limit: {})", warehouseId, limit);
+
+        return ResponseEntity.ok(inventoryService.getInventoriesPage(warehouseId, null, cursor, limit));
+    }
+
+    @GetMapping(value = "/warehouse/{warehouseId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF', 'VIEWER')")
+    @Operation(summary = "Stream inventories by warehouse", description = "Stream inventory records of a warehouse as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> streamInventoriesByWarehouse(
+            @PathVariable String warehouseId) {
+        log.info("REST request to stream inventories for warehouse: {}", warehouseId);
+
+        return ndjson(sink -> inventoryService.streamInventories(warehouseId, null, sink));
+    }
+
     @GetMapping("/location/{locationId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF', 'VIEWER')")
     @Operation(summary = "Get inventories by location", description = "Retrieve all inventory records at a location")
@@ -143,6 +261,28 @@ public class InventoryController {
         return ResponseEntity.ok(inventories);
     }
 
+    @GetMapping(value = "/location/{locationId}", params = "limit")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF', 'VIEWER')")
+    @Operation(summary = "Get inventories by location (keyset page)", description = "Retrieve one page of inventory records at a location")
+    public ResponseEntity<CursorPage<InventoryDTO>> getInventoriesPageByLocation(
+            @PathVariable String locationId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam int limit) {
+        log.info("REST request to get inventory page for location: {} (limit: {})", locationId, limit);
+
+        return ResponseEntity.ok(inventoryService.getInventoriesPage(null, locationId, cursor, limit));
+    }
+
+    @GetMapping(value = "/location/{locationId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF', 'VIEWER')")
+    @Operation(summary = "Stream inventories by location", description = "Stream inventory records at a location as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> streamInventoriesByLocation(
+            @PathVariable String locationId) {
+        log.info("REST request to stream inventories for location: {}", locationId);
+
+        return ndjson(sink -> inventoryService.streamInventories(null, locationId, sink));
+    }
+
     @GetMapping("/item/{itemId}/location/{locationId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF', 'VIEWER')")
     @Operation(summary = "Get inventory by item and location", description = "Get specific inventory record")
@@ -159,8 +299,8 @@ public class InventoryController {
     @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'VIEWER')")
     @Operation(summary = "Get low stock items", description = "Retrieve items below threshold quantity")
     public ResponseEntity<List<InventoryDTO>> getLowStockItems(
-            @Parameter(description = "Threshold quantity")
-            @RequestParam(defaultValue = "10.0") Double threshold) {
+            @Parameter(description = "Threshold quantity (service default reorder point when absent)")
+            @RequestParam(required = false) Double threshold) {
         log.info("REST request to get low stock items with threshold: {}", threshold);
 
         List<InventoryDTO> inventories = inventoryService.getLowStockItems(threshold);
@@ -215,6 +355,22 @@ public class InventoryController {
         return ResponseEntity.ok(reserved);
     }
 
+    @PostMapping("/reserve/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'ORDER_MANAGER')")
+    @Operation(summary = "Reserve inventory in bulk",
+            description = "Reserve many inventory lines in one transaction, all-or-nothing by default")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Per-line reservation result"),
+            @ApiResponse(responseCode = "400", description = "Invalid request")
+    })
+    public ResponseEntity<BulkReservationResult> reserveInventoryBulk(
+            @Valid @RequestBody BulkReservationRequest request) {
+        log.info("REST request to reserve {} inventory lines in bulk", request.getLines().size());
+
+        BulkReservationResult result = stockReservationService.reserveBulk(request);
+        return ResponseEntity.ok(result);
+    }
+
     @PostMapping("/{id}/release")
     @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'ORDER_MANAGER')")
     @Operation(summary = "Release reservation", description = "Release reserved inventory quantity")
@@ -256,6 +412,28 @@ public class InventoryController {
         return ResponseEntity.ok(inventories);
     }
 
+    @GetMapping(value = "/location/{locationId}/with-items", params = "limit")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF', 'VIEWER')")
+    @Operation(summary = "Get inventories by location with item details (keyset page)", description = "Retrieve one page of enriched inventories at a location")
+    public ResponseEntity<CursorPage<InventoryWithItemDTO>> getInventoriesWithItemPageByLocation(
+            @PathVariable String locationId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam int limit) {
+        log.info("REST request to get enriched inventory page for location: {} (limit: {})", locationId, limit);
+
+        return ResponseEntity.ok(inventoryService.getInventoriesWithItemPage(null, locationId, cursor, limit));
+    }
+
+    @GetMapping(value = "/location/{locationId}/with-items", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF', 'VIEWER')")
+    @Operation(summary = "Stream inventories by location with item details", description = "Stream enriched inventories at a location as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> streamInventoriesWithItemByLocation(
+            @PathVariable String locationId) {
+        log.info("REST request to stream inventories with items for location: {}", locationId);
+
+        return ndjson(sink -> inventoryService.streamInventoriesWithItems(null, locationId, sink));
+    }
+
     @GetMapping("/warehouse/{warehouseId}/with-items")
     @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF', 'VIEWER')")
     @Operation(summary = "Get inventories by warehouse with item details", description = "Get all inventories in warehouse with item info")
@@ -267,6 +445,28 @@ public class InventoryController {
         return ResponseEntity.ok(inventories);
     }
 
+    @GetMapping(value = "/warehouse/{warehouseId}/with-items", params = "limit")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF', 'VIEWER')")
+    @Operation(summary = "Get inventories by warehouse with item details (keyset page)", description = "Retrieve one page of enriched inventories in a warehouse")
+    public ResponseEntity<CursorPage<InventoryWithItemDTO>> getInventoriesWithItemPageByWarehouse(
+            @PathVariable String warehouseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam int limit) {
+        log.info("REST request to get enriched inventory page for warehouse: {} (limit: {})", warehouseId, limit);
+
+        return ResponseEntity.ok(inventoryService.getInventoriesWithItemPage(warehouseId, null, cursor, limit));
+    }
+
+    @GetMapping(value = "/warehouse/{warehouseId}/with-items", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF', 'VIEWER')")
+    @Operation(summary = "Stream inventories by warehouse with item details", description = "Stream enriched inventories in a warehouse as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> streamInventoriesWithItemByWarehouse(
+            @PathVariable String warehouseId) {
+        log.info("REST request to stream inventories with items for warehouse: {}", warehouseId);
+
+        return ndjson(sink -> inventoryService.streamInventoriesWithItems(warehouseId, null, sink));
+    }
+
     // ========== AVAILABILITY CHECKS ==========
 
     @GetMapping("/check-availability")
@@ -296,6 +496,76 @@ public class InventoryController {
         return ResponseEntity.ok(quantity);
     }
 
+    @PostMapping("/availability/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF', 'ORDER_MANAGER', 'VIEWER')")
+    @Operation(summary = "Check availability in batch",
+            description = "Check available quantity for many (item, location, quantity) lines in one call")
+    public ResponseEntity<AvailabilityBatchResult> checkAvailabilityBatch(
+            @Valid @RequestBody AvailabilityBatchRequest request) {
+        log.info("REST request to check availability for {} lines", request.getLines().size());
+
+        AvailabilityBatchResult result = inventoryService.checkAvailabilityBatch(request);
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/available-quantity/total")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF', 'ORDER_MANAGER', 'VIEWER')")
+    @Operation(summary = "Get total available quantity",
+            description = "Get available quantity for item across all locations, or within one warehouse")
+    public ResponseEntity<Double> getTotalAvailableQuantity(
+            @RequestParam String itemId,
+            @RequestParam(required = false) String warehouseId) {
+        log.info("REST request to get total available quantity for item: {} (warehouse: {})",
+                itemId, warehouseId);
+
+        Double quantity = inventoryService.getTotalAvailableQuantity(itemId, warehouseId);
+        return ResponseEntity.ok(quantity);
+    }
+
+    // ========== STOCK SUMMARIES ==========
+
+    @GetMapping("/item/{itemId}/summary")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF', 'ORDER_MANAGER', 'VIEWER')")
+    @Operation(summary = "Get item stock summary",
+            description = "Totals of an item across all warehouses, read from its stock summary row")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Summary found"),
+            @ApiResponse(responseCode = "404", description = "No stock recorded for the item")
+    })
+    public ResponseEntity<InventorySummaryDTO> getItemStockSummary(@PathVariable String itemId) {
+        log.info("REST request to get stock summary for item: {}", itemId);
+
+        return ResponseEntity.ok(inventoryService.getStockSummary(itemId, null));
+    }
+
+    @GetMapping("/item/{itemId}/warehouse/{warehouseId}/summary")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF', 'ORDER_MANAGER', 'VIEWER')")
+    @Operation(summary = "Get item stock summary in a warehouse",
+            description = "Totals of an item within one warehouse, read from its stock summary row")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Summary found"),
+            @ApiResponse(responseCode = "404", description = "No stock recorded for the item in the warehouse")
+    })
+    public ResponseEntity<InventorySummaryDTO> getItemWarehouseStockSummary(
+            @PathVariable String itemId,
+            @PathVariable String warehouseId) {
+        log.info("REST request to get stock summary for item: {} in warehouse: {}", itemId, warehouseId);
+
+        return ResponseEntity.ok(inventoryService.getStockSummary(itemId, warehouseId));
+    }
+
+    @PostMapping("/summary/reconcile")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Reconcile stock summaries",
+            description = "Rebuilds the item and item/warehouse stock summaries from inventory and reports drift")
+    @ApiResponse(responseCode = "200", description = "Reconciliation completed")
+    public ResponseEntity<StockSummaryReconciliationReport> reconcileStockSummaries() {
+        log.info("REST request to reconcile stock summaries");
+
+        StockSummaryReconciliationReport report = stockSummaryService.reconcile();
+        return ResponseEntity.ok(report);
+    }
+
     // ========== ALERT MANAGEMENT ==========
 
     @PostMapping("/scan-for-alerts")
@@ -311,4 +581,46 @@ public class InventoryController {
         String message = String.format("Scan completed successfully. %d alert(s) created for low stock items.", alertsCreated);
         return ResponseEntity.ok(message);
     }
+
+    // ========== LOCATION OCCUPANCY ==========
+
+    @PostMapping("/occupancy/reconcile")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Reconcile location occupancy",
+            description = "Rebuilds the per-location occupancy aggregate from inventory and reports drift")
+    @ApiResponse(responseCode = "200", description = "Reconciliation completed")
+    public ResponseEntity<OccupancyReconciliationReport> reconcileLocationOccupancy() {
+        log.info("REST request to reconcile location occupancy");
+
+        OccupancyReconciliationReport report = locationOccupancyService.reconcile();
+        return ResponseEntity.ok(report);
+    }
+
+    // ========== NDJSON STREAMING ==========
+
+    /**
+     * Write each element the producer emits as one JSON line, as it is produced
+     */
+    private ResponseEntity<StreamingResponseBody> ndjson(Consumer<Consumer<Object>> producer) {
+        StreamingResponseBody body = outputStream -> {
+            BufferedOutputStream out = new BufferedOutputStream(outputStream, 64 * 1024);
+            try {
+                producer.accept(element -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(element));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
 }
@@ -1,6 +1,8 @@
 package com.stock.inventoryservice.controller;
 
+import com.stock.inventoryservice.dto.FefoAllocationPlan;
 import com.stock.inventoryservice.dto.LotDTO;
+import com.stock.inventoryservice.dto.request.FefoAllocationRequest;
 import com.stock.inventoryservice.dto.request.LotCreateRequest;
 import com.stock.inventoryservice.dto.request.LotUpdateRequest;
 import com.stock.inventoryservice.service.LotService;
@@ -197,6 +199,30 @@ public class LotController {
         return ResponseEntity.ok(lots);
     }
 
+    // ========== FEFO ALLOCATION ==========
+
+    @GetMapping("/allocation/fefo")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF', 'ORDER_MANAGER')")
+    @Operation(summary = "Plan FEFO allocation", description = "Plan picks for a quantity of an item, earliest-expiring lot first")
+    public ResponseEntity<FefoAllocationPlan> allocateFefo(
+            @Parameter(description = "Item ID", required = true) @RequestParam String itemId,
+            @Parameter(description = "Warehouse ID (any warehouse when absent)") @RequestParam(required = false) String warehouseId,
+            @Parameter(description = "Quantity to allocate", required = true) @RequestParam Double quantity) {
+        log.info("REST request to plan FEFO allocation of {} for item: {}", quantity, itemId);
+
+        return ResponseEntity.ok(lotService.allocateFefo(itemId, warehouseId, quantity));
+    }
+
+    @PostMapping("/allocation/fefo/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF', 'ORDER_MANAGER')")
+    @Operation(summary = "Plan FEFO allocation for many lines",
+            description = "Plan every line of a movement at once; lines of the same item never share stock")
+    public ResponseEntity<List<FefoAllocationPlan>> allocateFefoBulk(@Valid @RequestBody FefoAllocationRequest request) {
+        log.info("REST request to plan FEFO allocation for {} lines", request.getLines().size());
+
+        return ResponseEntity.ok(lotService.allocateFefoBulk(request));
+    }
+
     // ========== UTILITY OPERATIONS ==========
 
     @GetMapping("/item/{itemId}/count")
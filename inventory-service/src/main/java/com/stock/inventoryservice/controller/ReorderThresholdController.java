@@ -0,0 +1,74 @@
+package com.stock.inventoryservice.controller;
+
+import com.stock.inventoryservice.dto.ReorderThresholdDTO;
+import com.stock.inventoryservice.dto.request.ReorderThresholdRequest;
+import com.stock.inventoryservice.service.ReorderThresholdService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/inventory/thresholds")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Reorder Thresholds", description = "Low-stock limits per item and location, with warehouse defaults")
+public class ReorderThresholdController {
+
+    private final ReorderThresholdService reorderThresholdService;
+
+    @PutMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER')")
+    @Operation(summary = "Set reorder threshold",
+            description = "Create or replace the threshold of an item at a location, an item, or a warehouse default")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Threshold set"),
+            @ApiResponse(responseCode = "400", description = "Missing identifiers, or min > reorder point > max")
+    })
+    public ResponseEntity<ReorderThresholdDTO> setThreshold(@Valid @RequestBody ReorderThresholdRequest request) {
+        log.info("REST request to set {} reorder threshold", request.getScope());
+
+        return ResponseEntity.ok(reorderThresholdService.upsert(request));
+    }
+
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'VIEWER')")
+    @Operation(summary = "Get all reorder thresholds", description = "Every stored threshold, by scope")
+    public ResponseEntity<List<ReorderThresholdDTO>> getAllThresholds() {
+        log.info("REST request to get all reorder thresholds");
+
+        return ResponseEntity.ok(reorderThresholdService.getAll());
+    }
+
+    @GetMapping("/effective")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF', 'VIEWER')")
+    @Operation(summary = "Get effective threshold",
+            description = "The threshold applied to an item at a location (the service default has no ID)")
+    public ResponseEntity<ReorderThresholdDTO> getEffectiveThreshold(
+            @Parameter(description = "Item ID", required = true) @RequestParam String itemId,
+            @Parameter(description = "Location ID", required = true) @RequestParam String locationId,
+            @Parameter(description = "Warehouse ID") @RequestParam(required = false) String warehouseId) {
+        log.info("REST request to get effective reorder threshold for item: {} at location: {}", itemId, locationId);
+
+        return ResponseEntity.ok(reorderThresholdService.getEffective(itemId, locationId, warehouseId));
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER')")
+    @Operation(summary = "Delete reorder threshold", description = "The next broader scope applies again")
+    public ResponseEntity<Void> deleteThreshold(@PathVariable String id) {
+        log.info("REST request to delete reorder threshold: {}", id);
+
+        reorderThresholdService.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.stock.inventoryservice.controller;
+
+import com.stock.inventoryservice.dto.ReservationDTO;
+import com.stock.inventoryservice.dto.request.ReservationCreateRequest;
+import com.stock.inventoryservice.service.StockReservationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/inventory/reservations")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Reservations", description = "Expiring stock holds on inventory rows")
+public class ReservationController {
+
+    private final StockReservationService stockReservationService;
+
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'ORDER_MANAGER')")
+    @Operation(summary = "Create reservation", description = "Hold quantity on an inventory row until released, fulfilled or expired")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Reservation created"),
+            @ApiResponse(responseCode = "400", description = "Insufficient stock"),
+            @ApiResponse(responseCode = "404", description = "Inventory not found"),
+            @ApiResponse(responseCode = "409", description = "Reservation already exists")
+    })
+    public ResponseEntity<ReservationDTO> createReservation(@Valid @RequestBody ReservationCreateRequest request) {
+        log.info("REST request to reserve {} on inventory: {}", request.getQuantity(), request.getInventoryId());
+
+        ReservationDTO created = stockReservationService.createReservation(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'ORDER_MANAGER', 'VIEWER')")
+    @Operation(summary = "Get reservation", description = "Retrieve a reservation by ID")
+    public ResponseEntity<ReservationDTO> getReservation(
+            @Parameter(description = "Reservation ID", required = true)
+            @PathVariable String id) {
+        log.info("REST request to get reservation: {}", id);
+
+        return ResponseEntity.ok(stockReservationService.getReservation(id));
+    }
+
+    @PostMapping("/{id}/release")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'ORDER_MANAGER')")
+    @Operation(summary = "Release reservation", description = "Give the held quantity back to available stock")
+    public ResponseEntity<ReservationDTO> releaseReservation(
+            @Parameter(description = "Reservation ID", required = true)
+            @PathVariable String id) {
+        log.info("REST request to release reservation: {}", id);
+
+        return ResponseEntity.ok(stockReservationService.releaseReservation(id));
+    }
+
+    @PostMapping("/{id}/fulfill")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'ORDER_MANAGER')")
+    @Operation(summary = "Fulfill reservation", description = "Deduct the held quantity from stock on hand")
+    public ResponseEntity<ReservationDTO> fulfillReservation(
+            @Parameter(description = "Reservation ID", required = true)
+            @PathVariable String id) {
+        log.info("REST request to fulfill reservation: {}", id);
+
+        return ResponseEntity.ok(stockReservationService.fulfillReservation(id));
+    }
+}
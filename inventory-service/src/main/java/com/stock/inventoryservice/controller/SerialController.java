@@ -1,5 +1,6 @@
 package com.stock.inventoryservice.controller;
 
+import com.stock.inventoryservice.dto.CursorPage;
 import com.stock.inventoryservice.dto.SerialDTO;
 import com.stock.inventoryservice.dto.request.SerialCreateRequest;
 import com.stock.inventoryservice.dto.request.SerialUpdateRequest;
@@ -172,6 +173,18 @@ public class SerialController {
         return ResponseEntity.ok(serials);
     }
 
+    @GetMapping(value = "/lot/{lotId}", params = "limit")
+    @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF', 'VIEWER')")
+    @Operation(summary = "Get serials by lot (keyset page)", description = "Retrieve one page of a lot's serials (recalls); pass nextCursor back as cursor")
+    public ResponseEntity<CursorPage<SerialDTO>> getSerialsPageByLot(
+            @PathVariable String lotId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam int limit) {
+        log.info("REST request to get serial page for lot: {} (limit: {})", lotId, limit);
+
+        return ResponseEntity.ok(serialService.getSerialsByLotIdPage(lotId, cursor, limit));
+    }
+
     @GetMapping("/location/{locationId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'WAREHOUSE_MANAGER', 'WAREHOUSE_STAFF', 'VIEWER')")
     @Operation(summary = "Get serials by location", description = "Retrieve all serials at a specific location")
@@ -0,0 +1,33 @@
+package com.stock.inventoryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Availability of each requested line, in request order
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityBatchResult {
+
+    private boolean allAvailable;
+    private List<Line> lines;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private String itemId;
+        private String locationId;
+        private Double requestedQuantity;
+        private Double availableQuantity;  // Summed over the location's rows (0 when there is no stock)
+        private boolean available;
+    }
+}
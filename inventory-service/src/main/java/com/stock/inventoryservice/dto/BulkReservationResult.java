@@ -0,0 +1,36 @@
+package com.stock.inventoryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk reservation, one line per requested line (request order)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkReservationResult {
+
+    private boolean committed;      // false: all-or-nothing request rolled back, nothing reserved
+    private int reservedLines;
+    private int failedLines;
+    private List<Line> lines;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private String inventoryId;
+        private Double requestedQuantity;
+        private boolean reserved;
+        private String reservationId;       // Hold created for this line (release/fulfill it by this ID)
+        private Double availableQuantity;   // After this line (before it, when it failed)
+        private String error;
+    }
+}
@@ -0,0 +1,37 @@
+package com.stock.inventoryservice.dto;
+
+import com.stock.inventoryservice.entity.CycleCountLineStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One batch of a cycle count session, lines in location order
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CycleCountBatchDTO {
+
+    private String sessionId;
+    private Integer batchNo;
+    private List<Line> lines;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private String inventoryId;
+        private String itemId;
+        private String locationId;
+        private Double bookQuantity;        // Frozen when the batch was cut
+        private Double countedQuantity;
+        private Double variance;            // Set on reconciliation
+        private CycleCountLineStatus status;
+    }
+}
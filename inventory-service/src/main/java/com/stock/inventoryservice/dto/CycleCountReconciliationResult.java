@@ -0,0 +1,25 @@
+package com.stock.inventoryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of reconciling one cycle count batch
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CycleCountReconciliationResult {
+
+    private String sessionId;
+    private Integer batchNo;
+    private int linesApplied;
+    private int linesSkipped;       // Not counted, or row deleted since the freeze
+    private int linesWithVariance;
+    private double netVariance;     // Sum of counted - book
+    private double absoluteVariance;
+    private long durationMs;
+}
@@ -0,0 +1,29 @@
+package com.stock.inventoryservice.dto;
+
+import com.stock.inventoryservice.entity.CycleCountSessionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CycleCountSessionDTO {
+
+    private String id;
+    private String warehouseId;
+    private LocalDate countedBefore;
+    private Integer batchSize;
+    private CycleCountSessionStatus status;
+    private Integer batchesFrozen;
+    private Long linesFrozen;
+    private Long linesApplied;
+    private Boolean exhausted;      // Every candidate has been frozen into a batch
+    private LocalDateTime createdAt;
+    private LocalDateTime closedAt;
+}
@@ -0,0 +1,40 @@
+package com.stock.inventoryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Picks that satisfy one line, earliest-expiring lot first
+ * Advisory: quantities are not held until they are reserved
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FefoAllocationPlan {
+
+    private String itemId;
+    private String warehouseId;
+    private Double requestedQuantity;
+    private Double allocatedQuantity;
+    private boolean fullyAllocated;
+    private List<Pick> picks;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Pick {
+        private String inventoryId;
+        private String lotId;
+        private LocalDate expiryDate;       // null = lot does not expire (picked last)
+        private String warehouseId;
+        private String locationId;
+        private Double quantity;
+    }
+}
@@ -0,0 +1,23 @@
+package com.stock.inventoryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One changed inventory row of the change feed
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryChangeDTO {
+
+    private String inventoryId;
+    private String changeType;          // UPSERT, DELETE
+    private LocalDateTime changedAt;
+    private InventoryDTO inventory;     // Current state; null when the row no longer exists
+}
@@ -0,0 +1,24 @@
+package com.stock.inventoryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of the inventory change feed
+ * Pass token back as ?since= for the next poll (it is returned even when nothing changed)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryChangePage {
+
+    private List<InventoryChangeDTO> changes;
+    private int size;
+    private boolean hasMore;    // More changes are ready: poll again right away
+    private String token;
+}
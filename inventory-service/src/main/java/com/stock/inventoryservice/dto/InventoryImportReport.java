@@ -0,0 +1,40 @@
+package com.stock.inventoryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of POST /api/inventory/import
+ * Only the first rejected rows are listed (errorsTruncated tells whether there were more)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryImportReport {
+
+    private String importId;
+    private long rowsRead;
+    private long rowsInserted;
+    private long rowsUpdated;
+    private long rowsFailed;
+    private int chunks;
+    private long durationMs;
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;           // 1-based data row (CSV header and blank lines not counted)
+        private String itemId;
+        private String locationId;
+        private String message;
+    }
+}
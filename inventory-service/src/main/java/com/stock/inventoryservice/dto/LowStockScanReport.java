@@ -0,0 +1,26 @@
+package com.stock.inventoryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Result of a (possibly resumed) low-stock scan
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LowStockScanReport {
+
+    private String scanId;
+    private boolean resumed;        // Continued an interrupted scan from its checkpoints
+    private int partitions;
+    private long rowsMatched;       // Rows below the warning threshold
+    private long alertsRaised;
+    private long durationMs;
+    private LocalDateTime completedAt;
+}
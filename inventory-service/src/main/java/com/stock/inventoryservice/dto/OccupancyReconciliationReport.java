@@ -0,0 +1,26 @@
+package com.stock.inventoryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Result of rebuilding the location_occupancy aggregate from inventory
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OccupancyReconciliationReport {
+
+    private int chunksProcessed;
+    private int locationsChecked;
+    private int locationsDrifted;   // Rows whose stored total differed from inventory
+    private int orphansCleared;     // Rows reset to 0 because the location has no inventory
+    private Double totalAbsoluteDrift;
+    private long durationMs;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,26 @@
+package com.stock.inventoryservice.dto;
+
+import com.stock.inventoryservice.entity.ReorderThresholdScope;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReorderThresholdDTO {
+
+    private String id;              // Null for the service-wide default
+    private ReorderThresholdScope scope; // Null for the service-wide default
+    private String itemId;
+    private String locationId;
+    private String warehouseId;
+    private Double minQuantity;
+    private Double reorderPoint;
+    private Double maxQuantity;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,26 @@
+package com.stock.inventoryservice.dto;
+
+import com.stock.inventoryservice.entity.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationDTO {
+
+    private String id;
+    private String inventoryId;
+    private Double quantity;
+    private ReservationStatus status;
+    private String referenceType;
+    private String referenceId;
+    private LocalDateTime expiresAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
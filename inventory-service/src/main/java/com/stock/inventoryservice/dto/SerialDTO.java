@@ -19,6 +19,7 @@ public class SerialDTO {
     private String code;
     private String itemId;
     private String serialNumber;
+    private String lotId;
     private SerialStatus status;
     private String locationId;
     private LocalDateTime createdAt;
@@ -0,0 +1,24 @@
+package com.stock.inventoryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Result of rebuilding the item / (item, warehouse) stock summaries from inventory
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockSummaryReconciliationReport {
+
+    private int chunksProcessed;
+    private int itemsChecked;
+    private int itemsDrifted;       // Items whose stored totals differed from inventory
+    private long durationMs;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,45 @@
+package com.stock.inventoryservice.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request to check availability of many (item, location, quantity) lines at once
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityBatchRequest {
+
+    @NotEmpty(message = "At least one line is required")
+    @Size(max = 5000, message = "At most 5000 lines per request")
+    private List<@Valid Line> lines;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+
+        @NotBlank(message = "Item ID is required")
+        private String itemId;
+
+        @NotBlank(message = "Location ID is required")
+        private String locationId;
+
+        @NotNull(message = "Requested quantity is required")
+        @PositiveOrZero(message = "Requested quantity cannot be negative")
+        private Double requestedQuantity;
+    }
+}
@@ -0,0 +1,56 @@
+package com.stock.inventoryservice.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request to reserve many inventory rows in one transaction (e.g. an order release wave)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkReservationRequest {
+
+    private String referenceType; // ORDER, TRANSFER, PRODUCTION
+
+    private String referenceId; // Order ID, wave ID, etc.
+
+    /**
+     * true: reserve every line or none of them
+     * false: reserve the lines that fit and report the others
+     */
+    @Builder.Default
+    private Boolean allOrNothing = true;
+
+    @Positive(message = "TTL must be positive")
+    private Long ttlSeconds; // Hold duration, service default when absent
+
+    @NotEmpty(message = "At least one line is required")
+    @Size(max = 5000, message = "At most 5000 lines per request")
+    private List<@Valid Line> lines;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+
+        @NotBlank(message = "Inventory ID is required")
+        private String inventoryId;
+
+        @NotNull(message = "Quantity to reserve is required")
+        @Positive(message = "Quantity to reserve must be positive")
+        private Double quantity;
+    }
+}
@@ -0,0 +1,30 @@
+package com.stock.inventoryservice.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Request to open a cycle count session over one warehouse
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CycleCountSessionCreateRequest {
+
+    @NotBlank(message = "Warehouse ID is required")
+    private String warehouseId;
+
+    private LocalDate countedBefore; // Rows last counted before this day (or never); today when absent
+
+    @Min(value = 1, message = "Batch size must be at least 1")
+    @Max(value = 5000, message = "Batch size must be at most 5000")
+    private Integer batchSize; // Rows per batch, service default when absent
+}
@@ -0,0 +1,42 @@
+package com.stock.inventoryservice.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Counted quantities for lines of one batch (partial submissions and recounts are allowed)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CycleCountSubmitRequest {
+
+    @NotEmpty(message = "At least one count is required")
+    @Size(max = 10000, message = "At most 10000 counts per request")
+    private List<@Valid Count> counts;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Count {
+
+        @NotBlank(message = "Inventory ID is required")
+        private String inventoryId;
+
+        @NotNull(message = "Counted quantity is required")
+        @Min(value = 0, message = "Counted quantity cannot be negative")
+        private Double countedQuantity;
+    }
+}
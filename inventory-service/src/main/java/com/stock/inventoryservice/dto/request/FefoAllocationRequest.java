@@ -0,0 +1,45 @@
+package com.stock.inventoryservice.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request to plan FEFO picks for every line of a movement at once
+ * Lines of the same item draw from the same stock (nothing is allocated twice)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FefoAllocationRequest {
+
+    @NotEmpty(message = "At least one line is required")
+    @Size(max = 1000, message = "At most 1000 lines per request")
+    private List<@Valid Line> lines;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+
+        @NotBlank(message = "Item ID is required")
+        private String itemId;
+
+        private String warehouseId; // Any warehouse when absent
+
+        @NotNull(message = "Quantity is required")
+        @Positive(message = "Quantity must be positive")
+        private Double quantity;
+    }
+}
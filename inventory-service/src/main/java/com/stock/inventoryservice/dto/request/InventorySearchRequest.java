@@ -1,8 +1,15 @@
 package com.stock.inventoryservice.dto.request;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.*;
 import java.time.LocalDateTime;
 
+/**
+ * Criteria for POST /api/inventory/search
+ * Every criterion is optional; only those supplied become predicates
+ */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -11,10 +18,28 @@ public class InventorySearchRequest {
     private String itemVariantId;
     private String locationId;
     private String warehouseId;
+    private String lotId;
     private String lotNumber;
     private String serialNumber;
     private String status;
-    private LocalDateTime expirationDateFrom;
-    private LocalDateTime expirationDateTo;
-    private Boolean lowStock;
+    private LocalDateTime expirationDateFrom;   // Inclusive, compared by day
+    private LocalDateTime expirationDateTo;     // Inclusive, compared by day
+    private Boolean lowStock;                   // Available below lowStockThreshold (AVAILABLE rows)
+
+    @PositiveOrZero
+    private Double lowStockThreshold;           // Defaults to inventory.low-stock.warning-threshold
+
+    @PositiveOrZero
+    private Double minQuantityOnHand;
+    @PositiveOrZero
+    private Double maxQuantityOnHand;
+    private Double minAvailableQuantity;
+    private Double maxAvailableQuantity;
+
+    // Keyset pagination: pass nextCursor back as cursor
+    private String cursor;
+
+    @Min(1)
+    @Max(1000)
+    private Integer limit;                      // Defaults to 100
 }
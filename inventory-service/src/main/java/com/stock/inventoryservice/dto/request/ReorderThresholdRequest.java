@@ -0,0 +1,38 @@
+package com.stock.inventoryservice.dto.request;
+
+import com.stock.inventoryservice.entity.ReorderThresholdScope;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Create or replace the threshold of one scope
+ * ITEM_LOCATION needs itemId and locationId, ITEM needs itemId, WAREHOUSE needs warehouseId
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReorderThresholdRequest {
+
+    @NotNull(message = "Scope is required")
+    private ReorderThresholdScope scope;
+
+    private String itemId;
+    private String locationId;
+    private String warehouseId;
+
+    @NotNull(message = "Minimum quantity is required")
+    @PositiveOrZero(message = "Minimum quantity cannot be negative")
+    private Double minQuantity;
+
+    @NotNull(message = "Reorder point is required")
+    @PositiveOrZero(message = "Reorder point cannot be negative")
+    private Double reorderPoint;
+
+    @PositiveOrZero(message = "Maximum quantity cannot be negative")
+    private Double maxQuantity; // Optional; at least the reorder point when present
+}
@@ -0,0 +1,37 @@
+package com.stock.inventoryservice.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request to place a hold on an inventory row
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationCreateRequest {
+
+    @Size(max = 100, message = "Reservation ID must be 100 characters or less")
+    private String reservationId; // Generated when absent
+
+    @NotBlank(message = "Inventory ID is required")
+    private String inventoryId;
+
+    @NotNull(message = "Quantity to reserve is required")
+    @Positive(message = "Quantity to reserve must be positive")
+    private Double quantity;
+
+    private String referenceType; // ORDER, TRANSFER, PRODUCTION
+
+    private String referenceId;
+
+    @Positive(message = "TTL must be positive")
+    private Long ttlSeconds; // Service default when absent
+}
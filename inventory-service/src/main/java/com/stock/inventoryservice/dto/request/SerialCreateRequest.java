@@ -28,4 +28,6 @@ public class SerialCreateRequest {
     private SerialStatus status;
 
     private String locationId;
+
+    private String lotId;
 }
@@ -19,4 +19,6 @@ public class SerialUpdateRequest {
     private SerialStatus status;
 
     private String locationId;
+
+    private String lotId;
 }
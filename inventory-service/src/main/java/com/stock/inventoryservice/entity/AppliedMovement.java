@@ -0,0 +1,29 @@
+package com.stock.inventoryservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A movement.completed event already applied to inventory.
+ * Claimed in the transaction that applies the movement, so a redelivered
+ * movement (retried batch, rebalance) is skipped instead of applied twice.
+ */
+@Entity
+@Table(name = "applied_movement", indexes = {
+        @Index(name = "idx_applied_movement_applied_at", columnList = "applied_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppliedMovement {
+
+    @Id
+    @Column(name = "movement_id", length = 36)
+    private String movementId; // → Movement Service
+
+    @Column(name = "applied_at", nullable = false)
+    private LocalDateTime appliedAt;
+}
@@ -0,0 +1,65 @@
+package com.stock.inventoryservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One inventory row of a cycle count batch, with its book quantity frozen when the batch was cut.
+ * Lines are written set-based (CycleCountBatchRepository); this mapping is for reads.
+ */
+@Entity
+@Table(name = "cycle_count_line", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_cycle_count_line_session_inventory", columnNames = {"session_id", "inventory_id"})
+}, indexes = {
+        @Index(name = "idx_cycle_count_line_batch", columnList = "session_id, batch_no, location_id, inventory_id"),
+        @Index(name = "idx_cycle_count_line_session_status", columnList = "session_id, status")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CycleCountLine {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "session_id", nullable = false, length = 36)
+    private String sessionId; // → CycleCountSession
+
+    @Column(name = "batch_no", nullable = false)
+    private Integer batchNo;
+
+    @Column(name = "inventory_id", nullable = false, length = 36)
+    private String inventoryId; // → Inventory table (same service)
+
+    @Column(name = "item_id", nullable = false, length = 36)
+    private String itemId;
+
+    @Column(name = "location_id", nullable = false, length = 36)
+    private String locationId;
+
+    @Column(name = "book_quantity", nullable = false)
+    private Double bookQuantity; // Quantity on hand when the batch was frozen
+
+    @Column(name = "book_version", nullable = false)
+    private Long bookVersion;
+
+    @Column(name = "counted_quantity")
+    private Double countedQuantity;
+
+    @Column
+    private Double variance; // counted - book, set on reconciliation
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private CycleCountLineStatus status;
+
+    @Column(name = "counted_at")
+    private LocalDateTime countedAt;
+
+    @Column(name = "applied_at")
+    private LocalDateTime appliedAt;
+}
@@ -0,0 +1,8 @@
+package com.stock.inventoryservice.entity;
+
+public enum CycleCountLineStatus {
+    PENDING,        // Book quantity frozen, waiting for a count
+    COUNTED,        // Count submitted (may still be recounted)
+    APPLIED,        // Variance posted to the inventory row
+    SKIPPED         // Not counted, or the row was deleted before reconciliation
+}
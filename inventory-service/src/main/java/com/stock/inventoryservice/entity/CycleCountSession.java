@@ -0,0 +1,74 @@
+package com.stock.inventoryservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A cycle count of one warehouse: rows not counted since countedBefore are frozen
+ * into batches (location order) one batch at a time, counted, then reconciled per batch.
+ * (lastLocationId, lastInventoryId) is the keyset cursor of the next batch.
+ */
+@Entity
+@Table(name = "cycle_count_session", indexes = {
+        @Index(name = "idx_cycle_count_session_warehouse_status", columnList = "warehouse_id, status")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CycleCountSession {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Version
+    private Long version;
+
+    @Column(name = "warehouse_id", nullable = false, length = 36)
+    private String warehouseId; // → Location Service
+
+    @Column(name = "counted_before", nullable = false)
+    private LocalDate countedBefore; // Rows last counted before this day (or never) are candidates
+
+    @Column(name = "batch_size", nullable = false)
+    private Integer batchSize;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private CycleCountSessionStatus status;
+
+    @Column(name = "batches_frozen", nullable = false)
+    private Integer batchesFrozen;
+
+    @Column(name = "lines_frozen", nullable = false)
+    private Long linesFrozen;
+
+    @Column(name = "lines_applied", nullable = false)
+    private Long linesApplied;
+
+    @Column(name = "last_location_id", nullable = false, length = 36)
+    private String lastLocationId; // "" before the first batch
+
+    @Column(name = "last_inventory_id", nullable = false, length = 36)
+    private String lastInventoryId;
+
+    @Column(nullable = false)
+    private Boolean exhausted; // Every candidate has been frozen into a batch
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "closed_at")
+    private LocalDateTime closedAt;
+}
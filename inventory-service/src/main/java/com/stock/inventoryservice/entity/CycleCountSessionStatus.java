@@ -0,0 +1,6 @@
+package com.stock.inventoryservice.entity;
+
+public enum CycleCountSessionStatus {
+    OPEN,           // Batches can be frozen, counted and reconciled
+    COMPLETED       // Closed; lines never counted were skipped
+}
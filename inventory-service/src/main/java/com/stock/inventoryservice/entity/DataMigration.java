@@ -0,0 +1,25 @@
+package com.stock.inventoryservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Completion marker of a one-off online data migration (one row per migration, by name)
+ */
+@Entity
+@Table(name = "data_migration")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DataMigration {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,28 @@
+package com.stock.inventoryservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Single row: the day whose start was last processed by the expiry calendar.
+ * Shared by every instance, so each day boundary is published once, by whichever
+ * instance moves lastBoundary forward first.
+ */
+@Entity
+@Table(name = "expiry_boundary")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExpiryBoundary {
+
+    public static final int SINGLETON_ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "last_boundary", nullable = false)
+    private LocalDate lastBoundary;
+}
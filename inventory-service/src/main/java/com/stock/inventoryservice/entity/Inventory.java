@@ -11,10 +11,19 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "inventory", indexes = {
-        @Index(name = "idx_item_id", columnList = "item_id"),
-        @Index(name = "idx_location_id", columnList = "location_id"),
-        @Index(name = "idx_item_location", columnList = "item_id, location_id")
+@Table(name = "inventory", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_inventory_item_location", columnNames = {"item_id", "location_id"}) // import upsert key
+}, indexes = {
+        @Index(name = "idx_warehouse_id_id", columnList = "warehouse_id, id"),   // keyset pages per warehouse
+        @Index(name = "idx_location_id_id", columnList = "location_id, id"),     // keyset pages per location
+        @Index(name = "idx_warehouse_location_id", columnList = "warehouse_id, location_id, id"), // cycle count batches
+        @Index(name = "idx_inventory_serial_id", columnList = "serial_id"),     // serial lot backfill
+        // Search (POST /search): equality criteria first, id last for keyset order
+        @Index(name = "idx_item_id_id", columnList = "item_id, id"),
+        @Index(name = "idx_item_warehouse_id_id", columnList = "item_id, warehouse_id, id"),
+        @Index(name = "idx_warehouse_status_id", columnList = "warehouse_id, status, id"),
+        @Index(name = "idx_inventory_lot_id_id", columnList = "lot_id, id"),
+        @Index(name = "idx_inventory_expiry_date", columnList = "expiry_date")
 })
 @Data
 @NoArgsConstructor
@@ -105,6 +114,6 @@ public class Inventory {
 
     @Transient
     public Double getAvailableQuantity() {
-        return quantityOnHand - quantityReserved;
+        return Quantities.subtract(quantityOnHand, quantityReserved);
     }
 }
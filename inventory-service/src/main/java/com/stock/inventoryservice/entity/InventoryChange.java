@@ -0,0 +1,40 @@
+package com.stock.inventoryservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the inventory change feed (GET /api/inventory/changes).
+ * Written in the same transaction as the inventory change; entries are read
+ * in (txid, sequence) order and only once their transaction is complete.
+ */
+@Entity
+@Table(name = "inventory_change", indexes = {
+        @Index(name = "idx_inventory_change_txid_seq", columnList = "txid, seq"),  // feed order
+        @Index(name = "idx_inventory_change_changed_at", columnList = "changed_at")     // retention purge
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "seq")
+    private Long sequence;
+
+    @Column(name = "txid", nullable = false)
+    private Long txid; // Postgres transaction id of the writer (pg_current_xact_id)
+
+    @Column(name = "inventory_id", nullable = false, length = 36)
+    private String inventoryId;
+
+    @Column(name = "change_type", nullable = false, length = 20)
+    private String changeType; // UPSERT, DELETE
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+}
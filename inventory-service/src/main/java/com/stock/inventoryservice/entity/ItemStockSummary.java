@@ -0,0 +1,42 @@
+package com.stock.inventoryservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running stock totals per item, across all warehouses.
+ * Maintained by delta in the same transaction as each inventory quantity change,
+ * so item totals are a single keyed read instead of a SUM over every location.
+ */
+@Entity
+@Table(name = "item_stock_summary")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ItemStockSummary {
+
+    @Id
+    @Column(name = "item_id", length = 36)
+    private String itemId; // → Product Service
+
+    @Column(name = "quantity_on_hand", nullable = false)
+    private Double quantityOnHand;
+
+    @Column(name = "quantity_reserved", nullable = false)
+    private Double quantityReserved;
+
+    @Column(name = "quantity_damaged", nullable = false)
+    private Double quantityDamaged;
+
+    @Column(name = "quantity_available", nullable = false)
+    private Double quantityAvailable; // On hand minus reserved, AVAILABLE rows only
+
+    @Column(name = "location_count", nullable = false)
+    private Long locationCount; // Inventory rows with stock on hand
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
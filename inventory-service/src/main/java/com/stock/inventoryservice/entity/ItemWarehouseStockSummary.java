@@ -0,0 +1,54 @@
+package com.stock.inventoryservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Running stock totals per (item, warehouse), maintained like ItemStockSummary
+ */
+@Entity
+@Table(name = "item_warehouse_stock_summary")
+@IdClass(ItemWarehouseStockSummary.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ItemWarehouseStockSummary {
+
+    @Id
+    @Column(name = "item_id", length = 36)
+    private String itemId; // → Product Service
+
+    @Id
+    @Column(name = "warehouse_id", length = 36)
+    private String warehouseId; // → Location Service
+
+    @Column(name = "quantity_on_hand", nullable = false)
+    private Double quantityOnHand;
+
+    @Column(name = "quantity_reserved", nullable = false)
+    private Double quantityReserved;
+
+    @Column(name = "quantity_damaged", nullable = false)
+    private Double quantityDamaged;
+
+    @Column(name = "quantity_available", nullable = false)
+    private Double quantityAvailable; // On hand minus reserved, AVAILABLE rows only
+
+    @Column(name = "location_count", nullable = false)
+    private Long locationCount; // Inventory rows with stock on hand
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String itemId;
+        private String warehouseId;
+    }
+}
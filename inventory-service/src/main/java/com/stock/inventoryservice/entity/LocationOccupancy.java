@@ -0,0 +1,31 @@
+package com.stock.inventoryservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running total of quantity on hand per location.
+ * Maintained by delta in the same transaction as each inventory quantity change,
+ * so location capacity checks are a single keyed read instead of a scan.
+ */
+@Entity
+@Table(name = "location_occupancy")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LocationOccupancy {
+
+    @Id
+    @Column(name = "location_id", length = 36)
+    private String locationId; // → Location Service
+
+    @Builder.Default
+    @Column(name = "total_quantity", nullable = false)
+    private Double totalQuantity = 0.0;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,50 @@
+package com.stock.inventoryservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of one key-range partition of the low-stock scan.
+ * Saved after every chunk so an interrupted scan resumes where it stopped.
+ */
+@Entity
+@Table(name = "low_stock_scan_checkpoint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LowStockScanCheckpoint {
+
+    @Id
+    @Column(name = "partition_no")
+    private Integer partitionNo;
+
+    @Column(name = "scan_id", nullable = false, length = 36)
+    private String scanId;
+
+    @Column(name = "range_start", nullable = false, length = 36)
+    private String rangeStart; // inclusive lower bound of inventory ids
+
+    @Column(name = "range_end", length = 36)
+    private String rangeEnd;   // exclusive upper bound (null = open-ended)
+
+    @Column(name = "last_id", nullable = false, length = 36)
+    private String lastId;     // keyset cursor: last inventory id processed
+
+    @Column(name = "rows_matched", nullable = false)
+    private Long rowsMatched;
+
+    @Column(name = "alerts_raised", nullable = false)
+    private Long alertsRaised;
+
+    @Column(nullable = false)
+    private Boolean completed;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
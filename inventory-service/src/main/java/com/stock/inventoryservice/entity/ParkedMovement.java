@@ -0,0 +1,42 @@
+package com.stock.inventoryservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A movement.completed event that could not be applied (unknown type, missing stock row, ...)
+ * Kept with its payload for inspection and replay; its applied_movement claim is released,
+ * so replaying the same movement id applies it.
+ */
+@Entity
+@Table(name = "parked_movement", indexes = {
+        @Index(name = "idx_parked_movement_parked_at", columnList = "parked_at"),
+        @Index(name = "idx_parked_movement_movement_id", columnList = "movement_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ParkedMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(name = "movement_id", length = 36)
+    private String movementId; // → Movement Service
+
+    @Column(name = "movement_type", length = 50)
+    private String movementType;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    @Column(name = "parked_at", nullable = false)
+    private LocalDateTime parkedAt;
+}
@@ -0,0 +1,64 @@
+package com.stock.inventoryservice.entity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point arithmetic for inventory quantities
+ *
+ * - Quantities are counted in micro-units (1 unit = 1_000_000) as primitive longs, so
+ *   sums and differences are exact
+ * - Results are handed back as the double nearest to that micro-unit count; the columns
+ *   and the entity fields keep their Double type (setters still box), but every written
+ *   value is a whole number of micro-units and repeated movements can no longer drift
+ *   (exact up to ~9 billion units)
+ * - One scale for every unit of measure; this is a rounding helper, not a per-UOM
+ *   quantity type
+ * - null counts as zero
+ */
+public final class Quantities {
+
+    public static final int SCALE_DIGITS = 6;
+    public static final long SCALE = 1_000_000L;
+
+    private Quantities() {
+    }
+
+    public static long toMicros(Double quantity) {
+        return quantity != null ? Math.round(quantity * SCALE) : 0L;
+    }
+
+    public static long toMicros(BigDecimal quantity) {
+        return quantity != null ? quantity.setScale(SCALE_DIGITS, RoundingMode.HALF_UP).unscaledValue().longValueExact() : 0L;
+    }
+
+    public static double fromMicros(long micros) {
+        return (double) micros / SCALE;
+    }
+
+    /**
+     * The quantity rounded to whole micro-units
+     */
+    public static double of(Double quantity) {
+        return fromMicros(toMicros(quantity));
+    }
+
+    public static double of(BigDecimal quantity) {
+        return fromMicros(toMicros(quantity));
+    }
+
+    public static double add(Double quantity, Double delta) {
+        return fromMicros(toMicros(quantity) + toMicros(delta));
+    }
+
+    public static double subtract(Double quantity, Double delta) {
+        return fromMicros(toMicros(quantity) - toMicros(delta));
+    }
+
+    /**
+     * quantity - delta, never below zero (e.g. shipping more than was reserved)
+     */
+    public static double subtractToZero(Double quantity, Double delta) {
+        return fromMicros(Math.max(0L, toMicros(quantity) - toMicros(delta)));
+    }
+}
@@ -0,0 +1,84 @@
+package com.stock.inventoryservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock limits of an item at a location, of an item everywhere, or of a warehouse (default).
+ * Available stock below reorderPoint is low (WARNING), below minQuantity critical;
+ * maxQuantity is the level to reorder up to.
+ * scopeKey is unique per scope, so each scope holds at most one threshold.
+ */
+@Entity
+@Table(name = "reorder_threshold", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_reorder_threshold_scope_key", columnNames = "scope_key")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReorderThreshold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReorderThresholdScope scope;
+
+    @Column(name = "scope_key", nullable = false, length = 120)
+    private String scopeKey;
+
+    @Column(name = "item_id", length = 36)
+    private String itemId; // → Product Service (ITEM_LOCATION, ITEM)
+
+    @Column(name = "location_id", length = 36)
+    private String locationId; // → Location Service (ITEM_LOCATION)
+
+    @Column(name = "warehouse_id", length = 36)
+    private String warehouseId; // → Location Service (WAREHOUSE)
+
+    @Column(name = "min_quantity", nullable = false)
+    private Double minQuantity;
+
+    @Column(name = "reorder_point", nullable = false)
+    private Double reorderPoint;
+
+    @Column(name = "max_quantity")
+    private Double maxQuantity;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public StockAlertLevel levelOf(double available) {
+        if (available < minQuantity) {
+            return StockAlertLevel.CRITICAL;
+        }
+        return available < reorderPoint ? StockAlertLevel.WARNING : StockAlertLevel.NORMAL;
+    }
+
+    /**
+     * Quantity that brings available stock back up to maxQuantity (the reorder point when unset)
+     */
+    public double reorderQuantity(double available) {
+        return Math.max(0.0, (maxQuantity != null ? maxQuantity : reorderPoint) - available);
+    }
+
+    public static String scopeKey(ReorderThresholdScope scope, String itemId, String locationId, String warehouseId) {
+        return switch (scope) {
+            case ITEM_LOCATION -> scope.name() + ":" + itemId + "|" + locationId;
+            case ITEM -> scope.name() + ":" + itemId;
+            case WAREHOUSE -> scope.name() + ":" + warehouseId;
+        };
+    }
+}
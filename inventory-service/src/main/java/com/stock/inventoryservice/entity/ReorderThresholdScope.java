@@ -0,0 +1,10 @@
+package com.stock.inventoryservice.entity;
+
+/**
+ * What a reorder threshold applies to, most specific first
+ */
+public enum ReorderThresholdScope {
+    ITEM_LOCATION,  // One item at one location
+    ITEM,           // One item at every location
+    WAREHOUSE       // Default for every item in a warehouse
+}
@@ -0,0 +1,58 @@
+package com.stock.inventoryservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A hold of quantity on one inventory row (counted in Inventory.quantityReserved)
+ * ACTIVE holds are released automatically once expires_at has passed
+ */
+@Entity
+@Table(name = "reservation", indexes = {
+        @Index(name = "idx_reservation_status_expires", columnList = "status, expires_at, reservation_id"), // expiry rebuild
+        @Index(name = "idx_reservation_inventory_id", columnList = "inventory_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Reservation {
+
+    @Id
+    @Column(name = "reservation_id", length = 100)
+    private String id;
+
+    @Version
+    private Long version;
+
+    @Column(name = "inventory_id", nullable = false, length = 36)
+    private String inventoryId; // → Inventory table (same service)
+
+    @Column(nullable = false)
+    private Double quantity; // Still held (decreases on partial release)
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReservationStatus status;
+
+    @Column(name = "reference_type", length = 50)
+    private String referenceType; // ORDER, TRANSFER, PRODUCTION
+
+    @Column(name = "reference_id", length = 100)
+    private String referenceId;
+
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt; // null = never expires
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,8 @@
+package com.stock.inventoryservice.entity;
+
+public enum ReservationStatus {
+    ACTIVE,         // Quantity is held on the inventory row
+    RELEASED,       // Hold given back by the caller
+    FULFILLED,      // Hold consumed (stock shipped/issued)
+    EXPIRED         // Hold reclaimed after its TTL
+}
@@ -11,7 +11,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "serials", indexes = {
         @Index(name = "idx_serial_item", columnList = "item_id"),
-        @Index(name = "idx_serial_number", columnList = "serial_number")
+        @Index(name = "idx_serial_number", columnList = "serial_number"),
+        @Index(name = "idx_serial_lot_id", columnList = "lot_id, id")   // lot scans / recalls, keyset by id
 })
 @Data
 @NoArgsConstructor
@@ -33,6 +34,9 @@ public class Serial {
     @Column(name = "serial_number", nullable = false, unique = true, length = 100)
     private String serialNumber;
 
+    @Column(name = "lot_id", length = 36)
+    private String lotId; // → Lot table (same service)
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 50)
     private SerialStatus status;
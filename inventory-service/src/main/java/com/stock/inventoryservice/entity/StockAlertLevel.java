@@ -0,0 +1,10 @@
+package com.stock.inventoryservice.entity;
+
+/**
+ * Where available stock stands against its reorder threshold, least severe first
+ */
+public enum StockAlertLevel {
+    NORMAL,     // At or above the reorder point
+    WARNING,    // Below the reorder point
+    CRITICAL    // Below the minimum
+}
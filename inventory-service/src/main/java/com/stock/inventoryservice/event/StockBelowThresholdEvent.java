@@ -16,12 +16,18 @@ public class StockBelowThresholdEvent implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    private String inventoryId;
     private String itemId;
     private String locationId;
     private String warehouseId;
-    private Double currentQuantity;
-    private Double threshold;
+    private Double currentQuantity;  // Available (on hand - reserved)
+    private Double threshold;        // Boundary crossed: reorder point (WARNING) or minimum (CRITICAL)
     private String alertLevel; // WARNING, CRITICAL
+    private String previousAlertLevel; // NORMAL, WARNING
+    private Double minQuantity;
+    private Double reorderPoint;
+    private Double maxQuantity;
+    private Double reorderQuantity;  // Brings available stock back up to maxQuantity
     private String itemName;
     private String itemSku;
     private LocalDateTime timestamp;
@@ -0,0 +1,67 @@
+package com.stock.inventoryservice.event.consumer;
+
+import com.stock.inventoryservice.event.dto.InventoryEvent;
+import com.stock.inventoryservice.event.dto.InventoryImportedEvent;
+import com.stock.inventoryservice.service.AvailabilityIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+/**
+ * Kafka consumer that feeds committed inventory changes into the ATP index.
+ * Every instance uses its own consumer group so each index sees every change,
+ * including the ones written by other instances.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AvailabilityIndexEventConsumer {
+
+    private final AvailabilityIndex availabilityIndex;
+
+    /**
+     * Listen to every inventory topic (records are keyed by inventory ID)
+     */
+    @KafkaListener(
+            topics = {"inventory.created", "inventory.updated", "inventory.deleted", "inventory.adjusted",
+                    "inventory.reserved", "inventory.released", "inventory.transferred"},
+            groupId = "inventory-service-atp-${random.uuid}",
+            containerFactory = "inventoryEventListenerContainerFactory"
+    )
+    public void handleInventoryChanged(
+            @Payload InventoryEvent event,
+            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic
+    ) {
+        log.debug("Indexing {} event for inventory: {}", topic, event.getInventoryId());
+
+        try {
+            availabilityIndex.apply(event);
+        } catch (Exception e) {
+            log.error("❌ Error indexing {} event for inventory: {}", topic, event.getInventoryId(), e);
+        }
+    }
+
+    /**
+     * Bulk import chunks carry the resulting state of each row
+     */
+    @KafkaListener(
+            topics = "inventory.imported",
+            groupId = "inventory-service-atp-imports-${random.uuid}",
+            containerFactory = "inventoryImportListenerContainerFactory"
+    )
+    public void handleInventoryImported(@Payload InventoryImportedEvent event) {
+        log.debug("Indexing import chunk {} of {} ({} rows)", event.getChunk(), event.getImportId(), event.getRows().size());
+
+        for (InventoryEvent row : event.getRows()) {
+            try {
+                availabilityIndex.apply(row);
+            } catch (Exception e) {
+                log.error("❌ Error indexing imported row for inventory: {}", row.getInventoryId(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.stock.inventoryservice.event.consumer;
+
+import com.stock.inventoryservice.event.dto.InventoryEvent;
+import com.stock.inventoryservice.event.dto.InventoryImportedEvent;
+import com.stock.inventoryservice.event.dto.LotEvent;
+import com.stock.inventoryservice.service.ExpiryCalendar;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+/**
+ * Kafka consumer that keeps the expiry calendar's day buckets current.
+ * Every instance uses its own consumer groups so each calendar sees every change.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExpiryCalendarEventConsumer {
+
+    private final ExpiryCalendar expiryCalendar;
+
+    @KafkaListener(
+            topics = {"inventory.created", "inventory.updated", "inventory.deleted", "inventory.adjusted",
+                    "inventory.reserved", "inventory.released", "inventory.transferred"},
+            groupId = "inventory-service-expiry-${random.uuid}",
+            containerFactory = "inventoryEventListenerContainerFactory"
+    )
+    public void handleInventoryChanged(
+            @Payload InventoryEvent event,
+            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic
+    ) {
+        log.debug("Applying {} event to expiry calendar for inventory: {}", topic, event.getInventoryId());
+
+        try {
+            expiryCalendar.apply(event);
+        } catch (Exception e) {
+            log.error("❌ Error applying {} event to expiry calendar for inventory: {}", topic, event.getInventoryId(), e);
+        }
+    }
+
+    @KafkaListener(
+            topics = {"lot.created", "lot.updated", "lot.deleted", "lot.status.changed"},
+            groupId = "inventory-service-expiry-lots-${random.uuid}",
+            containerFactory = "lotEventListenerContainerFactory"
+    )
+    public void handleLotChanged(
+            @Payload LotEvent event,
+            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic
+    ) {
+        log.debug("Applying {} event to expiry calendar for lot: {}", topic, event.getLotId());
+
+        try {
+            expiryCalendar.apply(event);
+        } catch (Exception e) {
+            log.error("❌ Error applying {} event to expiry calendar for lot: {}", topic, event.getLotId(), e);
+        }
+    }
+
+    /**
+     * Bulk import chunks carry the resulting state of each row
+     */
+    @KafkaListener(
+            topics = "inventory.imported",
+            groupId = "inventory-service-expiry-imports-${random.uuid}",
+            containerFactory = "inventoryImportListenerContainerFactory"
+    )
+    public void handleInventoryImported(@Payload InventoryImportedEvent event) {
+        log.debug("Applying import chunk {} of {} ({} rows)", event.getChunk(), event.getImportId(), event.getRows().size());
+
+        for (InventoryEvent row : event.getRows()) {
+            try {
+                expiryCalendar.apply(row);
+            } catch (Exception e) {
+                log.error("❌ Error applying imported row for inventory: {}", row.getInventoryId(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.stock.inventoryservice.event.consumer;
+
+import com.stock.inventoryservice.event.dto.InventoryEvent;
+import com.stock.inventoryservice.event.dto.InventoryImportedEvent;
+import com.stock.inventoryservice.event.dto.LotEvent;
+import com.stock.inventoryservice.service.FefoLotAllocator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+/**
+ * Kafka consumer that keeps the FEFO allocator's lot queues current.
+ * Every instance uses its own consumer groups so each allocator sees every change.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FefoAllocationEventConsumer {
+
+    private final FefoLotAllocator fefoLotAllocator;
+
+    /**
+     * Stock changes update the rows of loaded items in place
+     */
+    @KafkaListener(
+            topics = {"inventory.created", "inventory.updated", "inventory.deleted", "inventory.adjusted",
+                    "inventory.reserved", "inventory.released", "inventory.transferred"},
+            groupId = "inventory-service-fefo-${random.uuid}",
+            containerFactory = "inventoryEventListenerContainerFactory"
+    )
+    public void handleInventoryChanged(
+            @Payload InventoryEvent event,
+            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic
+    ) {
+        log.debug("Applying {} event to FEFO allocator for inventory: {}", topic, event.getInventoryId());
+
+        try {
+            fefoLotAllocator.apply(event);
+        } catch (Exception e) {
+            log.error("❌ Error applying {} event to FEFO allocator for inventory: {}", topic, event.getInventoryId(), e);
+            fefoLotAllocator.evict(event.getItemId());
+        }
+    }
+
+    /**
+     * Lot changes (new lot, expiry date, status) reorder the queue: the item is reloaded on next use
+     */
+    @KafkaListener(
+            topics = {"lot.created", "lot.updated", "lot.deleted", "lot.status.changed"},
+            groupId = "inventory-service-fefo-lots-${random.uuid}",
+            containerFactory = "lotEventListenerContainerFactory"
+    )
+    public void handleLotChanged(
+            @Payload LotEvent event,
+            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic
+    ) {
+        log.debug("📥 Received {} event for lot: {}", topic, event.getLotId());
+
+        fefoLotAllocator.evict(event.getItemId());
+    }
+
+    /**
+     * Bulk import chunks carry the resulting state of each row
+     */
+    @KafkaListener(
+            topics = "inventory.imported",
+            groupId = "inventory-service-fefo-imports-${random.uuid}",
+            containerFactory = "inventoryImportListenerContainerFactory"
+    )
+    public void handleInventoryImported(@Payload InventoryImportedEvent event) {
+        log.debug("Applying import chunk {} of {} ({} rows)", event.getChunk(), event.getImportId(), event.getRows().size());
+
+        for (InventoryEvent row : event.getRows()) {
+            try {
+                fefoLotAllocator.apply(row);
+            } catch (Exception e) {
+                log.error("❌ Error applying imported row for inventory: {}", row.getInventoryId(), e);
+            }
+        }
+    }
+}
@@ -15,7 +15,7 @@ import java.time.LocalDateTime;
 
 /**
  * Kafka consumer that listens to Item events from Product Service
- * and updates the Redis cache accordingly
+ * and updates the two-tier item cache (Redis + in-process L1) accordingly
  */
 @Component
 @RequiredArgsConstructor
@@ -135,6 +135,30 @@ public class ItemEventConsumer {
         }
     }
 
+    /**
+     * Drop the in-process (L1) copy of a changed item on every instance
+     * The listeners above run on one instance of the group only; this one uses a
+     * per-instance consumer group so each instance's L1 sees every change
+     */
+    @KafkaListener(
+            topics = {"item.updated", "item.deleted", "item.status.changed"},
+            groupId = "inventory-service-item-l1-${random.uuid}",
+            containerFactory = "kafkaListenerContainerFactory",
+            properties = {"auto.offset.reset=latest"}
+    )
+    public void handleItemChangedLocally(
+            @Payload ItemEvent event,
+            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic
+    ) {
+        log.debug("Evicting item {} from local cache after {}", event.getId(), topic);
+
+        try {
+            itemCacheService.evictLocal(event.getId());
+        } catch (Exception e) {
+            log.error("Error evicting item {} from local cache after {}", event.getId(), topic, e);
+        }
+    }
+
     /**
      * Map ItemEvent to ItemCacheDTO
      */
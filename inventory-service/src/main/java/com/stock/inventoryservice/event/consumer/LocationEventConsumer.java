@@ -0,0 +1,49 @@
+package com.stock.inventoryservice.event.consumer;
+
+import com.stock.inventoryservice.client.LocationClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+/**
+ * Kafka consumer that listens to Location events from Location Service
+ * and invalidates the LocationClient near-cache.
+ * Every instance uses its own consumer group so each near-cache sees every event.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LocationEventConsumer {
+
+    private final LocationClient locationClient;
+
+    /**
+     * Listen to location.updated / location.deleted topics
+     * Records are keyed by location ID
+     */
+    @KafkaListener(
+            topics = {"location.updated", "location.deleted"},
+            groupId = "inventory-service-location-cache-${random.uuid}",
+            containerFactory = "locationKafkaListenerContainerFactory"
+    )
+    public void handleLocationChanged(
+            @Header(value = KafkaHeaders.RECEIVED_KEY, required = false) String locationId,
+            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic
+    ) {
+        log.info("📍 Received {} event for location: {}", topic, locationId);
+
+        try {
+            if (locationId == null) {
+                log.warn("⚠️ {} event without key, clearing the whole location near-cache", topic);
+                locationClient.evictAll();
+                return;
+            }
+            locationClient.evictLocation(locationId);
+        } catch (Exception e) {
+            log.error("❌ Error processing {} event for location: {}", topic, locationId, e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.stock.inventoryservice.event.consumer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Split of one poll of movements into groups that can be applied in parallel
+ *
+ * Movements sharing an (item, location) row, directly or through other movements,
+ * stay in the same group in poll order; groups touch disjoint rows, so they can
+ * commit in any order. Connected movements are packed into at most maxGroups groups,
+ * largest first onto the least loaded group.
+ */
+final class MovementDispatchPlan {
+
+    private MovementDispatchPlan() {
+    }
+
+    static <E> List<List<E>> split(List<E> events, Function<E, Collection<String>> rowKeys, int maxGroups) {
+        if (maxGroups <= 1 || events.size() <= 1) {
+            return List.of(events);
+        }
+
+        // Union-find over event positions, joined through the row keys they touch
+        int[] parent = new int[events.size()];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        Map<String, Integer> firstToucher = new HashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            for (String key : rowKeys.apply(events.get(i))) {
+                Integer other = firstToucher.putIfAbsent(key, i);
+                if (other != null) {
+                    parent[find(parent, i)] = find(parent, other);
+                }
+            }
+        }
+
+        Map<Integer, List<Integer>> components = new HashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            components.computeIfAbsent(find(parent, i), root -> new ArrayList<>()).add(i);
+        }
+        if (components.size() == 1) {
+            return List.of(events);
+        }
+
+        int groupCount = Math.min(maxGroups, components.size());
+        List<List<Integer>> groups = new ArrayList<>(groupCount);
+        for (int g = 0; g < groupCount; g++) {
+            groups.add(new ArrayList<>());
+        }
+        components.values().stream()
+                .sorted(Comparator.comparingInt((List<Integer> component) -> component.size()).reversed())
+                .forEach(component -> groups.stream()
+                        .min(Comparator.comparingInt(List::size))
+                        .orElseThrow()
+                        .addAll(component));
+
+        List<List<E>> split = new ArrayList<>(groupCount);
+        for (List<Integer> group : groups) {
+            split.add(group.stream().sorted().map(events::get).toList()); // Back to poll order
+        }
+        return split;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+}
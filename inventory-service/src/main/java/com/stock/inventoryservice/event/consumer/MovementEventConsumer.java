@@ -1,121 +1,413 @@
 package com.stock.inventoryservice.event.consumer;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.stock.inventoryservice.dto.InventoryDTO;
 import com.stock.inventoryservice.entity.Inventory;
 import com.stock.inventoryservice.entity.InventoryStatus;
+import com.stock.inventoryservice.entity.ParkedMovement;
+import com.stock.inventoryservice.entity.Quantities;
 import com.stock.inventoryservice.event.dto.InventoryEvent;
 import com.stock.inventoryservice.event.dto.MovementCompletedEvent;
 import com.stock.inventoryservice.event.dto.MovementCompletedEvent.MovementLineDTO;
-import com.stock.inventoryservice.repository.InventoryRepository;
+import com.stock.inventoryservice.repository.AppliedMovementRepository;
+import com.stock.inventoryservice.repository.InventoryBatchRepository;
+import com.stock.inventoryservice.repository.ParkedMovementRepository;
+import com.stock.inventoryservice.service.InventoryChangeFeed;
+import com.stock.inventoryservice.service.LocationOccupancyService;
+import com.stock.inventoryservice.service.StockSummaryService;
+import com.stock.inventoryservice.service.StockSummaryService.Snapshot;
 import com.stock.inventoryservice.service.impl.InventoryEventPublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 🔥 AUTOMATIC INVENTORY UPDATE CONSUMER
- * Listens to movement.completed events and automatically updates inventory
+ * Listens to movement.completed events (batch mode) and automatically updates inventory
+ *
+ * Ordering comes from the record key (movement-service's movement.events.completed-partition-key):
+ * movements keyed alike share a partition and arrive in order. Within a poll, movements that
+ * touch disjoint rows are applied in parallel (MovementDispatchPlan), one transaction per group.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class MovementEventConsumer {
 
-    private final InventoryRepository inventoryRepository;
+    private final InventoryBatchRepository inventoryBatchRepository;
+    private final AppliedMovementRepository appliedMovementRepository;
+    private final ParkedMovementRepository parkedMovementRepository;
+    private final ObjectMapper objectMapper;
     private final InventoryEventPublisher eventPublisher;
+    private final LocationOccupancyService locationOccupancyService;
+    private final StockSummaryService stockSummaryService;
+    private final InventoryChangeFeed changeFeed;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    // Groups applied in parallel per poll; the pool is shared by every listener thread
+    @Value("${inventory.movements.dispatch.workers:4}")
+    private int dispatchWorkers;
+
+    private ExecutorService dispatchExecutor;
+
+    // Write-combining ratio, registered once
+    private DistributionSummary batchGroups;
+    private DistributionSummary batchEvents;
+    private DistributionSummary batchRows;
+    private Counter parkedMovements;
+
+    @PostConstruct
+    void start() {
+        registerMeters();
+        startDispatchWorkers();
+    }
+
+    private void registerMeters() {
+        batchGroups = DistributionSummary.builder("inventory.movements.batch.groups")
+                .description("Groups of movement.completed events applied in parallel per poll")
+                .register(meterRegistry);
+        batchEvents = DistributionSummary.builder("inventory.movements.batch.events")
+                .description("movement.completed events applied per poll")
+                .register(meterRegistry);
+        batchRows = DistributionSummary.builder("inventory.movements.batch.rows")
+                .description("Inventory rows written per poll after netting")
+                .register(meterRegistry);
+        parkedMovements = Counter.builder("inventory.movements.parked")
+                .description("movement.completed events that could not be applied and were parked")
+                .register(meterRegistry);
+    }
+
+    private void startDispatchWorkers() {
+        if (dispatchWorkers > 1) {
+            AtomicInteger threadCount = new AtomicInteger();
+            dispatchExecutor = Executors.newFixedThreadPool(dispatchWorkers, runnable -> {
+                Thread thread = new Thread(runnable, "movement-dispatch-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @PreDestroy
+    void stopDispatchWorkers() {
+        if (dispatchExecutor != null) {
+            dispatchExecutor.shutdown();
+        }
+    }
 
     /**
-     * 🎯 MAIN LISTENER - Processes movement completion
+     * 🎯 MAIN LISTENER - Processes a poll's worth of movement completions at once
+     *
+     * 1. Split the poll into groups of movements touching disjoint (item, location) rows
+     * 2. Per group, in its own transaction (groups run in parallel):
+     *    - skip movements already applied (redelivered), record the others as applied
+     *    - prefetch (and lock) every affected row in one query
+     *    - apply each movement to the in-memory rows; a failing movement is undone as a whole,
+     *      its claim released and its payload parked in parked_movement for replay
+     *    - write the netted rows back with JDBC batches, one occupancy delta per location
+     *      and one stock summary delta per item and per (item, warehouse)
+     * 3. After commit: publish one inventory.updated per changed row, then commit offsets
+     *    once every group has committed (a failed group redelivers the poll; groups that
+     *    did commit are skipped the second time)
      */
     @KafkaListener(
             topics = "movement.completed",
             groupId = "inventory-service-group",
             containerFactory = "movementKafkaListenerContainerFactory"  // 🔥 Use the dedicated factory!
         )
-    @Transactional
-    public void handleMovementCompleted(
-            @Payload MovementCompletedEvent event,
-            @Header(KafkaHeaders.RECEIVED_KEY) String key,
-            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic
-    ) {
-        log.info("🔥🔥🔥 RECEIVED movement.completed event: {}", event.getMovementId());
-        log.info("Movement Type: {}, Lines: {}", event.getMovementType(), event.getLines().size());
+    public void handleMovementsCompleted(List<ConsumerRecord<String, MovementCompletedEvent>> records,
+                                         Acknowledgment acknowledgment) {
+        log.info("🔥🔥🔥 RECEIVED {} movement.completed events", records.size());
+
+        List<MovementCompletedEvent> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, MovementCompletedEvent> record : records) {
+            if (record.value() == null) {
+                // ErrorHandlingDeserializer hands us null for payloads it could not read
+                log.error("❌ Skipping unreadable movement.completed record at {}-{}@{}",
+                        record.topic(), record.partition(), record.offset());
+                continue;
+            }
+            events.add(record.value());
+        }
 
         try {
-            // Process each product line
-            for (MovementCompletedEvent.MovementLineDTO line : event.getLines()) {
-                processMovementLine(event, line);
+            List<List<MovementCompletedEvent>> groups = MovementDispatchPlan.split(
+                    events, event -> itemLocationPairs(event).keySet(), dispatchWorkers);
+            List<MovementWorkingSet> applied = applyGroups(groups);
+
+            applied.forEach(this::publishInventoryUpdates);
+            if (applied.size() < groups.size()) {
+                throw new IllegalStateException((groups.size() - applied.size()) + " of " + groups.size()
+                        + " movement groups failed, batch will be redelivered");
             }
+            acknowledgment.acknowledge();
+            int rowsChanged = applied.stream().mapToInt(rows -> rows.changes().size()).sum();
+            recordCombining(events.size(), rowsChanged, groups.size());
+
+            log.info("✅ Successfully processed batch of {} movements in {} group(s) ({} rows changed)",
+                    events.size(), groups.size(), rowsChanged);
 
-            log.info("✅ Successfully processed movement {} with {} lines", 
-                    event.getMovementId(), event.getLines().size());
-                    
         } catch (Exception e) {
-            log.error("❌ ERROR processing movement.completed: {}", event.getMovementId(), e);
+            log.error("❌ ERROR processing movement.completed batch of {} events", records.size(), e);
             // TODO: Send to dead-letter queue
-            throw e; // Retry via Kafka
+            throw e; // Retry the whole batch via Kafka
+        }
+    }
+
+    /**
+     * Apply every group in its own transaction, the first on the listener thread and the
+     * others on the dispatch workers; returns the groups that committed
+     */
+    private List<MovementWorkingSet> applyGroups(List<List<MovementCompletedEvent>> groups) {
+        List<CompletableFuture<MovementWorkingSet>> others = new ArrayList<>();
+        for (List<MovementCompletedEvent> group : groups.subList(1, groups.size())) {
+            others.add(CompletableFuture.supplyAsync(
+                    () -> transactionTemplate.execute(status -> applyBatch(group)), dispatchExecutor));
+        }
+
+        List<MovementWorkingSet> applied = new ArrayList<>(groups.size());
+        try {
+            applied.add(transactionTemplate.execute(status -> applyBatch(groups.get(0))));
+        } catch (RuntimeException e) {
+            log.error("❌ Movement group of {} events failed", groups.get(0).size(), e);
+        }
+        for (CompletableFuture<MovementWorkingSet> group : others) {
+            try {
+                applied.add(group.join());
+            } catch (CompletionException e) {
+                log.error("❌ Movement group failed on a dispatch worker", e.getCause());
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Apply a batch of movements inside the current transaction
+     */
+    private MovementWorkingSet applyBatch(List<MovementCompletedEvent> batch) {
+        List<MovementCompletedEvent> events = skipApplied(batch);
+        List<Inventory> locked = inventoryBatchRepository.lockByItemAndLocation(collectItemLocationPairs(events));
+        Map<String, Snapshot> before = new HashMap<>();
+        locked.forEach(inventory -> before.put(inventory.getId(), Snapshot.of(inventory)));
+        MovementWorkingSet rows = new MovementWorkingSet(locked);
+        List<ParkedMovement> parked = new ArrayList<>();
+
+        for (MovementCompletedEvent event : events) {
+            try {
+                // Process each product line
+                for (MovementCompletedEvent.MovementLineDTO line : event.getLines()) {
+                    processMovementLine(rows, event, line);
+                }
+                rows.commitEvent();
+
+                log.info("✅ Applied movement {} with {} lines",
+                        event.getMovementId(), event.getLines().size());
+
+            } catch (Exception e) {
+                // Deterministic failure (unknown type, missing stock row): redelivering the batch
+                // won't help, so the movement is parked instead of blocking the partition
+                rows.rollbackEvent();
+                log.error("❌ ERROR processing movement.completed: {} - movement parked", event.getMovementId(), e);
+                parked.add(park(event, e));
+            }
+        }
+        if (!parked.isEmpty()) {
+            appliedMovementRepository.release(parked.stream()
+                    .map(ParkedMovement::getMovementId)
+                    .filter(Objects::nonNull)
+                    .toList());
+            parkedMovementRepository.saveAll(parked);
+            parkedMovements.increment(parked.size());
+        }
+
+        inventoryBatchRepository.insertAll(rows.dirtyNewRows());
+        inventoryBatchRepository.updateQuantities(rows.dirtyExistingRows());
+        rows.occupancyDeltas().forEach(locationOccupancyService::applyDelta);
+
+        List<Snapshot> after = new ArrayList<>();
+        rows.dirtyExistingRows().forEach(inventory -> after.add(Snapshot.of(inventory)));
+        rows.dirtyNewRows().forEach(inventory -> after.add(Snapshot.of(inventory)));
+        stockSummaryService.applyChanges(
+                rows.dirtyExistingRows().stream().map(inventory -> before.get(inventory.getId())).toList(), after);
+        changeFeed.recordChanged(rows.dirtyExistingRows());
+        changeFeed.recordChanged(rows.dirtyNewRows());
+
+        return rows;
+    }
+
+    private ParkedMovement park(MovementCompletedEvent event, Exception cause) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            payload = String.valueOf(event);
+        }
+        return ParkedMovement.builder()
+                .movementId(event.getMovementId() != null ? event.getMovementId().toString() : null)
+                .movementType(event.getMovementType())
+                .payload(payload)
+                .error(cause.getClass().getSimpleName() + ": " + cause.getMessage())
+                .parkedAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Record the batch's movements as applied; movements applied before (redelivered)
+     * and repeats within the batch are dropped
+     */
+    private List<MovementCompletedEvent> skipApplied(List<MovementCompletedEvent> events) {
+        Set<String> claimed = appliedMovementRepository.claim(events.stream()
+                .map(MovementCompletedEvent::getMovementId)
+                .filter(Objects::nonNull)
+                .map(UUID::toString)
+                .toList());
+
+        List<MovementCompletedEvent> pending = new ArrayList<>(events.size());
+        for (MovementCompletedEvent event : events) {
+            if (event.getMovementId() == null || claimed.remove(event.getMovementId().toString())) {
+                pending.add(event);
+            }
+        }
+        if (pending.size() < events.size()) {
+            log.warn("⚠️ Skipping {} movement.completed event(s) already applied", events.size() - pending.size());
+        }
+        return pending;
+    }
+
+    /**
+     * Every (item, location) pair the batch's lines may read or write
+     */
+    private Collection<String[]> collectItemLocationPairs(List<MovementCompletedEvent> events) {
+        Map<String, String[]> pairs = new LinkedHashMap<>();
+        events.forEach(event -> itemLocationPairs(event).forEach(pairs::putIfAbsent));
+        return pairs.values();
+    }
+
+    /**
+     * Every (item, location) pair one movement's lines may read or write, keyed "item|location"
+     */
+    private static Map<String, String[]> itemLocationPairs(MovementCompletedEvent event) {
+        Map<String, String[]> pairs = new LinkedHashMap<>();
+        if (event.getLines() == null) {
+            return pairs;
+        }
+        for (MovementCompletedEvent.MovementLineDTO line : event.getLines()) {
+            if (line.getItemId() == null) {
+                continue;
+            }
+            String itemId = line.getItemId().toString();
+            for (UUID locationId : new UUID[]{event.getSourceLocationId(),
+                    event.getDestinationLocationId(), line.getToLocationId()}) {
+                if (locationId != null) {
+                    pairs.putIfAbsent(itemId + "|" + locationId,
+                            MovementWorkingSet.pair(itemId, locationId.toString()));
+                }
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * How many events each poll absorbed, how many rows it wrote, and in how many parallel groups
+     */
+    private void recordCombining(int events, int rowsWritten, int groups) {
+        batchGroups.record(groups);
+        batchEvents.record(events);
+        batchRows.record(rowsWritten);
+    }
+
+    /**
+     * 📢 Publish one inventory.updated event per changed row (netted across the batch)
+     */
+    private void publishInventoryUpdates(MovementWorkingSet rows) {
+        for (MovementWorkingSet.RowChange change : rows.changes()) {
+            publishInventoryUpdate(change.inventory(), change.reason(), change.netDelta());
         }
     }
 
     /**
      * 📦 Process single movement line (single product)
      */
-    private void processMovementLine(MovementCompletedEvent movement, 
+    private void processMovementLine(MovementWorkingSet rows,
+                                     MovementCompletedEvent movement,
                                      MovementCompletedEvent.MovementLineDTO line) {
         
         log.info("Processing line {} - Item: {}, Qty: {}", 
                 line.getLineId(), line.getItemId(), line.getActualQuantity());
 
         String movementType = movement.getMovementType().toUpperCase();
-        Double quantity = line.getActualQuantity() != null ? 
+        Double lineQuantity = line.getActualQuantity() != null ?
                          line.getActualQuantity() : line.getRequestedQuantity();
+        Double quantity = lineQuantity != null ? Quantities.of(lineQuantity) : null; // Whole micro-units
 
         switch (movementType) {
             // Legacy types (for backward compatibility)
             case "INBOUND":
-                handleInbound(movement, line, quantity);
+                handleInbound(rows, movement, line, quantity);
                 break;
             case "OUTBOUND":
-                handleOutbound(movement, line, quantity);
+                handleOutbound(rows, movement, line, quantity);
                 break;
 
             // Standard movement types
             case "RECEIPT":
-                handleReceipt(movement, line, quantity);
+                handleReceipt(rows, movement, line, quantity);
                 break;
             case "ISSUE":
-                handleIssue(movement, line, quantity);
+                handleIssue(rows, movement, line, quantity);
                 break;
             case "TRANSFER":
-                handleTransfer(movement, line, quantity);
+                handleTransfer(rows, movement, line, quantity);
                 break;
             case "ADJUSTMENT":
-                handleAdjustment(movement, line, quantity);
+                handleAdjustment(rows, movement, line, quantity);
                 break;
             case "PICKING":
-                handlePicking(movement, line, quantity);
+                handlePicking(rows, movement, line, quantity);
                 break;
             case "PUTAWAY":
-                handlePutaway(movement, line, quantity);
+                handlePutaway(rows, movement, line, quantity);
                 break;
             case "RETURN":
-                handleReturn(movement, line, quantity);
+                handleReturn(rows, movement, line, quantity);
                 break;
             case "CYCLE_COUNT":
-                handleCycleCount(movement, line, quantity);
+                handleCycleCount(rows, movement, line, quantity);
                 break;
             case "QUARANTINE":
-                handleQuarantine(movement, line, quantity);
+                handleQuarantine(rows, movement, line, quantity);
                 break;
             case "RELOCATION":
-                handleRelocation(movement, line, quantity);
+                handleRelocation(rows, movement, line, quantity);
                 break;
             default:
                 log.error("❌ Unsupported movement type: {}. Inventory will NOT be updated!", movementType);
@@ -126,7 +418,8 @@ public class MovementEventConsumer {
     /**
      * 📥 INBOUND: Receiving stock (increase inventory)
      */
-    private void handleInbound(MovementCompletedEvent movement, 
+    private void handleInbound(MovementWorkingSet rows,
+                               MovementCompletedEvent movement, 
                                MovementCompletedEvent.MovementLineDTO line, 
                                Double quantity) {
         
@@ -138,26 +431,26 @@ public class MovementEventConsumer {
         String warehouseId = movement.getWarehouseId().toString();
 
         // Find or create inventory record
-        Inventory inventory = inventoryRepository
-                .findByItemIdAndLocationId(itemId, locationId)
-                .orElseGet(() -> createNewInventory(itemId, warehouseId, locationId, line));
+        Inventory inventory = rows.findOrCreate(itemId, locationId, () -> createNewInventory(itemId, warehouseId, locationId, line));
 
         // ✅ INCREASE quantity
-        inventory.setQuantityOnHand(inventory.getQuantityOnHand() + quantity);
+        inventory.setQuantityOnHand(Quantities.add(inventory.getQuantityOnHand(), quantity));
         inventory.setLastCountDate(LocalDate.now());
 
-        Inventory saved = inventoryRepository.save(inventory);
+        Inventory saved = rows.save(inventory);
+        rows.applyOccupancyDelta(locationId, quantity);
         log.info("✅ Increased inventory: {} units now at location {}", 
                 saved.getQuantityOnHand(), locationId);
 
         // Publish event
-        publishInventoryUpdate(saved, "INBOUND_RECEIVED", quantity);
+        rows.recordChange(saved, "INBOUND_RECEIVED", quantity);
     }
 
     /**
      * 📤 OUTBOUND: Shipping stock (decrease inventory)
      */
-    private void handleOutbound(MovementCompletedEvent movement, 
+    private void handleOutbound(MovementWorkingSet rows,
+                                MovementCompletedEvent movement, 
                                 MovementCompletedEvent.MovementLineDTO line, 
                                 Double quantity) {
         
@@ -167,26 +460,28 @@ public class MovementEventConsumer {
         String itemId = line.getItemId().toString();
         String locationId = movement.getSourceLocationId().toString();
 
-        Inventory inventory = inventoryRepository
-                .findByItemIdAndLocationId(itemId, locationId)
+        Inventory inventory = rows
+                .find(itemId, locationId)
                 .orElseThrow(() -> new RuntimeException("Inventory not found for outbound movement"));
 
         // ✅ DECREASE quantity & release reservation
-        inventory.setQuantityOnHand(inventory.getQuantityOnHand() - quantity);
-        inventory.setQuantityReserved(Math.max(0, inventory.getQuantityReserved() - quantity));
+        inventory.setQuantityOnHand(Quantities.subtract(inventory.getQuantityOnHand(), quantity));
+        inventory.setQuantityReserved(Quantities.subtractToZero(inventory.getQuantityReserved(), quantity));
         inventory.setLastCountDate(LocalDate.now());
 
-        Inventory saved = inventoryRepository.save(inventory);
+        Inventory saved = rows.save(inventory);
+        rows.applyOccupancyDelta(locationId, -quantity);
         log.info("✅ Decreased inventory: {} units remain at location {}", 
                 saved.getQuantityOnHand(), locationId);
 
-        publishInventoryUpdate(saved, "OUTBOUND_SHIPPED", -quantity);
+        rows.recordChange(saved, "OUTBOUND_SHIPPED", -quantity);
     }
 
     /**
      * 🔄 TRANSFER: Move between locations (decrease source, increase destination)
      */
-    private void handleTransfer(MovementCompletedEvent movement, 
+    private void handleTransfer(MovementWorkingSet rows,
+                                MovementCompletedEvent movement, 
                                 MovementCompletedEvent.MovementLineDTO line, 
                                 Double quantity) {
         
@@ -199,31 +494,32 @@ public class MovementEventConsumer {
         String warehouseId = movement.getWarehouseId().toString();
 
         // 1️⃣ DECREASE from source
-        Inventory sourceInventory = inventoryRepository
-                .findByItemIdAndLocationId(itemId, sourceLocationId)
+        Inventory sourceInventory = rows
+                .find(itemId, sourceLocationId)
                 .orElseThrow(() -> new RuntimeException("Source inventory not found"));
 
-        sourceInventory.setQuantityOnHand(sourceInventory.getQuantityOnHand() - quantity);
-        sourceInventory.setQuantityReserved(Math.max(0, sourceInventory.getQuantityReserved() - quantity));
-        inventoryRepository.save(sourceInventory);
+        sourceInventory.setQuantityOnHand(Quantities.subtract(sourceInventory.getQuantityOnHand(), quantity));
+        sourceInventory.setQuantityReserved(Quantities.subtractToZero(sourceInventory.getQuantityReserved(), quantity));
+        rows.save(sourceInventory);
+        rows.applyOccupancyDelta(sourceLocationId, -quantity);
         log.info("✅ Decreased source: {} units remain", sourceInventory.getQuantityOnHand());
 
         // 2️⃣ INCREASE at destination
-        Inventory destInventory = inventoryRepository
-                .findByItemIdAndLocationId(itemId, destLocationId)
-                .orElseGet(() -> createNewInventory(itemId, warehouseId, destLocationId, line));
+        Inventory destInventory = rows.findOrCreate(itemId, destLocationId, () -> createNewInventory(itemId, warehouseId, destLocationId, line));
 
-        destInventory.setQuantityOnHand(destInventory.getQuantityOnHand() + quantity);
-        Inventory savedDest = inventoryRepository.save(destInventory);
+        destInventory.setQuantityOnHand(Quantities.add(destInventory.getQuantityOnHand(), quantity));
+        Inventory savedDest = rows.save(destInventory);
+        rows.applyOccupancyDelta(destLocationId, quantity);
         log.info("✅ Increased destination: {} units now available", savedDest.getQuantityOnHand());
 
-        publishInventoryUpdate(savedDest, "TRANSFER_COMPLETED", quantity);
+        rows.recordChange(savedDest, "TRANSFER_COMPLETED", quantity);
     }
 
     /**
      * ⚖️ ADJUSTMENT: Inventory correction (cycle count, damage, etc.)
      */
-    private void handleAdjustment(MovementCompletedEvent movement, 
+    private void handleAdjustment(MovementWorkingSet rows,
+                                  MovementCompletedEvent movement, 
                                   MovementCompletedEvent.MovementLineDTO line, 
                                   Double quantity) {
         
@@ -235,8 +531,8 @@ public class MovementEventConsumer {
                            line.getToLocationId().toString() : 
                            movement.getDestinationLocationId().toString();
 
-        Inventory inventory = inventoryRepository
-                .findByItemIdAndLocationId(itemId, locationId)
+        Inventory inventory = rows
+                .find(itemId, locationId)
                 .orElseThrow(() -> new RuntimeException("Inventory not found for adjustment"));
 
         // ✅ SET new quantity (not add/subtract)
@@ -244,10 +540,11 @@ public class MovementEventConsumer {
         inventory.setQuantityOnHand(quantity);
         inventory.setLastCountDate(LocalDate.now());
 
-        Inventory saved = inventoryRepository.save(inventory);
+        Inventory saved = rows.save(inventory);
+        rows.applyOccupancyDelta(locationId, Quantities.subtract(quantity, oldQuantity));
         log.info("✅ Adjusted inventory: {} → {} units", oldQuantity, quantity);
 
-        publishInventoryUpdate(saved, "ADJUSTMENT", quantity - oldQuantity);
+        rows.recordChange(saved, "ADJUSTMENT", Quantities.subtract(quantity, oldQuantity));
     }
 
     /**
@@ -282,9 +579,14 @@ public class MovementEventConsumer {
                 .itemId(inventory.getItemId())
                 .warehouseId(inventory.getWarehouseId())
                 .locationId(inventory.getLocationId())
+                .lotId(inventory.getLotId())
+                .serialId(inventory.getSerialId())
+                .expiryDate(inventory.getExpiryDate())
+                .version(inventory.getVersion())
                 .quantityOnHand(inventory.getQuantityOnHand())
                 .quantityReserved(inventory.getQuantityReserved())
                 .availableQuantity(inventory.getAvailableQuantity())
+                .status(inventory.getStatus() != null ? inventory.getStatus().name() : null)
                 .eventType("UPDATED")
                 .reason(reason + " (Delta: " + delta + ")")
                 .timestamp(java.time.LocalDateTime.now())
@@ -301,7 +603,8 @@ public class MovementEventConsumer {
      * 📥 RECEIPT: Receiving goods into warehouse (same as INBOUND)
      * Increases inventory at destination location
      */
-    private void handleReceipt(MovementCompletedEvent movement,
+    private void handleReceipt(MovementWorkingSet rows,
+                               MovementCompletedEvent movement,
                                MovementCompletedEvent.MovementLineDTO line,
                                Double quantity) {
         log.info("📥 RECEIPT: Adding {} units of item {} to location {}",
@@ -311,25 +614,25 @@ public class MovementEventConsumer {
         String locationId = movement.getDestinationLocationId().toString();
         String warehouseId = movement.getWarehouseId().toString();
 
-        Inventory inventory = inventoryRepository
-                .findByItemIdAndLocationId(itemId, locationId)
-                .orElseGet(() -> createNewInventory(itemId, warehouseId, locationId, line));
+        Inventory inventory = rows.findOrCreate(itemId, locationId, () -> createNewInventory(itemId, warehouseId, locationId, line));
 
-        inventory.setQuantityOnHand(inventory.getQuantityOnHand() + quantity);
+        inventory.setQuantityOnHand(Quantities.add(inventory.getQuantityOnHand(), quantity));
         inventory.setLastCountDate(LocalDate.now());
 
-        Inventory saved = inventoryRepository.save(inventory);
+        Inventory saved = rows.save(inventory);
+        rows.applyOccupancyDelta(locationId, quantity);
         log.info("✅ RECEIPT complete: {} units now at location {}",
                 saved.getQuantityOnHand(), locationId);
 
-        publishInventoryUpdate(saved, "RECEIPT", quantity);
+        rows.recordChange(saved, "RECEIPT", quantity);
     }
 
     /**
      * 📤 ISSUE: Issuing goods out of warehouse (same as OUTBOUND)
      * Decreases inventory at source location
      */
-    private void handleIssue(MovementCompletedEvent movement,
+    private void handleIssue(MovementWorkingSet rows,
+                             MovementCompletedEvent movement,
                              MovementCompletedEvent.MovementLineDTO line,
                              Double quantity) {
         log.info("📤 ISSUE: Removing {} units of item {} from location {}",
@@ -338,26 +641,28 @@ public class MovementEventConsumer {
         String itemId = line.getItemId().toString();
         String locationId = movement.getSourceLocationId().toString();
 
-        Inventory inventory = inventoryRepository
-                .findByItemIdAndLocationId(itemId, locationId)
+        Inventory inventory = rows
+                .find(itemId, locationId)
                 .orElseThrow(() -> new RuntimeException("Inventory not found for ISSUE movement"));
 
-        inventory.setQuantityOnHand(inventory.getQuantityOnHand() - quantity);
-        inventory.setQuantityReserved(Math.max(0, inventory.getQuantityReserved() - quantity));
+        inventory.setQuantityOnHand(Quantities.subtract(inventory.getQuantityOnHand(), quantity));
+        inventory.setQuantityReserved(Quantities.subtractToZero(inventory.getQuantityReserved(), quantity));
         inventory.setLastCountDate(LocalDate.now());
 
-        Inventory saved = inventoryRepository.save(inventory);
+        Inventory saved = rows.save(inventory);
+        rows.applyOccupancyDelta(locationId, -quantity);
         log.info("✅ ISSUE complete: {} units remain at location {}",
                 saved.getQuantityOnHand(), locationId);
 
-        publishInventoryUpdate(saved, "ISSUE", -quantity);
+        rows.recordChange(saved, "ISSUE", -quantity);
     }
 
     /**
      * 📦 PICKING: Pick items for orders
      * Moves inventory from storage to staging and marks as reserved
      */
-    private void handlePicking(MovementCompletedEvent movement,
+    private void handlePicking(MovementWorkingSet rows,
+                               MovementCompletedEvent movement,
                                MovementCompletedEvent.MovementLineDTO line,
                                Double quantity) {
         log.info("📦 PICKING: Moving {} units from {} to staging {}",
@@ -369,33 +674,34 @@ public class MovementEventConsumer {
         String warehouseId = movement.getWarehouseId().toString();
 
         // Decrease from source (storage location)
-        Inventory sourceInventory = inventoryRepository
-                .findByItemIdAndLocationId(itemId, sourceLocationId)
+        Inventory sourceInventory = rows
+                .find(itemId, sourceLocationId)
                 .orElseThrow(() -> new RuntimeException("Source inventory not found for PICKING"));
 
-        sourceInventory.setQuantityOnHand(sourceInventory.getQuantityOnHand() - quantity);
-        inventoryRepository.save(sourceInventory);
+        sourceInventory.setQuantityOnHand(Quantities.subtract(sourceInventory.getQuantityOnHand(), quantity));
+        rows.save(sourceInventory);
+        rows.applyOccupancyDelta(sourceLocationId, -quantity);
         log.info("✅ Decreased source (storage): {} units remain", sourceInventory.getQuantityOnHand());
 
         // Increase at destination (staging/packing area) and mark as reserved
-        Inventory destInventory = inventoryRepository
-                .findByItemIdAndLocationId(itemId, destLocationId)
-                .orElseGet(() -> createNewInventory(itemId, warehouseId, destLocationId, line));
+        Inventory destInventory = rows.findOrCreate(itemId, destLocationId, () -> createNewInventory(itemId, warehouseId, destLocationId, line));
 
-        destInventory.setQuantityOnHand(destInventory.getQuantityOnHand() + quantity);
-        destInventory.setQuantityReserved(destInventory.getQuantityReserved() + quantity); // Mark as reserved for order
-        Inventory savedDest = inventoryRepository.save(destInventory);
+        destInventory.setQuantityOnHand(Quantities.add(destInventory.getQuantityOnHand(), quantity));
+        destInventory.setQuantityReserved(Quantities.add(destInventory.getQuantityReserved(), quantity)); // Mark as reserved for order
+        Inventory savedDest = rows.save(destInventory);
+        rows.applyOccupancyDelta(destLocationId, quantity);
         log.info("✅ Increased destination (staging): {} units, {} reserved",
                 savedDest.getQuantityOnHand(), savedDest.getQuantityReserved());
 
-        publishInventoryUpdate(savedDest, "PICKING", quantity);
+        rows.recordChange(savedDest, "PICKING", quantity);
     }
 
     /**
      * 🏪 PUTAWAY: Store received goods in final locations
      * Moves inventory from receiving to storage
      */
-    private void handlePutaway(MovementCompletedEvent movement,
+    private void handlePutaway(MovementWorkingSet rows,
+                               MovementCompletedEvent movement,
                                MovementCompletedEvent.MovementLineDTO line,
                                Double quantity) {
         log.info("🏪 PUTAWAY: Moving {} units from {} to storage {}",
@@ -407,31 +713,32 @@ public class MovementEventConsumer {
         String warehouseId = movement.getWarehouseId().toString();
 
         // Decrease from receiving/staging area
-        Inventory sourceInventory = inventoryRepository
-                .findByItemIdAndLocationId(itemId, sourceLocationId)
+        Inventory sourceInventory = rows
+                .find(itemId, sourceLocationId)
                 .orElseThrow(() -> new RuntimeException("Source inventory not found for PUTAWAY"));
 
-        sourceInventory.setQuantityOnHand(sourceInventory.getQuantityOnHand() - quantity);
-        inventoryRepository.save(sourceInventory);
+        sourceInventory.setQuantityOnHand(Quantities.subtract(sourceInventory.getQuantityOnHand(), quantity));
+        rows.save(sourceInventory);
+        rows.applyOccupancyDelta(sourceLocationId, -quantity);
         log.info("✅ Decreased source (receiving): {} units remain", sourceInventory.getQuantityOnHand());
 
         // Increase at final storage location
-        Inventory destInventory = inventoryRepository
-                .findByItemIdAndLocationId(itemId, destLocationId)
-                .orElseGet(() -> createNewInventory(itemId, warehouseId, destLocationId, line));
+        Inventory destInventory = rows.findOrCreate(itemId, destLocationId, () -> createNewInventory(itemId, warehouseId, destLocationId, line));
 
-        destInventory.setQuantityOnHand(destInventory.getQuantityOnHand() + quantity);
-        Inventory savedDest = inventoryRepository.save(destInventory);
+        destInventory.setQuantityOnHand(Quantities.add(destInventory.getQuantityOnHand(), quantity));
+        Inventory savedDest = rows.save(destInventory);
+        rows.applyOccupancyDelta(destLocationId, quantity);
         log.info("✅ Increased destination (storage): {} units now available", savedDest.getQuantityOnHand());
 
-        publishInventoryUpdate(savedDest, "PUTAWAY", quantity);
+        rows.recordChange(savedDest, "PUTAWAY", quantity);
     }
 
     /**
      * ↩️ RETURN: Customer/supplier returns
      * Adds inventory back (same as RECEIPT)
      */
-    private void handleReturn(MovementCompletedEvent movement,
+    private void handleReturn(MovementWorkingSet rows,
+                              MovementCompletedEvent movement,
                               MovementCompletedEvent.MovementLineDTO line,
                               Double quantity) {
         log.info("↩️ RETURN: Adding {} units back to location {}",
@@ -441,25 +748,25 @@ public class MovementEventConsumer {
         String locationId = movement.getDestinationLocationId().toString();
         String warehouseId = movement.getWarehouseId().toString();
 
-        Inventory inventory = inventoryRepository
-                .findByItemIdAndLocationId(itemId, locationId)
-                .orElseGet(() -> createNewInventory(itemId, warehouseId, locationId, line));
+        Inventory inventory = rows.findOrCreate(itemId, locationId, () -> createNewInventory(itemId, warehouseId, locationId, line));
 
-        inventory.setQuantityOnHand(inventory.getQuantityOnHand() + quantity);
+        inventory.setQuantityOnHand(Quantities.add(inventory.getQuantityOnHand(), quantity));
         inventory.setLastCountDate(LocalDate.now());
 
-        Inventory saved = inventoryRepository.save(inventory);
+        Inventory saved = rows.save(inventory);
+        rows.applyOccupancyDelta(locationId, quantity);
         log.info("✅ RETURN complete: {} units now at location {}",
                 saved.getQuantityOnHand(), locationId);
 
-        publishInventoryUpdate(saved, "RETURN", quantity);
+        rows.recordChange(saved, "RETURN", quantity);
     }
 
     /**
      * 🔢 CYCLE_COUNT: Physical inventory count
      * Adjusts inventory to match actual count (same as ADJUSTMENT)
      */
-    private void handleCycleCount(MovementCompletedEvent movement,
+    private void handleCycleCount(MovementWorkingSet rows,
+                                  MovementCompletedEvent movement,
                                   MovementCompletedEvent.MovementLineDTO line,
                                   Double quantity) {
         log.info("🔢 CYCLE_COUNT: Adjusting item {} to {} units based on count",
@@ -470,26 +777,28 @@ public class MovementEventConsumer {
                            line.getToLocationId().toString() :
                            movement.getDestinationLocationId().toString();
 
-        Inventory inventory = inventoryRepository
-                .findByItemIdAndLocationId(itemId, locationId)
+        Inventory inventory = rows
+                .find(itemId, locationId)
                 .orElseThrow(() -> new RuntimeException("Inventory not found for CYCLE_COUNT"));
 
         Double oldQuantity = inventory.getQuantityOnHand();
         inventory.setQuantityOnHand(quantity); // Set to actual counted quantity
         inventory.setLastCountDate(LocalDate.now());
 
-        Inventory saved = inventoryRepository.save(inventory);
+        Inventory saved = rows.save(inventory);
+        rows.applyOccupancyDelta(locationId, Quantities.subtract(quantity, oldQuantity));
         log.info("✅ CYCLE_COUNT complete: {} → {} units (variance: {})",
-                oldQuantity, quantity, quantity - oldQuantity);
+                oldQuantity, quantity, Quantities.subtract(quantity, oldQuantity));
 
-        publishInventoryUpdate(saved, "CYCLE_COUNT", quantity - oldQuantity);
+        rows.recordChange(saved, "CYCLE_COUNT", Quantities.subtract(quantity, oldQuantity));
     }
 
     /**
      * 🚫 QUARANTINE: Move items to quarantine
      * Moves inventory and marks as damaged/quarantined
      */
-    private void handleQuarantine(MovementCompletedEvent movement,
+    private void handleQuarantine(MovementWorkingSet rows,
+                                  MovementCompletedEvent movement,
                                   MovementCompletedEvent.MovementLineDTO line,
                                   Double quantity) {
         log.info("🚫 QUARANTINE: Moving {} units from {} to quarantine {}",
@@ -501,33 +810,34 @@ public class MovementEventConsumer {
         String warehouseId = movement.getWarehouseId().toString();
 
         // Decrease from source
-        Inventory sourceInventory = inventoryRepository
-                .findByItemIdAndLocationId(itemId, sourceLocationId)
+        Inventory sourceInventory = rows
+                .find(itemId, sourceLocationId)
                 .orElseThrow(() -> new RuntimeException("Source inventory not found for QUARANTINE"));
 
-        sourceInventory.setQuantityOnHand(sourceInventory.getQuantityOnHand() - quantity);
-        inventoryRepository.save(sourceInventory);
+        sourceInventory.setQuantityOnHand(Quantities.subtract(sourceInventory.getQuantityOnHand(), quantity));
+        rows.save(sourceInventory);
+        rows.applyOccupancyDelta(sourceLocationId, -quantity);
         log.info("✅ Decreased source: {} units remain", sourceInventory.getQuantityOnHand());
 
         // Increase at quarantine location and mark as damaged
-        Inventory destInventory = inventoryRepository
-                .findByItemIdAndLocationId(itemId, destLocationId)
-                .orElseGet(() -> createNewInventory(itemId, warehouseId, destLocationId, line));
+        Inventory destInventory = rows.findOrCreate(itemId, destLocationId, () -> createNewInventory(itemId, warehouseId, destLocationId, line));
 
-        destInventory.setQuantityOnHand(destInventory.getQuantityOnHand() + quantity);
-        destInventory.setQuantityDamaged(destInventory.getQuantityDamaged() + quantity); // Mark as damaged/quarantined
+        destInventory.setQuantityOnHand(Quantities.add(destInventory.getQuantityOnHand(), quantity));
+        destInventory.setQuantityDamaged(Quantities.add(destInventory.getQuantityDamaged(), quantity)); // Mark as damaged/quarantined
         destInventory.setStatus(InventoryStatus.DAMAGED); // Set status to damaged
-        Inventory savedDest = inventoryRepository.save(destInventory);
+        Inventory savedDest = rows.save(destInventory);
+        rows.applyOccupancyDelta(destLocationId, quantity);
         log.info("✅ Moved to quarantine: {} units quarantined", savedDest.getQuantityDamaged());
 
-        publishInventoryUpdate(savedDest, "QUARANTINE", quantity);
+        rows.recordChange(savedDest, "QUARANTINE", quantity);
     }
 
     /**
      * 📍 RELOCATION: Warehouse reorganization
      * Moves inventory to new optimized location (same as TRANSFER)
      */
-    private void handleRelocation(MovementCompletedEvent movement,
+    private void handleRelocation(MovementWorkingSet rows,
+                                  MovementCompletedEvent movement,
                                   MovementCompletedEvent.MovementLineDTO line,
                                   Double quantity) {
         log.info("📍 RELOCATION: Moving {} units from {} to new location {}",
@@ -539,23 +849,23 @@ public class MovementEventConsumer {
         String warehouseId = movement.getWarehouseId().toString();
 
         // Decrease from old location
-        Inventory sourceInventory = inventoryRepository
-                .findByItemIdAndLocationId(itemId, sourceLocationId)
+        Inventory sourceInventory = rows
+                .find(itemId, sourceLocationId)
                 .orElseThrow(() -> new RuntimeException("Source inventory not found for RELOCATION"));
 
-        sourceInventory.setQuantityOnHand(sourceInventory.getQuantityOnHand() - quantity);
-        inventoryRepository.save(sourceInventory);
+        sourceInventory.setQuantityOnHand(Quantities.subtract(sourceInventory.getQuantityOnHand(), quantity));
+        rows.save(sourceInventory);
+        rows.applyOccupancyDelta(sourceLocationId, -quantity);
         log.info("✅ Decreased old location: {} units remain", sourceInventory.getQuantityOnHand());
 
         // Increase at new location
-        Inventory destInventory = inventoryRepository
-                .findByItemIdAndLocationId(itemId, destLocationId)
-                .orElseGet(() -> createNewInventory(itemId, warehouseId, destLocationId, line));
+        Inventory destInventory = rows.findOrCreate(itemId, destLocationId, () -> createNewInventory(itemId, warehouseId, destLocationId, line));
 
-        destInventory.setQuantityOnHand(destInventory.getQuantityOnHand() + quantity);
-        Inventory savedDest = inventoryRepository.save(destInventory);
+        destInventory.setQuantityOnHand(Quantities.add(destInventory.getQuantityOnHand(), quantity));
+        Inventory savedDest = rows.save(destInventory);
+        rows.applyOccupancyDelta(destLocationId, quantity);
         log.info("✅ Increased new location: {} units now available", savedDest.getQuantityOnHand());
 
-        publishInventoryUpdate(savedDest, "RELOCATION", quantity);
+        rows.recordChange(savedDest, "RELOCATION", quantity);
     }
 }
\ No newline at end of file
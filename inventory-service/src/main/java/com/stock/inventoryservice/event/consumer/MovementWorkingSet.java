@@ -0,0 +1,191 @@
+package com.stock.inventoryservice.event.consumer;
+
+import com.stock.inventoryservice.entity.Inventory;
+import com.stock.inventoryservice.entity.Quantities;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * In-memory view of the inventory rows touched by one batch of movement.completed events
+ *
+ * Rows are prefetched (and locked) once per batch; movement handlers mutate them here
+ * and the netted result is written back once per row. Each event is applied atomically:
+ * if one of its lines fails, everything that event changed is rolled back in memory.
+ * Deltas are summed as micro-units in primitive cells (see Quantities): exact, no boxing.
+ */
+class MovementWorkingSet {
+
+    private final Map<String, Inventory> rows = new HashMap<>();
+    private final Set<String> createdKeys = new HashSet<>();
+    private final Set<String> dirtyKeys = new LinkedHashSet<>();
+    private final Map<String, long[]> occupancyDeltas = new TreeMap<>(); // sorted: stable lock order
+    private final Map<String, RowChange> changes = new LinkedHashMap<>();
+
+    // Undo log of the event currently being applied
+    private final Map<String, Inventory> eventSnapshots = new HashMap<>();
+    private final Set<String> eventCreatedKeys = new HashSet<>();
+    private final Set<String> eventDirtyKeys = new LinkedHashSet<>();
+    private final Map<String, long[]> eventOccupancyDeltas = new HashMap<>();
+    private final List<PendingChange> eventChanges = new ArrayList<>();
+
+    MovementWorkingSet(Collection<Inventory> prefetched) {
+        prefetched.forEach(inventory -> rows.put(key(inventory.getItemId(), inventory.getLocationId()), inventory));
+    }
+
+    static String[] pair(String itemId, String locationId) {
+        return new String[]{itemId, locationId};
+    }
+
+    // ===== USED BY MOVEMENT HANDLERS =====
+
+    Optional<Inventory> find(String itemId, String locationId) {
+        String key = key(itemId, locationId);
+        Inventory inventory = rows.get(key);
+        if (inventory != null && !eventCreatedKeys.contains(key)) {
+            eventSnapshots.computeIfAbsent(key, k -> snapshot(inventory));
+        }
+        return Optional.ofNullable(inventory);
+    }
+
+    Inventory findOrCreate(String itemId, String locationId, Supplier<Inventory> factory) {
+        return find(itemId, locationId).orElseGet(() -> {
+            Inventory created = factory.get();
+            created.setId(UUID.randomUUID().toString());
+            String key = key(itemId, locationId);
+            rows.put(key, created);
+            eventCreatedKeys.add(key);
+            return created;
+        });
+    }
+
+    Inventory save(Inventory inventory) {
+        eventDirtyKeys.add(key(inventory.getItemId(), inventory.getLocationId()));
+        return inventory;
+    }
+
+    void applyOccupancyDelta(String locationId, Double delta) {
+        eventOccupancyDeltas.computeIfAbsent(locationId, k -> new long[1])[0] += Quantities.toMicros(delta);
+    }
+
+    void recordChange(Inventory inventory, String reason, Double delta) {
+        eventChanges.add(new PendingChange(key(inventory.getItemId(), inventory.getLocationId()), reason,
+                Quantities.toMicros(delta)));
+    }
+
+    // ===== PER-EVENT ATOMICITY =====
+
+    void commitEvent() {
+        createdKeys.addAll(eventCreatedKeys);
+        dirtyKeys.addAll(eventDirtyKeys);
+        eventOccupancyDeltas.forEach((locationId, delta) ->
+                occupancyDeltas.computeIfAbsent(locationId, k -> new long[1])[0] += delta[0]);
+        for (PendingChange change : eventChanges) {
+            changes.computeIfAbsent(change.key(), k -> new RowChange(rows.get(k))).add(change.reason(), change.deltaMicros());
+        }
+        clearEvent();
+    }
+
+    void rollbackEvent() {
+        eventSnapshots.forEach((key, snapshot) -> restore(rows.get(key), snapshot));
+        eventCreatedKeys.forEach(rows::remove);
+        clearEvent();
+    }
+
+    // ===== RESULT OF THE BATCH =====
+
+    List<Inventory> dirtyExistingRows() {
+        return dirtyKeys.stream().filter(key -> !createdKeys.contains(key)).map(rows::get).toList();
+    }
+
+    List<Inventory> dirtyNewRows() {
+        return dirtyKeys.stream().filter(createdKeys::contains).map(rows::get).toList();
+    }
+
+    /**
+     * Net occupancy change per location, in location order
+     */
+    Map<String, Double> occupancyDeltas() {
+        Map<String, Double> deltas = new LinkedHashMap<>();
+        occupancyDeltas.forEach((locationId, delta) -> deltas.put(locationId, Quantities.fromMicros(delta[0])));
+        return deltas;
+    }
+
+    Collection<RowChange> changes() {
+        return changes.values();
+    }
+
+    private void clearEvent() {
+        eventSnapshots.clear();
+        eventCreatedKeys.clear();
+        eventDirtyKeys.clear();
+        eventOccupancyDeltas.clear();
+        eventChanges.clear();
+    }
+
+    private static String key(String itemId, String locationId) {
+        return itemId + "|" + locationId;
+    }
+
+    private static Inventory snapshot(Inventory inventory) {
+        return Inventory.builder()
+                .quantityOnHand(inventory.getQuantityOnHand())
+                .quantityReserved(inventory.getQuantityReserved())
+                .quantityDamaged(inventory.getQuantityDamaged())
+                .status(inventory.getStatus())
+                .lastCountDate(inventory.getLastCountDate())
+                .build();
+    }
+
+    private static void restore(Inventory inventory, Inventory snapshot) {
+        inventory.setQuantityOnHand(snapshot.getQuantityOnHand());
+        inventory.setQuantityReserved(snapshot.getQuantityReserved());
+        inventory.setQuantityDamaged(snapshot.getQuantityDamaged());
+        inventory.setStatus(snapshot.getStatus());
+        inventory.setLastCountDate(snapshot.getLastCountDate());
+    }
+
+    private record PendingChange(String key, String reason, long deltaMicros) {
+    }
+
+    /**
+     * Net change of one row across the batch (published as a single inventory.updated event)
+     */
+    static final class RowChange {
+        private final Inventory inventory;
+        private final Set<String> reasons = new LinkedHashSet<>();
+        private long netDeltaMicros;
+
+        private RowChange(Inventory inventory) {
+            this.inventory = inventory;
+        }
+
+        private void add(String reason, long deltaMicros) {
+            reasons.add(reason);
+            netDeltaMicros += deltaMicros;
+        }
+
+        Inventory inventory() {
+            return inventory;
+        }
+
+        String reason() {
+            return String.join("+", reasons);
+        }
+
+        double netDelta() {
+            return Quantities.fromMicros(netDeltaMicros);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.stock.inventoryservice.event.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Batch of alert requests published to alert.batch
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AlertBatchEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String batchId;
+    private String source;
+    private List<AlertRequestEvent> alerts;
+
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,32 @@
+package com.stock.inventoryservice.event.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * A single alert to be created by the Alert Service (shipped inside an AlertBatchEvent)
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AlertRequestEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String type;        // AlertType in alert-service (LOW_STOCK, LOCATION, EXPIRY, ...)
+    private String level;       // AlertLevel in alert-service (INFO, WARNING, CRITICAL, ...)
+    private String entityType;  // ITEM, LOCATION, LOT
+    private String entityId;
+    private String message;
+    private String alertReason; // LOW_STOCK, LOCATION_CAPACITY, EXPIRY_WARNING
+    private Map<String, Object> data;
+
+    private LocalDateTime timestamp;
+}
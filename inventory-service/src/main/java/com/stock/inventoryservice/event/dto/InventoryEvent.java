@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Data
@@ -22,6 +23,8 @@ public class InventoryEvent implements Serializable {
     private String locationId;
     private String lotId;
     private String serialId;
+    private LocalDate expiryDate;
+    private Long version;  // Row version after the change (orders events of one row)
 
     // Quantities
     private Double quantityOnHand;
@@ -0,0 +1,30 @@
+package com.stock.inventoryservice.event.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One committed chunk of a bulk import (topic inventory.imported)
+ * Carries the resulting state of every row, so row-level consumers need no per-row events
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class InventoryImportedEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String importId;
+    private int chunk;
+    private int rowsInserted;
+    private int rowsUpdated;
+    private List<InventoryEvent> rows;
+    private LocalDateTime timestamp;
+}
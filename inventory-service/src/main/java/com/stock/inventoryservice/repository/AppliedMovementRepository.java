@@ -0,0 +1,70 @@
+package com.stock.inventoryservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Ledger of applied movements (JDBC: one statement per batch)
+ */
+@Repository
+@RequiredArgsConstructor
+public class AppliedMovementRepository {
+
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    // A movement claimed by a concurrent, uncommitted transaction blocks here until it ends
+    private static final String CLAIM =
+            "INSERT INTO applied_movement (movement_id, applied_at) " +
+            "SELECT v.movement_id, :now FROM (VALUES :ids) AS v(movement_id) " +
+            "ON CONFLICT (movement_id) DO NOTHING RETURNING movement_id";
+
+    private static final String RELEASE =
+            "DELETE FROM applied_movement WHERE movement_id IN (:ids)";
+
+    private static final String DELETE_BEFORE =
+            "DELETE FROM applied_movement WHERE applied_at < :cutoff";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Record the movements as applied; returns the ids that were not applied before
+     * Must run inside the transaction that applies them
+     */
+    public Set<String> claim(Collection<String> movementIds) {
+        List<Object[]> ids = movementIds.stream().distinct().sorted().map(id -> new Object[]{id}).toList();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Set<String> claimed = new HashSet<>();
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("ids", ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size())))
+                    .addValue("now", now);
+            claimed.addAll(jdbcTemplate.queryForList(CLAIM, params, String.class));
+        }
+        return claimed;
+    }
+
+    /**
+     * Drop the claims of movements that were not applied after all (parked), so a replay applies them
+     * Must run inside the transaction that claimed them
+     */
+    public void release(Collection<String> movementIds) {
+        List<String> ids = movementIds.stream().distinct().toList();
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+            jdbcTemplate.update(RELEASE,
+                    new MapSqlParameterSource("ids", ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size()))));
+        }
+    }
+
+    public int deleteAppliedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update(DELETE_BEFORE, new MapSqlParameterSource("cutoff", Timestamp.valueOf(cutoff)));
+    }
+}
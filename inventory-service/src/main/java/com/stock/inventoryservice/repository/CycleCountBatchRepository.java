@@ -0,0 +1,167 @@
+package com.stock.inventoryservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based JDBC access to cycle count lines: a batch is frozen, counted and
+ * reconciled with a handful of statements whatever its size
+ */
+@Repository
+@RequiredArgsConstructor
+public class CycleCountBatchRepository {
+
+    private static final String CANDIDATES =
+            "FROM inventory i WHERE i.warehouse_id = :warehouseId " +
+            "AND (i.last_count_date IS NULL OR i.last_count_date < :countedBefore) ";
+
+    private static final String FREEZE =
+            "INSERT INTO cycle_count_line (session_id, batch_no, inventory_id, item_id, location_id, " +
+            "book_quantity, book_version, status) " +
+            "SELECT :sessionId, :batchNo, i.id, i.item_id, i.location_id, i.quantity_on_hand, i.version, 'PENDING' " +
+            CANDIDATES + "AND (i.location_id, i.id) > (:afterLocationId, :afterId) " +
+            "ORDER BY i.location_id, i.id LIMIT :limit";
+
+    private static final String FREEZE_REST_OF_LOCATION =
+            "INSERT INTO cycle_count_line (session_id, batch_no, inventory_id, item_id, location_id, " +
+            "book_quantity, book_version, status) " +
+            "SELECT :sessionId, :batchNo, i.id, i.item_id, i.location_id, i.quantity_on_hand, i.version, 'PENDING' " +
+            CANDIDATES + "AND i.location_id = :locationId AND i.id > :afterId";
+
+    private static final String LAST_KEY =
+            "SELECT location_id, inventory_id FROM cycle_count_line WHERE session_id = :sessionId AND batch_no = :batchNo " +
+            "ORDER BY location_id DESC, inventory_id DESC LIMIT 1";
+
+    private static final String RECORD_COUNT =
+            "UPDATE cycle_count_line SET counted_quantity = :countedQuantity, counted_at = :now, status = 'COUNTED' " +
+            "WHERE session_id = :sessionId AND batch_no = :batchNo AND inventory_id = :inventoryId " +
+            "AND status IN ('PENDING', 'COUNTED')";
+
+    private static final String COMPUTE_VARIANCES =
+            "UPDATE cycle_count_line SET variance = counted_quantity - book_quantity " +
+            "WHERE session_id = :sessionId AND batch_no = :batchNo AND status = 'COUNTED' " +
+            "RETURNING inventory_id, variance";
+
+    // Rows deleted since the freeze have nothing to post the variance to
+    private static final String MARK_APPLIED =
+            "UPDATE cycle_count_line l SET applied_at = :now, status = CASE WHEN EXISTS " +
+            "(SELECT 1 FROM inventory i WHERE i.id = l.inventory_id) THEN 'APPLIED' ELSE 'SKIPPED' END " +
+            "WHERE l.session_id = :sessionId AND l.batch_no = :batchNo AND l.status = 'COUNTED'";
+
+    private static final String SKIP_PENDING =
+            "UPDATE cycle_count_line SET status = 'SKIPPED' " +
+            "WHERE session_id = :sessionId AND (CAST(:batchNo AS integer) IS NULL OR batch_no = :batchNo) " +
+            "AND status = 'PENDING'";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Freeze the next candidates after the keyset cursor into a batch, in location order
+     * Book quantities come from one statement, so the batch is a consistent snapshot
+     */
+    public int freeze(String sessionId, int batchNo, String warehouseId, LocalDate countedBefore,
+                      String afterLocationId, String afterId, int limit) {
+        return jdbcTemplate.update(FREEZE, candidateParams(sessionId, batchNo, warehouseId, countedBefore)
+                .addValue("afterLocationId", afterLocationId)
+                .addValue("afterId", afterId)
+                .addValue("limit", limit));
+    }
+
+    /**
+     * Add the remaining candidates of a location to a batch, so a location is never split
+     */
+    public int freezeRestOfLocation(String sessionId, int batchNo, String warehouseId, LocalDate countedBefore,
+                                    String locationId, String afterId) {
+        return jdbcTemplate.update(FREEZE_REST_OF_LOCATION, candidateParams(sessionId, batchNo, warehouseId, countedBefore)
+                .addValue("locationId", locationId)
+                .addValue("afterId", afterId));
+    }
+
+    /**
+     * Highest (locationId, inventoryId) of a batch, null when the batch is empty
+     */
+    public String[] findLastKey(String sessionId, int batchNo) {
+        List<String[]> keys = jdbcTemplate.query(LAST_KEY, new MapSqlParameterSource()
+                        .addValue("sessionId", sessionId)
+                        .addValue("batchNo", batchNo),
+                (rs, rowNum) -> new String[]{rs.getString("location_id"), rs.getString("inventory_id")});
+        return keys.isEmpty() ? null : keys.get(0);
+    }
+
+    /**
+     * Record counted quantities in one JDBC batch (a later count replaces an earlier one)
+     * Returns the inventory ids that are not open lines of the batch
+     */
+    public List<String> recordCounts(String sessionId, int batchNo, Map<String, Double> countedByInventoryId) {
+        List<String> inventoryIds = new ArrayList<>(countedByInventoryId.keySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        SqlParameterSource[] batch = inventoryIds.stream()
+                .map(inventoryId -> new MapSqlParameterSource()
+                        .addValue("sessionId", sessionId)
+                        .addValue("batchNo", batchNo)
+                        .addValue("inventoryId", inventoryId)
+                        .addValue("countedQuantity", countedByInventoryId.get(inventoryId))
+                        .addValue("now", now))
+                .toArray(SqlParameterSource[]::new);
+        int[] updated = jdbcTemplate.batchUpdate(RECORD_COUNT, batch);
+
+        List<String> unmatched = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                unmatched.add(inventoryIds.get(i));
+            }
+        }
+        return unmatched;
+    }
+
+    /**
+     * Compute counted - book for every counted line of a batch in one pass, keyed by inventory id
+     */
+    public Map<String, Double> computeVariances(String sessionId, int batchNo) {
+        Map<String, Double> variances = new LinkedHashMap<>();
+        jdbcTemplate.query(COMPUTE_VARIANCES, new MapSqlParameterSource()
+                .addValue("sessionId", sessionId)
+                .addValue("batchNo", batchNo), rs -> {
+            variances.put(rs.getString("inventory_id"), rs.getDouble("variance"));
+        });
+        return variances;
+    }
+
+    public int markApplied(String sessionId, int batchNo) {
+        return jdbcTemplate.update(MARK_APPLIED, new MapSqlParameterSource()
+                .addValue("sessionId", sessionId)
+                .addValue("batchNo", batchNo)
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now())));
+    }
+
+    /**
+     * Skip lines never counted, in one batch or (batchNo null) the whole session
+     */
+    public int skipPending(String sessionId, Integer batchNo) {
+        return jdbcTemplate.update(SKIP_PENDING, new MapSqlParameterSource()
+                .addValue("sessionId", sessionId)
+                .addValue("batchNo", batchNo, Types.INTEGER));
+    }
+
+    private MapSqlParameterSource candidateParams(String sessionId, int batchNo, String warehouseId,
+                                                  LocalDate countedBefore) {
+        return new MapSqlParameterSource()
+                .addValue("sessionId", sessionId)
+                .addValue("batchNo", batchNo)
+                .addValue("warehouseId", warehouseId)
+                .addValue("countedBefore", Date.valueOf(countedBefore));
+    }
+}
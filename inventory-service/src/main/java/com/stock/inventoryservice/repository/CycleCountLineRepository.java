@@ -0,0 +1,16 @@
+package com.stock.inventoryservice.repository;
+
+import com.stock.inventoryservice.entity.CycleCountLine;
+import com.stock.inventoryservice.entity.CycleCountLineStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CycleCountLineRepository extends JpaRepository<CycleCountLine, Long> {
+
+    List<CycleCountLine> findBySessionIdAndBatchNoOrderByLocationIdAscInventoryIdAsc(String sessionId, Integer batchNo);
+
+    long countBySessionIdAndStatus(String sessionId, CycleCountLineStatus status);
+}
@@ -0,0 +1,25 @@
+package com.stock.inventoryservice.repository;
+
+import com.stock.inventoryservice.entity.CycleCountSession;
+import com.stock.inventoryservice.entity.CycleCountSessionStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CycleCountSessionRepository extends JpaRepository<CycleCountSession, String> {
+
+    /**
+     * Lock a session: batches are cut and reconciled one at a time per session
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CycleCountSession s WHERE s.id = :id")
+    Optional<CycleCountSession> findByIdForUpdate(@Param("id") String id);
+
+    boolean existsByWarehouseIdAndStatus(String warehouseId, CycleCountSessionStatus status);
+}
@@ -0,0 +1,9 @@
+package com.stock.inventoryservice.repository;
+
+import com.stock.inventoryservice.entity.DataMigration;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DataMigrationRepository extends JpaRepository<DataMigration, String> {
+}
@@ -0,0 +1,31 @@
+package com.stock.inventoryservice.repository;
+
+import com.stock.inventoryservice.entity.ExpiryBoundary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface ExpiryBoundaryRepository extends JpaRepository<ExpiryBoundary, Integer> {
+
+    /**
+     * First start ever: nothing before today is owed
+     */
+    @Modifying
+    @Query(value = "INSERT INTO expiry_boundary (id, last_boundary) VALUES (1, :today) ON CONFLICT (id) DO NOTHING",
+            nativeQuery = true)
+    int initialize(@Param("today") LocalDate today);
+
+    /**
+     * Move the boundary from previous to today; 0 rows when another instance moved it first
+     * (a concurrent claim waits for the holder's commit, then no longer matches)
+     */
+    @Modifying
+    @Query(value = "UPDATE expiry_boundary SET last_boundary = :today WHERE id = 1 AND last_boundary = :previous",
+            nativeQuery = true)
+    int claim(@Param("previous") LocalDate previous, @Param("today") LocalDate today);
+}
@@ -0,0 +1,296 @@
+package com.stock.inventoryservice.repository;
+
+import com.stock.inventoryservice.entity.Inventory;
+import com.stock.inventoryservice.entity.InventoryStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Set-based JDBC access to inventory rows for bulk writers
+ * (one round-trip per batch instead of one per row)
+ */
+@Repository
+@RequiredArgsConstructor
+public class InventoryBatchRepository {
+
+    private static final int MAX_PAIRS_PER_QUERY = 1000;
+
+    private static final String SELECT_IDS =
+            "SELECT id FROM inventory WHERE (item_id, location_id) IN (:keys)";
+
+    private static final String SELECT_BY_IDS_FOR_UPDATE =
+            "SELECT id, version, item_id, warehouse_id, location_id, lot_id, serial_id, " +
+            "quantity_on_hand, quantity_reserved, quantity_damaged, uom, status, last_count_date, expiry_date " +
+            "FROM inventory WHERE id IN (:ids) ORDER BY id COLLATE \"C\" FOR UPDATE"; // Same order as String.compareTo
+
+    private static final String SELECT_ID_CHUNK =
+            "SELECT id FROM inventory WHERE id > :afterId ORDER BY id COLLATE \"C\" LIMIT :limit";
+
+    // Rows already holding whole micro-units are left alone (and keep their version)
+    private static final String NORMALIZE_QUANTITIES =
+            "UPDATE inventory SET " +
+            "quantity_on_hand = ROUND(CAST(quantity_on_hand AS numeric), 6), " +
+            "quantity_reserved = ROUND(CAST(quantity_reserved AS numeric), 6), " +
+            "quantity_damaged = ROUND(CAST(quantity_damaged AS numeric), 6), " +
+            "version = version + 1, updated_at = now() " +
+            "WHERE id IN (:ids) AND (quantity_on_hand <> ROUND(CAST(quantity_on_hand AS numeric), 6) " +
+            "OR quantity_reserved <> ROUND(CAST(quantity_reserved AS numeric), 6) " +
+            "OR quantity_damaged <> ROUND(CAST(quantity_damaged AS numeric), 6)) " +
+            "RETURNING id";
+
+    private static final String SUM_AVAILABLE =
+            "SELECT item_id, location_id, SUM(quantity_on_hand - quantity_reserved) AS available " +
+            "FROM inventory WHERE (item_id, location_id) IN (:keys) GROUP BY item_id, location_id";
+
+    private static final String UPDATE_QUANTITIES =
+            "UPDATE inventory SET quantity_on_hand = :quantityOnHand, quantity_reserved = :quantityReserved, " +
+            "quantity_damaged = :quantityDamaged, status = :status, last_count_date = :lastCountDate, " +
+            "version = version + 1, updated_at = :now WHERE id = :id";
+
+    private static final String INSERT =
+            "INSERT INTO inventory (id, version, item_id, warehouse_id, location_id, lot_id, serial_id, " +
+            "quantity_on_hand, quantity_reserved, quantity_damaged, uom, status, last_count_date, " +
+            "created_at, updated_at) VALUES (:id, 0, :itemId, :warehouseId, :locationId, :lotId, :serialId, " +
+            ":quantityOnHand, :quantityReserved, :quantityDamaged, :uom, :status, :lastCountDate, :now, :now)";
+
+    // Imported fields win; reservations are owned by this service and are kept
+    private static final String UPSERT =
+            "INSERT INTO inventory (id, version, item_id, warehouse_id, location_id, lot_id, serial_id, " +
+            "quantity_on_hand, quantity_reserved, quantity_damaged, uom, status, unit_cost, expiry_date, " +
+            "manufacture_date, created_at, updated_at) VALUES (:id, 0, :itemId, :warehouseId, :locationId, " +
+            ":lotId, :serialId, :quantityOnHand, :quantityReserved, :quantityDamaged, :uom, :status, :unitCost, " +
+            ":expiryDate, :manufactureDate, :now, :now) " +
+            "ON CONFLICT (item_id, location_id) DO UPDATE SET " +
+            "warehouse_id = EXCLUDED.warehouse_id, lot_id = EXCLUDED.lot_id, serial_id = EXCLUDED.serial_id, " +
+            "quantity_on_hand = EXCLUDED.quantity_on_hand, quantity_damaged = EXCLUDED.quantity_damaged, " +
+            "uom = EXCLUDED.uom, status = EXCLUDED.status, unit_cost = EXCLUDED.unit_cost, " +
+            "expiry_date = EXCLUDED.expiry_date, manufacture_date = EXCLUDED.manufacture_date, " +
+            "version = inventory.version + 1, updated_at = EXCLUDED.updated_at";
+
+    private static final String INSERT_CHANGE =
+            "INSERT INTO inventory_change (txid, inventory_id, change_type, changed_at) " +
+            "VALUES (pg_current_xact_id()::text::bigint, :inventoryId, :changeType, :now)";
+
+    private static final String HAS_ITEM_LOCATION_KEY =
+            "SELECT EXISTS (SELECT 1 FROM pg_constraint " +
+            "WHERE conname = 'uk_inventory_item_location' AND conrelid = 'inventory'::regclass)";
+
+    private static final String COUNT_DUPLICATE_ITEM_LOCATIONS =
+            "SELECT COUNT(*) FROM (SELECT 1 FROM inventory GROUP BY item_id, location_id HAVING COUNT(*) > 1) duplicates";
+
+    private static final String ADD_ITEM_LOCATION_KEY =
+            "ALTER TABLE inventory ADD CONSTRAINT uk_inventory_item_location UNIQUE (item_id, location_id)";
+
+    private static final RowMapper<Inventory> ROW_MAPPER = (rs, rowNum) -> Inventory.builder()
+            .id(rs.getString("id"))
+            .version(rs.getLong("version"))
+            .itemId(rs.getString("item_id"))
+            .warehouseId(rs.getString("warehouse_id"))
+            .locationId(rs.getString("location_id"))
+            .lotId(rs.getString("lot_id"))
+            .serialId(rs.getString("serial_id"))
+            .quantityOnHand(rs.getDouble("quantity_on_hand"))
+            .quantityReserved(rs.getDouble("quantity_reserved"))
+            .quantityDamaged(rs.getDouble("quantity_damaged"))
+            .uom(rs.getString("uom"))
+            .status(rs.getString("status") != null ? InventoryStatus.valueOf(rs.getString("status")) : null)
+            .lastCountDate(rs.getDate("last_count_date") != null ? rs.getDate("last_count_date").toLocalDate() : null)
+            .expiryDate(rs.getDate("expiry_date") != null ? rs.getDate("expiry_date").toLocalDate() : null)
+            .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Load and row-lock every inventory row matching one of the (itemId, locationId) pairs
+     * The ids are resolved first (no locks), then locked through lockByIds, so every batch
+     * locks in the same global id order whatever its size
+     * The returned objects are detached, in id order: write them back with updateQuantities
+     */
+    public List<Inventory> lockByItemAndLocation(Collection<String[]> itemLocationPairs) {
+        List<String[]> pairs = new ArrayList<>(itemLocationPairs);
+        List<String> ids = new ArrayList<>();
+        // Stay well below the driver's bind-parameter limit
+        for (int from = 0; from < pairs.size(); from += MAX_PAIRS_PER_QUERY) {
+            List<String[]> chunk = pairs.subList(from, Math.min(from + MAX_PAIRS_PER_QUERY, pairs.size()));
+            ids.addAll(jdbcTemplate.queryForList(SELECT_IDS, new MapSqlParameterSource("keys", chunk), String.class));
+        }
+        Map<String, Inventory> rows = lockByIds(ids);
+        return ids.stream().distinct().sorted().map(rows::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Load and row-lock inventory rows by id, keyed by id
+     * Ids are sorted and locked in ascending order across all chunks (canonical lock order)
+     */
+    public Map<String, Inventory> lockByIds(Collection<String> ids) {
+        List<String> sortedIds = ids.stream().distinct().sorted().toList();
+        Map<String, Inventory> rows = new HashMap<>();
+        for (int from = 0; from < sortedIds.size(); from += MAX_PAIRS_PER_QUERY) {
+            List<String> chunk = sortedIds.subList(from, Math.min(from + MAX_PAIRS_PER_QUERY, sortedIds.size()));
+            jdbcTemplate.query(SELECT_BY_IDS_FOR_UPDATE, new MapSqlParameterSource("ids", chunk), ROW_MAPPER)
+                    .forEach(inventory -> rows.put(inventory.getId(), inventory));
+        }
+        return rows;
+    }
+
+    /**
+     * Next chunk of inventory ids after afterId, in id order
+     */
+    public List<String> findIdChunkAfter(String afterId, int limit) {
+        return jdbcTemplate.queryForList(SELECT_ID_CHUNK,
+                new MapSqlParameterSource("afterId", afterId).addValue("limit", limit), String.class);
+    }
+
+    /**
+     * Round the quantities of the given rows to whole micro-units (see Quantities)
+     *
+     * @return ids of the rows that changed
+     */
+    public List<String> normalizeQuantities(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList(NORMALIZE_QUANTITIES, new MapSqlParameterSource("ids", ids), String.class);
+    }
+
+    // ===== SCHEMA =====
+
+    /**
+     * Whether the (item_id, location_id) unique key the import upsert relies on exists
+     */
+    public boolean hasItemLocationKey() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(HAS_ITEM_LOCATION_KEY, Map.of(), Boolean.class));
+    }
+
+    /**
+     * Number of (item_id, location_id) pairs held by more than one inventory row
+     */
+    public long countDuplicateItemLocations() {
+        Long duplicates = jdbcTemplate.queryForObject(COUNT_DUPLICATE_ITEM_LOCATIONS, Map.of(), Long.class);
+        return duplicates != null ? duplicates : 0;
+    }
+
+    public void addItemLocationKey() {
+        jdbcTemplate.update(ADD_ITEM_LOCATION_KEY, Map.of());
+    }
+
+    /**
+     * Available quantity per (itemId, locationId) pair, keyed "itemId|locationId"
+     * Pairs without stock are absent from the result
+     */
+    public Map<String, Double> sumAvailableByItemAndLocation(Collection<String[]> itemLocationPairs) {
+        List<String[]> pairs = new ArrayList<>(itemLocationPairs);
+        Map<String, Double> available = new HashMap<>();
+        for (int from = 0; from < pairs.size(); from += MAX_PAIRS_PER_QUERY) {
+            List<String[]> chunk = pairs.subList(from, Math.min(from + MAX_PAIRS_PER_QUERY, pairs.size()));
+            jdbcTemplate.query(SUM_AVAILABLE, new MapSqlParameterSource("keys", chunk), rs -> {
+                available.put(rs.getString("item_id") + "|" + rs.getString("location_id"), rs.getDouble("available"));
+            });
+        }
+        return available;
+    }
+
+    /**
+     * Write quantities, status and count date of existing rows in one JDBC batch
+     * The objects' versions are bumped to match the rows
+     */
+    public void updateQuantities(Collection<Inventory> inventories) {
+        if (inventories.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        SqlParameterSource[] batch = inventories.stream()
+                .map(inventory -> quantityParams(inventory, now).addValue("id", inventory.getId()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(UPDATE_QUANTITIES, batch);
+        inventories.forEach(inventory -> inventory.setVersion(inventory.getVersion() + 1));
+    }
+
+    /**
+     * Insert new rows in one JDBC batch (ids are assigned by the caller)
+     */
+    public void insertAll(Collection<Inventory> inventories) {
+        if (inventories.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        SqlParameterSource[] batch = inventories.stream()
+                .map(inventory -> quantityParams(inventory, now)
+                        .addValue("id", inventory.getId())
+                        .addValue("itemId", inventory.getItemId())
+                        .addValue("warehouseId", inventory.getWarehouseId())
+                        .addValue("locationId", inventory.getLocationId())
+                        .addValue("lotId", inventory.getLotId())
+                        .addValue("serialId", inventory.getSerialId())
+                        .addValue("uom", inventory.getUom()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT, batch);
+        inventories.forEach(inventory -> inventory.setVersion(0L));
+    }
+
+    /**
+     * Insert or overwrite rows keyed by (item_id, location_id) in one JDBC batch
+     * New rows take the caller's id; existing rows keep theirs and their reserved quantity
+     */
+    public void upsertAll(Collection<Inventory> inventories) {
+        if (inventories.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        SqlParameterSource[] batch = inventories.stream()
+                .map(inventory -> quantityParams(inventory, now)
+                        .addValue("id", inventory.getId())
+                        .addValue("itemId", inventory.getItemId())
+                        .addValue("warehouseId", inventory.getWarehouseId())
+                        .addValue("locationId", inventory.getLocationId())
+                        .addValue("lotId", inventory.getLotId())
+                        .addValue("serialId", inventory.getSerialId())
+                        .addValue("uom", inventory.getUom())
+                        .addValue("unitCost", inventory.getUnitCost())
+                        .addValue("expiryDate", inventory.getExpiryDate() != null ? Date.valueOf(inventory.getExpiryDate()) : null)
+                        .addValue("manufactureDate", inventory.getManufactureDate() != null ? Date.valueOf(inventory.getManufactureDate()) : null))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(UPSERT, batch);
+    }
+
+    /**
+     * Append change feed entries for rows written by the current transaction, in one JDBC batch
+     */
+    public void insertChanges(Collection<String> inventoryIds, String changeType) {
+        if (inventoryIds.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        SqlParameterSource[] batch = inventoryIds.stream()
+                .map(inventoryId -> new MapSqlParameterSource()
+                        .addValue("inventoryId", inventoryId)
+                        .addValue("changeType", changeType)
+                        .addValue("now", now))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_CHANGE, batch);
+    }
+
+    private MapSqlParameterSource quantityParams(Inventory inventory, LocalDateTime now) {
+        return new MapSqlParameterSource()
+                .addValue("quantityOnHand", inventory.getQuantityOnHand())
+                .addValue("quantityReserved", inventory.getQuantityReserved())
+                .addValue("quantityDamaged", inventory.getQuantityDamaged())
+                .addValue("status", inventory.getStatus() != null ? inventory.getStatus().name() : null)
+                .addValue("lastCountDate", inventory.getLastCountDate() != null ? Date.valueOf(inventory.getLastCountDate()) : null)
+                .addValue("now", Timestamp.valueOf(now));
+    }
+}
@@ -0,0 +1,42 @@
+package com.stock.inventoryservice.repository;
+
+import com.stock.inventoryservice.entity.InventoryChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface InventoryChangeRepository extends JpaRepository<InventoryChange, Long> {
+
+    /**
+     * Next entries after a (txid, sequence) position, in feed order
+     * Only transactions older than every running one are visible (txid below the snapshot xmin),
+     * so an entry can never commit behind a position already handed out
+     */
+    @Query(value = "SELECT * FROM inventory_change " +
+            "WHERE (txid, seq) > (:afterTxid, :afterSequence) " +
+            "AND txid < CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS bigint) " +
+            "ORDER BY txid, seq LIMIT :limit",
+            nativeQuery = true)
+    List<InventoryChange> findCompletedAfter(@Param("afterTxid") long afterTxid,
+                                             @Param("afterSequence") long afterSequence,
+                                             @Param("limit") int limit);
+
+    /**
+     * Highest transaction id known to be complete (feed head)
+     */
+    @Query(value = "SELECT CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS bigint) - 1", nativeQuery = true)
+    long findCompletedTxidHead();
+
+    /**
+     * Delete entries older than the retention window
+     */
+    @Modifying
+    @Query("DELETE FROM InventoryChange c WHERE c.changedAt < :cutoff")
+    int deleteByChangedAtBefore(@Param("cutoff") LocalDateTime cutoff);
+}
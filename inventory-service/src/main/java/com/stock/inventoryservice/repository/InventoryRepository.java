@@ -2,17 +2,73 @@ package com.stock.inventoryservice.repository;
 
 import com.stock.inventoryservice.entity.Inventory;
 import com.stock.inventoryservice.entity.InventoryStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface InventoryRepository extends JpaRepository<Inventory, String> {
+public interface InventoryRepository extends JpaRepository<Inventory, String>,
+        JpaSpecificationExecutor<Inventory> {
+
+    /**
+     * Slim projection of a row's availability (what the ATP index keeps)
+     */
+    interface AtpRow {
+        String getId();
+        Long getVersion();
+        String getItemId();
+        String getWarehouseId();
+        String getLocationId();
+        Double getQuantityOnHand();
+        Double getQuantityReserved();
+        InventoryStatus getStatus();
+    }
+
+    /**
+     * Slim projection of a lot-tracked row (what FEFO allocation needs)
+     */
+    interface LotStockRow {
+        String getId();
+        Long getVersion();
+        String getLotId();
+        String getWarehouseId();
+        String getLocationId();
+        Double getQuantityOnHand();
+        Double getQuantityReserved();
+        InventoryStatus getStatus();
+    }
+
+    /**
+     * Id and expiry date of a row (expiry calendar bootstrap)
+     */
+    interface ExpiryRow {
+        String getId();
+        LocalDate getExpiryDate();
+    }
+
+    /**
+     * Slim projection of a low-stock row (only what alerting needs)
+     */
+    interface LowStockRow {
+        String getId();
+        String getItemId();
+        String getLocationId();
+        String getWarehouseId();
+        Double getAvailableQuantity();
+    }
 
     // ===== BASIC LOOKUPS =====
 
@@ -79,6 +135,36 @@ public interface InventoryRepository extends JpaRepository<Inventory, String> {
     @Query("SELECT i FROM Inventory i WHERE (i.quantityOnHand - i.quantityReserved) <= 0")
     List<Inventory> findOutOfStockItems();
 
+    // ===== ATOMIC RESERVATION UPDATES =====
+
+    /**
+     * Reserve quantity in a single guarded statement.
+     * The availability check and the increment happen atomically in the database,
+     * so concurrent reservations on the same row never conflict on @Version.
+     * Sums are rounded to whole micro-units, like every Java-side write (see Quantities).
+     *
+     * @return number of rows updated (1 = reserved, 0 = not found or insufficient stock)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE inventory SET quantity_reserved = ROUND(CAST(quantity_reserved + :quantity AS numeric), 6), " +
+            "version = version + 1, updated_at = now() " +
+            "WHERE id = :id AND ROUND(CAST(quantity_reserved + :quantity AS numeric), 6) " +
+            "<= ROUND(CAST(quantity_on_hand AS numeric), 6)",
+            nativeQuery = true)
+    int reserveIfAvailable(@Param("id") String id, @Param("quantity") Double quantity);
+
+    /**
+     * Release reserved quantity in a single guarded statement.
+     *
+     * @return number of rows updated (1 = released, 0 = not found or not enough reserved)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE inventory SET quantity_reserved = ROUND(CAST(quantity_reserved - :quantity AS numeric), 6), " +
+            "version = version + 1, updated_at = now() " +
+            "WHERE id = :id AND ROUND(CAST(quantity_reserved AS numeric), 6) >= ROUND(CAST(:quantity AS numeric), 6)",
+            nativeQuery = true)
+    int releaseIfReserved(@Param("id") String id, @Param("quantity") Double quantity);
+
     // ===== AGGREGATE QUERIES =====
 
     /**
@@ -103,6 +189,90 @@ public interface InventoryRepository extends JpaRepository<Inventory, String> {
             @Param("itemId") String itemId,
             @Param("warehouseId") String warehouseId);
 
+    /**
+     * Get total available quantity for an item at a specific warehouse
+     */
+    @Query("SELECT SUM(i.quantityOnHand - i.quantityReserved) FROM Inventory i " +
+            "WHERE i.itemId = :itemId AND i.warehouseId = :warehouseId AND i.status = 'AVAILABLE'")
+    Double getTotalAvailableQuantityForItemAtWarehouse(
+            @Param("itemId") String itemId,
+            @Param("warehouseId") String warehouseId);
+
+    // ===== KEYSET PAGINATION (pageable must sort by id, page 0) =====
+
+    List<Inventory> findByIdGreaterThan(String afterId, Pageable pageable);
+
+    List<Inventory> findByWarehouseIdAndIdGreaterThan(String warehouseId, String afterId, Pageable pageable);
+
+    List<Inventory> findByLocationIdAndIdGreaterThan(String locationId, String afterId, Pageable pageable);
+
+    @Query("SELECT i.id AS id, i.version AS version, i.itemId AS itemId, i.warehouseId AS warehouseId, " +
+            "i.locationId AS locationId, i.quantityOnHand AS quantityOnHand, " +
+            "i.quantityReserved AS quantityReserved, i.status AS status " +
+            "FROM Inventory i WHERE i.id > :afterId ORDER BY i.id")
+    List<AtpRow> findAtpRowsAfter(@Param("afterId") String afterId, Pageable pageable);
+
+    /**
+     * Every lot-tracked row of an item, for the lots given
+     */
+    @Query("SELECT i.id AS id, i.version AS version, i.lotId AS lotId, i.warehouseId AS warehouseId, " +
+            "i.locationId AS locationId, i.quantityOnHand AS quantityOnHand, " +
+            "i.quantityReserved AS quantityReserved, i.status AS status " +
+            "FROM Inventory i WHERE i.itemId = :itemId AND i.lotId IN :lotIds")
+    List<LotStockRow> findLotStockRows(@Param("itemId") String itemId, @Param("lotIds") Collection<String> lotIds);
+
+    /**
+     * Next chunk of rows that have an expiry date, in id order
+     */
+    @Query("SELECT i.id AS id, i.expiryDate AS expiryDate FROM Inventory i " +
+            "WHERE i.id > :afterId AND i.expiryDate IS NOT NULL ORDER BY i.id")
+    List<ExpiryRow> findExpiryRowsAfter(@Param("afterId") String afterId, Pageable pageable);
+
+    // ===== STREAMING (server-side cursor, must be consumed inside a transaction) =====
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT i FROM Inventory i ORDER BY i.id")
+    Stream<Inventory> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT i FROM Inventory i WHERE i.warehouseId = :warehouseId ORDER BY i.id")
+    Stream<Inventory> streamByWarehouseId(@Param("warehouseId") String warehouseId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT i FROM Inventory i WHERE i.locationId = :locationId ORDER BY i.id")
+    Stream<Inventory> streamByLocationId(@Param("locationId") String locationId);
+
+    // ===== LOW STOCK SCAN (KEYSET) =====
+
+    /**
+     * Next chunk of rows below the threshold with id in (afterId, upperId), in id order
+     * The predicate is evaluated in the database; only matching rows are returned
+     * (callers pass the highest reorder point and check each row's own threshold)
+     */
+    @Query(value = "SELECT id AS id, item_id AS itemId, location_id AS locationId, warehouse_id AS warehouseId, " +
+            "(quantity_on_hand - quantity_reserved) AS availableQuantity FROM inventory " +
+            "WHERE id > :afterId AND id < :upperId " +
+            "AND (quantity_on_hand - quantity_reserved) < :threshold " +
+            "ORDER BY id LIMIT :limit",
+            nativeQuery = true)
+    List<LowStockRow> findLowStockChunk(@Param("afterId") String afterId,
+                                        @Param("upperId") String upperId,
+                                        @Param("threshold") Double threshold,
+                                        @Param("limit") int limit);
+
+    /**
+     * Same as findLowStockChunk for the last key range (no upper bound)
+     */
+    @Query(value = "SELECT id AS id, item_id AS itemId, location_id AS locationId, warehouse_id AS warehouseId, " +
+            "(quantity_on_hand - quantity_reserved) AS availableQuantity FROM inventory " +
+            "WHERE id > :afterId " +
+            "AND (quantity_on_hand - quantity_reserved) < :threshold " +
+            "ORDER BY id LIMIT :limit",
+            nativeQuery = true)
+    List<LowStockRow> findLowStockChunkUnbounded(@Param("afterId") String afterId,
+                                                 @Param("threshold") Double threshold,
+                                                 @Param("limit") int limit);
+
     // ===== EXPIRY QUERIES =====
 
     /**
@@ -165,6 +335,12 @@ public interface InventoryRepository extends JpaRepository<Inventory, String> {
     @Query("SELECT DISTINCT i.itemId FROM Inventory i")
     List<String> findAllDistinctItemIds();
 
+    /**
+     * Count distinct items held in inventory
+     */
+    @Query("SELECT COUNT(DISTINCT i.itemId) FROM Inventory i")
+    long countDistinctItemIds();
+
     /**
      * Count inventory records by warehouse
      */
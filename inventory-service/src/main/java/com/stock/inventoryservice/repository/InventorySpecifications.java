@@ -0,0 +1,101 @@
+package com.stock.inventoryservice.repository;
+
+import com.stock.inventoryservice.dto.request.InventorySearchRequest;
+import com.stock.inventoryservice.entity.Inventory;
+import com.stock.inventoryservice.entity.InventoryStatus;
+import com.stock.inventoryservice.entity.Lot;
+import com.stock.inventoryservice.entity.Serial;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inventory search predicates for InventoryRepository (JpaSpecificationExecutor)
+ * Only the criteria actually supplied become predicates, so the planner can pick
+ * the composite index matching the combination (see Inventory indexes)
+ */
+public final class InventorySpecifications {
+
+    private InventorySpecifications() {
+    }
+
+    /**
+     * All supplied criteria, AND-ed, restricted to ids after the keyset cursor
+     * status must already be validated (InventoryStatus name)
+     */
+    public static Specification<Inventory> matching(InventorySearchRequest criteria, String afterId,
+                                                    double defaultLowStockThreshold) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (afterId != null && !afterId.isEmpty()) {
+                predicates.add(cb.greaterThan(root.get("id"), afterId));
+            }
+            if (criteria.getItemVariantId() != null) {
+                predicates.add(cb.equal(root.get("itemId"), criteria.getItemVariantId()));
+            }
+            if (criteria.getWarehouseId() != null) {
+                predicates.add(cb.equal(root.get("warehouseId"), criteria.getWarehouseId()));
+            }
+            if (criteria.getLocationId() != null) {
+                predicates.add(cb.equal(root.get("locationId"), criteria.getLocationId()));
+            }
+            if (criteria.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), InventoryStatus.valueOf(criteria.getStatus())));
+            }
+            if (criteria.getLotId() != null) {
+                predicates.add(cb.equal(root.get("lotId"), criteria.getLotId()));
+            }
+            if (criteria.getLotNumber() != null) {
+                Subquery<String> lotIds = query.subquery(String.class);
+                Root<Lot> lot = lotIds.from(Lot.class);
+                lotIds.select(lot.get("id")).where(cb.equal(lot.get("lotNumber"), criteria.getLotNumber()));
+                predicates.add(root.get("lotId").in(lotIds));
+            }
+            if (criteria.getSerialNumber() != null) {
+                Subquery<String> serialIds = query.subquery(String.class);
+                Root<Serial> serial = serialIds.from(Serial.class);
+                serialIds.select(serial.get("id")).where(cb.equal(serial.get("serialNumber"), criteria.getSerialNumber()));
+                predicates.add(root.get("serialId").in(serialIds));
+            }
+            if (criteria.getExpirationDateFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("expiryDate"),
+                        criteria.getExpirationDateFrom().toLocalDate()));
+            }
+            if (criteria.getExpirationDateTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("expiryDate"),
+                        criteria.getExpirationDateTo().toLocalDate()));
+            }
+            if (criteria.getMinQuantityOnHand() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("quantityOnHand"), criteria.getMinQuantityOnHand()));
+            }
+            if (criteria.getMaxQuantityOnHand() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("quantityOnHand"), criteria.getMaxQuantityOnHand()));
+            }
+            if (criteria.getMinAvailableQuantity() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(available(root, cb), criteria.getMinAvailableQuantity()));
+            }
+            if (criteria.getMaxAvailableQuantity() != null) {
+                predicates.add(cb.lessThanOrEqualTo(available(root, cb), criteria.getMaxAvailableQuantity()));
+            }
+            if (Boolean.TRUE.equals(criteria.getLowStock())) {
+                double threshold = criteria.getLowStockThreshold() != null
+                        ? criteria.getLowStockThreshold() : defaultLowStockThreshold;
+                predicates.add(cb.lessThan(available(root, cb), threshold));
+                predicates.add(cb.equal(root.get("status"), InventoryStatus.AVAILABLE));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static Expression<Double> available(Root<Inventory> root, CriteriaBuilder cb) {
+        return cb.diff(root.<Double>get("quantityOnHand"), root.<Double>get("quantityReserved"));
+    }
+}
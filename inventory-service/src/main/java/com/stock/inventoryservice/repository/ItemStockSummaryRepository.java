@@ -0,0 +1,103 @@
+package com.stock.inventoryservice.repository;
+
+import com.stock.inventoryservice.entity.ItemStockSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ItemStockSummaryRepository extends JpaRepository<ItemStockSummary, String> {
+
+    /**
+     * Projection of an item's totals, computed from inventory
+     */
+    interface ItemStockTotal {
+        String getItemId();
+        String getWarehouseId();
+        Double getQuantityOnHand();
+        Double getQuantityReserved();
+        Double getQuantityDamaged();
+        Double getQuantityAvailable();
+        Long getLocationCount();
+    }
+
+    // ===== INCREMENTAL MAINTENANCE =====
+
+    /**
+     * Add deltas to the totals of an item (creates the row if missing)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO item_stock_summary (item_id, quantity_on_hand, quantity_reserved, " +
+            "quantity_damaged, quantity_available, location_count, updated_at) " +
+            "VALUES (:itemId, :onHand, :reserved, :damaged, :available, :locations, now()) " +
+            "ON CONFLICT (item_id) DO UPDATE SET " +
+            "quantity_on_hand = item_stock_summary.quantity_on_hand + EXCLUDED.quantity_on_hand, " +
+            "quantity_reserved = item_stock_summary.quantity_reserved + EXCLUDED.quantity_reserved, " +
+            "quantity_damaged = item_stock_summary.quantity_damaged + EXCLUDED.quantity_damaged, " +
+            "quantity_available = item_stock_summary.quantity_available + EXCLUDED.quantity_available, " +
+            "location_count = item_stock_summary.location_count + EXCLUDED.location_count, " +
+            "updated_at = now()",
+            nativeQuery = true)
+    int applyDelta(@Param("itemId") String itemId,
+                   @Param("onHand") double onHand,
+                   @Param("reserved") double reserved,
+                   @Param("damaged") double damaged,
+                   @Param("available") double available,
+                   @Param("locations") long locations);
+
+    /**
+     * Overwrite the totals of an item (used by reconciliation)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO item_stock_summary (item_id, quantity_on_hand, quantity_reserved, " +
+            "quantity_damaged, quantity_available, location_count, updated_at) " +
+            "VALUES (:itemId, :onHand, :reserved, :damaged, :available, :locations, now()) " +
+            "ON CONFLICT (item_id) DO UPDATE SET " +
+            "quantity_on_hand = EXCLUDED.quantity_on_hand, quantity_reserved = EXCLUDED.quantity_reserved, " +
+            "quantity_damaged = EXCLUDED.quantity_damaged, quantity_available = EXCLUDED.quantity_available, " +
+            "location_count = EXCLUDED.location_count, updated_at = now()",
+            nativeQuery = true)
+    int overwrite(@Param("itemId") String itemId,
+                  @Param("onHand") double onHand,
+                  @Param("reserved") double reserved,
+                  @Param("damaged") double damaged,
+                  @Param("available") double available,
+                  @Param("locations") long locations);
+
+    // ===== RECONCILIATION =====
+
+    /**
+     * Lock the summary rows of a chunk so concurrent deltas wait until it is rebuilt
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ItemStockSummary> findByItemIdIn(Collection<String> itemIds);
+
+    /**
+     * Next chunk of distinct item IDs from inventory (keyset over item_id)
+     */
+    @Query(value = "SELECT DISTINCT item_id FROM inventory " +
+            "WHERE item_id > :afterItemId ORDER BY item_id LIMIT :limit",
+            nativeQuery = true)
+    List<String> findNextItemIds(@Param("afterItemId") String afterItemId, @Param("limit") int limit);
+
+    /**
+     * Recompute (item, warehouse) totals from inventory for a set of items
+     */
+    @Query(value = "SELECT item_id AS itemId, warehouse_id AS warehouseId, " +
+            "COALESCE(SUM(quantity_on_hand), 0) AS quantityOnHand, " +
+            "COALESCE(SUM(quantity_reserved), 0) AS quantityReserved, " +
+            "COALESCE(SUM(quantity_damaged), 0) AS quantityDamaged, " +
+            "COALESCE(SUM(CASE WHEN status = 'AVAILABLE' THEN quantity_on_hand - quantity_reserved ELSE 0 END), 0) " +
+            "AS quantityAvailable, " +
+            "COUNT(*) FILTER (WHERE quantity_on_hand > 0) AS locationCount " +
+            "FROM inventory WHERE item_id IN (:itemIds) GROUP BY item_id, warehouse_id",
+            nativeQuery = true)
+    List<ItemStockTotal> sumByItemAndWarehouse(@Param("itemIds") Collection<String> itemIds);
+}
@@ -0,0 +1,74 @@
+package com.stock.inventoryservice.repository;
+
+import com.stock.inventoryservice.entity.ItemWarehouseStockSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ItemWarehouseStockSummaryRepository
+        extends JpaRepository<ItemWarehouseStockSummary, ItemWarehouseStockSummary.Key> {
+
+    // ===== INCREMENTAL MAINTENANCE =====
+
+    /**
+     * Add deltas to the totals of an (item, warehouse) pair (creates the row if missing)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO item_warehouse_stock_summary (item_id, warehouse_id, quantity_on_hand, " +
+            "quantity_reserved, quantity_damaged, quantity_available, location_count, updated_at) " +
+            "VALUES (:itemId, :warehouseId, :onHand, :reserved, :damaged, :available, :locations, now()) " +
+            "ON CONFLICT (item_id, warehouse_id) DO UPDATE SET " +
+            "quantity_on_hand = item_warehouse_stock_summary.quantity_on_hand + EXCLUDED.quantity_on_hand, " +
+            "quantity_reserved = item_warehouse_stock_summary.quantity_reserved + EXCLUDED.quantity_reserved, " +
+            "quantity_damaged = item_warehouse_stock_summary.quantity_damaged + EXCLUDED.quantity_damaged, " +
+            "quantity_available = item_warehouse_stock_summary.quantity_available + EXCLUDED.quantity_available, " +
+            "location_count = item_warehouse_stock_summary.location_count + EXCLUDED.location_count, " +
+            "updated_at = now()",
+            nativeQuery = true)
+    int applyDelta(@Param("itemId") String itemId,
+                   @Param("warehouseId") String warehouseId,
+                   @Param("onHand") double onHand,
+                   @Param("reserved") double reserved,
+                   @Param("damaged") double damaged,
+                   @Param("available") double available,
+                   @Param("locations") long locations);
+
+    /**
+     * Overwrite the totals of an (item, warehouse) pair (used by reconciliation)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO item_warehouse_stock_summary (item_id, warehouse_id, quantity_on_hand, " +
+            "quantity_reserved, quantity_damaged, quantity_available, location_count, updated_at) " +
+            "VALUES (:itemId, :warehouseId, :onHand, :reserved, :damaged, :available, :locations, now()) " +
+            "ON CONFLICT (item_id, warehouse_id) DO UPDATE SET " +
+            "quantity_on_hand = EXCLUDED.quantity_on_hand, quantity_reserved = EXCLUDED.quantity_reserved, " +
+            "quantity_damaged = EXCLUDED.quantity_damaged, quantity_available = EXCLUDED.quantity_available, " +
+            "location_count = EXCLUDED.location_count, updated_at = now()",
+            nativeQuery = true)
+    int overwrite(@Param("itemId") String itemId,
+                  @Param("warehouseId") String warehouseId,
+                  @Param("onHand") double onHand,
+                  @Param("reserved") double reserved,
+                  @Param("damaged") double damaged,
+                  @Param("available") double available,
+                  @Param("locations") long locations);
+
+    /**
+     * Warehouses holding stock of an item (bounded by warehouses, not locations)
+     */
+    @Query("SELECT COUNT(s) FROM ItemWarehouseStockSummary s WHERE s.itemId = :itemId AND s.locationCount > 0")
+    long countStockedWarehouses(@Param("itemId") String itemId);
+
+    // ===== RECONCILIATION =====
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ItemWarehouseStockSummary> findByItemIdIn(Collection<String> itemIds);
+}
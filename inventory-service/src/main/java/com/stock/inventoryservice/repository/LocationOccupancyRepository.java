@@ -0,0 +1,96 @@
+package com.stock.inventoryservice.repository;
+
+import com.stock.inventoryservice.entity.LocationOccupancy;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LocationOccupancyRepository extends JpaRepository<LocationOccupancy, String> {
+
+    /**
+     * Projection of the on-hand total for one location, computed from inventory
+     */
+    interface LocationQuantityTotal {
+        String getLocationId();
+        Double getTotalQuantity();
+    }
+
+    // ===== INCREMENTAL MAINTENANCE =====
+
+    /**
+     * Add a delta to the running total of a location (creates the row if missing)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO location_occupancy (location_id, total_quantity, updated_at) " +
+            "VALUES (:locationId, :delta, now()) " +
+            "ON CONFLICT (location_id) DO UPDATE " +
+            "SET total_quantity = location_occupancy.total_quantity + EXCLUDED.total_quantity, " +
+            "updated_at = now()",
+            nativeQuery = true)
+    int applyDelta(@Param("locationId") String locationId, @Param("delta") Double delta);
+
+    /**
+     * Overwrite the running total of a location (used by reconciliation)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO location_occupancy (location_id, total_quantity, updated_at) " +
+            "VALUES (:locationId, :total, now()) " +
+            "ON CONFLICT (location_id) DO UPDATE " +
+            "SET total_quantity = EXCLUDED.total_quantity, updated_at = now()",
+            nativeQuery = true)
+    int overwriteTotal(@Param("locationId") String locationId, @Param("total") Double total);
+
+    // ===== RECONCILIATION =====
+
+    /**
+     * Create zero rows for the chunk's locations that have none yet, so the lock below also
+     * covers locations whose first delta is still being written
+     */
+    @Modifying
+    @Query(value = "INSERT INTO location_occupancy (location_id, total_quantity, updated_at) " +
+            "SELECT DISTINCT location_id, 0, now() FROM inventory WHERE location_id IN (:locationIds) " +
+            "ON CONFLICT (location_id) DO NOTHING",
+            nativeQuery = true)
+    int insertMissing(@Param("locationIds") Collection<String> locationIds);
+
+    /**
+     * Lock the aggregate rows of a chunk so concurrent deltas wait until it is rebuilt
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<LocationOccupancy> findByLocationIdIn(Collection<String> locationIds);
+
+    /**
+     * Next chunk of distinct location IDs from inventory (keyset over location_id)
+     */
+    @Query(value = "SELECT DISTINCT location_id FROM inventory " +
+            "WHERE location_id > :afterLocationId ORDER BY location_id LIMIT :limit",
+            nativeQuery = true)
+    List<String> findNextLocationIds(@Param("afterLocationId") String afterLocationId,
+                                     @Param("limit") int limit);
+
+    /**
+     * Recompute on-hand totals from inventory for a set of locations
+     */
+    @Query(value = "SELECT location_id AS locationId, COALESCE(SUM(quantity_on_hand), 0) AS totalQuantity " +
+            "FROM inventory WHERE location_id IN (:locationIds) GROUP BY location_id",
+            nativeQuery = true)
+    List<LocationQuantityTotal> sumQuantityOnHandByLocation(@Param("locationIds") Collection<String> locationIds);
+
+    /**
+     * Zero out aggregate rows whose location no longer holds any inventory
+     */
+    @Modifying
+    @Query(value = "UPDATE location_occupancy o SET total_quantity = 0, updated_at = now() " +
+            "WHERE o.total_quantity <> 0 " +
+            "AND NOT EXISTS (SELECT 1 FROM inventory i WHERE i.location_id = o.location_id)",
+            nativeQuery = true)
+    int zeroOrphanedLocations();
+}
@@ -2,6 +2,7 @@ package com.stock.inventoryservice.repository;
 
 import com.stock.inventoryservice.entity.Lot;
 import com.stock.inventoryservice.entity.LotStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,6 +15,14 @@ import java.util.Optional;
 @Repository
 public interface LotRepository extends JpaRepository<Lot, String> {
 
+    /**
+     * Id and expiry date of a lot (expiry calendar bootstrap)
+     */
+    interface ExpiryRow {
+        String getId();
+        LocalDate getExpiryDate();
+    }
+
     // ===== BASIC LOOKUPS =====
 
     /**
@@ -71,6 +80,13 @@ public interface LotRepository extends JpaRepository<Lot, String> {
             "AND l.status = 'ACTIVE'")
     List<Lot> findLotsExpiringWithinDays(@Param("date") LocalDate date);
 
+    /**
+     * Next chunk of lots that have an expiry date, in id order
+     */
+    @Query("SELECT l.id AS id, l.expiryDate AS expiryDate FROM Lot l " +
+            "WHERE l.id > :afterId AND l.expiryDate IS NOT NULL ORDER BY l.id")
+    List<ExpiryRow> findExpiryRowsAfter(@Param("afterId") String afterId, Pageable pageable);
+
     // ===== ACTIVE LOTS QUERIES =====
 
     /**
@@ -0,0 +1,15 @@
+package com.stock.inventoryservice.repository;
+
+import com.stock.inventoryservice.entity.LowStockScanCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LowStockScanCheckpointRepository extends JpaRepository<LowStockScanCheckpoint, Integer> {
+
+    List<LowStockScanCheckpoint> findAllByOrderByPartitionNoAsc();
+
+    boolean existsByCompletedFalse();
+}
@@ -0,0 +1,13 @@
+package com.stock.inventoryservice.repository;
+
+import com.stock.inventoryservice.entity.ReorderThreshold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ReorderThresholdRepository extends JpaRepository<ReorderThreshold, String> {
+
+    Optional<ReorderThreshold> findByScopeKey(String scopeKey);
+}
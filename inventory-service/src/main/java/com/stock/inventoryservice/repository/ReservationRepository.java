@@ -0,0 +1,66 @@
+package com.stock.inventoryservice.repository;
+
+import com.stock.inventoryservice.entity.Reservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReservationRepository extends JpaRepository<Reservation, String> {
+
+    /**
+     * Slim projection used to (re)build the expiry timing wheel
+     */
+    interface ExpiryRow {
+        String getId();
+        LocalDateTime getExpiresAt();
+    }
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reservation r WHERE r.id = :id")
+    Optional<Reservation> findByIdForUpdate(@Param("id") String id);
+
+    /**
+     * Lock the ACTIVE reservations among the given ids whose expiry has passed
+     * Rows released, fulfilled or renewed meanwhile are filtered out
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reservation r WHERE r.id IN :ids AND r.status = 'ACTIVE' " +
+            "AND r.expiresAt <= :now ORDER BY r.id")
+    List<Reservation> lockExpired(@Param("ids") Collection<String> ids, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Reservation r SET r.status = 'EXPIRED', r.version = r.version + 1, " +
+            "r.updatedAt = CURRENT_TIMESTAMP WHERE r.id IN :ids")
+    int markExpired(@Param("ids") Collection<String> ids);
+
+    /**
+     * ACTIVE reservations already past their expiry, oldest first
+     * (a range read on idx_reservation_status_expires, not a sweep)
+     */
+    @Query("SELECT r.id FROM Reservation r WHERE r.status = 'ACTIVE' AND r.expiresAt <= :now " +
+            "ORDER BY r.expiresAt, r.id")
+    List<String> findOverdueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Keyset walk of ACTIVE, expiring reservations in (expiresAt, id) order
+     * (served by idx_reservation_status_expires)
+     */
+    @Query("SELECT r.id AS id, r.expiresAt AS expiresAt FROM Reservation r " +
+            "WHERE r.status = 'ACTIVE' AND r.expiresAt IS NOT NULL " +
+            "AND (r.expiresAt > :afterExpiresAt OR (r.expiresAt = :afterExpiresAt AND r.id > :afterId)) " +
+            "ORDER BY r.expiresAt, r.id")
+    List<ExpiryRow> findActiveExpiringAfter(@Param("afterExpiresAt") LocalDateTime afterExpiresAt,
+                                            @Param("afterId") String afterId,
+                                            Pageable pageable);
+}
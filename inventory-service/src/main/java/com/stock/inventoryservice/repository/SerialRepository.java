@@ -2,11 +2,14 @@ package com.stock.inventoryservice.repository;
 
 import com.stock.inventoryservice.entity.Serial;
 import com.stock.inventoryservice.entity.SerialStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -40,19 +43,42 @@ public interface SerialRepository extends JpaRepository<Serial, String> {
      */
     List<Serial> findByLocationId(String locationId);
 
-    // ===== LOT-RELATED QUERIES (ADDED FIX) =====
+    // ===== LOT-RELATED QUERIES (range scans on idx_serial_lot_id) =====
 
     /**
      * Find serials by lot ID
      */
-    @Query("SELECT s FROM Serial s WHERE s.itemId IN (SELECT i.itemId FROM Inventory i WHERE i.lotId = :lotId)")
-    List<Serial> findByLotId(@Param("lotId") String lotId);
+    List<Serial> findByLotId(String lotId);
 
     /**
      * Count serials by lot ID
      */
-    @Query("SELECT COUNT(s) FROM Serial s WHERE s.itemId IN (SELECT i.itemId FROM Inventory i WHERE i.lotId = :lotId)")
-    Long countByLotId(@Param("lotId") String lotId);
+    Long countByLotId(String lotId);
+
+    /**
+     * Keyset page of a lot's serials (recall lookups): pass the last id of the previous page
+     */
+    List<Serial> findByLotIdAndIdGreaterThan(String lotId, String afterId, Pageable pageable);
+
+    // ===== LOT BACKFILL (serials created before lot_id existed) =====
+
+    /**
+     * Next chunk of serial ids after afterId, in id order, limited to serials without a lot
+     * whose inventory row has one (idx_serial_lot_id, then idx_inventory_serial_id per serial)
+     */
+    @Query(value = "SELECT s.id FROM serials s WHERE s.lot_id IS NULL AND s.id > :afterId " +
+            "AND EXISTS (SELECT 1 FROM inventory i WHERE i.serial_id = s.id AND i.lot_id IS NOT NULL) " +
+            "ORDER BY s.id LIMIT :limit", nativeQuery = true)
+    List<String> findBackfillChunkAfter(@Param("afterId") String afterId, @Param("limit") int limit);
+
+    /**
+     * Copy the lot of the inventory row holding each serial, for serials that have none yet
+     */
+    @Modifying
+    @Query(value = "UPDATE serials s SET lot_id = i.lot_id FROM inventory i " +
+            "WHERE i.serial_id = s.id AND i.lot_id IS NOT NULL AND s.lot_id IS NULL AND s.id IN (:ids)",
+            nativeQuery = true)
+    int backfillLotIds(@Param("ids") Collection<String> ids);
 
     // ===== MULTI-CRITERIA QUERIES =====
 
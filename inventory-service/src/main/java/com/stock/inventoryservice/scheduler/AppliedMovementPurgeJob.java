@@ -0,0 +1,41 @@
+package com.stock.inventoryservice.scheduler;
+
+import com.stock.inventoryservice.repository.AppliedMovementRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * ⏰ Applied Movement Ledger Retention
+ * Drops ledger entries older than inventory.movements.applied-retention
+ * (redeliveries older than that are no longer expected)
+ */
+@Component
+@Slf4j
+public class AppliedMovementPurgeJob {
+
+    private final AppliedMovementRepository appliedMovementRepository;
+    private final Duration retention;
+
+    public AppliedMovementPurgeJob(AppliedMovementRepository appliedMovementRepository,
+                                   @Value("${inventory.movements.applied-retention:7d}") Duration retention) {
+        this.appliedMovementRepository = appliedMovementRepository;
+        this.retention = retention;
+    }
+
+    @Scheduled(cron = "${inventory.movements.applied-purge-cron:0 45 * * * *}")
+    public void purge() {
+        try {
+            int deleted = appliedMovementRepository.deleteAppliedBefore(LocalDateTime.now().minus(retention));
+            if (deleted > 0) {
+                log.info("🔄 Purged {} applied movement entries older than {}", deleted, retention);
+            }
+        } catch (Exception e) {
+            log.error("❌ Applied movement purge failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.stock.inventoryservice.scheduler;
+
+import com.stock.inventoryservice.service.AvailabilityIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ⏰ ATP index bootstrap
+ * Loads the availability index once the application (and its Kafka listeners) is up
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AvailabilityIndexBootstrapJob {
+
+    private final AvailabilityIndex availabilityIndex;
+
+    /**
+     * Load in the background; reads are served from the database until it completes
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        log.info("⏰ Loading ATP index...");
+        CompletableFuture.runAsync(availabilityIndex::bootstrap)
+                .whenComplete((ignored, ex) -> {
+                    if (ex != null) {
+                        log.error("❌ ATP index bootstrap failed, availability stays on the database: {}",
+                                ex.getMessage(), ex);
+                    }
+                });
+    }
+}
@@ -0,0 +1,50 @@
+package com.stock.inventoryservice.scheduler;
+
+import com.stock.inventoryservice.service.ExpiryCalendar;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ⏰ Expiry calendar
+ * Loads the calendar on startup and raises expired events when the date rolls over
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExpiryCalendarJob {
+
+    private final ExpiryCalendar expiryCalendar;
+
+    /**
+     * Load in the background; expiry reads use the database until it completes
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCalendar() {
+        log.info("⏰ Loading expiry calendar...");
+        CompletableFuture.runAsync(expiryCalendar::bootstrap)
+                .whenComplete((ignored, ex) -> {
+                    if (ex != null) {
+                        log.error("❌ Expiry calendar bootstrap failed, expiry reads stay on the database: {}",
+                                ex.getMessage(), ex);
+                    }
+                });
+    }
+
+    /**
+     * Cheap when nothing changed: only does work on the first check after midnight
+     */
+    @Scheduled(fixedDelayString = "${inventory.expiry-calendar.check-interval-ms:60000}")
+    public void checkDayBoundary() {
+        try {
+            expiryCalendar.publishNewlyExpired();
+        } catch (Exception e) {
+            log.error("❌ Expiry day boundary check failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.stock.inventoryservice.scheduler;
+
+import com.stock.inventoryservice.service.InventoryChangeFeed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * ⏰ Inventory Change Feed Retention
+ * Drops change feed entries older than inventory.changes.retention
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryChangeFeedPurgeJob {
+
+    private final InventoryChangeFeed changeFeed;
+
+    @Scheduled(cron = "${inventory.changes.purge-cron:0 15 * * * *}")
+    public void purge() {
+        try {
+            changeFeed.purgeExpired();
+        } catch (Exception e) {
+            log.error("❌ Inventory change feed purge failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.stock.inventoryservice.scheduler;
+
+import com.stock.inventoryservice.service.LocationOccupancyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * ⏰ Location Occupancy Reconciliation
+ * Rebuilds the location_occupancy aggregate from inventory and reports drift
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LocationOccupancyReconciliationJob {
+
+    private final LocationOccupancyService occupancyService;
+
+    /**
+     * Build the aggregate on first start (empty table)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeOnStartup() {
+        try {
+            if (occupancyService.isEmpty()) {
+                log.info("⏰ location_occupancy is empty, building it from inventory...");
+                occupancyService.reconcile();
+            }
+        } catch (Exception e) {
+            log.error("❌ Failed to initialize location occupancy: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Nightly drift check
+     */
+    @Scheduled(cron = "${inventory.occupancy.reconcile-cron:0 30 2 * * *}")
+    public void reconcile() {
+        try {
+            occupancyService.reconcile();
+        } catch (Exception e) {
+            log.error("❌ Location occupancy reconciliation failed: {}", e.getMessage(), e);
+        }
+    }
+}
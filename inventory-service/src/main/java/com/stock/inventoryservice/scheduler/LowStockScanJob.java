@@ -0,0 +1,45 @@
+package com.stock.inventoryservice.scheduler;
+
+import com.stock.inventoryservice.service.LowStockScanService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ⏰ Low Stock Scan recovery
+ * Finishes a low-stock scan that was interrupted by a crash or restart
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LowStockScanJob {
+
+    private final LowStockScanService lowStockScanService;
+
+    /**
+     * Resume from the saved checkpoints in the background (does not delay startup)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedScan() {
+        try {
+            if (!lowStockScanService.hasUnfinishedScan()) {
+                return;
+            }
+        } catch (Exception e) {
+            log.error("❌ Failed to check for an interrupted low stock scan: {}", e.getMessage(), e);
+            return;
+        }
+
+        log.info("⏰ Found an interrupted low stock scan, resuming...");
+        CompletableFuture.runAsync(lowStockScanService::scan)
+                .whenComplete((ignored, ex) -> {
+                    if (ex != null) {
+                        log.error("❌ Resumed low stock scan failed: {}", ex.getMessage(), ex);
+                    }
+                });
+    }
+}
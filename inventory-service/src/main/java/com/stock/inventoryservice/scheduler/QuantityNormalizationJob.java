@@ -0,0 +1,32 @@
+package com.stock.inventoryservice.scheduler;
+
+import com.stock.inventoryservice.service.QuantityNormalizationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ⏰ Quantity normalization
+ * Rounds stored inventory quantities to whole micro-units in the background, once
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QuantityNormalizationJob {
+
+    private final QuantityNormalizationService quantityNormalizationService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void normalize() {
+        CompletableFuture.runAsync(quantityNormalizationService::normalize)
+                .whenComplete((ignored, ex) -> {
+                    if (ex != null) {
+                        log.error("❌ Quantity normalization failed, it resumes on next start: {}", ex.getMessage(), ex);
+                    }
+                });
+    }
+}
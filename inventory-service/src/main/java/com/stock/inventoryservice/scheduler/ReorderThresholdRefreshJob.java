@@ -0,0 +1,28 @@
+package com.stock.inventoryservice.scheduler;
+
+import com.stock.inventoryservice.service.ReorderThresholdService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * ⏰ Reorder Threshold Refresh
+ * Reloads the in-memory thresholds, picking up changes made through other instances
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReorderThresholdRefreshJob {
+
+    private final ReorderThresholdService reorderThresholdService;
+
+    @Scheduled(fixedDelayString = "${inventory.thresholds.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            reorderThresholdService.reload();
+        } catch (Exception e) {
+            log.error("❌ Reorder threshold refresh failed, keeping the previous thresholds: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.stock.inventoryservice.scheduler;
+
+import com.stock.inventoryservice.config.ReplicaRoutingDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * ⏰ Read Replica Lag Check
+ * Takes lagging or unreachable replicas out of read rotation, and puts them back once caught up
+ */
+@Component
+@ConditionalOnProperty(prefix = "inventory.datasource.replicas", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ReplicaLagCheckJob {
+
+    private final ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Scheduled(fixedDelayString = "${inventory.datasource.replicas.lag-check-interval-ms:5000}")
+    public void checkLag() {
+        try {
+            replicaRoutingDataSource.checkLag();
+        } catch (Exception e) {
+            log.error("❌ Read replica lag check failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.stock.inventoryservice.scheduler;
+
+import com.stock.inventoryservice.service.ReservationExpiryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * ⏰ Reservation expiry
+ * Rebuilds the expiry timing wheel on startup and advances it every tick
+ * An occasional indexed catch-up expires overdue holds the wheel does not know about
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationExpiryJob {
+
+    private final ReservationExpiryService expiryService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        try {
+            expiryService.rebuild();
+        } catch (Exception e) {
+            log.error("❌ Failed to rebuild reservation expiry timers: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reservations.tick-ms:1000}")
+    public void expireDueReservations() {
+        try {
+            expiryService.expireDue();
+        } catch (Exception e) {
+            log.error("❌ Reservation expiry tick failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reservations.catch-up-ms:300000}",
+            initialDelayString = "${inventory.reservations.catch-up-ms:300000}")
+    public void catchUpOverdueReservations() {
+        try {
+            expiryService.catchUp();
+        } catch (Exception e) {
+            log.error("❌ Reservation expiry catch-up failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.stock.inventoryservice.scheduler;
+
+import com.stock.inventoryservice.service.SerialLotBackfillService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ⏰ Serial lot backfill
+ * Fills serials.lot_id in the background once the application is up
+ * After completion a start only costs one empty index probe; enabled=false is a kill switch
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SerialLotBackfillJob {
+
+    private final SerialLotBackfillService serialLotBackfillService;
+
+    @Value("${inventory.serials.lot-backfill.enabled:true}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!enabled) {
+            return;
+        }
+        log.info("⏰ Backfilling serial lot references...");
+        CompletableFuture.runAsync(serialLotBackfillService::backfill)
+                .whenComplete((ignored, ex) -> {
+                    if (ex != null) {
+                        log.error("❌ Serial lot backfill failed, it resumes on next start: {}", ex.getMessage(), ex);
+                    }
+                });
+    }
+}
@@ -0,0 +1,48 @@
+package com.stock.inventoryservice.scheduler;
+
+import com.stock.inventoryservice.service.StockSummaryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * ⏰ Stock Summary Reconciliation
+ * Rebuilds the item and (item, warehouse) stock summaries from inventory and reports drift
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockSummaryReconciliationJob {
+
+    private final StockSummaryService stockSummaryService;
+
+    /**
+     * Build the summaries on first start (or finish an interrupted build)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeOnStartup() {
+        try {
+            if (stockSummaryService.needsRebuild()) {
+                log.info("⏰ Stock summaries are incomplete, building them from inventory...");
+                stockSummaryService.reconcile();
+            }
+        } catch (Exception e) {
+            log.error("❌ Failed to initialize stock summaries: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Nightly drift check
+     */
+    @Scheduled(cron = "${inventory.stock-summary.reconcile-cron:0 45 2 * * *}")
+    public void reconcile() {
+        try {
+            stockSummaryService.reconcile();
+        } catch (Exception e) {
+            log.error("❌ Stock summary reconciliation failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.stock.inventoryservice.service;
+
+import com.stock.inventoryservice.entity.Inventory;
+import com.stock.inventoryservice.entity.InventoryStatus;
+import com.stock.inventoryservice.event.dto.InventoryEvent;
+import com.stock.inventoryservice.repository.InventoryBatchRepository;
+import com.stock.inventoryservice.repository.InventoryRepository;
+import com.stock.inventoryservice.repository.InventoryRepository.AtpRow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * In-memory available-to-promise (ATP) index
+ *
+ * - One entry per inventory row, plus running totals per (item, location),
+ *   per item and per (item, warehouse) - item/warehouse totals count AVAILABLE rows only
+ * - Bootstrapped from InventoryRepository in keyset chunks, then kept current from
+ *   committed inventory events (AvailabilityIndexEventConsumer, one group per instance)
+ * - Events are applied in row-version order, so late or duplicated events never
+ *   overwrite newer state
+ *
+ * Consistency (inventory.atp.consistency):
+ * - EVENTUAL: answer from the index as soon as it is loaded
+ * - BOUNDED: answer from the index unless it is behind by more than inventory.atp.max-lag,
+ *   measured as the age of the oldest change committed here but not yet indexed.
+ *   Only this instance's writes are tracked (markPending): changes committed by other
+ *   instances are not counted until their event arrives, so across instances the bound
+ *   is read-your-own-writes plus the inventory event consumer lag
+ * - STRONG: always read the database
+ * Until the bootstrap has completed, every read goes to the database.
+ */
+@Service
+@Slf4j
+public class AvailabilityIndex {
+
+    public enum Consistency {
+        EVENTUAL, BOUNDED, STRONG
+    }
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryBatchRepository inventoryBatchRepository;
+    private final StockSummaryService stockSummaryService;
+    private final Consistency consistency;
+    private final long maxLagNanos;
+    private final long tombstoneTtlNanos;
+    private final int chunkSize;
+
+    private final Map<String, Row> rows = new ConcurrentHashMap<>();
+    private final Map<String, DoubleAdder> byItemLocation = new ConcurrentHashMap<>();
+    private final Map<String, DoubleAdder> byItem = new ConcurrentHashMap<>();
+    private final Map<String, DoubleAdder> byItemWarehouse = new ConcurrentHashMap<>();
+
+    // Changes committed by this instance whose event has not been applied yet
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean loading = new AtomicBoolean(false);
+    private volatile boolean ready = false;
+
+    private final Counter indexReads;
+    private final Counter databaseReads;
+
+    public AvailabilityIndex(InventoryRepository inventoryRepository,
+                             InventoryBatchRepository inventoryBatchRepository,
+                             StockSummaryService stockSummaryService,
+                             MeterRegistry meterRegistry,
+                             @Value("${inventory.atp.consistency:BOUNDED}") Consistency consistency,
+                             @Value("${inventory.atp.max-lag:2s}") Duration maxLag,
+                             @Value("${inventory.atp.tombstone-ttl:10m}") Duration tombstoneTtl,
+                             @Value("${inventory.atp.bootstrap-chunk-size:5000}") int chunkSize) {
+        this.inventoryRepository = inventoryRepository;
+        this.inventoryBatchRepository = inventoryBatchRepository;
+        this.stockSummaryService = stockSummaryService;
+        this.consistency = consistency;
+        this.maxLagNanos = maxLag.toNanos();
+        this.tombstoneTtlNanos = tombstoneTtl.toNanos();
+        this.chunkSize = chunkSize;
+
+        this.indexReads = Counter.builder("inventory.atp.reads")
+                .tag("source", "index")
+                .description("Availability reads answered from the in-memory index")
+                .register(meterRegistry);
+        this.databaseReads = Counter.builder("inventory.atp.reads")
+                .tag("source", "database")
+                .description("Availability reads that fell back to the database")
+                .register(meterRegistry);
+        Gauge.builder("inventory.atp.rows", rows, Map::size)
+                .description("Inventory rows held by the ATP index")
+                .register(meterRegistry);
+        Gauge.builder("inventory.atp.lag", this, index -> index.lagNanos() / 1_000_000.0)
+                .description("Age in ms of the oldest committed change not yet indexed")
+                .register(meterRegistry);
+    }
+
+    // ===== READS =====
+
+    /**
+     * Available quantity of an item at a location (0 when there is no stock row)
+     */
+    public double getAvailableQuantity(String itemId, String locationId) {
+        if (!useIndex()) {
+            databaseReads.increment();
+            return inventoryRepository.findByItemIdAndLocationId(itemId, locationId)
+                    .map(Inventory::getAvailableQuantity)
+                    .orElse(0.0);
+        }
+        indexReads.increment();
+        return sum(byItemLocation, itemLocationKey(itemId, locationId));
+    }
+
+    /**
+     * Available quantity of many (itemId, locationId) pairs, keyed "itemId|locationId"
+     * On fallback all pairs are read with one IN-list query; pairs without stock map to 0
+     */
+    public Map<String, Double> getAvailableQuantities(Collection<String[]> itemLocationPairs) {
+        Map<String, Double> available = new HashMap<>();
+        if (!useIndex()) {
+            databaseReads.increment();
+            Map<String, Double> stored = inventoryBatchRepository.sumAvailableByItemAndLocation(itemLocationPairs);
+            itemLocationPairs.forEach(pair -> {
+                String key = itemLocationKey(pair[0], pair[1]);
+                available.put(key, stored.getOrDefault(key, 0.0));
+            });
+            return available;
+        }
+        indexReads.increment();
+        itemLocationPairs.forEach(pair -> {
+            String key = itemLocationKey(pair[0], pair[1]);
+            available.put(key, sum(byItemLocation, key));
+        });
+        return available;
+    }
+
+    /**
+     * Available quantity of an item across all locations, or within one warehouse
+     * The database read is a single stock summary row (maintained in the writing transaction)
+     */
+    public double getTotalAvailableQuantity(String itemId, String warehouseId) {
+        if (!useIndex()) {
+            databaseReads.increment();
+            return stockSummaryService.getTotalAvailableQuantity(itemId, warehouseId);
+        }
+        indexReads.increment();
+        return warehouseId == null
+                ? sum(byItem, itemId)
+                : sum(byItemWarehouse, itemWarehouseKey(itemId, warehouseId));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ===== MAINTENANCE =====
+
+    /**
+     * Load every inventory row in keyset chunks (events keep flowing in meanwhile)
+     */
+    public void bootstrap() {
+        if (!loading.compareAndSet(false, true)) {
+            log.warn("⚠️ ATP index bootstrap already running");
+            return;
+        }
+
+        try {
+            long start = System.currentTimeMillis();
+            String afterId = "";
+            long loaded = 0;
+            while (true) {
+                List<AtpRow> chunk = inventoryRepository.findAtpRowsAfter(
+                        afterId, PageRequest.of(0, chunkSize));
+                chunk.forEach(row -> apply(row.getId(), Row.of(row)));
+                loaded += chunk.size();
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+                afterId = chunk.get(chunk.size() - 1).getId();
+            }
+            ready = true;
+            log.info("✅ ATP index loaded {} inventory rows in {} ms", loaded, System.currentTimeMillis() - start);
+        } finally {
+            loading.set(false);
+        }
+    }
+
+    /**
+     * Note a change committed by this instance at the given row version; cleared once an
+     * event of that version or newer is applied
+     */
+    public void markPending(String inventoryId, Long version) {
+        if (inventoryId != null) {
+            pending.merge(inventoryId, new Pending(System.nanoTime(), version), Pending::merge);
+        }
+    }
+
+    /**
+     * Apply a committed inventory event
+     */
+    public void apply(InventoryEvent event) {
+        if (event.getInventoryId() == null) {
+            return;
+        }
+        apply(event.getInventoryId(), Row.of(event));
+        // A late event of an older version must not clear the marker of a newer write
+        pending.computeIfPresent(event.getInventoryId(),
+                (id, write) -> write.coveredBy(event.getVersion()) ? null : write);
+    }
+
+    /**
+     * Re-read rows whose event is overdue (lost or failed publish) straight from the database
+     */
+    @Scheduled(fixedDelayString = "${inventory.atp.heal-interval-ms:5000}")
+    public void healOverdueRows() {
+        long now = System.nanoTime();
+        pending.forEach((inventoryId, write) -> {
+            if (now - write.since() <= maxLagNanos) {
+                return;
+            }
+            try {
+                Optional<Inventory> inventory = inventoryRepository.findById(inventoryId);
+                apply(inventoryId, inventory.map(Row::of).orElseGet(() -> Row.deleted(lastKnownVersion(inventoryId))));
+                pending.remove(inventoryId, write);
+                log.debug("ATP index re-read overdue inventory {}", inventoryId);
+            } catch (Exception e) {
+                log.warn("⚠️ Failed to re-read inventory {} for the ATP index: {}", inventoryId, e.getMessage());
+            }
+        });
+
+        // Events older than the tombstone TTL are not expected anymore
+        rows.values().removeIf(row -> row.deleted() && now - row.indexedAt() > tombstoneTtlNanos);
+    }
+
+    private boolean useIndex() {
+        return switch (consistency) {
+            case STRONG -> false;
+            case EVENTUAL -> ready;
+            case BOUNDED -> ready && lagNanos() <= maxLagNanos;
+        };
+    }
+
+    /**
+     * Age of the oldest change this instance committed that is not indexed yet
+     * (other instances' writes are not visible here, see the class comment)
+     */
+    private long lagNanos() {
+        long now = System.nanoTime();
+        long oldest = now;
+        for (Pending write : pending.values()) {
+            oldest = Math.min(oldest, write.since());
+        }
+        return now - oldest;
+    }
+
+    /**
+     * Replace a row if the incoming state is newer, moving the totals by the difference
+     */
+    private void apply(String inventoryId, Row incoming) {
+        rows.compute(inventoryId, (id, current) -> {
+            if (current != null && !incoming.supersedes(current)) {
+                return current;
+            }
+            if (current != null) {
+                addToTotals(current, -1);
+            }
+            addToTotals(incoming, 1);
+            return incoming;
+        });
+    }
+
+    /**
+     * Version of the indexed state of a row, so a tombstone still orders against late events
+     */
+    private Long lastKnownVersion(String inventoryId) {
+        Row current = rows.get(inventoryId);
+        return current != null ? current.version() : null;
+    }
+
+    private void addToTotals(Row row, int sign) {
+        if (row.deleted()) {
+            return;
+        }
+        double delta = sign * row.available();
+        byItemLocation.computeIfAbsent(itemLocationKey(row.itemId(), row.locationId()), k -> new DoubleAdder()).add(delta);
+        if (row.promisable()) {
+            byItem.computeIfAbsent(row.itemId(), k -> new DoubleAdder()).add(delta);
+            byItemWarehouse.computeIfAbsent(itemWarehouseKey(row.itemId(), row.warehouseId()), k -> new DoubleAdder()).add(delta);
+        }
+    }
+
+    private static double sum(Map<String, DoubleAdder> totals, String key) {
+        DoubleAdder total = totals.get(key);
+        return total != null ? total.sum() : 0.0;
+    }
+
+    public static String itemLocationKey(String itemId, String locationId) {
+        return itemId + "|" + locationId;
+    }
+
+    private static String itemWarehouseKey(String itemId, String warehouseId) {
+        return itemId + "|" + warehouseId;
+    }
+
+    /**
+     * Oldest unindexed write of a row (nanoTime) and the newest version written since
+     */
+    private record Pending(long since, Long version) {
+
+        static Pending merge(Pending current, Pending incoming) {
+            return new Pending(current.since(), newer(current.version(), incoming.version()));
+        }
+
+        /**
+         * Unversioned writes are covered by any event
+         */
+        boolean coveredBy(Long eventVersion) {
+            return version == null || (eventVersion != null && eventVersion >= version);
+        }
+
+        private static Long newer(Long a, Long b) {
+            if (a == null) {
+                return b;
+            }
+            return b == null ? a : Math.max(a, b);
+        }
+    }
+
+    /**
+     * Indexed state of one inventory row; a deleted row is kept as a tombstone so
+     * older events cannot bring it back
+     */
+    private record Row(Long version, String itemId, String warehouseId, String locationId,
+                       double available, boolean promisable, boolean deleted, long indexedAt) {
+
+        static Row of(AtpRow row) {
+            return new Row(row.getVersion(), row.getItemId(), row.getWarehouseId(), row.getLocationId(),
+                    available(row.getQuantityOnHand(), row.getQuantityReserved()),
+                    row.getStatus() == InventoryStatus.AVAILABLE, false, System.nanoTime());
+        }
+
+        static Row of(Inventory inventory) {
+            return new Row(inventory.getVersion(), inventory.getItemId(), inventory.getWarehouseId(),
+                    inventory.getLocationId(),
+                    available(inventory.getQuantityOnHand(), inventory.getQuantityReserved()),
+                    inventory.getStatus() == InventoryStatus.AVAILABLE, false, System.nanoTime());
+        }
+
+        static Row of(InventoryEvent event) {
+            if ("DELETED".equalsIgnoreCase(event.getEventType())) {
+                return deleted(event.getVersion());
+            }
+            return new Row(event.getVersion(), event.getItemId(), event.getWarehouseId(), event.getLocationId(),
+                    available(event.getQuantityOnHand(), event.getQuantityReserved()),
+                    event.getStatus() == null || InventoryStatus.AVAILABLE.name().equals(event.getStatus()), false,
+                    System.nanoTime());
+        }
+
+        static Row deleted(Long version) {
+            return new Row(version, null, null, null, 0.0, false, true, System.nanoTime());
+        }
+
+        /**
+         * Unversioned state always wins; otherwise only a newer version (or a delete of
+         * the same version) replaces what is indexed
+         */
+        boolean supersedes(Row current) {
+            if (version == null || current.version() == null) {
+                return true;
+            }
+            return version > current.version() || (deleted && version.equals(current.version()));
+        }
+
+        private static double available(Double onHand, Double reserved) {
+            return (onHand != null ? onHand : 0.0) - (reserved != null ? reserved : 0.0);
+        }
+    }
+}
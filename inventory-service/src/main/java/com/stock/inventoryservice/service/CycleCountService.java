@@ -0,0 +1,27 @@
+package com.stock.inventoryservice.service;
+
+import com.stock.inventoryservice.dto.CycleCountBatchDTO;
+import com.stock.inventoryservice.dto.CycleCountReconciliationResult;
+import com.stock.inventoryservice.dto.CycleCountSessionDTO;
+import com.stock.inventoryservice.dto.request.CycleCountSessionCreateRequest;
+import com.stock.inventoryservice.dto.request.CycleCountSubmitRequest;
+
+public interface CycleCountService {
+
+    CycleCountSessionDTO openSession(CycleCountSessionCreateRequest request);
+
+    CycleCountSessionDTO getSession(String sessionId);
+
+    /**
+     * Freeze the next batch of the session; null once every candidate is in a batch
+     */
+    CycleCountBatchDTO freezeNextBatch(String sessionId);
+
+    CycleCountBatchDTO getBatch(String sessionId, int batchNo);
+
+    CycleCountBatchDTO submitCounts(String sessionId, int batchNo, CycleCountSubmitRequest request);
+
+    CycleCountReconciliationResult reconcileBatch(String sessionId, int batchNo);
+
+    CycleCountSessionDTO completeSession(String sessionId);
+}
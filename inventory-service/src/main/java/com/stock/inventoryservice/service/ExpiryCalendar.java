@@ -0,0 +1,334 @@
+package com.stock.inventoryservice.service;
+
+import com.stock.inventoryservice.entity.ExpiryBoundary;
+import com.stock.inventoryservice.entity.Inventory;
+import com.stock.inventoryservice.entity.Lot;
+import com.stock.inventoryservice.event.dto.InventoryEvent;
+import com.stock.inventoryservice.event.dto.LotEvent;
+import com.stock.inventoryservice.repository.ExpiryBoundaryRepository;
+import com.stock.inventoryservice.repository.InventoryRepository;
+import com.stock.inventoryservice.repository.LotRepository;
+import com.stock.inventoryservice.service.impl.InventoryEventPublisher;
+import com.stock.inventoryservice.service.impl.LotEventPublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * In-memory expiry calendar: inventory rows and lots bucketed by expiry day
+ *
+ * - Bootstrapped once from the database in keyset chunks, then kept current from
+ *   inventory and lot events (ExpiryCalendarEventConsumer, one group per instance)
+ * - "Expiring before / between" is a range read over day buckets; only the matching
+ *   rows are then loaded, by primary key
+ * - When the date rolls over, everything that expired on the day(s) just ended is
+ *   published once (inventory.expired / lot.expired) instead of being re-detected per poll;
+ *   the last processed day is kept in expiry_boundary, claimed by one instance per boundary,
+ *   so days that ended while every instance was down are published on the next start
+ * Until the bootstrap has completed, callers fall back to the expiry date queries.
+ */
+@Service
+@Slf4j
+public class ExpiryCalendar {
+
+    private static final int FETCH_CHUNK_SIZE = 1000;
+
+    private final InventoryRepository inventoryRepository;
+    private final LotRepository lotRepository;
+    private final ExpiryBoundaryRepository boundaryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final InventoryEventPublisher inventoryEventPublisher;
+    private final LotEventPublisher lotEventPublisher;
+    private final int chunkSize;
+
+    private final Buckets inventoryBuckets = new Buckets();
+    private final Buckets lotBuckets = new Buckets();
+
+    private volatile boolean ready = false;
+
+    private final Counter expiredEventsCounter;
+
+    public ExpiryCalendar(InventoryRepository inventoryRepository,
+                          LotRepository lotRepository,
+                          ExpiryBoundaryRepository boundaryRepository,
+                          TransactionTemplate transactionTemplate,
+                          InventoryEventPublisher inventoryEventPublisher,
+                          LotEventPublisher lotEventPublisher,
+                          MeterRegistry meterRegistry,
+                          @Value("${inventory.expiry-calendar.bootstrap-chunk-size:5000}") int chunkSize) {
+        this.inventoryRepository = inventoryRepository;
+        this.lotRepository = lotRepository;
+        this.boundaryRepository = boundaryRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.inventoryEventPublisher = inventoryEventPublisher;
+        this.lotEventPublisher = lotEventPublisher;
+        this.chunkSize = chunkSize;
+
+        this.expiredEventsCounter = Counter.builder("inventory.expiry.events")
+                .description("Expired events raised at day boundaries (inventory rows and lots)")
+                .register(meterRegistry);
+        Gauge.builder("inventory.expiry.calendar.entries", inventoryBuckets, Buckets::size)
+                .tag("type", "inventory")
+                .description("Entries held by the expiry calendar")
+                .register(meterRegistry);
+        Gauge.builder("inventory.expiry.calendar.entries", lotBuckets, Buckets::size)
+                .tag("type", "lot")
+                .description("Entries held by the expiry calendar")
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ===== READS (callers check isReady() first) =====
+
+    /**
+     * Inventory rows expiring strictly before a day, earliest first
+     */
+    public List<Inventory> getInventoryExpiringBefore(LocalDate day) {
+        return load(inventoryBuckets.before(day), inventoryRepository::findAllById, Inventory::getId);
+    }
+
+    /**
+     * Lots expiring strictly before a day, earliest first
+     */
+    public List<Lot> getLotsExpiringBefore(LocalDate day) {
+        return load(lotBuckets.before(day), lotRepository::findAllById, Lot::getId);
+    }
+
+    /**
+     * Lots expiring between two days (both inclusive), earliest first
+     */
+    public List<Lot> getLotsExpiringBetween(LocalDate startDate, LocalDate endDate) {
+        return load(lotBuckets.between(startDate, endDate), lotRepository::findAllById, Lot::getId);
+    }
+
+    // ===== MAINTENANCE =====
+
+    /**
+     * Load both calendars; changes received meanwhile take precedence over what is read
+     */
+    public void bootstrap() {
+        long start = System.currentTimeMillis();
+        inventoryBuckets.startLoading();
+        lotBuckets.startLoading();
+
+        long inventoryRows = loadChunks((afterId, page) -> inventoryRepository.findExpiryRowsAfter(afterId, page)
+                .stream().map(row -> Map.entry(row.getId(), row.getExpiryDate())).toList(), inventoryBuckets);
+        long lotRows = loadChunks((afterId, page) -> lotRepository.findExpiryRowsAfter(afterId, page)
+                .stream().map(row -> Map.entry(row.getId(), row.getExpiryDate())).toList(), lotBuckets);
+
+        inventoryBuckets.finishLoading();
+        lotBuckets.finishLoading();
+        transactionTemplate.executeWithoutResult(status -> boundaryRepository.initialize(LocalDate.now()));
+        ready = true;
+        log.info("✅ Expiry calendar loaded: {} inventory rows, {} lots in {} ms",
+                inventoryRows, lotRows, System.currentTimeMillis() - start);
+    }
+
+    public void apply(InventoryEvent event) {
+        if (event.getInventoryId() == null) {
+            return;
+        }
+        if ("DELETED".equalsIgnoreCase(event.getEventType())) {
+            inventoryBuckets.remove(event.getInventoryId());
+        } else {
+            inventoryBuckets.put(event.getInventoryId(), event.getExpiryDate());
+        }
+    }
+
+    public void apply(LotEvent event) {
+        if (event.getLotId() == null) {
+            return;
+        }
+        if ("DELETED".equalsIgnoreCase(event.getEventType())) {
+            lotBuckets.remove(event.getLotId());
+        } else {
+            lotBuckets.put(event.getLotId(), event.getExpiryDate());
+        }
+    }
+
+    /**
+     * Raise expired events for the day(s) that ended since the stored boundary; a no-op
+     * until the date changes, so it can be polled frequently
+     * The boundary is moved in the same transaction, so only the instance that moves it
+     * publishes, and a failed publish leaves the boundary for the next check
+     */
+    public synchronized int publishNewlyExpired() {
+        LocalDate today = LocalDate.now();
+        if (!ready) {
+            return 0;
+        }
+        LocalDate lastBoundary = boundaryRepository.findById(ExpiryBoundary.SINGLETON_ID)
+                .map(ExpiryBoundary::getLastBoundary)
+                .orElse(null);
+        if (lastBoundary == null || !today.isAfter(lastBoundary)) {
+            return 0;
+        }
+
+        Integer published = transactionTemplate.execute(status -> {
+            if (boundaryRepository.claim(lastBoundary, today) == 0) {
+                return 0; // Another instance has this boundary
+            }
+            return publishExpiredBetween(lastBoundary, today);
+        });
+        return published != null ? published : 0;
+    }
+
+    private int publishExpiredBetween(LocalDate lastBoundary, LocalDate today) {
+        // Expired = expiry date before today; those before lastBoundary were already reported
+        List<String> inventoryIds = inventoryBuckets.between(lastBoundary, today.minusDays(1));
+        List<String> lotIds = lotBuckets.between(lastBoundary, today.minusDays(1));
+
+        List<Inventory> inventories = load(inventoryIds, inventoryRepository::findAllById, Inventory::getId);
+        inventories.forEach(inventoryEventPublisher::publishInventoryExpired);
+
+        List<Lot> lots = load(lotIds, lotRepository::findAllById, Lot::getId);
+        lots.forEach(lot -> lotEventPublisher.publishLotEvent(LotEvent.builder()
+                .lotId(lot.getId())
+                .lotCode(lot.getCode())
+                .itemId(lot.getItemId())
+                .lotNumber(lot.getLotNumber())
+                .expiryDate(lot.getExpiryDate())
+                .manufactureDate(lot.getManufactureDate())
+                .supplierId(lot.getSupplierId())
+                .status(lot.getStatus().name())
+                .eventType("EXPIRED")
+                .timestamp(LocalDateTime.now())
+                .build()));
+
+        log.info("⏰ Day boundary {}: {} inventory rows and {} lots expired", today, inventories.size(), lots.size());
+        expiredEventsCounter.increment(inventories.size() + lots.size());
+        return inventories.size() + lots.size();
+    }
+
+    private long loadChunks(BiFunction<String, PageRequest, List<Map.Entry<String, LocalDate>>> fetch, Buckets buckets) {
+        String afterId = "";
+        long loaded = 0;
+        while (true) {
+            List<Map.Entry<String, LocalDate>> chunk = fetch.apply(afterId, PageRequest.of(0, chunkSize));
+            chunk.forEach(entry -> buckets.putLoaded(entry.getKey(), entry.getValue()));
+            loaded += chunk.size();
+            if (chunk.size() < chunkSize) {
+                return loaded;
+            }
+            afterId = chunk.get(chunk.size() - 1).getKey();
+        }
+    }
+
+    /**
+     * Fetch by primary key in chunks, keeping the calendar order
+     */
+    private static <T> List<T> load(List<String> ids, Function<List<String>, List<T>> findAllById,
+                                    Function<T, String> idOf) {
+        List<T> result = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += FETCH_CHUNK_SIZE) {
+            List<String> chunk = ids.subList(from, Math.min(from + FETCH_CHUNK_SIZE, ids.size()));
+            Map<String, T> byId = new HashMap<>();
+            findAllById.apply(chunk).forEach(entity -> byId.put(idOf.apply(entity), entity));
+            chunk.stream().map(byId::get).filter(Objects::nonNull).forEach(result::add);
+        }
+        return result;
+    }
+
+    /**
+     * Ids grouped by expiry day
+     */
+    private static final class Buckets {
+        private final NavigableMap<LocalDate, Set<String>> byDay = new ConcurrentSkipListMap<>();
+        private final Map<String, LocalDate> dayById = new ConcurrentHashMap<>();
+
+        // Ids changed by events while the bootstrap runs: the bootstrap must not overwrite them
+        private volatile Set<String> touchedWhileLoading;
+
+        private void startLoading() {
+            touchedWhileLoading = ConcurrentHashMap.newKeySet();
+        }
+
+        private void finishLoading() {
+            touchedWhileLoading = null;
+        }
+
+        private synchronized void putLoaded(String id, LocalDate day) {
+            Set<String> touched = touchedWhileLoading;
+            if (touched == null || !touched.contains(id)) {
+                move(id, day);
+            }
+        }
+
+        private synchronized void put(String id, LocalDate day) {
+            markTouched(id);
+            move(id, day);
+        }
+
+        private synchronized void remove(String id) {
+            markTouched(id);
+            move(id, null);
+        }
+
+        private void markTouched(String id) {
+            Set<String> touched = touchedWhileLoading;
+            if (touched != null) {
+                touched.add(id);
+            }
+        }
+
+        private void move(String id, LocalDate day) {
+            LocalDate previous = day != null ? dayById.put(id, day) : dayById.remove(id);
+            if (previous != null && !previous.equals(day)) {
+                Set<String> bucket = byDay.get(previous);
+                if (bucket != null) {
+                    bucket.remove(id);
+                    if (bucket.isEmpty()) {
+                        byDay.remove(previous);
+                    }
+                }
+            }
+            if (day != null) {
+                byDay.computeIfAbsent(day, d -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        }
+
+        private List<String> before(LocalDate day) {
+            return flatten(byDay.headMap(day, false).values());
+        }
+
+        private List<String> between(LocalDate startDate, LocalDate endDate) {
+            if (endDate.isBefore(startDate)) {
+                return List.of();
+            }
+            return flatten(byDay.subMap(startDate, true, endDate, true).values());
+        }
+
+        private static List<String> flatten(Collection<Set<String>> buckets) {
+            List<String> ids = new ArrayList<>();
+            buckets.forEach(ids::addAll);
+            return ids;
+        }
+
+        private int size() {
+            return dayById.size();
+        }
+    }
+}
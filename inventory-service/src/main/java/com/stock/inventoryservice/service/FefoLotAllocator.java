@@ -0,0 +1,314 @@
+package com.stock.inventoryservice.service;
+
+import com.stock.inventoryservice.dto.FefoAllocationPlan;
+import com.stock.inventoryservice.dto.request.FefoAllocationRequest;
+import com.stock.inventoryservice.entity.InventoryStatus;
+import com.stock.inventoryservice.entity.Lot;
+import com.stock.inventoryservice.event.dto.InventoryEvent;
+import com.stock.inventoryservice.repository.InventoryRepository;
+import com.stock.inventoryservice.repository.InventoryRepository.LotStockRow;
+import com.stock.inventoryservice.repository.LotRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * First-expiry-first-out (FEFO) lot allocation
+ *
+ * - Per item, the ACTIVE lots with stock are kept in a queue ordered by expiry date
+ *   (lots that never expire come last), each with its lot-tracked inventory rows
+ * - An item is loaded on first use (LotRepository.findActiveLotsForItemOrderedByExpiry),
+ *   then kept current from inventory events; lot events drop the item so it is reloaded
+ * - Plans are advisory: nothing is held until the picks are reserved
+ */
+@Service
+@Slf4j
+public class FefoLotAllocator {
+
+    private static final double EPSILON = 1e-9;
+
+    private static final Comparator<LotEntry> FEFO_ORDER = Comparator
+            .comparing((LotEntry lot) -> lot.expiryDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(lot -> lot.lotId);
+
+    private final LotRepository lotRepository;
+    private final InventoryRepository inventoryRepository;
+
+    private final Map<String, ItemLots> items = new ConcurrentHashMap<>();
+
+    private final Timer allocationTimer;
+    private final Counter loadCounter;
+
+    public FefoLotAllocator(LotRepository lotRepository,
+                            InventoryRepository inventoryRepository,
+                            MeterRegistry meterRegistry) {
+        this.lotRepository = lotRepository;
+        this.inventoryRepository = inventoryRepository;
+
+        this.allocationTimer = Timer.builder("inventory.fefo.allocation")
+                .description("Time to plan one FEFO allocation line")
+                .register(meterRegistry);
+        this.loadCounter = Counter.builder("inventory.fefo.loads")
+                .description("Items (re)loaded into the FEFO allocator from the database")
+                .register(meterRegistry);
+        Gauge.builder("inventory.fefo.items", items, Map::size)
+                .description("Items held by the FEFO allocator")
+                .register(meterRegistry);
+    }
+
+    // ===== ALLOCATION =====
+
+    /**
+     * Plan picks for a quantity of an item, earliest-expiring lot first
+     * warehouseId may be null to allocate from any warehouse
+     */
+    public FefoAllocationPlan allocate(String itemId, String warehouseId, double quantity) {
+        return allocationTimer.record(() -> {
+            ItemLots item = loadedItem(itemId);
+            synchronized (item) {
+                return item.allocate(warehouseId, quantity, new HashMap<>(), LocalDate.now());
+            }
+        });
+    }
+
+    /**
+     * Plan every line of a movement at once; lines of the same item draw from the
+     * same stock, so no quantity is handed out twice
+     */
+    public List<FefoAllocationPlan> allocateBulk(List<FefoAllocationRequest.Line> lines) {
+        LocalDate today = LocalDate.now();
+        Map<String, Map<String, Double>> takenByItem = new HashMap<>();
+
+        List<FefoAllocationPlan> plans = new ArrayList<>(lines.size());
+        for (FefoAllocationRequest.Line line : lines) {
+            Map<String, Double> taken = takenByItem.computeIfAbsent(line.getItemId(), k -> new HashMap<>());
+            plans.add(allocationTimer.record(() -> {
+                ItemLots item = loadedItem(line.getItemId());
+                synchronized (item) {
+                    return item.allocate(line.getWarehouseId(), line.getQuantity(), taken, today);
+                }
+            }));
+        }
+        return plans;
+    }
+
+    // ===== MAINTENANCE (called by FefoAllocationEventConsumer) =====
+
+    /**
+     * Apply a committed inventory change to an item that is already loaded
+     * Items not loaded yet are skipped: their first load reads the committed state
+     */
+    public void apply(InventoryEvent event) {
+        if (event.getItemId() == null || event.getInventoryId() == null) {
+            return;
+        }
+        ItemLots item = items.get(event.getItemId());
+        if (item == null) {
+            return;
+        }
+        synchronized (item) {
+            if (item.loaded) {
+                item.apply(event);
+            }
+        }
+    }
+
+    /**
+     * Drop an item after one of its lots changed (created, re-dated, status, deleted)
+     */
+    public void evict(String itemId) {
+        if (itemId != null && items.remove(itemId) != null) {
+            log.debug("FEFO allocator evicted item: {}", itemId);
+        }
+    }
+
+    private ItemLots loadedItem(String itemId) {
+        ItemLots item = items.computeIfAbsent(itemId, ItemLots::new);
+        synchronized (item) {
+            if (!item.loaded) {
+                // Loaded under the item's monitor: events wait and are applied on top
+                List<Lot> lots = lotRepository.findActiveLotsForItemOrderedByExpiry(itemId);
+                List<LotStockRow> rows = lots.isEmpty()
+                        ? List.of()
+                        : inventoryRepository.findLotStockRows(itemId, lots.stream().map(Lot::getId).toList());
+                item.load(lots, rows);
+                loadCounter.increment();
+                log.debug("FEFO allocator loaded item {}: {} lots, {} rows", itemId, lots.size(), rows.size());
+            }
+        }
+        return item;
+    }
+
+    private static double available(InventoryStatus status, Double onHand, Double reserved) {
+        if (status != null && status != InventoryStatus.AVAILABLE) {
+            return 0.0;
+        }
+        double free = (onHand != null ? onHand : 0.0) - (reserved != null ? reserved : 0.0);
+        return Math.max(0.0, free);
+    }
+
+    // ===== PER-ITEM STATE (guarded by the ItemLots monitor) =====
+
+    private static final class ItemLots {
+        private final String itemId;
+        private boolean loaded;
+
+        private final Map<String, LotEntry> lotsById = new HashMap<>();
+        private final Map<String, RowEntry> rowsById = new HashMap<>();
+        private final NavigableSet<LotEntry> queue = new TreeSet<>(FEFO_ORDER); // lots with stock only
+
+        private ItemLots(String itemId) {
+            this.itemId = itemId;
+        }
+
+        private void load(List<Lot> lots, List<LotStockRow> rows) {
+            for (Lot lot : lots) {
+                lotsById.put(lot.getId(), new LotEntry(lot.getId(), lot.getExpiryDate()));
+            }
+            for (LotStockRow row : rows) {
+                put(new RowEntry(row.getId(), row.getLotId(), row.getWarehouseId(), row.getLocationId(),
+                        row.getVersion(), available(row.getStatus(), row.getQuantityOnHand(), row.getQuantityReserved())));
+            }
+            loaded = true;
+        }
+
+        private void apply(InventoryEvent event) {
+            RowEntry current = rowsById.get(event.getInventoryId());
+            if (current != null && current.version != null && event.getVersion() != null
+                    && event.getVersion() <= current.version) {
+                return; // stale or duplicate
+            }
+            if (current != null) {
+                remove(current);
+            }
+            if ("DELETED".equalsIgnoreCase(event.getEventType()) || event.getLotId() == null) {
+                return;
+            }
+            // Rows of lots unknown here (inactive, or created since the load) are ignored:
+            // a new lot's own event evicts the item and the reload picks its rows up
+            if (!lotsById.containsKey(event.getLotId())) {
+                return;
+            }
+            InventoryStatus status = event.getStatus() != null ? InventoryStatus.valueOf(event.getStatus()) : null;
+            double available = event.getQuantityOnHand() != null
+                    ? available(status, event.getQuantityOnHand(), event.getQuantityReserved())
+                    : (current != null ? current.available : 0.0);
+            put(new RowEntry(event.getInventoryId(), event.getLotId(), event.getWarehouseId(),
+                    event.getLocationId(), event.getVersion(), available));
+        }
+
+        private void put(RowEntry row) {
+            LotEntry lot = lotsById.get(row.lotId);
+            if (lot == null) {
+                return;
+            }
+            rowsById.put(row.inventoryId, row);
+            lot.rows.put(row.sortKey(), row);
+            lot.total += row.available;
+            if (lot.total > EPSILON) {
+                queue.add(lot);
+            }
+        }
+
+        private void remove(RowEntry row) {
+            rowsById.remove(row.inventoryId);
+            LotEntry lot = lotsById.get(row.lotId);
+            if (lot == null) {
+                return;
+            }
+            lot.rows.remove(row.sortKey());
+            lot.total -= row.available;
+            if (lot.total <= EPSILON) {
+                lot.total = 0.0;
+                queue.remove(lot);
+            }
+        }
+
+        /**
+         * Walk lots in expiry order, and within a lot its rows in location order
+         * taken holds quantities already planned by earlier lines of the same request
+         */
+        private FefoAllocationPlan allocate(String warehouseId, double quantity,
+                                            Map<String, Double> taken, LocalDate today) {
+            List<FefoAllocationPlan.Pick> picks = new ArrayList<>();
+            double remaining = quantity;
+
+            for (LotEntry lot : queue) {
+                if (remaining <= EPSILON) {
+                    break;
+                }
+                if (lot.expiryDate != null && !lot.expiryDate.isAfter(today)) {
+                    continue; // expired since it was loaded
+                }
+                for (RowEntry row : lot.rows.values()) {
+                    if (warehouseId != null && !warehouseId.equals(row.warehouseId)) {
+                        continue;
+                    }
+                    double free = row.available - taken.getOrDefault(row.inventoryId, 0.0);
+                    if (free <= EPSILON) {
+                        continue;
+                    }
+                    double pick = Math.min(free, remaining);
+                    taken.merge(row.inventoryId, pick, Double::sum);
+                    remaining -= pick;
+                    picks.add(FefoAllocationPlan.Pick.builder()
+                            .inventoryId(row.inventoryId)
+                            .lotId(lot.lotId)
+                            .expiryDate(lot.expiryDate)
+                            .warehouseId(row.warehouseId)
+                            .locationId(row.locationId)
+                            .quantity(pick)
+                            .build());
+                    if (remaining <= EPSILON) {
+                        break;
+                    }
+                }
+            }
+
+            double allocated = quantity - Math.max(0.0, remaining);
+            return FefoAllocationPlan.builder()
+                    .itemId(itemId)
+                    .warehouseId(warehouseId)
+                    .requestedQuantity(quantity)
+                    .allocatedQuantity(allocated)
+                    .fullyAllocated(remaining <= EPSILON)
+                    .picks(picks)
+                    .build();
+        }
+    }
+
+    private static final class LotEntry {
+        private final String lotId;
+        private final LocalDate expiryDate;
+        private final NavigableMap<String, RowEntry> rows = new TreeMap<>();
+        private double total;
+
+        private LotEntry(String lotId, LocalDate expiryDate) {
+            this.lotId = lotId;
+            this.expiryDate = expiryDate;
+        }
+    }
+
+    private record RowEntry(String inventoryId, String lotId, String warehouseId, String locationId,
+                            Long version, double available) {
+
+        private String sortKey() {
+            return locationId + "|" + inventoryId;
+        }
+    }
+}
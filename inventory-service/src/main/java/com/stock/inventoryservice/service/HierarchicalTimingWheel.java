@@ -0,0 +1,116 @@
+package com.stock.inventoryservice.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel for deadline-driven work
+ *
+ * - Level 0 has `slots` buckets of one tick each; every bucket of level n+1 spans
+ *   the whole of level n. Timers far in the future sit in a coarse bucket and are
+ *   cascaded down as their time approaches.
+ * - schedule() and each tick cost O(1) per timer, whatever the number of pending
+ *   timers: no sorted structure, no scan
+ * - Timers beyond the wheel's range are parked in the last level and re-placed
+ *   when that bucket comes round
+ *
+ * Not thread-safe: callers synchronize.
+ */
+public final class HierarchicalTimingWheel<T> {
+
+    private final long tickMs;
+    private final int slots;
+    private final long[] spans;                 // Ticks covered by one bucket, per level
+    private final List<List<Entry<T>>> buckets; // level * slots + slot
+    private long currentTick;                   // Next tick to process
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMs, int slots, int levels, long startMs) {
+        this.tickMs = tickMs;
+        this.slots = slots;
+        this.spans = new long[levels];
+        long span = 1;
+        for (int level = 0; level < levels; level++) {
+            spans[level] = span;
+            span *= slots;
+        }
+        this.buckets = new ArrayList<>(levels * slots);
+        for (int i = 0; i < levels * slots; i++) {
+            buckets.add(null);
+        }
+        this.currentTick = startMs / tickMs;
+    }
+
+    /**
+     * Schedule a value for the given deadline (past deadlines fire on the next tick)
+     */
+    public void schedule(T value, long deadlineMs) {
+        long dueTick = Math.max(Math.floorDiv(deadlineMs + tickMs - 1, tickMs), currentTick);
+        place(new Entry<>(value, dueTick));
+        size++;
+    }
+
+    /**
+     * Process every tick up to nowMs, handing due values to the consumer
+     */
+    public void advance(long nowMs, Consumer<T> onDue) {
+        long nowTick = nowMs / tickMs;
+        while (currentTick <= nowTick) {
+            long tick = currentTick;
+
+            // Cascade coarse buckets whose window starts now, highest level first
+            for (int level = spans.length - 1; level > 0; level--) {
+                if (tick % spans[level] == 0) {
+                    List<Entry<T>> cascaded = take(level, (int) ((tick / spans[level]) % slots));
+                    if (cascaded != null) {
+                        cascaded.forEach(this::place);
+                    }
+                }
+            }
+
+            List<Entry<T>> due = take(0, (int) (tick % slots));
+            if (due != null) {
+                for (Entry<T> entry : due) {
+                    if (entry.dueTick() <= tick) {
+                        size--;
+                        onDue.accept(entry.value());
+                    } else {
+                        place(entry);
+                    }
+                }
+            }
+            currentTick++;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void place(Entry<T> entry) {
+        long delta = entry.dueTick() - currentTick;
+        int level = 0;
+        while (level < spans.length - 1 && delta >= spans[level] * slots) {
+            level++;
+        }
+        int slot = (int) ((entry.dueTick() / spans[level]) % slots);
+        int index = level * slots + slot;
+        List<Entry<T>> bucket = buckets.get(index);
+        if (bucket == null) {
+            bucket = new ArrayList<>();
+            buckets.set(index, bucket);
+        }
+        bucket.add(entry);
+    }
+
+    private List<Entry<T>> take(int level, int slot) {
+        int index = level * slots + slot;
+        List<Entry<T>> bucket = buckets.get(index);
+        buckets.set(index, null);
+        return bucket;
+    }
+
+    private record Entry<T>(T value, long dueTick) {
+    }
+}
@@ -0,0 +1,188 @@
+package com.stock.inventoryservice.service;
+
+import com.stock.inventoryservice.dto.InventoryChangeDTO;
+import com.stock.inventoryservice.dto.InventoryChangePage;
+import com.stock.inventoryservice.dto.InventoryDTO;
+import com.stock.inventoryservice.entity.Inventory;
+import com.stock.inventoryservice.entity.InventoryChange;
+import com.stock.inventoryservice.exception.InvalidOperationException;
+import com.stock.inventoryservice.repository.InventoryBatchRepository;
+import com.stock.inventoryservice.repository.InventoryChangeRepository;
+import com.stock.inventoryservice.repository.InventoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Inventory change feed: which rows changed since a token, in commit-safe order
+ *
+ * - Every inventory write appends (txid, sequence, inventoryId) to inventory_change
+ *   inside the writer's transaction (Propagation.MANDATORY), so the entry commits
+ *   or rolls back with the row change
+ * - Reads only return transactions older than every running one, ordered by
+ *   (txid, sequence): a later commit can never land behind a token already handed out
+ * - Each page returns the current state of the changed rows once, so a poll moves
+ *   O(changes) rows; entries are kept for inventory.changes.retention
+ * Without a token the feed starts at its head: take it before a full load, then poll.
+ */
+@Service
+@Slf4j
+public class InventoryChangeFeed {
+
+    public static final String UPSERT = "UPSERT";
+    public static final String DELETE = "DELETE";
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final InventoryChangeRepository changeRepository;
+    private final InventoryBatchRepository inventoryBatchRepository;
+    private final InventoryRepository inventoryRepository;
+    private final Duration retention;
+
+    public InventoryChangeFeed(InventoryChangeRepository changeRepository,
+                               InventoryBatchRepository inventoryBatchRepository,
+                               InventoryRepository inventoryRepository,
+                               @Value("${inventory.changes.retention:7d}") Duration retention) {
+        this.changeRepository = changeRepository;
+        this.inventoryBatchRepository = inventoryBatchRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.retention = retention;
+    }
+
+    // ===== RECORDING (inside the writing transaction) =====
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChanged(Collection<Inventory> inventories) {
+        inventoryBatchRepository.insertChanges(inventories.stream().map(Inventory::getId).toList(), UPSERT);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChanged(Inventory inventory) {
+        inventoryBatchRepository.insertChanges(List.of(inventory.getId()), UPSERT);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChangedIds(Collection<String> inventoryIds) {
+        inventoryBatchRepository.insertChanges(inventoryIds, UPSERT);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Inventory inventory) {
+        inventoryBatchRepository.insertChanges(List.of(inventory.getId()), DELETE);
+    }
+
+    // ===== READS =====
+
+    /**
+     * Rows changed after a token, oldest first; a row changed several times appears once
+     */
+    @Transactional(readOnly = true)
+    public InventoryChangePage getChanges(String since, int limit, Function<Inventory, InventoryDTO> mapper) {
+        if (since == null || since.isBlank()) {
+            long head = changeRepository.findCompletedTxidHead();
+            return InventoryChangePage.builder()
+                    .changes(List.of())
+                    .size(0)
+                    .hasMore(false)
+                    .token(encodeToken(head, Long.MAX_VALUE))
+                    .build();
+        }
+
+        long[] position = decodeToken(since);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // One extra entry tells us whether another page is ready
+        List<InventoryChange> entries = changeRepository.findCompletedAfter(position[0], position[1], pageSize + 1);
+        boolean hasMore = entries.size() > pageSize;
+        List<InventoryChange> page = hasMore ? entries.subList(0, pageSize) : entries;
+
+        if (page.isEmpty()) {
+            return InventoryChangePage.builder()
+                    .changes(List.of())
+                    .size(0)
+                    .hasMore(false)
+                    .token(encodeToken(position[0], position[1]))
+                    .build();
+        }
+
+        // Latest entry per row, in feed order of that entry
+        Map<String, InventoryChange> latest = new LinkedHashMap<>();
+        page.forEach(entry -> {
+            latest.remove(entry.getInventoryId());
+            latest.put(entry.getInventoryId(), entry);
+        });
+        Map<String, Inventory> current = new HashMap<>();
+        inventoryRepository.findAllById(latest.keySet()).forEach(inventory -> current.put(inventory.getId(), inventory));
+
+        List<InventoryChangeDTO> changes = new ArrayList<>(latest.size());
+        latest.values().forEach(entry -> {
+            Inventory inventory = current.get(entry.getInventoryId());
+            changes.add(InventoryChangeDTO.builder()
+                    .inventoryId(entry.getInventoryId())
+                    .changeType(inventory != null ? UPSERT : DELETE)
+                    .changedAt(entry.getChangedAt())
+                    .inventory(inventory != null ? mapper.apply(inventory) : null)
+                    .build());
+        });
+
+        InventoryChange last = page.get(page.size() - 1);
+        return InventoryChangePage.builder()
+                .changes(changes)
+                .size(changes.size())
+                .hasMore(hasMore)
+                .token(encodeToken(last.getTxid(), last.getSequence()))
+                .build();
+    }
+
+    // ===== RETENTION =====
+
+    @Transactional
+    public int purgeExpired() {
+        int deleted = changeRepository.deleteByChangedAtBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("🔄 Purged {} inventory change feed entries older than {}", deleted, retention);
+        }
+        return deleted;
+    }
+
+    // ===== TOKENS: base64url("txid:sequence:issuedAtMillis") =====
+
+    private static String encodeToken(long txid, long sequence) {
+        String raw = txid + ":" + sequence + ":" + System.currentTimeMillis();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long[] decodeToken(String token) {
+        long[] position;
+        long issuedAt;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Expected 3 parts");
+            }
+            position = new long[]{Long.parseLong(parts[0]), Long.parseLong(parts[1])};
+            issuedAt = Long.parseLong(parts[2]);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidOperationException("Invalid change feed token: " + token);
+        }
+        // Entries after the token may have been purged: the client must reload and start over
+        if (System.currentTimeMillis() - issuedAt > retention.toMillis()) {
+            throw new InvalidOperationException(
+                    "Change feed token expired (older than " + retention + "); reload inventory and request a new token");
+        }
+        return position;
+    }
+}
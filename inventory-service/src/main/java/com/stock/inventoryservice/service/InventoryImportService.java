@@ -0,0 +1,487 @@
+package com.stock.inventoryservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stock.inventoryservice.client.LocationClient;
+import com.stock.inventoryservice.dto.InventoryImportReport;
+import com.stock.inventoryservice.dto.InventoryImportReport.RowError;
+import com.stock.inventoryservice.dto.cache.ItemCacheDTO;
+import com.stock.inventoryservice.dto.external.LocationResponseDTO;
+import com.stock.inventoryservice.dto.request.InventoryCreateRequest;
+import com.stock.inventoryservice.entity.Inventory;
+import com.stock.inventoryservice.entity.Quantities;
+import com.stock.inventoryservice.event.dto.InventoryEvent;
+import com.stock.inventoryservice.event.dto.InventoryImportedEvent;
+import com.stock.inventoryservice.exception.InvalidOperationException;
+import com.stock.inventoryservice.repository.InventoryBatchRepository;
+import com.stock.inventoryservice.service.StockSummaryService.Snapshot;
+import com.stock.inventoryservice.service.impl.InventoryEventPublisher;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk inventory import (POST /api/inventory/import)
+ *
+ * - The upload (CSV with a header row of InventoryCreateRequest field names, or NDJSON)
+ *   is parsed as a stream: only one chunk of rows is held at a time
+ * - Per chunk, item references are checked with one bulk cache read and locations
+ *   through the location near-cache (once per distinct location)
+ * - Each chunk is written in its own transaction with one JDBC batch upsert keyed by
+ *   (item_id, location_id); occupancy, stock summaries and the change feed are updated by delta
+ * - One inventory.imported event per committed chunk instead of one event per row
+ * Rejected rows are reported and skipped; they never fail the rest of the import.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryImportService {
+
+    public static final String CSV = "text/csv";
+
+    private static final String UNREADABLE = "\u0000unreadable"; // Set by a row source for a row it could not split
+
+    private final InventoryBatchRepository inventoryBatchRepository;
+    private final ItemCacheService itemCacheService;
+    private final LocationClient locationClient;
+    private final LocationOccupancyService locationOccupancyService;
+    private final StockSummaryService stockSummaryService;
+    private final InventoryChangeFeed changeFeed;
+    private final InventoryEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${inventory.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${inventory.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public InventoryImportReport importInventories(InputStream input, String contentType) {
+        boolean csv = contentType != null && contentType.toLowerCase().startsWith(CSV);
+        String importId = UUID.randomUUID().toString();
+        long start = System.currentTimeMillis();
+        ImportState state = new ImportState(importId);
+
+        log.info("🔄 Starting inventory import {} ({})", importId, csv ? "CSV" : "NDJSON");
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            RowSource source = csv ? new CsvRowSource(reader) : new NdjsonRowSource(reader, objectMapper);
+            List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+            Map<String, String> fields;
+            while ((fields = source.next()) != null) {
+                long rowNumber = ++state.rowsRead;
+                ParsedRow row = parse(rowNumber, fields, state);
+                if (row != null) {
+                    chunk.add(row);
+                }
+                if (chunk.size() >= chunkSize) {
+                    processChunk(chunk, state);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                processChunk(chunk, state);
+            }
+        } catch (IOException e) {
+            // Chunks already committed stay committed; report what was done
+            log.error("❌ Import {} stopped reading after row {}", importId, state.rowsRead, e);
+            state.fail(state.rowsRead + 1, null, null, "Upload could not be read: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            if (state.rowsRead == 0) {
+                throw new InvalidOperationException(e.getMessage());
+            }
+            log.error("❌ Import {} stopped at row {}: {}", importId, state.rowsRead, e.getMessage());
+            state.fail(state.rowsRead, null, null, e.getMessage());
+        }
+
+        long duration = System.currentTimeMillis() - start;
+        log.info("✅ Import {} done in {} ms: {} read, {} inserted, {} updated, {} failed ({} chunks)",
+                importId, duration, state.rowsRead, state.rowsInserted, state.rowsUpdated, state.rowsFailed, state.chunks);
+
+        return InventoryImportReport.builder()
+                .importId(importId)
+                .rowsRead(state.rowsRead)
+                .rowsInserted(state.rowsInserted)
+                .rowsUpdated(state.rowsUpdated)
+                .rowsFailed(state.rowsFailed)
+                .chunks(state.chunks)
+                .durationMs(duration)
+                .errors(state.errors)
+                .errorsTruncated(state.rowsFailed > state.errors.size())
+                .build();
+    }
+
+    /**
+     * Bind and validate one row's fields (blank values count as absent)
+     */
+    private ParsedRow parse(long rowNumber, Map<String, String> fields, ImportState state) {
+        if (fields.containsKey(UNREADABLE)) {
+            state.fail(rowNumber, null, null, fields.get(UNREADABLE));
+            return null;
+        }
+
+        Map<String, String> values = new HashMap<>();
+        fields.forEach((name, value) -> {
+            if (name != null && value != null && !value.isBlank()) {
+                values.put(name.trim(), value.trim());
+            }
+        });
+
+        InventoryCreateRequest request;
+        try {
+            request = objectMapper.convertValue(values, InventoryCreateRequest.class);
+        } catch (IllegalArgumentException e) {
+            state.fail(rowNumber, values.get("itemId"), values.get("locationId"), "Unreadable value: " + rootMessage(e));
+            return null;
+        }
+
+        Set<ConstraintViolation<InventoryCreateRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            state.fail(rowNumber, request.getItemId(), request.getLocationId(), violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return null;
+        }
+        return new ParsedRow(rowNumber, request);
+    }
+
+    /**
+     * Check references, then write the valid rows of a chunk in one transaction
+     */
+    private void processChunk(List<ParsedRow> rows, ImportState state) {
+        Map<String, ItemCacheDTO> items = itemCacheService.getItemsById(
+                rows.stream().map(row -> row.request().getItemId()).toList());
+        Map<String, String> locationErrors = new HashMap<>();
+        rows.stream().map(row -> row.request().getLocationId()).distinct()
+                .forEach(locationId -> {
+                    String error = checkLocation(locationId);
+                    if (error != null) {
+                        locationErrors.put(locationId, error);
+                    }
+                });
+
+        // Keyed by (item, location): a later row for the same key replaces an earlier one
+        Map<String, ParsedRow> valid = new LinkedHashMap<>();
+        for (ParsedRow row : rows) {
+            InventoryCreateRequest request = row.request();
+            if (!items.containsKey(request.getItemId())) {
+                state.fail(row.rowNumber(), request.getItemId(), request.getLocationId(),
+                        "Item not found in cache: " + request.getItemId());
+            } else if (locationErrors.containsKey(request.getLocationId())) {
+                state.fail(row.rowNumber(), request.getItemId(), request.getLocationId(),
+                        locationErrors.get(request.getLocationId()));
+            } else if (valid.put(key(request.getItemId(), request.getLocationId()), row) != null) {
+                state.rowsUpdated++; // The earlier row was superseded within the chunk
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        int chunk = ++state.chunks;
+        try {
+            int inserted = transactionTemplate.execute(status -> writeChunk(state.importId, chunk, valid.values()));
+            state.rowsInserted += inserted;
+            state.rowsUpdated += valid.size() - inserted;
+        } catch (Exception e) {
+            log.error("❌ Import {} chunk {} failed ({} rows)", state.importId, chunk, valid.size(), e);
+            valid.values().forEach(row -> state.fail(row.rowNumber(), row.request().getItemId(),
+                    row.request().getLocationId(), "Chunk write failed: " + rootMessage(e)));
+        }
+    }
+
+    /**
+     * Upsert a chunk inside the current transaction; returns how many rows were new
+     */
+    private int writeChunk(String importId, int chunk, Collection<ParsedRow> rows) {
+        List<String[]> pairs = rows.stream()
+                .map(row -> new String[]{row.request().getItemId(), row.request().getLocationId()})
+                .toList();
+
+        Map<String, Inventory> before = new HashMap<>();
+        inventoryBatchRepository.lockByItemAndLocation(pairs)
+                .forEach(inventory -> before.put(key(inventory.getItemId(), inventory.getLocationId()), inventory));
+
+        List<Inventory> upserts = new ArrayList<>(rows.size());
+        for (ParsedRow row : rows) {
+            InventoryCreateRequest request = row.request();
+            Inventory existing = before.get(key(request.getItemId(), request.getLocationId()));
+            upserts.add(Inventory.builder()
+                    .id(existing != null ? existing.getId() : UUID.randomUUID().toString())
+                    .itemId(request.getItemId())
+                    .warehouseId(request.getWarehouseId())
+                    .locationId(request.getLocationId())
+                    .lotId(request.getLotId())
+                    .serialId(request.getSerialId())
+                    .quantityOnHand(Quantities.of(request.getQuantityOnHand()))
+                    .quantityReserved(Quantities.of(request.getQuantityReserved()))
+                    .quantityDamaged(Quantities.of(request.getQuantityDamaged()))
+                    .uom(request.getUom())
+                    .status(request.getStatus())
+                    .unitCost(request.getUnitCost())
+                    .expiryDate(request.getExpiryDate())
+                    .manufactureDate(request.getManufactureDate())
+                    .build());
+        }
+        inventoryBatchRepository.upsertAll(upserts);
+
+        // Re-read (already locked) for the reserved quantity and version each row ended with
+        List<Inventory> after = inventoryBatchRepository.lockByItemAndLocation(pairs);
+
+        Map<String, Double> occupancyDeltas = new TreeMap<>(); // sorted: stable lock order
+        for (Inventory inventory : after) {
+            Inventory previous = before.get(key(inventory.getItemId(), inventory.getLocationId()));
+            double delta = Quantities.subtract(inventory.getQuantityOnHand(),
+                    previous != null ? previous.getQuantityOnHand() : 0.0);
+            occupancyDeltas.merge(inventory.getLocationId(), delta, Quantities::add);
+        }
+        occupancyDeltas.forEach((locationId, delta) -> {
+            if (delta != 0.0) {
+                locationOccupancyService.applyDelta(locationId, delta);
+            }
+        });
+        stockSummaryService.applyChanges(
+                before.values().stream().map(Snapshot::of).toList(),
+                after.stream().map(Snapshot::of).toList());
+        changeFeed.recordChanged(after);
+
+        String reason = "Bulk import " + importId;
+        List<InventoryEvent> events = after.stream()
+                .map(inventory -> eventPublisher.toEvent(inventory,
+                        before.containsKey(key(inventory.getItemId(), inventory.getLocationId())) ? "UPDATED" : "CREATED",
+                        reason))
+                .toList();
+        int inserted = rows.size() - before.size();
+        eventPublisher.publishInventoryImported(InventoryImportedEvent.builder()
+                .importId(importId)
+                .chunk(chunk)
+                .rowsInserted(inserted)
+                .rowsUpdated(before.size())
+                .rows(events)
+                .timestamp(LocalDateTime.now())
+                .build());
+
+        log.debug("Import {} chunk {}: {} inserted, {} updated", importId, chunk, inserted, before.size());
+        return inserted;
+    }
+
+    /**
+     * Null when stock can be placed at the location, otherwise why not
+     */
+    private String checkLocation(String locationId) {
+        try {
+            LocationResponseDTO location = locationClient.getLocationById(locationId);
+            if (location == null) {
+                return "Location not found with ID: " + locationId;
+            }
+            if (location.getIsActive() != null && !location.getIsActive()) {
+                return "Cannot add inventory to inactive location: " + locationId;
+            }
+            return null;
+        } catch (Exception e) {
+            log.warn("⚠️ Could not check location {} during import: {}", locationId, e.getMessage());
+            return "Location could not be checked: " + locationId;
+        }
+    }
+
+    private static String key(String itemId, String locationId) {
+        return itemId + "|" + locationId;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+
+    private record ParsedRow(long rowNumber, InventoryCreateRequest request) {
+    }
+
+    /**
+     * Running totals of one import (errors list capped at maxReportedErrors)
+     */
+    private final class ImportState {
+        private final String importId;
+        private final List<RowError> errors = new ArrayList<>();
+        private long rowsRead;
+        private long rowsInserted;
+        private long rowsUpdated;
+        private long rowsFailed;
+        private int chunks;
+
+        private ImportState(String importId) {
+            this.importId = importId;
+        }
+
+        private void fail(long rowNumber, String itemId, String locationId, String message) {
+            rowsFailed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(RowError.builder()
+                        .row(rowNumber)
+                        .itemId(itemId)
+                        .locationId(locationId)
+                        .message(message)
+                        .build());
+            }
+        }
+    }
+
+    // ===== PARSING =====
+
+    /**
+     * Field name to raw value per row, null at end of input
+     * IllegalArgumentException when the input is malformed beyond the current row
+     */
+    private interface RowSource {
+        Map<String, String> next() throws IOException;
+    }
+
+    /**
+     * One JSON object per line; blank lines are skipped
+     */
+    private static final class NdjsonRowSource implements RowSource {
+        private static final TypeReference<Map<String, Object>> ROW_TYPE = new TypeReference<>() {
+        };
+
+        private final BufferedReader reader;
+        private final ObjectMapper objectMapper;
+
+        private NdjsonRowSource(BufferedReader reader, ObjectMapper objectMapper) {
+            this.reader = reader;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Map<String, String> fields = new HashMap<>();
+                try {
+                    objectMapper.readValue(line, ROW_TYPE).forEach((name, value) -> {
+                        if (value != null) {
+                            fields.put(name, value.toString());
+                        }
+                    });
+                } catch (JsonProcessingException e) {
+                    return Map.of(UNREADABLE, "Not a JSON object: " + e.getOriginalMessage());
+                }
+                return fields;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * RFC 4180 CSV: first record is the header; quoted fields may hold commas, quotes ("") and line breaks
+     */
+    private static final class CsvRowSource implements RowSource {
+        private final BufferedReader reader;
+        private List<String> header;
+
+        private CsvRowSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            if (header == null) {
+                header = readRecord();
+                if (header == null) {
+                    throw new IllegalArgumentException("CSV upload is empty: a header row is required");
+                }
+                if (!header.isEmpty() && header.get(0).startsWith("\uFEFF")) {
+                    header.set(0, header.get(0).substring(1));
+                }
+            }
+            List<String> record;
+            do {
+                record = readRecord();
+            } while (record != null && record.size() == 1 && record.get(0).isEmpty());
+            if (record == null) {
+                return null;
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < header.size() && i < record.size(); i++) {
+                fields.put(header.get(i), record.get(i));
+            }
+            return fields;
+        }
+
+        private List<String> readRecord() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("CSV upload ends inside a quoted field");
+                    }
+                    if (c == '"') {
+                        reader.mark(1);
+                        int next = reader.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            reader.reset();
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    break;
+                } else if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                    break;
+                } else {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
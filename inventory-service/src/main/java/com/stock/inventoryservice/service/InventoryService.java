@@ -1,12 +1,15 @@
 package com.stock.inventoryservice.service;
 
 import com.stock.inventoryservice.dto.*;
+import com.stock.inventoryservice.dto.request.AvailabilityBatchRequest;
 import com.stock.inventoryservice.dto.request.InventoryAdjustmentRequest;
 import com.stock.inventoryservice.dto.request.InventoryCreateRequest;
+import com.stock.inventoryservice.dto.request.InventorySearchRequest;
 import com.stock.inventoryservice.dto.request.InventoryTransferRequest;
 import com.stock.inventoryservice.dto.request.InventoryUpdateRequest;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface InventoryService {
 
@@ -40,9 +43,26 @@ public interface InventoryService {
     List<InventoryWithItemDTO> getInventoriesWithItemByLocation(String locationId);
     List<InventoryWithItemDTO> getInventoriesWithItemByWarehouse(String warehouseId);
 
+    // Keyset Pagination & Streaming (warehouseId / locationId null = no filter)
+    CursorPage<InventoryDTO> getInventoriesPage(String warehouseId, String locationId, String cursor, int limit);
+    CursorPage<InventoryWithItemDTO> getInventoriesWithItemPage(String warehouseId, String locationId, String cursor, int limit);
+    void streamInventories(String warehouseId, String locationId, Consumer<? super InventoryDTO> sink);
+    void streamInventoriesWithItems(String warehouseId, String locationId, Consumer<? super InventoryWithItemDTO> sink);
+
+    // Search (all supplied criteria AND-ed, keyset paginated)
+    CursorPage<InventoryDTO> searchInventories(InventorySearchRequest request);
+
+    // Change Feed (since null = start at the current head)
+    InventoryChangePage getChanges(String since, int limit);
+
     // Stock Availability
     boolean checkStockAvailability(String itemId, String locationId, Double quantity);
     Double getAvailableQuantity(String itemId, String locationId);
+    Double getTotalAvailableQuantity(String itemId, String warehouseId);
+    AvailabilityBatchResult checkAvailabilityBatch(AvailabilityBatchRequest request);
+
+    // Stock Summaries (warehouseId null = all warehouses)
+    InventorySummaryDTO getStockSummary(String itemId, String warehouseId);
 
     // Alert Management
     int scanAllInventoryForAlerts();
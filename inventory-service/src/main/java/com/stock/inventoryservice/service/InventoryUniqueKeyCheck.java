@@ -0,0 +1,47 @@
+package com.stock.inventoryservice.service;
+
+import com.stock.inventoryservice.repository.InventoryBatchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+/**
+ * Startup check of uk_inventory_item_location, the (item_id, location_id) key of the import upsert
+ *
+ * - ddl-auto only manages to add the key to a table without duplicate pairs, and just logs otherwise
+ * - Precondition for upgrading: at most one inventory row per (item, location). Rows created
+ *   before the key must be merged by hand first (quantities into one row, reservations and
+ *   movements repointed to it); the log names how many pairs are affected
+ * - A missing key is added here when the table allows it; otherwise the service refuses to start
+ *   instead of failing every import later
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryUniqueKeyCheck {
+
+    private final InventoryBatchRepository inventoryBatchRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void ensureItemLocationKey() {
+        if (inventoryBatchRepository.hasItemLocationKey()) {
+            return;
+        }
+
+        long duplicates = inventoryBatchRepository.countDuplicateItemLocations();
+        if (duplicates > 0) {
+            log.error("❌ {} (item_id, location_id) pairs have more than one inventory row; " +
+                    "merge them before starting this version", duplicates);
+            throw new IllegalStateException("uk_inventory_item_location cannot be added: " + duplicates +
+                    " (item_id, location_id) pairs have more than one inventory row");
+        }
+
+        inventoryBatchRepository.addItemLocationKey();
+        log.info("✅ Added unique key uk_inventory_item_location on inventory (item_id, location_id)");
+    }
+}
@@ -3,29 +3,56 @@ package com.stock.inventoryservice.service;
 
 import com.stock.inventoryservice.dto.cache.ItemCacheDTO;
 import com.stock.inventoryservice.exception.ResourceNotFoundException;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 /**
- * Service for managing Item cache in Redis
- * Items are populated via Kafka events from Product Service
+ * Service for managing the two-tier Item cache
+ * - L1: bounded in-process Caffeine cache (W-TinyLFU), filled on read
+ * - L2: Redis, populated via Kafka events from Product Service
  * NO REST fallback - cache is the single source of truth
+ * ItemEventConsumer updates/evicts L1 on every instance when items change
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ItemCacheService {
 
     private final RedisTemplate<String, ItemCacheDTO> redisTemplate;
+    private final Cache<String, ItemCacheDTO> localCache;
+
+    public ItemCacheService(RedisTemplate<String, ItemCacheDTO> redisTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${inventory.item-cache.l1.max-size:50000}") long maxSize,
+                            @Value("${inventory.item-cache.l1.ttl:10m}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl) // Bounds staleness if an invalidation event is ever missed
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "items-l1");
+    }
 
     private static final String CACHE_PREFIX = "item:";
     private static final Duration CACHE_TTL = Duration.ofHours(24); // 24 hours TTL
+    private static final int MGET_CHUNK_SIZE = 500;
 
     /**
      * Get Item from cache only
@@ -33,6 +60,11 @@ public class ItemCacheService {
      */
     public ItemCacheDTO getItem(String itemId) {
         log.debug("Getting item from cache: {}", itemId);
+
+        ItemCacheDTO localItem = localCache.getIfPresent(itemId);
+        if (localItem != null) {
+            return localItem;
+        }
     
         String key = CACHE_PREFIX + itemId;
         ItemCacheDTO cachedItem = redisTemplate.opsForValue().get(key);
@@ -43,6 +75,7 @@ public class ItemCacheService {
         }
     
         log.debug("Item found in cache: {}", itemId);
+        localCache.put(itemId, cachedItem);
         return cachedItem;
     }
     /**
@@ -51,19 +84,85 @@ public class ItemCacheService {
     public List<ItemCacheDTO> getItems(List<String> itemIds) {
         log.debug("Getting {} items from cache", itemIds.size());
 
-        List<String> keys = itemIds.stream()
-                .map(id -> CACHE_PREFIX + id)
+        Map<String, ItemCacheDTO> items = getItemsById(itemIds);
+        return itemIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
                 .toList();
+    }
 
-        List<ItemCacheDTO> items = redisTemplate.opsForValue().multiGet(keys);
+    /**
+     * Resolve many items at once, keyed by item ID
+     * L1 hits are served locally; the remaining distinct IDs are fetched with MGET in
+     * chunks, all chunks in one pipelined round-trip.
+     * Items missing from the cache are simply absent from the result.
+     */
+    public Map<String, ItemCacheDTO> getItemsById(Collection<String> itemIds) {
+        Map<String, ItemCacheDTO> items = new HashMap<>();
+        List<String> distinctIds = itemIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .filter(id -> {
+                    ItemCacheDTO localItem = localCache.getIfPresent(id);
+                    if (localItem != null) {
+                        items.put(id, localItem);
+                        return false;
+                    }
+                    return true;
+                })
+                .toList();
+        if (distinctIds.isEmpty()) {
+            return items;
+        }
 
-        if (items == null) {
-            return List.of();
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinctIds.size(); from += MGET_CHUNK_SIZE) {
+            chunks.add(distinctIds.subList(from, Math.min(from + MGET_CHUNK_SIZE, distinctIds.size()))
+                    .stream().map(id -> CACHE_PREFIX + id).toList());
         }
 
-        return items.stream()
-                .filter(item -> item != null)
-                .toList();
+        List<ItemCacheDTO> values = new ArrayList<>(distinctIds.size());
+        if (chunks.size() == 1) {
+            List<ItemCacheDTO> chunkValues = redisTemplate.opsForValue().multiGet(chunks.get(0));
+            if (chunkValues != null) {
+                values.addAll(chunkValues);
+            }
+        } else {
+            List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, ItemCacheDTO> ops = (RedisOperations<String, ItemCacheDTO>) operations;
+                    chunks.forEach(keys -> ops.opsForValue().multiGet(keys));
+                    return null;
+                }
+            });
+            for (Object result : results) {
+                @SuppressWarnings("unchecked")
+                List<ItemCacheDTO> chunkValues = (List<ItemCacheDTO>) result;
+                if (chunkValues != null) {
+                    values.addAll(chunkValues);
+                }
+            }
+        }
+
+        // MGET preserves key order: values.get(i) belongs to distinctIds.get(i)
+        int missing = 0;
+        for (int i = 0; i < distinctIds.size(); i++) {
+            ItemCacheDTO item = i < values.size() ? values.get(i) : null;
+            if (item != null) {
+                items.put(distinctIds.get(i), item);
+                localCache.put(distinctIds.get(i), item);
+            } else {
+                missing++;
+            }
+        }
+
+        if (missing > 0) {
+            log.warn("{} of {} items not found in cache. Cache must be synced via Kafka events.",
+                    missing, distinctIds.size());
+        }
+        return items;
     }
 
     /**
@@ -78,6 +177,7 @@ public class ItemCacheService {
 
         String key = CACHE_PREFIX + item.getId();
         redisTemplate.opsForValue().set(key, item, CACHE_TTL);
+        localCache.put(item.getId(), item);
         log.debug("Cached item: {} with TTL: {}", item.getId(), CACHE_TTL);
     }
 
@@ -98,6 +198,16 @@ public class ItemCacheService {
         log.info("Deleting item from cache: {}", itemId);
         String key = CACHE_PREFIX + itemId;
         redisTemplate.delete(key);
+        localCache.invalidate(itemId);
+    }
+
+    /**
+     * Drop an item from this instance's L1 only (next read goes to Redis)
+     */
+    public void evictLocal(String itemId) {
+        if (itemId != null) {
+            localCache.invalidate(itemId);
+        }
     }
 
     /**
@@ -122,6 +232,7 @@ public class ItemCacheService {
      */
     public void clearCache() {
         log.warn("Clearing entire item cache");
+        localCache.invalidateAll();
         String pattern = CACHE_PREFIX + "*";
         Set<String> keys = redisTemplate.keys(pattern);
         if (keys != null && !keys.isEmpty()) {
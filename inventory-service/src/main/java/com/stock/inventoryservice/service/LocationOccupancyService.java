@@ -0,0 +1,148 @@
+package com.stock.inventoryservice.service;
+
+import com.stock.inventoryservice.dto.OccupancyReconciliationReport;
+import com.stock.inventoryservice.entity.LocationOccupancy;
+import com.stock.inventoryservice.repository.LocationOccupancyRepository;
+import com.stock.inventoryservice.repository.LocationOccupancyRepository.LocationQuantityTotal;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Service for the location_occupancy aggregate
+ * Quantity changes apply their delta in the caller's transaction;
+ * reconciliation rebuilds the aggregate from inventory in chunks
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LocationOccupancyService {
+
+    private static final double DRIFT_TOLERANCE = 0.000001;
+
+    private final LocationOccupancyRepository occupancyRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.occupancy.reconcile-chunk-size:500}")
+    private int reconcileChunkSize;
+
+    /**
+     * Apply a quantity-on-hand delta to a location
+     * Must run inside the transaction that changes the inventory row
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyDelta(String locationId, Double delta) {
+        if (locationId == null || delta == null || delta == 0) {
+            return;
+        }
+        occupancyRepository.applyDelta(locationId, delta);
+        log.debug("Applied occupancy delta {} to location {}", delta, locationId);
+    }
+
+    /**
+     * Current quantity on hand at a location (one keyed read)
+     */
+    @Transactional(readOnly = true)
+    public Double getOccupiedQuantity(String locationId) {
+        return occupancyRepository.findById(locationId)
+                .map(LocationOccupancy::getTotalQuantity)
+                .orElse(0.0);
+    }
+
+    /**
+     * Check whether the aggregate has ever been built
+     */
+    @Transactional(readOnly = true)
+    public boolean isEmpty() {
+        return occupancyRepository.count() == 0;
+    }
+
+    /**
+     * Rebuild the aggregate from inventory, one chunk of locations per transaction
+     * Each chunk creates missing aggregate rows and locks them all before summing, so deltas
+     * committed concurrently (including a location's first) are neither lost nor double counted
+     */
+    public OccupancyReconciliationReport reconcile() {
+        log.info("🔄 Starting location occupancy reconciliation (chunk size: {})", reconcileChunkSize);
+        long start = System.currentTimeMillis();
+
+        int chunks = 0;
+        int checked = 0;
+        int drifted = 0;
+        double absoluteDrift = 0.0;
+        String afterLocationId = "";
+
+        while (true) {
+            List<String> locationIds = occupancyRepository.findNextLocationIds(afterLocationId, reconcileChunkSize);
+            if (locationIds.isEmpty()) {
+                break;
+            }
+
+            ChunkResult result = transactionTemplate.execute(status -> reconcileChunk(locationIds));
+
+            chunks++;
+            checked += locationIds.size();
+            drifted += result.drifted();
+            absoluteDrift += result.absoluteDrift();
+            afterLocationId = locationIds.get(locationIds.size() - 1);
+        }
+
+        Integer orphans = transactionTemplate.execute(status -> occupancyRepository.zeroOrphanedLocations());
+
+        OccupancyReconciliationReport report = OccupancyReconciliationReport.builder()
+                .chunksProcessed(chunks)
+                .locationsChecked(checked)
+                .locationsDrifted(drifted)
+                .orphansCleared(orphans != null ? orphans : 0)
+                .totalAbsoluteDrift(absoluteDrift)
+                .durationMs(System.currentTimeMillis() - start)
+                .completedAt(LocalDateTime.now())
+                .build();
+
+        if (report.getLocationsDrifted() > 0 || report.getOrphansCleared() > 0) {
+            log.warn("⚠️ Occupancy drift corrected: {}", report);
+        } else {
+            log.info("✅ Occupancy reconciliation complete, no drift: {}", report);
+        }
+        return report;
+    }
+
+    private ChunkResult reconcileChunk(List<String> locationIds) {
+        occupancyRepository.insertMissing(locationIds);
+        Map<String, Double> stored = occupancyRepository.findByLocationIdIn(locationIds).stream()
+                .collect(Collectors.toMap(LocationOccupancy::getLocationId, LocationOccupancy::getTotalQuantity));
+
+        Map<String, Double> actual = occupancyRepository.sumQuantityOnHandByLocation(locationIds).stream()
+                .collect(Collectors.toMap(LocationQuantityTotal::getLocationId, LocationQuantityTotal::getTotalQuantity));
+
+        int drifted = 0;
+        double absoluteDrift = 0.0;
+
+        for (String locationId : locationIds) {
+            double expected = actual.getOrDefault(locationId, 0.0);
+            Double current = stored.get(locationId);
+
+            if (current == null || Math.abs(expected - current) > DRIFT_TOLERANCE) {
+                double drift = expected - (current != null ? current : 0.0);
+                log.debug("Location {} occupancy drift: stored={}, actual={}", locationId, current, expected);
+                occupancyRepository.overwriteTotal(locationId, expected);
+                drifted++;
+                absoluteDrift += Math.abs(drift);
+            }
+        }
+
+        return new ChunkResult(drifted, absoluteDrift);
+    }
+
+    private record ChunkResult(int drifted, double absoluteDrift) {
+    }
+}
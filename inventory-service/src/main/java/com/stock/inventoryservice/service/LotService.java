@@ -1,6 +1,7 @@
 package com.stock.inventoryservice.service;
 
 import com.stock.inventoryservice.dto.*;
+import com.stock.inventoryservice.dto.request.FefoAllocationRequest;
 import com.stock.inventoryservice.dto.request.LotCreateRequest;
 import com.stock.inventoryservice.dto.request.LotUpdateRequest;
 
@@ -31,4 +32,8 @@ public interface LotService {
     // Utility
     Long countLotsByItem(String itemId);
     boolean isLotExpired(String lotId);
+
+    // FEFO allocation
+    FefoAllocationPlan allocateFefo(String itemId, String warehouseId, Double quantity);
+    List<FefoAllocationPlan> allocateFefoBulk(FefoAllocationRequest request);
 }
@@ -0,0 +1,316 @@
+package com.stock.inventoryservice.service;
+
+import com.stock.inventoryservice.client.AlertClient;
+import com.stock.inventoryservice.dto.LowStockScanReport;
+import com.stock.inventoryservice.entity.LowStockScanCheckpoint;
+import com.stock.inventoryservice.entity.ReorderThreshold;
+import com.stock.inventoryservice.entity.StockAlertLevel;
+import com.stock.inventoryservice.exception.InvalidOperationException;
+import com.stock.inventoryservice.repository.InventoryRepository;
+import com.stock.inventoryservice.repository.InventoryRepository.LowStockRow;
+import com.stock.inventoryservice.repository.LowStockScanCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streaming low-stock scan over the whole inventory table
+ *
+ * - The id key space is split into N ranges, each scanned by its own worker
+ * - Each worker walks its range with keyset pagination (id > cursor ORDER BY id LIMIT n);
+ *   the threshold predicate runs in SQL, so only low rows are ever loaded
+ * - A checkpoint per range is saved after every chunk: an interrupted scan resumes
+ *   from the last processed id instead of starting over
+ * - Runs outside any caller transaction: the new checkpoints are committed before the
+ *   workers start, and each worker saves its own detached copy of its checkpoint
+ * - SQL filters on the highest reorder point; each row is then checked against its own
+ *   threshold (ReorderThresholdService)
+ * Writes raise crossings as they happen (StockThresholdMonitor); the scan is an on-demand
+ * full re-check, e.g. after thresholds were raised above rows' current stock
+ */
+@Service
+@Slf4j
+public class LowStockScanService {
+
+    private final InventoryRepository inventoryRepository;
+    private final LowStockScanCheckpointRepository checkpointRepository;
+    private final AlertClient alertClient;
+    private final ReorderThresholdService reorderThresholdService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int partitions;
+    private final int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final Map<Integer, Double> partitionProgress = new ConcurrentHashMap<>();
+
+    private final Counter rowsCounter;
+    private final Counter alertsCounter;
+    private final Timer chunkTimer;
+
+    public LowStockScanService(InventoryRepository inventoryRepository,
+                               LowStockScanCheckpointRepository checkpointRepository,
+                               AlertClient alertClient,
+                               ReorderThresholdService reorderThresholdService,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${inventory.low-stock-scan.partitions:4}") int partitions,
+                               @Value("${inventory.low-stock-scan.chunk-size:1000}") int chunkSize) {
+        this.inventoryRepository = inventoryRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.alertClient = alertClient;
+        this.reorderThresholdService = reorderThresholdService;
+        this.transactionTemplate = transactionTemplate;
+        this.partitions = Math.max(1, Math.min(partitions, 16));
+        this.chunkSize = chunkSize;
+
+        this.rowsCounter = Counter.builder("inventory.lowstock.scan.rows")
+                .description("Low-stock rows found by the scan")
+                .register(meterRegistry);
+        this.alertsCounter = Counter.builder("inventory.lowstock.scan.alerts")
+                .description("Low-stock alerts raised by the scan")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("inventory.lowstock.scan.chunk")
+                .description("Time to fetch one keyset chunk")
+                .register(meterRegistry);
+        Gauge.builder("inventory.lowstock.scan.progress", this, LowStockScanService::progress)
+                .description("Fraction of the inventory key space covered by the running scan (0-1)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether a previous scan stopped before covering every partition
+     */
+    public boolean hasUnfinishedScan() {
+        return checkpointRepository.existsByCompletedFalse();
+    }
+
+    /**
+     * Run a scan: resume the interrupted one if any, otherwise start a new one
+     */
+    public LowStockScanReport scan() {
+        if (!running.compareAndSet(false, true)) {
+            throw new InvalidOperationException("A low stock scan is already running");
+        }
+
+        ExecutorService workers = null;
+        try {
+            long start = System.currentTimeMillis();
+
+            List<LowStockScanCheckpoint> checkpoints = checkpointRepository.findAllByOrderByPartitionNoAsc()
+                    .stream().map(LowStockScanService::detach).toList();
+            boolean resumed = checkpoints.stream().anyMatch(cp -> !cp.getCompleted());
+            if (!resumed) {
+                checkpoints = startNewScan();
+            }
+
+            String scanId = checkpoints.get(0).getScanId();
+            log.info("🔍 {} low stock scan {} ({} partitions, chunk size {})",
+                    resumed ? "Resuming" : "Starting", scanId, checkpoints.size(), chunkSize);
+
+            partitionProgress.clear();
+            checkpoints.forEach(cp -> partitionProgress.put(cp.getPartitionNo(), cp.getCompleted() ? 1.0 : 0.0));
+
+            List<LowStockScanCheckpoint> pending = checkpoints.stream().filter(cp -> !cp.getCompleted()).toList();
+            AtomicInteger threadCount = new AtomicInteger();
+            workers = Executors.newFixedThreadPool(pending.size(), runnable -> {
+                Thread thread = new Thread(runnable, "low-stock-scan-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            List<CompletableFuture<LowStockScanCheckpoint>> futures = new ArrayList<>();
+            for (LowStockScanCheckpoint checkpoint : pending) {
+                futures.add(CompletableFuture.supplyAsync(() -> scanPartition(detach(checkpoint)), workers));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+            // Final state as saved by the workers, plus the partitions completed before a resume
+            List<LowStockScanCheckpoint> finished = new ArrayList<>(
+                    checkpoints.stream().filter(LowStockScanCheckpoint::getCompleted).toList());
+            futures.forEach(future -> finished.add(future.join()));
+            long rowsMatched = finished.stream().mapToLong(LowStockScanCheckpoint::getRowsMatched).sum();
+            long alertsRaised = finished.stream().mapToLong(LowStockScanCheckpoint::getAlertsRaised).sum();
+            long durationMs = System.currentTimeMillis() - start;
+
+            LowStockScanReport report = LowStockScanReport.builder()
+                    .scanId(scanId)
+                    .resumed(resumed)
+                    .partitions(finished.size())
+                    .rowsMatched(rowsMatched)
+                    .alertsRaised(alertsRaised)
+                    .durationMs(durationMs)
+                    .completedAt(LocalDateTime.now())
+                    .build();
+
+            log.info("🎯 Low stock scan complete: {}", report);
+            return report;
+
+        } finally {
+            if (workers != null) {
+                workers.shutdownNow();
+            }
+            partitionProgress.clear();
+            running.set(false);
+        }
+    }
+
+    private List<LowStockScanCheckpoint> startNewScan() {
+        String scanId = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+
+        List<LowStockScanCheckpoint> checkpoints = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            String rangeStart = i == 0 ? "" : boundary(i);
+            checkpoints.add(LowStockScanCheckpoint.builder()
+                    .partitionNo(i)
+                    .scanId(scanId)
+                    .rangeStart(rangeStart)
+                    .rangeEnd(i == partitions - 1 ? null : boundary(i + 1))
+                    .lastId(rangeStart)
+                    .rowsMatched(0L)
+                    .alertsRaised(0L)
+                    .completed(false)
+                    .startedAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+
+        // Committed before the workers start: they update these rows in their own transactions
+        transactionTemplate.executeWithoutResult(status -> {
+            checkpointRepository.deleteAllInBatch();
+            checkpointRepository.saveAll(checkpoints);
+        });
+        return checkpoints;
+    }
+
+    /**
+     * Copy owned by one thread (never attached to the caller's persistence context)
+     */
+    private static LowStockScanCheckpoint detach(LowStockScanCheckpoint checkpoint) {
+        return LowStockScanCheckpoint.builder()
+                .partitionNo(checkpoint.getPartitionNo())
+                .scanId(checkpoint.getScanId())
+                .rangeStart(checkpoint.getRangeStart())
+                .rangeEnd(checkpoint.getRangeEnd())
+                .lastId(checkpoint.getLastId())
+                .rowsMatched(checkpoint.getRowsMatched())
+                .alertsRaised(checkpoint.getAlertsRaised())
+                .completed(checkpoint.getCompleted())
+                .startedAt(checkpoint.getStartedAt())
+                .updatedAt(checkpoint.getUpdatedAt())
+                .build();
+    }
+
+    /**
+     * Walk one key range chunk by chunk, saving the cursor after each chunk
+     * Returns the checkpoint as last saved
+     */
+    private LowStockScanCheckpoint scanPartition(LowStockScanCheckpoint checkpoint) {
+        long partitionStart = System.currentTimeMillis();
+        long matchedBefore = checkpoint.getRowsMatched();
+        double highestReorderPoint = reorderThresholdService.highestReorderPoint();
+
+        while (!checkpoint.getCompleted()) {
+            List<LowStockRow> chunk = chunkTimer.record(() -> checkpoint.getRangeEnd() != null
+                    ? inventoryRepository.findLowStockChunk(
+                            checkpoint.getLastId(), checkpoint.getRangeEnd(), highestReorderPoint, chunkSize)
+                    : inventoryRepository.findLowStockChunkUnbounded(
+                            checkpoint.getLastId(), highestReorderPoint, chunkSize));
+
+            int matched = 0;
+            int alerts = 0;
+            for (LowStockRow row : chunk) {
+                ReorderThreshold threshold = reorderThresholdService.resolve(
+                        row.getItemId(), row.getLocationId(), row.getWarehouseId());
+                StockAlertLevel level = threshold.levelOf(row.getAvailableQuantity());
+                if (level == StockAlertLevel.NORMAL) {
+                    continue;
+                }
+                matched++;
+                if (raiseAlert(row, level == StockAlertLevel.CRITICAL
+                        ? threshold.getMinQuantity() : threshold.getReorderPoint(), level)) {
+                    alerts++;
+                }
+            }
+            rowsCounter.increment(matched);
+            alertsCounter.increment(alerts);
+
+            if (!chunk.isEmpty()) {
+                checkpoint.setLastId(chunk.get(chunk.size() - 1).getId());
+            }
+            checkpoint.setRowsMatched(checkpoint.getRowsMatched() + matched);
+            checkpoint.setAlertsRaised(checkpoint.getAlertsRaised() + alerts);
+            checkpoint.setCompleted(chunk.size() < chunkSize);
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            checkpointRepository.save(checkpoint);
+
+            partitionProgress.put(checkpoint.getPartitionNo(),
+                    checkpoint.getCompleted() ? 1.0 : positionInRange(checkpoint));
+        }
+
+        long elapsedMs = Math.max(1, System.currentTimeMillis() - partitionStart);
+        long matched = checkpoint.getRowsMatched() - matchedBefore;
+        log.info("✅ Low stock scan partition {} done: {} rows in {} ms ({} rows/s)",
+                checkpoint.getPartitionNo(), matched, elapsedMs, matched * 1000 / elapsedMs);
+        return checkpoint;
+    }
+
+    private boolean raiseAlert(LowStockRow row, double threshold, StockAlertLevel level) {
+        try {
+            alertClient.createLowStockAlert(row.getItemId(), row.getLocationId(), row.getAvailableQuantity(), threshold, level);
+            return true;
+        } catch (Exception e) {
+            log.error("❌ Failed to create alert for inventory {}: {}", row.getId(), e.getMessage());
+            return false;
+        }
+    }
+
+    // ===== KEY SPACE HELPERS =====
+    // Inventory ids are random UUIDs, so their leading hex digits are uniformly distributed
+
+    private String boundary(int partition) {
+        return String.format("%02x", partition * 256 / partitions);
+    }
+
+    private double progress() {
+        if (partitionProgress.isEmpty()) {
+            return 0.0;
+        }
+        return partitionProgress.values().stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
+    }
+
+    private double positionInRange(LowStockScanCheckpoint checkpoint) {
+        double start = position(checkpoint.getRangeStart());
+        double end = checkpoint.getRangeEnd() != null ? position(checkpoint.getRangeEnd()) : 1.0;
+        double current = position(checkpoint.getLastId());
+        return end > start ? Math.max(0.0, Math.min(1.0, (current - start) / (end - start))) : 0.0;
+    }
+
+    private static double position(String id) {
+        String hex = id.replace("-", "");
+        hex = hex.length() >= 8 ? hex.substring(0, 8) : (hex + "00000000").substring(0, 8);
+        try {
+            return Long.parseLong(hex, 16) / (double) 0x100000000L;
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+}
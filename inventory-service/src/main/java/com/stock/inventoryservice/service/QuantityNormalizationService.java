@@ -0,0 +1,95 @@
+package com.stock.inventoryservice.service;
+
+import com.stock.inventoryservice.entity.DataMigration;
+import com.stock.inventoryservice.repository.DataMigrationRepository;
+import com.stock.inventoryservice.repository.InventoryBatchRepository;
+import com.stock.inventoryservice.repository.InventoryRepository;
+import com.stock.inventoryservice.service.impl.InventoryEventPublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One-off online migration of inventory quantities to whole micro-units (see Quantities)
+ *
+ * - Rows written before fixed-point arithmetic may hold drifted doubles (0.30000000000000004)
+ * - Inventory is walked in id order, one short transaction per chunk; only rows that
+ *   actually change are rewritten, get a new version, a change feed entry and an
+ *   UPDATED event after commit (so ATP indexes do not keep serving the old values)
+ * - Completion is recorded in data_migration, so later starts skip the walk;
+ *   an interrupted run starts over and finds the done chunks unchanged
+ */
+@Service
+@Slf4j
+public class QuantityNormalizationService {
+
+    static final String MIGRATION = "inventory-quantity-micro-units";
+
+    private final InventoryBatchRepository inventoryBatchRepository;
+    private final InventoryRepository inventoryRepository;
+    private final InventoryEventPublisher eventPublisher;
+    private final DataMigrationRepository dataMigrationRepository;
+    private final InventoryChangeFeed changeFeed;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public QuantityNormalizationService(InventoryBatchRepository inventoryBatchRepository,
+                                        InventoryRepository inventoryRepository,
+                                        InventoryEventPublisher eventPublisher,
+                                        DataMigrationRepository dataMigrationRepository,
+                                        InventoryChangeFeed changeFeed,
+                                        TransactionTemplate transactionTemplate,
+                                        @Value("${inventory.quantities.normalize.chunk-size:5000}") int chunkSize) {
+        this.inventoryBatchRepository = inventoryBatchRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.eventPublisher = eventPublisher;
+        this.dataMigrationRepository = dataMigrationRepository;
+        this.changeFeed = changeFeed;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    public long normalize() {
+        if (dataMigrationRepository.existsById(MIGRATION)) {
+            return 0;
+        }
+        long start = System.currentTimeMillis();
+        String afterId = "";
+        long scanned = 0;
+        long updated = 0;
+
+        while (true) {
+            List<String> ids = inventoryBatchRepository.findIdChunkAfter(afterId, chunkSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            Integer count = transactionTemplate.execute(status -> {
+                List<String> changed = inventoryBatchRepository.normalizeQuantities(ids);
+                changeFeed.recordChangedIds(changed);
+                if (!changed.isEmpty()) {
+                    inventoryRepository.findAllById(changed).forEach(inventory ->
+                            eventPublisher.publishInventoryChange(inventory, "UPDATED", "Quantities rounded to micro-units"));
+                }
+                return changed.size();
+            });
+            updated += count != null ? count : 0;
+            scanned += ids.size();
+            afterId = ids.get(ids.size() - 1);
+            if (ids.size() < chunkSize) {
+                break;
+            }
+        }
+
+        dataMigrationRepository.save(DataMigration.builder()
+                .name(MIGRATION)
+                .completedAt(LocalDateTime.now())
+                .build());
+        log.info("✅ Quantity normalization done: {} of {} inventory rows rounded to micro-units in {} ms",
+                updated, scanned, System.currentTimeMillis() - start);
+        return updated;
+    }
+}
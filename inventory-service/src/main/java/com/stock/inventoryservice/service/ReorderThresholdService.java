@@ -0,0 +1,212 @@
+package com.stock.inventoryservice.service;
+
+import com.stock.inventoryservice.dto.ReorderThresholdDTO;
+import com.stock.inventoryservice.dto.request.ReorderThresholdRequest;
+import com.stock.inventoryservice.entity.ReorderThreshold;
+import com.stock.inventoryservice.entity.ReorderThresholdScope;
+import com.stock.inventoryservice.exception.InvalidOperationException;
+import com.stock.inventoryservice.exception.ResourceNotFoundException;
+import com.stock.inventoryservice.repository.ReorderThresholdRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Reorder thresholds, held in memory so the write path resolves them without a query
+ *
+ * - Resolution: item at location, then item, then warehouse default, then the
+ *   service-wide defaults (inventory.low-stock.*)
+ * - Changes made through this service are visible locally once committed; other
+ *   instances pick them up on their next reload (ReorderThresholdRefreshJob)
+ */
+@Service
+@Slf4j
+public class ReorderThresholdService {
+
+    private final ReorderThresholdRepository thresholdRepository;
+    private final ReorderThreshold defaults;
+
+    // Scope key → threshold; replaced as a whole on reload, copy-on-write for local changes
+    private volatile Map<String, ReorderThreshold> byScopeKey;
+
+    public ReorderThresholdService(ReorderThresholdRepository thresholdRepository,
+                                   @Value("${inventory.low-stock.critical-threshold:5.0}") double criticalThreshold,
+                                   @Value("${inventory.low-stock.warning-threshold:10.0}") double warningThreshold) {
+        this.thresholdRepository = thresholdRepository;
+        this.defaults = ReorderThreshold.builder()
+                .minQuantity(criticalThreshold)
+                .reorderPoint(warningThreshold)
+                .build();
+    }
+
+    // ===== RESOLUTION (in memory) =====
+
+    /**
+     * The threshold that applies to an item at a location
+     */
+    public ReorderThreshold resolve(String itemId, String locationId, String warehouseId) {
+        Map<String, ReorderThreshold> thresholds = thresholds();
+        ReorderThreshold threshold = thresholds.get(
+                ReorderThreshold.scopeKey(ReorderThresholdScope.ITEM_LOCATION, itemId, locationId, null));
+        if (threshold == null) {
+            threshold = thresholds.get(ReorderThreshold.scopeKey(ReorderThresholdScope.ITEM, itemId, null, null));
+        }
+        if (threshold == null && warehouseId != null) {
+            threshold = thresholds.get(ReorderThreshold.scopeKey(ReorderThresholdScope.WAREHOUSE, null, null, warehouseId));
+        }
+        return threshold != null ? threshold : defaults;
+    }
+
+    /**
+     * Service-wide reorder point (inventory.low-stock.warning-threshold), for queries without an explicit threshold
+     */
+    public double defaultReorderPoint() {
+        return defaults.getReorderPoint();
+    }
+
+    /**
+     * Highest reorder point of any scope: no row at or above it can be low
+     */
+    public double highestReorderPoint() {
+        return thresholds().values().stream()
+                .mapToDouble(ReorderThreshold::getReorderPoint)
+                .reduce(defaults.getReorderPoint(), Math::max);
+    }
+
+    /**
+     * Replace the in-memory thresholds with the stored ones
+     */
+    public synchronized void reload() {
+        Map<String, ReorderThreshold> loaded = new HashMap<>();
+        thresholdRepository.findAll().forEach(threshold -> loaded.put(threshold.getScopeKey(), threshold));
+        boolean first = byScopeKey == null;
+        byScopeKey = loaded;
+        if (first) {
+            log.info("✅ Loaded {} reorder threshold(s)", loaded.size());
+        }
+    }
+
+    private Map<String, ReorderThreshold> thresholds() {
+        Map<String, ReorderThreshold> thresholds = byScopeKey;
+        if (thresholds == null) {
+            synchronized (this) {
+                if (byScopeKey == null) {
+                    reload();
+                }
+                thresholds = byScopeKey;
+            }
+        }
+        return thresholds;
+    }
+
+    // ===== MANAGEMENT =====
+
+    /**
+     * Create or replace the threshold of one scope
+     */
+    @Transactional
+    public ReorderThresholdDTO upsert(ReorderThresholdRequest request) {
+        validate(request);
+        String scopeKey = ReorderThreshold.scopeKey(request.getScope(), request.getItemId(),
+                request.getLocationId(), request.getWarehouseId());
+
+        ReorderThreshold threshold = thresholdRepository.findByScopeKey(scopeKey)
+                .orElseGet(() -> ReorderThreshold.builder()
+                        .scope(request.getScope())
+                        .scopeKey(scopeKey)
+                        .itemId(request.getScope() != ReorderThresholdScope.WAREHOUSE ? request.getItemId() : null)
+                        .locationId(request.getScope() == ReorderThresholdScope.ITEM_LOCATION ? request.getLocationId() : null)
+                        .warehouseId(request.getScope() == ReorderThresholdScope.WAREHOUSE ? request.getWarehouseId() : null)
+                        .build());
+        threshold.setMinQuantity(request.getMinQuantity());
+        threshold.setReorderPoint(request.getReorderPoint());
+        threshold.setMaxQuantity(request.getMaxQuantity());
+
+        ReorderThreshold saved = thresholdRepository.saveAndFlush(threshold);
+        afterCommit(thresholds -> thresholds.put(saved.getScopeKey(), saved));
+        log.info("✅ Reorder threshold {} set: min={}, reorderPoint={}, max={}",
+                scopeKey, saved.getMinQuantity(), saved.getReorderPoint(), saved.getMaxQuantity());
+        return mapToDTO(saved);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReorderThresholdDTO> getAll() {
+        return thresholdRepository.findAll(Sort.by("scopeKey")).stream().map(this::mapToDTO).toList();
+    }
+
+    /**
+     * The threshold in effect for an item at a location (as seen by this instance)
+     */
+    public ReorderThresholdDTO getEffective(String itemId, String locationId, String warehouseId) {
+        return mapToDTO(resolve(itemId, locationId, warehouseId));
+    }
+
+    @Transactional
+    public void delete(String id) {
+        ReorderThreshold threshold = thresholdRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Reorder threshold not found with ID: " + id));
+        thresholdRepository.delete(threshold);
+        afterCommit(thresholds -> thresholds.remove(threshold.getScopeKey()));
+        log.info("✅ Reorder threshold {} removed", threshold.getScopeKey());
+    }
+
+    private void validate(ReorderThresholdRequest request) {
+        boolean complete = switch (request.getScope()) {
+            case ITEM_LOCATION -> notBlank(request.getItemId()) && notBlank(request.getLocationId());
+            case ITEM -> notBlank(request.getItemId());
+            case WAREHOUSE -> notBlank(request.getWarehouseId());
+        };
+        if (!complete) {
+            throw new InvalidOperationException("Missing identifiers for a " + request.getScope() + " threshold");
+        }
+        if (request.getMinQuantity() > request.getReorderPoint()) {
+            throw new InvalidOperationException("Minimum quantity cannot exceed the reorder point");
+        }
+        if (request.getMaxQuantity() != null && request.getMaxQuantity() < request.getReorderPoint()) {
+            throw new InvalidOperationException("Maximum quantity cannot be below the reorder point");
+        }
+    }
+
+    private static boolean notBlank(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    /**
+     * Apply a change to the in-memory copy once the transaction commits
+     */
+    private void afterCommit(Consumer<Map<String, ReorderThreshold>> change) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                synchronized (ReorderThresholdService.this) {
+                    Map<String, ReorderThreshold> updated = new HashMap<>(thresholds());
+                    change.accept(updated);
+                    byScopeKey = updated;
+                }
+            }
+        });
+    }
+
+    private ReorderThresholdDTO mapToDTO(ReorderThreshold threshold) {
+        return ReorderThresholdDTO.builder()
+                .id(threshold.getId())
+                .scope(threshold.getScope())
+                .itemId(threshold.getItemId())
+                .locationId(threshold.getLocationId())
+                .warehouseId(threshold.getWarehouseId())
+                .minQuantity(threshold.getMinQuantity())
+                .reorderPoint(threshold.getReorderPoint())
+                .maxQuantity(threshold.getMaxQuantity())
+                .updatedAt(threshold.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,219 @@
+package com.stock.inventoryservice.service;
+
+import com.stock.inventoryservice.entity.Inventory;
+import com.stock.inventoryservice.entity.Quantities;
+import com.stock.inventoryservice.entity.Reservation;
+import com.stock.inventoryservice.repository.InventoryBatchRepository;
+import com.stock.inventoryservice.repository.ReservationRepository;
+import com.stock.inventoryservice.repository.ReservationRepository.ExpiryRow;
+import com.stock.inventoryservice.service.StockSummaryService.Snapshot;
+import com.stock.inventoryservice.service.impl.InventoryEventPublisher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Expiry of reservation holds, driven by an in-process hierarchical timing wheel
+ *
+ * - Every ACTIVE reservation with an expiry gets a timer; the wheel is rebuilt from
+ *   the indexed (status, expires_at) column on startup
+ * - Each tick hands the due reservations over in batches: rows are re-checked under
+ *   lock (released, fulfilled or renewed holds are skipped), the held quantity is
+ *   given back in one JDBC batch and the reservations are marked EXPIRED
+ * - Cancelled timers are not removed: they simply find nothing to expire
+ * - A low-frequency catch-up reads the overdue ACTIVE holds from the same index and
+ *   expires them through the same batches, covering timers this instance never armed
+ *   (reservations created on another instance, a lost afterCommit, a crash between ticks)
+ */
+@Service
+@Slf4j
+public class ReservationExpiryService {
+
+    private final ReservationRepository reservationRepository;
+    private final InventoryBatchRepository inventoryBatchRepository;
+    private final InventoryEventPublisher eventPublisher;
+    private final StockSummaryService stockSummaryService;
+    private final InventoryChangeFeed changeFeed;
+    private final TransactionTemplate transactionTemplate;
+    private final HierarchicalTimingWheel<String> wheel;
+    private final int batchSize;
+    private final int rebuildChunkSize;
+
+    private final Counter expiredCounter;
+
+    public ReservationExpiryService(ReservationRepository reservationRepository,
+                                    InventoryBatchRepository inventoryBatchRepository,
+                                    InventoryEventPublisher eventPublisher,
+                                    StockSummaryService stockSummaryService,
+                                    InventoryChangeFeed changeFeed,
+                                    TransactionTemplate transactionTemplate,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${inventory.reservations.tick-ms:1000}") long tickMs,
+                                    @Value("${inventory.reservations.expiry-batch-size:500}") int batchSize,
+                                    @Value("${inventory.reservations.rebuild-chunk-size:5000}") int rebuildChunkSize) {
+        this.reservationRepository = reservationRepository;
+        this.inventoryBatchRepository = inventoryBatchRepository;
+        this.eventPublisher = eventPublisher;
+        this.stockSummaryService = stockSummaryService;
+        this.changeFeed = changeFeed;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.rebuildChunkSize = rebuildChunkSize;
+        // 64 slots x 4 levels: 1s ticks cover ~194 days before timers are parked
+        this.wheel = new HierarchicalTimingWheel<>(tickMs, 64, 4, System.currentTimeMillis());
+
+        this.expiredCounter = Counter.builder("inventory.reservations.expired")
+                .description("Reservations released because their TTL passed")
+                .register(meterRegistry);
+        Gauge.builder("inventory.reservations.timers", this, ReservationExpiryService::pendingTimers)
+                .description("Reservation expiry timers held by the timing wheel")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Arm the expiry timer of a reservation (after commit when called inside a transaction)
+     */
+    public void schedule(String reservationId, LocalDateTime expiresAt) {
+        if (expiresAt == null) {
+            return;
+        }
+        long deadlineMs = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addTimer(reservationId, deadlineMs);
+                }
+            });
+            return;
+        }
+        addTimer(reservationId, deadlineMs);
+    }
+
+    /**
+     * Re-arm the timers of every ACTIVE expiring reservation, walking the expiry index in chunks
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        LocalDateTime afterExpiresAt = LocalDateTime.of(1970, 1, 1, 0, 0);
+        String afterId = "";
+        long loaded = 0;
+        while (true) {
+            List<ExpiryRow> chunk = reservationRepository.findActiveExpiringAfter(
+                    afterExpiresAt, afterId, PageRequest.of(0, rebuildChunkSize));
+            chunk.forEach(row -> schedule(row.getId(), row.getExpiresAt()));
+            loaded += chunk.size();
+            if (chunk.size() < rebuildChunkSize) {
+                break;
+            }
+            ExpiryRow last = chunk.get(chunk.size() - 1);
+            afterExpiresAt = last.getExpiresAt();
+            afterId = last.getId();
+        }
+        log.info("✅ Reservation expiry wheel rebuilt with {} timers in {} ms", loaded, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Advance the wheel to now and expire everything that came due
+     */
+    public int expireDue() {
+        List<String> due = new ArrayList<>();
+        synchronized (wheel) {
+            wheel.advance(System.currentTimeMillis(), due::add);
+        }
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        int expired = 0;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<String> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            try {
+                Integer count = transactionTemplate.execute(status -> expireBatch(batch));
+                expired += count != null ? count : 0;
+            } catch (Exception e) {
+                // Put the timers back so the next tick retries them
+                log.error("❌ Failed to expire {} reservations, retrying next tick: {}", batch.size(), e.getMessage(), e);
+                long now = System.currentTimeMillis();
+                batch.forEach(id -> addTimer(id, now));
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Expire the ACTIVE reservations whose expiry has already passed, read from the expiry index
+     */
+    public int catchUp() {
+        int expired = 0;
+        while (true) {
+            List<String> overdue = reservationRepository.findOverdueIds(
+                    LocalDateTime.now(), PageRequest.of(0, batchSize));
+            if (overdue.isEmpty()) {
+                break;
+            }
+            Integer count = transactionTemplate.execute(status -> expireBatch(overdue));
+            expired += count != null ? count : 0;
+            if (overdue.size() < batchSize || count == null || count == 0) {
+                break; // Nothing left, or the rows were taken by a concurrent expiry
+            }
+        }
+        if (expired > 0) {
+            log.info("⏰ Expiry catch-up released {} overdue reservations", expired);
+        }
+        return expired;
+    }
+
+    private int expireBatch(List<String> reservationIds) {
+        List<Reservation> expired = reservationRepository.lockExpired(reservationIds, LocalDateTime.now());
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Double> heldByInventory = new TreeMap<>();
+        expired.forEach(reservation ->
+                heldByInventory.merge(reservation.getInventoryId(), reservation.getQuantity(), Quantities::add));
+
+        Map<String, Inventory> rows = inventoryBatchRepository.lockByIds(heldByInventory.keySet());
+        List<Snapshot> before = rows.values().stream().map(Snapshot::of).toList();
+        rows.values().forEach(inventory -> inventory.setQuantityReserved(
+                Quantities.subtractToZero(inventory.getQuantityReserved(), heldByInventory.get(inventory.getId()))));
+        inventoryBatchRepository.updateQuantities(rows.values());
+        stockSummaryService.applyChanges(before, rows.values().stream().map(Snapshot::of).toList());
+        changeFeed.recordChanged(rows.values());
+
+        reservationRepository.markExpired(expired.stream().map(Reservation::getId).toList());
+        rows.values().forEach(inventory ->
+                eventPublisher.publishInventoryChange(inventory, "RELEASED", "Reservation expired"));
+
+        expiredCounter.increment(expired.size());
+        log.info("⏰ Expired {} reservations on {} inventory rows", expired.size(), rows.size());
+        return expired.size();
+    }
+
+    private void addTimer(String reservationId, long deadlineMs) {
+        synchronized (wheel) {
+            wheel.schedule(reservationId, deadlineMs);
+        }
+    }
+
+    private int pendingTimers() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.stock.inventoryservice.service;
+
+import com.stock.inventoryservice.repository.SerialRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * One-off migration of serials.lot_id for serials created before the column existed
+ *
+ * - The lot is taken from the inventory row that holds the serial (inventory.serial_id)
+ * - Only serials without a lot whose inventory row has one are walked, in id order, one
+ *   short transaction per chunk, so the table is never locked as a whole and an
+ *   interrupted run simply continues on the next start
+ * - Once everything is filled the walk finds nothing and returns after one index probe,
+ *   so it can stay enabled
+ */
+@Service
+@Slf4j
+public class SerialLotBackfillService {
+
+    private final SerialRepository serialRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public SerialLotBackfillService(SerialRepository serialRepository,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${inventory.serials.lot-backfill.chunk-size:5000}") int chunkSize) {
+        this.serialRepository = serialRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    public long backfill() {
+        long start = System.currentTimeMillis();
+        String afterId = "";
+        long scanned = 0;
+        long updated = 0;
+
+        while (true) {
+            List<String> ids = serialRepository.findBackfillChunkAfter(afterId, chunkSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            Integer count = transactionTemplate.execute(status -> serialRepository.backfillLotIds(ids));
+            updated += count != null ? count : 0;
+            scanned += ids.size();
+            afterId = ids.get(ids.size() - 1);
+            if (ids.size() < chunkSize) {
+                break;
+            }
+        }
+
+        if (scanned == 0) {
+            log.info("✅ Serial lot backfill: nothing to fill");
+            return 0;
+        }
+        log.info("✅ Serial lot backfill done: {} of {} serials updated in {} ms",
+                updated, scanned, System.currentTimeMillis() - start);
+        return updated;
+    }
+}
@@ -18,6 +18,7 @@ public interface SerialService {
     // Query Operations
     List<SerialDTO> getSerialsByItemId(String itemId);
     List<SerialDTO> getSerialsByLotId(String lotId);
+    CursorPage<SerialDTO> getSerialsByLotIdPage(String lotId, String cursor, int limit);
     List<SerialDTO> getSerialsByLocationId(String locationId);
     List<SerialDTO> getSerialsByStatus(String status);
     List<SerialDTO> getSerialsByItemIdAndStatus(String itemId, String status);
@@ -1,5 +1,10 @@
 package com.stock.inventoryservice.service;
 
+import com.stock.inventoryservice.dto.BulkReservationResult;
+import com.stock.inventoryservice.dto.ReservationDTO;
+import com.stock.inventoryservice.dto.request.BulkReservationRequest;
+import com.stock.inventoryservice.dto.request.ReservationCreateRequest;
+
 import java.math.BigDecimal;
 
 public interface StockReservationService {
@@ -11,4 +16,14 @@ public interface StockReservationService {
     void fulfillReservation(String inventoryId, BigDecimal quantity, String reservationId);
 
     BigDecimal getAvailableQuantity(String inventoryId);
+
+    BulkReservationResult reserveBulk(BulkReservationRequest request);
+
+    ReservationDTO createReservation(ReservationCreateRequest request);
+
+    ReservationDTO getReservation(String reservationId);
+
+    ReservationDTO releaseReservation(String reservationId);
+
+    ReservationDTO fulfillReservation(String reservationId);
 }
\ No newline at end of file
@@ -0,0 +1,309 @@
+package com.stock.inventoryservice.service;
+
+import com.stock.inventoryservice.dto.StockSummaryReconciliationReport;
+import com.stock.inventoryservice.entity.Inventory;
+import com.stock.inventoryservice.entity.InventoryStatus;
+import com.stock.inventoryservice.entity.ItemStockSummary;
+import com.stock.inventoryservice.entity.ItemWarehouseStockSummary;
+import com.stock.inventoryservice.repository.InventoryRepository;
+import com.stock.inventoryservice.repository.ItemStockSummaryRepository;
+import com.stock.inventoryservice.repository.ItemStockSummaryRepository.ItemStockTotal;
+import com.stock.inventoryservice.repository.ItemWarehouseStockSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Service for the item and (item, warehouse) stock summaries
+ * Inventory changes apply their delta in the caller's transaction;
+ * reconciliation rebuilds the summaries from inventory in chunks
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockSummaryService {
+
+    private static final double DRIFT_TOLERANCE = 0.000001;
+
+    private final ItemStockSummaryRepository itemSummaryRepository;
+    private final ItemWarehouseStockSummaryRepository warehouseSummaryRepository;
+    private final InventoryRepository inventoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StockThresholdMonitor stockThresholdMonitor;
+
+    @Value("${inventory.stock-summary.reconcile-chunk-size:500}")
+    private int reconcileChunkSize;
+
+    // False until the summaries are known to cover existing inventory (first build)
+    private volatile boolean built = false;
+
+    /**
+     * What one inventory row contributes to its item and (item, warehouse) totals
+     * (inventoryId and locationId are null for aggregated totals)
+     */
+    public record Snapshot(String inventoryId, String itemId, String warehouseId, String locationId,
+                           double onHand, double reserved, double damaged, double available, long locations) {
+
+        public static Snapshot of(Inventory inventory) {
+            double onHand = value(inventory.getQuantityOnHand());
+            double reserved = value(inventory.getQuantityReserved());
+            return new Snapshot(inventory.getId(), inventory.getItemId(), inventory.getWarehouseId(),
+                    inventory.getLocationId(), onHand, reserved, value(inventory.getQuantityDamaged()),
+                    inventory.getStatus() == InventoryStatus.AVAILABLE ? onHand - reserved : 0.0,
+                    onHand > 0 ? 1 : 0);
+        }
+
+        private static double value(Double quantity) {
+            return quantity != null ? quantity : 0.0;
+        }
+    }
+
+    // ===== INCREMENTAL MAINTENANCE =====
+
+    /**
+     * Apply the change of one row (before is null for a new row, after is null for a deleted one)
+     * Must run inside the transaction that changes the inventory row
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyChange(Snapshot before, Snapshot after) {
+        applyChanges(before != null ? List.of(before) : List.of(), after != null ? List.of(after) : List.of());
+    }
+
+    /**
+     * Apply a guarded reserve (+) or release (-) of a row, given its state after the change
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyReservedDelta(Inventory after, double reservedDelta) {
+        Snapshot current = Snapshot.of(after);
+        Snapshot previous = new Snapshot(current.inventoryId(), current.itemId(), current.warehouseId(),
+                current.locationId(), current.onHand(), current.reserved() - reservedDelta, current.damaged(),
+                after.getStatus() == InventoryStatus.AVAILABLE ? current.available() + reservedDelta : 0.0,
+                current.locations());
+        applyChange(previous, current);
+    }
+
+    /**
+     * Net the before/after states of a batch of rows and apply one delta per item and per
+     * (item, warehouse), in key order so concurrent writers lock summary rows consistently
+     * Every inventory writer passes through here, so reorder thresholds are evaluated here too
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyChanges(Collection<Snapshot> before, Collection<Snapshot> after) {
+        Map<String, Delta> byItem = new TreeMap<>();
+        Map<String, Delta> byItemWarehouse = new TreeMap<>();
+        before.forEach(snapshot -> accumulate(byItem, byItemWarehouse, snapshot, -1));
+        after.forEach(snapshot -> accumulate(byItem, byItemWarehouse, snapshot, 1));
+
+        byItem.values().stream().filter(Delta::isNonZero).forEach(delta -> itemSummaryRepository.applyDelta(
+                delta.itemId, delta.onHand, delta.reserved, delta.damaged, delta.available, delta.locations));
+        byItemWarehouse.values().stream().filter(Delta::isNonZero).forEach(delta -> warehouseSummaryRepository.applyDelta(
+                delta.itemId, delta.warehouseId, delta.onHand, delta.reserved, delta.damaged, delta.available,
+                delta.locations));
+
+        stockThresholdMonitor.evaluate(before, after);
+    }
+
+    private static void accumulate(Map<String, Delta> byItem, Map<String, Delta> byItemWarehouse,
+                                   Snapshot snapshot, int sign) {
+        byItem.computeIfAbsent(snapshot.itemId(), key -> new Delta(snapshot.itemId(), null)).add(snapshot, sign);
+        byItemWarehouse.computeIfAbsent(snapshot.itemId() + "|" + snapshot.warehouseId(),
+                key -> new Delta(snapshot.itemId(), snapshot.warehouseId())).add(snapshot, sign);
+    }
+
+    // ===== READS (one keyed row each) =====
+
+    @Transactional(readOnly = true)
+    public Optional<ItemStockSummary> getItemSummary(String itemId) {
+        return itemSummaryRepository.findById(itemId);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ItemWarehouseStockSummary> getItemWarehouseSummary(String itemId, String warehouseId) {
+        return warehouseSummaryRepository.findById(new ItemWarehouseStockSummary.Key(itemId, warehouseId));
+    }
+
+    @Transactional(readOnly = true)
+    public long countStockedWarehouses(String itemId) {
+        return warehouseSummaryRepository.countStockedWarehouses(itemId);
+    }
+
+    /**
+     * Available quantity of an item, overall or in one warehouse
+     * Falls back to summing inventory until the summaries have been built
+     */
+    @Transactional(readOnly = true)
+    public double getTotalAvailableQuantity(String itemId, String warehouseId) {
+        if (!built) {
+            Double total = warehouseId == null
+                    ? inventoryRepository.getTotalAvailableQuantityForItem(itemId)
+                    : inventoryRepository.getTotalAvailableQuantityForItemAtWarehouse(itemId, warehouseId);
+            return total != null ? total : 0.0;
+        }
+        return warehouseId == null
+                ? getItemSummary(itemId).map(ItemStockSummary::getQuantityAvailable).orElse(0.0)
+                : getItemWarehouseSummary(itemId, warehouseId).map(ItemWarehouseStockSummary::getQuantityAvailable).orElse(0.0);
+    }
+
+    public boolean isBuilt() {
+        return built;
+    }
+
+    /**
+     * Check whether some item has no summary yet (first start, or an interrupted rebuild)
+     * Marks the summaries usable otherwise
+     */
+    @Transactional(readOnly = true)
+    public boolean needsRebuild() {
+        boolean incomplete = itemSummaryRepository.count() < inventoryRepository.countDistinctItemIds();
+        if (!incomplete) {
+            built = true;
+        }
+        return incomplete;
+    }
+
+    // ===== RECONCILIATION =====
+
+    /**
+     * Rebuild the summaries from inventory, one chunk of items per transaction
+     * Each chunk locks its summary rows before summing, so deltas committed
+     * concurrently are neither lost nor double counted
+     */
+    public StockSummaryReconciliationReport reconcile() {
+        log.info("🔄 Starting stock summary reconciliation (chunk size: {})", reconcileChunkSize);
+        long start = System.currentTimeMillis();
+
+        int chunks = 0;
+        int checked = 0;
+        int drifted = 0;
+        String afterItemId = "";
+
+        while (true) {
+            List<String> itemIds = itemSummaryRepository.findNextItemIds(afterItemId, reconcileChunkSize);
+            if (itemIds.isEmpty()) {
+                break;
+            }
+
+            Integer chunkDrift = transactionTemplate.execute(status -> reconcileChunk(itemIds));
+
+            chunks++;
+            checked += itemIds.size();
+            drifted += chunkDrift != null ? chunkDrift : 0;
+            afterItemId = itemIds.get(itemIds.size() - 1);
+        }
+        built = true;
+
+        StockSummaryReconciliationReport report = StockSummaryReconciliationReport.builder()
+                .chunksProcessed(chunks)
+                .itemsChecked(checked)
+                .itemsDrifted(drifted)
+                .durationMs(System.currentTimeMillis() - start)
+                .completedAt(LocalDateTime.now())
+                .build();
+
+        if (report.getItemsDrifted() > 0) {
+            log.warn("⚠️ Stock summary drift corrected: {}", report);
+        } else {
+            log.info("✅ Stock summary reconciliation complete, no drift: {}", report);
+        }
+        return report;
+    }
+
+    private int reconcileChunk(List<String> itemIds) {
+        Map<String, ItemStockSummary> storedItems = new HashMap<>();
+        itemSummaryRepository.findByItemIdIn(itemIds).forEach(summary -> storedItems.put(summary.getItemId(), summary));
+        Map<String, ItemWarehouseStockSummary> storedWarehouses = new HashMap<>();
+        warehouseSummaryRepository.findByItemIdIn(itemIds).forEach(summary ->
+                storedWarehouses.put(summary.getItemId() + "|" + summary.getWarehouseId(), summary));
+
+        Map<String, Delta> actualItems = new TreeMap<>();
+        Map<String, Delta> actualWarehouses = new TreeMap<>();
+        for (ItemStockTotal total : itemSummaryRepository.sumByItemAndWarehouse(itemIds)) {
+            Snapshot snapshot = new Snapshot(null, total.getItemId(), total.getWarehouseId(), null,
+                    total.getQuantityOnHand(), total.getQuantityReserved(), total.getQuantityDamaged(),
+                    total.getQuantityAvailable(), total.getLocationCount());
+            accumulate(actualItems, actualWarehouses, snapshot, 1);
+        }
+        // Warehouses that no longer hold any row of the item go back to zero
+        storedWarehouses.values().forEach(stored -> actualWarehouses.computeIfAbsent(
+                stored.getItemId() + "|" + stored.getWarehouseId(),
+                key -> new Delta(stored.getItemId(), stored.getWarehouseId())));
+
+        int drifted = 0;
+        for (Delta actual : actualItems.values()) {
+            ItemStockSummary stored = storedItems.get(actual.itemId);
+            if (stored == null || actual.differsFrom(stored.getQuantityOnHand(), stored.getQuantityReserved(),
+                    stored.getQuantityDamaged(), stored.getQuantityAvailable(), stored.getLocationCount())) {
+                log.debug("Item {} stock summary drift: stored={}, actual={}", actual.itemId, stored, actual);
+                itemSummaryRepository.overwrite(actual.itemId, actual.onHand, actual.reserved, actual.damaged,
+                        actual.available, actual.locations);
+                drifted++;
+            }
+        }
+        for (Map.Entry<String, Delta> entry : actualWarehouses.entrySet()) {
+            Delta actual = entry.getValue();
+            ItemWarehouseStockSummary stored = storedWarehouses.get(entry.getKey());
+            if (stored == null || actual.differsFrom(stored.getQuantityOnHand(), stored.getQuantityReserved(),
+                    stored.getQuantityDamaged(), stored.getQuantityAvailable(), stored.getLocationCount())) {
+                warehouseSummaryRepository.overwrite(actual.itemId, actual.warehouseId, actual.onHand,
+                        actual.reserved, actual.damaged, actual.available, actual.locations);
+            }
+        }
+        return drifted;
+    }
+
+    /**
+     * Running totals for one summary key
+     */
+    private static final class Delta {
+        private final String itemId;
+        private final String warehouseId;
+        private double onHand;
+        private double reserved;
+        private double damaged;
+        private double available;
+        private long locations;
+
+        private Delta(String itemId, String warehouseId) {
+            this.itemId = itemId;
+            this.warehouseId = warehouseId;
+        }
+
+        private void add(Snapshot snapshot, int sign) {
+            onHand += sign * snapshot.onHand();
+            reserved += sign * snapshot.reserved();
+            damaged += sign * snapshot.damaged();
+            available += sign * snapshot.available();
+            locations += sign * snapshot.locations();
+        }
+
+        private boolean isNonZero() {
+            return differsFrom(0.0, 0.0, 0.0, 0.0, 0L);
+        }
+
+        private boolean differsFrom(Double onHand, Double reserved, Double damaged, Double available, Long locations) {
+            return Math.abs(this.onHand - onHand) > DRIFT_TOLERANCE
+                    || Math.abs(this.reserved - reserved) > DRIFT_TOLERANCE
+                    || Math.abs(this.damaged - damaged) > DRIFT_TOLERANCE
+                    || Math.abs(this.available - available) > DRIFT_TOLERANCE
+                    || this.locations != locations;
+        }
+
+        @Override
+        public String toString() {
+            return "onHand=" + onHand + ", reserved=" + reserved + ", damaged=" + damaged
+                    + ", available=" + available + ", locations=" + locations;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.stock.inventoryservice.service;
+
+import com.stock.inventoryservice.client.AlertClient;
+import com.stock.inventoryservice.dto.cache.ItemCacheDTO;
+import com.stock.inventoryservice.entity.ReorderThreshold;
+import com.stock.inventoryservice.entity.StockAlertLevel;
+import com.stock.inventoryservice.event.EventPublisher;
+import com.stock.inventoryservice.event.StockBelowThresholdEvent;
+import com.stock.inventoryservice.service.StockSummaryService.Snapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Edge-triggered low-stock evaluation
+ *
+ * - Compares each row's level (ReorderThresholdService) before and after a change and
+ *   raises stock.below.threshold only when the row becomes more severe:
+ *   NORMAL → WARNING, NORMAL → CRITICAL or WARNING → CRITICAL
+ * - Writes that leave a row at the same level (or raise it) emit nothing, so a row sitting
+ *   below its reorder point alerts once, and again only after recovering and dropping back
+ * - New rows start from NORMAL; deleted rows are not evaluated
+ * - Alerts leave after commit, so a rolled back change raises nothing
+ */
+@Service
+@Slf4j
+public class StockThresholdMonitor {
+
+    private final ReorderThresholdService reorderThresholdService;
+    private final ItemCacheService itemCacheService;
+    private final EventPublisher eventPublisher;
+    private final AlertClient alertClient;
+
+    private final Counter crossingsCounter;
+
+    public StockThresholdMonitor(ReorderThresholdService reorderThresholdService,
+                                 ItemCacheService itemCacheService,
+                                 EventPublisher eventPublisher,
+                                 AlertClient alertClient,
+                                 MeterRegistry meterRegistry) {
+        this.reorderThresholdService = reorderThresholdService;
+        this.itemCacheService = itemCacheService;
+        this.eventPublisher = eventPublisher;
+        this.alertClient = alertClient;
+        this.crossingsCounter = Counter.builder("inventory.lowstock.crossings")
+                .description("Rows that dropped below a reorder threshold level")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Evaluate the before/after states of the rows changed by one transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void evaluate(Collection<Snapshot> before, Collection<Snapshot> after) {
+        Map<String, Snapshot> previous = new HashMap<>();
+        before.stream().filter(snapshot -> snapshot.inventoryId() != null)
+                .forEach(snapshot -> previous.put(snapshot.inventoryId(), snapshot));
+
+        List<StockBelowThresholdEvent> crossings = new ArrayList<>();
+        for (Snapshot current : after) {
+            if (current.inventoryId() == null) {
+                continue;
+            }
+            ReorderThreshold threshold = reorderThresholdService.resolve(
+                    current.itemId(), current.locationId(), current.warehouseId());
+            double available = current.onHand() - current.reserved();
+            StockAlertLevel level = threshold.levelOf(available);
+            if (level == StockAlertLevel.NORMAL) {
+                continue;
+            }
+            Snapshot earlier = previous.get(current.inventoryId());
+            StockAlertLevel previousLevel = earlier != null
+                    ? threshold.levelOf(earlier.onHand() - earlier.reserved())
+                    : StockAlertLevel.NORMAL;
+            if (level.compareTo(previousLevel) > 0) {
+                crossings.add(toEvent(current, threshold, available, level, previousLevel));
+            }
+        }
+
+        if (!crossings.isEmpty()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(crossings);
+                }
+            });
+        }
+    }
+
+    private void publish(List<StockBelowThresholdEvent> crossings) {
+        Map<String, ItemCacheDTO> items;
+        try {
+            items = itemCacheService.getItemsById(
+                    crossings.stream().map(StockBelowThresholdEvent::getItemId).distinct().toList());
+        } catch (Exception e) {
+            log.warn("⚠️ Item lookup failed, low stock events sent without item details: {}", e.getMessage());
+            items = Map.of();
+        }
+
+        for (StockBelowThresholdEvent event : crossings) {
+            ItemCacheDTO item = items.get(event.getItemId());
+            if (item != null) {
+                event.setItemName(item.getName());
+                event.setItemSku(item.getSku());
+            }
+            log.warn("⚠️ {} LOW STOCK: item {} at location {} dropped to {} (threshold {})", event.getAlertLevel(),
+                    event.getItemId(), event.getLocationId(), event.getCurrentQuantity(), event.getThreshold());
+            eventPublisher.publishStockBelowThreshold(event);
+            alertClient.createLowStockAlert(event.getItemId(), event.getLocationId(),
+                    event.getCurrentQuantity(), event.getThreshold(), StockAlertLevel.valueOf(event.getAlertLevel()));
+        }
+        crossingsCounter.increment(crossings.size());
+    }
+
+    private static StockBelowThresholdEvent toEvent(Snapshot row, ReorderThreshold threshold, double available,
+                                                    StockAlertLevel level, StockAlertLevel previousLevel) {
+        return StockBelowThresholdEvent.builder()
+                .inventoryId(row.inventoryId())
+                .itemId(row.itemId())
+                .locationId(row.locationId())
+                .warehouseId(row.warehouseId())
+                .currentQuantity(available)
+                .threshold(level == StockAlertLevel.CRITICAL ? threshold.getMinQuantity() : threshold.getReorderPoint())
+                .alertLevel(level.name())
+                .previousAlertLevel(previousLevel.name())
+                .minQuantity(threshold.getMinQuantity())
+                .reorderPoint(threshold.getReorderPoint())
+                .maxQuantity(threshold.getMaxQuantity())
+                .reorderQuantity(threshold.reorderQuantity(available))
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
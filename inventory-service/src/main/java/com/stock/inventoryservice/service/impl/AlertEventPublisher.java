@@ -0,0 +1,173 @@
+package com.stock.inventoryservice.service.impl;
+
+import com.stock.inventoryservice.config.KafkaConfig;
+import com.stock.inventoryservice.event.dto.AlertBatchEvent;
+import com.stock.inventoryservice.event.dto.AlertRequestEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Asynchronous, batched alert emission
+ *
+ * - enqueue() never blocks the caller: alerts go into a bounded queue and are
+ *   dropped (and counted) when the queue is full
+ * - Identical alerts (entityId, alertReason, level, locationId) raised inside the
+ *   dedup window are collapsed into one
+ * - A scheduled flusher drains the queue and publishes AlertBatchEvents to alert.batch
+ */
+@Component
+@Slf4j
+public class AlertEventPublisher {
+
+    private static final String SOURCE = "inventory-service";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final BlockingQueue<AlertRequestEvent> queue;
+    private final Map<String, Long> recentlyEmitted = new ConcurrentHashMap<>();
+    private final long dedupWindowNanos;
+    private final int batchSize;
+
+    private final Counter enqueuedCounter;
+    private final Counter deduplicatedCounter;
+    private final Counter droppedCounter;
+    private final Counter batchesCounter;
+
+    public AlertEventPublisher(KafkaTemplate<String, Object> kafkaTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${inventory.alerts.queue-capacity:10000}") int queueCapacity,
+                               @Value("${inventory.alerts.batch-size:100}") int batchSize,
+                               @Value("${inventory.alerts.dedup-window:5m}") Duration dedupWindow) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.dedupWindowNanos = dedupWindow.toNanos();
+
+        this.enqueuedCounter = Counter.builder("inventory.alerts.enqueued")
+                .description("Alerts accepted into the outbound queue")
+                .register(meterRegistry);
+        this.deduplicatedCounter = Counter.builder("inventory.alerts.deduplicated")
+                .description("Alerts suppressed as duplicates within the dedup window")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("inventory.alerts.dropped")
+                .description("Alerts dropped because the outbound queue was full")
+                .register(meterRegistry);
+        this.batchesCounter = Counter.builder("inventory.alerts.batches")
+                .description("Alert batches published to Kafka")
+                .register(meterRegistry);
+        Gauge.builder("inventory.alerts.queue.size", queue, BlockingQueue::size)
+                .description("Alerts waiting to be flushed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue an alert for the next flush. Returns immediately.
+     */
+    public void enqueue(AlertRequestEvent alert) {
+        String key = dedupKey(alert);
+        long now = System.nanoTime();
+
+        // Claim the key atomically; a concurrent caller for the same key sees it taken
+        boolean[] claimed = {false};
+        recentlyEmitted.compute(key, (k, emittedAt) -> {
+            if (emittedAt != null && now - emittedAt < dedupWindowNanos) {
+                return emittedAt;
+            }
+            claimed[0] = true;
+            return now;
+        });
+
+        if (!claimed[0]) {
+            deduplicatedCounter.increment();
+            log.debug("⏭️ Suppressed duplicate alert {}", key);
+            return;
+        }
+
+        if (alert.getTimestamp() == null) {
+            alert.setTimestamp(LocalDateTime.now());
+        }
+
+        if (!queue.offer(alert)) {
+            // Release the key so the alert can be raised again once the queue drains
+            recentlyEmitted.remove(key, now);
+            droppedCounter.increment();
+            log.warn("⚠️ Alert queue full - dropped {} alert for entity {}", alert.getAlertReason(), alert.getEntityId());
+            return;
+        }
+
+        enqueuedCounter.increment();
+    }
+
+    /**
+     * Drain the queue into batches and publish them
+     */
+    @Scheduled(fixedDelayString = "${inventory.alerts.flush-interval-ms:500}")
+    public void flush() {
+        List<AlertRequestEvent> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            publishBatch(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    /**
+     * Forget dedup keys whose window has passed
+     */
+    @Scheduled(fixedDelayString = "${inventory.alerts.dedup-cleanup-interval-ms:60000}")
+    public void evictExpiredDedupKeys() {
+        long now = System.nanoTime();
+        recentlyEmitted.entrySet().removeIf(entry -> now - entry.getValue() >= dedupWindowNanos);
+    }
+
+    private void publishBatch(List<AlertRequestEvent> alerts) {
+        AlertBatchEvent event = AlertBatchEvent.builder()
+                .batchId(UUID.randomUUID().toString())
+                .source(SOURCE)
+                .alerts(alerts)
+                .timestamp(LocalDateTime.now())
+                .build();
+
+        try {
+            kafkaTemplate.send(KafkaConfig.ALERT_BATCH_TOPIC, event.getBatchId(), event)
+                    .whenComplete((result, ex) -> {
+                        if (ex == null) {
+                            batchesCounter.increment();
+                            log.info("✅ Published alert batch {} ({} alerts)", event.getBatchId(), alerts.size());
+                        } else {
+                            log.error("❌ Failed to publish alert batch {} ({} alerts)",
+                                    event.getBatchId(), alerts.size(), ex);
+                        }
+                    });
+        } catch (Exception e) {
+            log.error("❌ Error publishing alert batch {}", event.getBatchId(), e);
+        }
+    }
+
+    private String dedupKey(AlertRequestEvent alert) {
+        Object locationId = alert.getData() != null ? alert.getData().get("locationId") : null;
+        return alert.getEntityId() + "|" + alert.getAlertReason() + "|" + alert.getLevel()
+                + "|" + Objects.toString(locationId, "");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+}
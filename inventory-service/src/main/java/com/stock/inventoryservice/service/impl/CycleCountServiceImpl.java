@@ -0,0 +1,309 @@
+package com.stock.inventoryservice.service.impl;
+
+import com.stock.inventoryservice.dto.CycleCountBatchDTO;
+import com.stock.inventoryservice.dto.CycleCountReconciliationResult;
+import com.stock.inventoryservice.dto.CycleCountSessionDTO;
+import com.stock.inventoryservice.dto.request.CycleCountSessionCreateRequest;
+import com.stock.inventoryservice.dto.request.CycleCountSubmitRequest;
+import com.stock.inventoryservice.entity.CycleCountLine;
+import com.stock.inventoryservice.entity.CycleCountLineStatus;
+import com.stock.inventoryservice.entity.CycleCountSession;
+import com.stock.inventoryservice.entity.CycleCountSessionStatus;
+import com.stock.inventoryservice.entity.Inventory;
+import com.stock.inventoryservice.entity.Quantities;
+import com.stock.inventoryservice.exception.DuplicateResourceException;
+import com.stock.inventoryservice.exception.InvalidOperationException;
+import com.stock.inventoryservice.exception.ResourceNotFoundException;
+import com.stock.inventoryservice.repository.CycleCountBatchRepository;
+import com.stock.inventoryservice.repository.CycleCountLineRepository;
+import com.stock.inventoryservice.repository.CycleCountSessionRepository;
+import com.stock.inventoryservice.repository.InventoryBatchRepository;
+import com.stock.inventoryservice.service.CycleCountService;
+import com.stock.inventoryservice.service.InventoryChangeFeed;
+import com.stock.inventoryservice.service.LocationOccupancyService;
+import com.stock.inventoryservice.service.StockSummaryService;
+import com.stock.inventoryservice.service.StockSummaryService.Snapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Cycle count sessions
+ *
+ * - A batch is cut by one INSERT ... SELECT that walks the warehouse's candidates in
+ *   (location, row) order from the session's keyset cursor and freezes their book quantities;
+ *   a location is never split across two batches
+ * - Counts are recorded with one JDBC batch per submission
+ * - Reconciliation computes every variance of a batch in one UPDATE ... RETURNING and posts
+ *   them with one locked read and one JDBC batch write, in a single transaction
+ * The variance (counted - book) is added to the current quantity on hand, so movements
+ * recorded between the freeze and the reconciliation are kept.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class CycleCountServiceImpl implements CycleCountService {
+
+    private final CycleCountSessionRepository sessionRepository;
+    private final CycleCountLineRepository lineRepository;
+    private final CycleCountBatchRepository cycleCountBatchRepository;
+    private final InventoryBatchRepository inventoryBatchRepository;
+    private final LocationOccupancyService locationOccupancyService;
+    private final StockSummaryService stockSummaryService;
+    private final InventoryChangeFeed changeFeed;
+    private final InventoryEventPublisher eventPublisher;
+
+    @Value("${inventory.cycle-count.default-batch-size:500}")
+    private int defaultBatchSize;
+
+    @Override
+    public CycleCountSessionDTO openSession(CycleCountSessionCreateRequest request) {
+        if (sessionRepository.existsByWarehouseIdAndStatus(request.getWarehouseId(), CycleCountSessionStatus.OPEN)) {
+            throw new DuplicateResourceException(
+                    "A cycle count session is already open for warehouse: " + request.getWarehouseId());
+        }
+
+        CycleCountSession session = sessionRepository.save(CycleCountSession.builder()
+                .warehouseId(request.getWarehouseId())
+                .countedBefore(request.getCountedBefore() != null ? request.getCountedBefore() : LocalDate.now())
+                .batchSize(request.getBatchSize() != null ? request.getBatchSize() : defaultBatchSize)
+                .status(CycleCountSessionStatus.OPEN)
+                .batchesFrozen(0)
+                .linesFrozen(0L)
+                .linesApplied(0L)
+                .lastLocationId("")
+                .lastInventoryId("")
+                .exhausted(false)
+                .build());
+
+        log.info("✅ Opened cycle count session {} for warehouse {} (rows counted before {})",
+                session.getId(), session.getWarehouseId(), session.getCountedBefore());
+        return mapToDTO(session);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CycleCountSessionDTO getSession(String sessionId) {
+        return mapToDTO(sessionRepository.findById(sessionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cycle count session not found with ID: " + sessionId)));
+    }
+
+    @Override
+    public CycleCountBatchDTO freezeNextBatch(String sessionId) {
+        CycleCountSession session = lockOpenSession(sessionId);
+        if (session.getExhausted()) {
+            return null;
+        }
+
+        int batchNo = session.getBatchesFrozen() + 1;
+        int frozen = cycleCountBatchRepository.freeze(sessionId, batchNo, session.getWarehouseId(),
+                session.getCountedBefore(), session.getLastLocationId(), session.getLastInventoryId(),
+                session.getBatchSize());
+        if (frozen == 0) {
+            session.setExhausted(true);
+            log.info("✅ Cycle count session {}: every candidate is in a batch ({} batches)",
+                    sessionId, session.getBatchesFrozen());
+            return null;
+        }
+
+        String[] last = cycleCountBatchRepository.findLastKey(sessionId, batchNo);
+        if (frozen < session.getBatchSize()) {
+            session.setExhausted(true);
+        } else {
+            frozen += cycleCountBatchRepository.freezeRestOfLocation(sessionId, batchNo, session.getWarehouseId(),
+                    session.getCountedBefore(), last[0], last[1]);
+            last = cycleCountBatchRepository.findLastKey(sessionId, batchNo);
+        }
+
+        session.setBatchesFrozen(batchNo);
+        session.setLinesFrozen(session.getLinesFrozen() + frozen);
+        session.setLastLocationId(last[0]);
+        session.setLastInventoryId(last[1]);
+
+        log.info("🔢 Cycle count session {}: froze batch {} ({} rows)", sessionId, batchNo, frozen);
+        return getBatch(sessionId, batchNo);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CycleCountBatchDTO getBatch(String sessionId, int batchNo) {
+        CycleCountSession session = sessionRepository.findById(sessionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cycle count session not found with ID: " + sessionId));
+        requireBatch(session, batchNo);
+
+        List<CycleCountBatchDTO.Line> lines = lineRepository
+                .findBySessionIdAndBatchNoOrderByLocationIdAscInventoryIdAsc(sessionId, batchNo).stream()
+                .map(this::mapToLine)
+                .toList();
+        return CycleCountBatchDTO.builder()
+                .sessionId(sessionId)
+                .batchNo(batchNo)
+                .lines(lines)
+                .build();
+    }
+
+    @Override
+    public CycleCountBatchDTO submitCounts(String sessionId, int batchNo, CycleCountSubmitRequest request) {
+        CycleCountSession session = sessionRepository.findById(sessionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cycle count session not found with ID: " + sessionId));
+        requireOpen(session);
+        requireBatch(session, batchNo);
+
+        Map<String, Double> counted = new LinkedHashMap<>();
+        request.getCounts().forEach(count -> counted.put(count.getInventoryId(), count.getCountedQuantity()));
+
+        List<String> unmatched = cycleCountBatchRepository.recordCounts(sessionId, batchNo, counted);
+        if (!unmatched.isEmpty()) {
+            throw new InvalidOperationException("Not open lines of batch " + batchNo + " (" + unmatched.size() +
+                    "): " + String.join(", ", unmatched.subList(0, Math.min(10, unmatched.size()))));
+        }
+
+        log.info("Recorded {} counts for cycle count session {} batch {}", counted.size(), sessionId, batchNo);
+        return getBatch(sessionId, batchNo);
+    }
+
+    @Override
+    public CycleCountReconciliationResult reconcileBatch(String sessionId, int batchNo) {
+        long start = System.currentTimeMillis();
+        CycleCountSession session = lockOpenSession(sessionId);
+        requireBatch(session, batchNo);
+
+        Map<String, Double> variances = cycleCountBatchRepository.computeVariances(sessionId, batchNo);
+        Map<String, Inventory> rows = inventoryBatchRepository.lockByIds(variances.keySet());
+
+        LocalDate today = LocalDate.now();
+        List<Snapshot> before = new ArrayList<>(rows.size());
+        List<Snapshot> after = new ArrayList<>(rows.size());
+        // Quantities are netted in micro-units (see Quantities), so batches do not drift
+        Map<String, long[]> occupancyDeltas = new TreeMap<>(); // sorted: stable lock order
+        List<Inventory> adjusted = new ArrayList<>();
+        long netVarianceMicros = 0;
+        long absoluteVarianceMicros = 0;
+
+        for (Inventory inventory : rows.values()) {
+            long variance = Quantities.toMicros(variances.get(inventory.getId()));
+            before.add(Snapshot.of(inventory));
+
+            long oldQuantity = Quantities.toMicros(inventory.getQuantityOnHand());
+            long newQuantity = Math.max(0L, oldQuantity + variance);
+            inventory.setQuantityOnHand(Quantities.fromMicros(newQuantity));
+            inventory.setLastCountDate(today);
+            after.add(Snapshot.of(inventory));
+
+            if (variance != 0) {
+                occupancyDeltas.computeIfAbsent(inventory.getLocationId(), k -> new long[1])[0] += newQuantity - oldQuantity;
+                adjusted.add(inventory);
+                netVarianceMicros += variance;
+                absoluteVarianceMicros += Math.abs(variance);
+            }
+        }
+        double netVariance = Quantities.fromMicros(netVarianceMicros);
+        double absoluteVariance = Quantities.fromMicros(absoluteVarianceMicros);
+
+        // Counted rows without variance are written too: their last count date moves on
+        inventoryBatchRepository.updateQuantities(rows.values());
+        occupancyDeltas.forEach((locationId, delta) ->
+                locationOccupancyService.applyDelta(locationId, Quantities.fromMicros(delta[0])));
+        stockSummaryService.applyChanges(before, after);
+        changeFeed.recordChanged(rows.values());
+
+        cycleCountBatchRepository.markApplied(sessionId, batchNo);
+        int skipped = cycleCountBatchRepository.skipPending(sessionId, batchNo) + variances.size() - rows.size();
+        session.setLinesApplied(session.getLinesApplied() + rows.size());
+
+        String reason = "Cycle count " + sessionId + " batch " + batchNo;
+        adjusted.forEach(inventory -> eventPublisher.publishInventoryChange(inventory, "ADJUSTED", reason));
+
+        long duration = System.currentTimeMillis() - start;
+        log.info("✅ Cycle count session {} batch {} reconciled in {} ms: {} applied ({} with variance, net {}), {} skipped",
+                sessionId, batchNo, duration, rows.size(), adjusted.size(), netVariance, skipped);
+
+        return CycleCountReconciliationResult.builder()
+                .sessionId(sessionId)
+                .batchNo(batchNo)
+                .linesApplied(rows.size())
+                .linesSkipped(skipped)
+                .linesWithVariance(adjusted.size())
+                .netVariance(netVariance)
+                .absoluteVariance(absoluteVariance)
+                .durationMs(duration)
+                .build();
+    }
+
+    @Override
+    public CycleCountSessionDTO completeSession(String sessionId) {
+        CycleCountSession session = lockOpenSession(sessionId);
+
+        long unreconciled = lineRepository.countBySessionIdAndStatus(sessionId, CycleCountLineStatus.COUNTED);
+        if (unreconciled > 0) {
+            throw new InvalidOperationException(
+                    "Cycle count session " + sessionId + " has " + unreconciled + " counted lines not reconciled yet");
+        }
+
+        int skipped = cycleCountBatchRepository.skipPending(sessionId, null);
+        session.setStatus(CycleCountSessionStatus.COMPLETED);
+        session.setClosedAt(LocalDateTime.now());
+
+        log.info("✅ Completed cycle count session {}: {} lines applied, {} skipped",
+                sessionId, session.getLinesApplied(), skipped);
+        return mapToDTO(session);
+    }
+
+    private CycleCountSession lockOpenSession(String sessionId) {
+        CycleCountSession session = sessionRepository.findByIdForUpdate(sessionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cycle count session not found with ID: " + sessionId));
+        requireOpen(session);
+        return session;
+    }
+
+    private void requireOpen(CycleCountSession session) {
+        if (session.getStatus() != CycleCountSessionStatus.OPEN) {
+            throw new InvalidOperationException("Cycle count session " + session.getId() + " is " + session.getStatus());
+        }
+    }
+
+    private void requireBatch(CycleCountSession session, int batchNo) {
+        if (batchNo < 1 || batchNo > session.getBatchesFrozen()) {
+            throw new ResourceNotFoundException("Batch " + batchNo + " not found in cycle count session: " + session.getId());
+        }
+    }
+
+    private CycleCountSessionDTO mapToDTO(CycleCountSession session) {
+        return CycleCountSessionDTO.builder()
+                .id(session.getId())
+                .warehouseId(session.getWarehouseId())
+                .countedBefore(session.getCountedBefore())
+                .batchSize(session.getBatchSize())
+                .status(session.getStatus())
+                .batchesFrozen(session.getBatchesFrozen())
+                .linesFrozen(session.getLinesFrozen())
+                .linesApplied(session.getLinesApplied())
+                .exhausted(session.getExhausted())
+                .createdAt(session.getCreatedAt())
+                .closedAt(session.getClosedAt())
+                .build();
+    }
+
+    private CycleCountBatchDTO.Line mapToLine(CycleCountLine line) {
+        return CycleCountBatchDTO.Line.builder()
+                .inventoryId(line.getInventoryId())
+                .itemId(line.getItemId())
+                .locationId(line.getLocationId())
+                .bookQuantity(line.getBookQuantity())
+                .countedQuantity(line.getCountedQuantity())
+                .variance(line.getVariance())
+                .status(line.getStatus())
+                .build();
+    }
+}
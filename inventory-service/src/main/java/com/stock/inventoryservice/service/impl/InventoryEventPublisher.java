@@ -1,11 +1,17 @@
 package com.stock.inventoryservice.service.impl;
 
+import com.stock.inventoryservice.entity.Inventory;
 import com.stock.inventoryservice.event.dto.InventoryEvent;
-import com.stock.inventoryservice.event.StockBelowThresholdEvent;  // ✅ ADD THIS IMPORT
+import com.stock.inventoryservice.event.dto.InventoryImportedEvent;
+import com.stock.inventoryservice.service.AvailabilityIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
 
 @Component
 @RequiredArgsConstructor
@@ -13,6 +19,7 @@ import org.springframework.stereotype.Component;
 public class InventoryEventPublisher {
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final AvailabilityIndex availabilityIndex;
 
     private static final String INVENTORY_CREATED_TOPIC = "inventory.created";
     private static final String INVENTORY_UPDATED_TOPIC = "inventory.updated";
@@ -21,9 +28,59 @@ public class InventoryEventPublisher {
     private static final String INVENTORY_RESERVED_TOPIC = "inventory.reserved";
     private static final String INVENTORY_RELEASED_TOPIC = "inventory.released";
     private static final String INVENTORY_TRANSFERRED_TOPIC = "inventory.transferred";
-    private static final String STOCK_BELOW_THRESHOLD_TOPIC = "stock.below.threshold";  // ✅ ADD THIS
+    private static final String INVENTORY_EXPIRED_TOPIC = "inventory.expired";
+    private static final String INVENTORY_IMPORTED_TOPIC = "inventory.imported";
 
+    /**
+     * Inside a transaction the event is sent after commit, so only committed
+     * changes leave the service (and reach the ATP index)
+     */
     public void publishInventoryEvent(InventoryEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sendInventoryEvent(event);
+                }
+            });
+            return;
+        }
+        sendInventoryEvent(event);
+    }
+
+    /**
+     * Publish the current state of a row (version must already match the database)
+     */
+    public void publishInventoryChange(Inventory inventory, String eventType, String reason) {
+        publishInventoryEvent(toEvent(inventory, eventType, reason));
+    }
+
+    /**
+     * Event describing the current state of a row
+     */
+    public InventoryEvent toEvent(Inventory inventory, String eventType, String reason) {
+        return InventoryEvent.builder()
+                .inventoryId(inventory.getId())
+                .itemId(inventory.getItemId())
+                .warehouseId(inventory.getWarehouseId())
+                .locationId(inventory.getLocationId())
+                .lotId(inventory.getLotId())
+                .serialId(inventory.getSerialId())
+                .expiryDate(inventory.getExpiryDate())
+                .version(inventory.getVersion())
+                .quantityOnHand(inventory.getQuantityOnHand())
+                .quantityReserved(inventory.getQuantityReserved())
+                .availableQuantity(inventory.getAvailableQuantity())
+                .status(inventory.getStatus() != null ? inventory.getStatus().name() : null)
+                .eventType(eventType)
+                .reason(reason)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private void sendInventoryEvent(InventoryEvent event) {
+        availabilityIndex.markPending(event.getInventoryId(), event.getVersion());
+
         String topic = getTopicByEventType(event.getEventType());
 
         log.info("Publishing inventory event: {} to topic: {}", event.getEventType(), topic);
@@ -44,22 +101,54 @@ public class InventoryEventPublisher {
         }
     }
 
-    // ✅ ADD THIS METHOD:
-    public void publishStockBelowThreshold(StockBelowThresholdEvent event) {
-        log.info("📢 Publishing stock.below.threshold event for item: {} at location: {}",
-                event.getItemId(), event.getLocationId());
-        
+    /**
+     * Publish that a row's expiry date has passed (raised once, at the day boundary)
+     * The row itself did not change, so this does not go through the ATP index
+     */
+    public void publishInventoryExpired(Inventory inventory) {
+        InventoryEvent event = toEvent(inventory, "EXPIRED", "Expiry date passed");
+
         try {
-            kafkaTemplate.send(STOCK_BELOW_THRESHOLD_TOPIC, event.getItemId(), event)
+            kafkaTemplate.send(INVENTORY_EXPIRED_TOPIC, event.getInventoryId(), event)
                     .whenComplete((result, ex) -> {
-                        if (ex == null) {
-                            log.info("✅ Successfully published stock.below.threshold event");
-                        } else {
-                            log.error("❌ Failed to publish stock.below.threshold event", ex);
+                        if (ex != null) {
+                            log.error("Failed to publish inventory event: EXPIRED for inventory: {}",
+                                    event.getInventoryId(), ex);
+                        }
+                    });
+        } catch (Exception e) {
+            log.error("Error publishing inventory event: EXPIRED", e);
+        }
+    }
+
+    /**
+     * Publish one committed import chunk (after commit when inside a transaction)
+     */
+    public void publishInventoryImported(InventoryImportedEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sendInventoryImported(event);
+                }
+            });
+            return;
+        }
+        sendInventoryImported(event);
+    }
+
+    private void sendInventoryImported(InventoryImportedEvent event) {
+        event.getRows().forEach(row -> availabilityIndex.markPending(row.getInventoryId(), row.getVersion()));
+
+        try {
+            kafkaTemplate.send(INVENTORY_IMPORTED_TOPIC, event.getImportId(), event)
+                    .whenComplete((result, ex) -> {
+                        if (ex != null) {
+                            log.error("Failed to publish import chunk {} of {}", event.getChunk(), event.getImportId(), ex);
                         }
                     });
         } catch (Exception e) {
-            log.error("❌ Error publishing stock.below.threshold event", e);
+            log.error("Error publishing import chunk {} of {}", event.getChunk(), event.getImportId(), e);
         }
     }
 
@@ -5,29 +5,59 @@ import com.stock.inventoryservice.client.LocationClient;
 import com.stock.inventoryservice.dto.*;
 import com.stock.inventoryservice.dto.cache.ItemCacheDTO;
 import com.stock.inventoryservice.dto.external.LocationResponseDTO;
+import com.stock.inventoryservice.dto.request.AvailabilityBatchRequest;
 import com.stock.inventoryservice.dto.request.InventoryAdjustmentRequest;
 import com.stock.inventoryservice.dto.request.InventoryCreateRequest;
+import com.stock.inventoryservice.dto.request.InventorySearchRequest;
 import com.stock.inventoryservice.dto.request.InventoryTransferRequest;
 import com.stock.inventoryservice.dto.request.InventoryUpdateRequest;
 import com.stock.inventoryservice.entity.Inventory;
 import com.stock.inventoryservice.entity.InventoryStatus;
-import com.stock.inventoryservice.event.StockBelowThresholdEvent;
+import com.stock.inventoryservice.entity.ItemStockSummary;
+import com.stock.inventoryservice.entity.ItemWarehouseStockSummary;
+import com.stock.inventoryservice.entity.ReorderThreshold;
+import com.stock.inventoryservice.entity.Quantities;
+import com.stock.inventoryservice.entity.StockAlertLevel;
 import com.stock.inventoryservice.event.dto.InventoryEvent;
 import com.stock.inventoryservice.exception.InsufficientStockException;
+import com.stock.inventoryservice.exception.InvalidOperationException;
 import com.stock.inventoryservice.exception.LocationCapacityExceededException;
 import com.stock.inventoryservice.exception.ResourceNotFoundException;
 import com.stock.inventoryservice.repository.InventoryRepository;
+import com.stock.inventoryservice.repository.InventorySpecifications;
+import com.stock.inventoryservice.service.AvailabilityIndex;
+import com.stock.inventoryservice.service.ExpiryCalendar;
+import com.stock.inventoryservice.service.InventoryChangeFeed;
 import com.stock.inventoryservice.service.InventoryService;
 import com.stock.inventoryservice.service.ItemCacheService;
+import com.stock.inventoryservice.service.LocationOccupancyService;
+import com.stock.inventoryservice.service.LowStockScanService;
+import com.stock.inventoryservice.service.ReorderThresholdService;
+import com.stock.inventoryservice.service.StockSummaryService;
+import com.stock.inventoryservice.service.StockSummaryService.Snapshot;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -40,6 +70,18 @@ public class InventoryServiceImpl implements InventoryService {
     private final InventoryEventPublisher eventPublisher;
     private final LocationClient locationClient;
     private final AlertClient alertClient; // 🔥 NEW: Inject AlertClient
+    private final LocationOccupancyService locationOccupancyService;
+    private final LowStockScanService lowStockScanService;
+    private final ReorderThresholdService reorderThresholdService;
+    private final AvailabilityIndex availabilityIndex;
+    private final StockSummaryService stockSummaryService;
+    private final InventoryChangeFeed changeFeed;
+    private final ExpiryCalendar expiryCalendar;
+    private final EntityManager entityManager;
+
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int DEFAULT_SEARCH_PAGE_SIZE = 100;
+    private static final int STREAM_CHUNK_SIZE = 500;
 
     @Override
     public InventoryDTO createInventory(InventoryCreateRequest request) {
@@ -57,10 +99,10 @@ public class InventoryServiceImpl implements InventoryService {
                                     " at location: " + request.getLocationId());
                 });
 
-        Double quantityOnHand = request.getQuantityOnHand() != null ? request.getQuantityOnHand() : 0.0;
+        double quantityOnHand = Quantities.of(request.getQuantityOnHand());
 
         // 🔥 VALIDATE LOCATION CAPACITY BEFORE CREATING
-        validateLocationCapacity(request.getLocationId(), quantityOnHand, null);
+        validateLocationCapacity(request.getLocationId(), quantityOnHand);
 
         Inventory inventory = Inventory.builder()
                 .itemId(request.getItemId())
@@ -69,8 +111,8 @@ public class InventoryServiceImpl implements InventoryService {
                 .lotId(request.getLotId())
                 .serialId(request.getSerialId())
                 .quantityOnHand(quantityOnHand)
-                .quantityReserved(request.getQuantityReserved() != null ? request.getQuantityReserved() : 0.0)
-                .quantityDamaged(request.getQuantityDamaged() != null ? request.getQuantityDamaged() : 0.0)
+                .quantityReserved(Quantities.of(request.getQuantityReserved()))
+                .quantityDamaged(Quantities.of(request.getQuantityDamaged()))
                 .uom(request.getUom())
                 .status(request.getStatus())
                 .unitCost(request.getUnitCost())
@@ -80,13 +122,12 @@ public class InventoryServiceImpl implements InventoryService {
                 .build();
 
         Inventory savedInventory = inventoryRepository.save(inventory);
+        locationOccupancyService.applyDelta(savedInventory.getLocationId(), savedInventory.getQuantityOnHand());
+        stockSummaryService.applyChange(null, Snapshot.of(savedInventory));
+        changeFeed.recordChanged(savedInventory);
         log.info("Inventory created successfully with ID: {}", savedInventory.getId());
 
         publishInventoryEvent(savedInventory, "CREATED");
-
-        // 🚨 Check for low stock and create alert if needed
-        checkLowStockAndCreateAlert(savedInventory);
-
         return mapToDTO(savedInventory);
     }
 
@@ -156,6 +197,9 @@ public class InventoryServiceImpl implements InventoryService {
     @Override
     @Transactional(readOnly = true)
     public List<InventoryDTO> getLowStockItems(Double threshold) {
+        if (threshold == null) {
+            threshold = reorderThresholdService.defaultReorderPoint();
+        }
         log.debug("Fetching low stock items with threshold: {}", threshold);
 
         return inventoryRepository.findByQuantityOnHandLessThan(threshold).stream()
@@ -170,7 +214,10 @@ public class InventoryServiceImpl implements InventoryService {
 
         LocalDate cutoffDate = LocalDate.now().plusDays(daysFromNow);
 
-        return inventoryRepository.findByExpiryDateBefore(cutoffDate).stream()
+        List<Inventory> expiring = expiryCalendar.isReady()
+                ? expiryCalendar.getInventoryExpiringBefore(cutoffDate)
+                : inventoryRepository.findByExpiryDateBefore(cutoffDate);
+        return expiring.stream()
                 .map(this::mapToDTO)
                 .collect(Collectors.toList());
     }
@@ -183,49 +230,53 @@ public class InventoryServiceImpl implements InventoryService {
                 .orElseThrow(() -> new ResourceNotFoundException("Inventory not found with ID: " + id));
 
         Double previousQuantity = inventory.getQuantityOnHand();
+        Snapshot before = Snapshot.of(inventory);
 
         if (request.getNewQuantity() < 0) {
             throw new InsufficientStockException(
                     "Quantity cannot be negative. Requested: " + request.getNewQuantity());
         }
+        double newQuantity = Quantities.of(request.getNewQuantity());
+        double delta = Quantities.subtract(newQuantity, previousQuantity);
 
         // 🔥 VALIDATE LOCATION CAPACITY IF INCREASING QUANTITY
-        if (request.getNewQuantity() > previousQuantity) {
-            Double additionalQuantity = request.getNewQuantity() - previousQuantity;
-            validateLocationCapacity(inventory.getLocationId(), additionalQuantity, id);
+        if (delta > 0) {
+            validateLocationCapacity(inventory.getLocationId(), delta);
         }
 
-        inventory.setQuantityOnHand(request.getNewQuantity());
+        inventory.setQuantityOnHand(newQuantity);
         inventory.setLastCountDate(LocalDate.now());
 
         Inventory savedInventory = inventoryRepository.save(inventory);
+        locationOccupancyService.applyDelta(inventory.getLocationId(), delta);
+        stockSummaryService.applyChange(before, Snapshot.of(savedInventory));
+        changeFeed.recordChanged(savedInventory);
         log.info("Quantity adjusted from {} to {}", previousQuantity, request.getNewQuantity());
 
         publishInventoryEvent(savedInventory, "ADJUSTED");
-
-        // 🚨 Check for low stock and create alert if needed
-        checkLowStockAndCreateAlert(savedInventory);
-
         return mapToDTO(savedInventory);
     }
 
     @Override
     public InventoryDTO reserveQuantity(String id, Double quantity) {
         log.info("Reserving quantity {} for inventory: {}", quantity, id);
+        quantity = Quantities.of(quantity); // Whole micro-units, like every stored quantity
 
-        Inventory inventory = inventoryRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found with ID: " + id));
+        // Check-and-increment in one guarded UPDATE (no entity load, no version conflict)
+        int updated = inventoryRepository.reserveIfAvailable(id, quantity);
 
-        Double available = inventory.getAvailableQuantity();
-
-        if (available < quantity) {
+        if (updated == 0) {
+            Inventory inventory = inventoryRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Inventory not found with ID: " + id));
             throw new InsufficientStockException(
-                    "Insufficient available stock. Available: " + available + ", Requested: " + quantity);
+                    "Insufficient available stock. Available: " + inventory.getAvailableQuantity() +
+                            ", Requested: " + quantity);
         }
 
-        inventory.setQuantityReserved(inventory.getQuantityReserved() + quantity);
-
-        Inventory savedInventory = inventoryRepository.save(inventory);
+        Inventory savedInventory = inventoryRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found with ID: " + id));
+        stockSummaryService.applyReservedDelta(savedInventory, quantity);
+        changeFeed.recordChanged(savedInventory);
         log.info("Reserved {} units. Total reserved: {}", quantity, savedInventory.getQuantityReserved());
 
         publishInventoryEvent(savedInventory, "RESERVED");
@@ -236,18 +287,22 @@ public class InventoryServiceImpl implements InventoryService {
     @Override
     public InventoryDTO releaseReservation(String id, Double quantity) {
         log.info("Releasing reservation {} for inventory: {}", quantity, id);
+        quantity = Quantities.of(quantity); // Whole micro-units, like every stored quantity
 
-        Inventory inventory = inventoryRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found with ID: " + id));
+        // Check-and-decrement in one guarded UPDATE (no entity load, no version conflict)
+        int updated = inventoryRepository.releaseIfReserved(id, quantity);
 
-        if (inventory.getQuantityReserved() < quantity) {
+        if (updated == 0) {
+            Inventory inventory = inventoryRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Inventory not found with ID: " + id));
             throw new IllegalStateException(
                     "Cannot release more than reserved. Reserved: " + inventory.getQuantityReserved());
         }
 
-        inventory.setQuantityReserved(inventory.getQuantityReserved() - quantity);
-
-        Inventory savedInventory = inventoryRepository.save(inventory);
+        Inventory savedInventory = inventoryRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found with ID: " + id));
+        stockSummaryService.applyReservedDelta(savedInventory, -quantity);
+        changeFeed.recordChanged(savedInventory);
         log.info("Released {} units. Total reserved: {}", quantity, savedInventory.getQuantityReserved());
 
         publishInventoryEvent(savedInventory, "RELEASED");
@@ -266,16 +321,14 @@ public class InventoryServiceImpl implements InventoryService {
                 .findByItemIdAndLocationId(request.getItemVariantId(), request.getSourceLocationId())
                 .orElseThrow(() -> new ResourceNotFoundException("Source inventory not found"));
 
+        double quantity = Quantities.of(request.getQuantity());
         Double availableQuantity = fromInventory.getAvailableQuantity();
-        if (availableQuantity < request.getQuantity().doubleValue()) {
+        if (availableQuantity < quantity) {
             throw new InsufficientStockException("Insufficient stock at source location");
         }
 
-        fromInventory.setQuantityOnHand(fromInventory.getQuantityOnHand() - request.getQuantity().doubleValue());
-        inventoryRepository.save(fromInventory);
-
         // 🔥 VALIDATE DESTINATION LOCATION CAPACITY
-        validateLocationCapacity(request.getDestinationLocationId(), request.getQuantity().doubleValue(), null);
+        validateLocationCapacity(request.getDestinationLocationId(), quantity);
 
         // Add to destination
         Inventory toInventory = inventoryRepository
@@ -291,9 +344,25 @@ public class InventoryServiceImpl implements InventoryService {
                         .uom(fromInventory.getUom())
                         .build());
 
-        toInventory.setQuantityOnHand(toInventory.getQuantityOnHand() + request.getQuantity().doubleValue());
+        // Write both rows first, then one netted summary change and the occupancy deltas in
+        // location order, so concurrent transfers lock aggregate rows in the same order
+        Snapshot fromBefore = Snapshot.of(fromInventory);
+        Snapshot toBefore = toInventory.getId() != null ? Snapshot.of(toInventory) : null;
+        fromInventory.setQuantityOnHand(Quantities.subtract(fromInventory.getQuantityOnHand(), quantity));
+        toInventory.setQuantityOnHand(Quantities.add(toInventory.getQuantityOnHand(), quantity));
+        Inventory savedFromInventory = inventoryRepository.save(fromInventory);
         Inventory savedInventory = inventoryRepository.save(toInventory);
 
+        Map<String, Double> occupancyDeltas = new TreeMap<>(); // sorted: stable lock order
+        occupancyDeltas.merge(savedFromInventory.getLocationId(), -quantity, Quantities::add);
+        occupancyDeltas.merge(savedInventory.getLocationId(), quantity, Quantities::add);
+        occupancyDeltas.forEach(locationOccupancyService::applyDelta);
+        stockSummaryService.applyChanges(
+                toBefore != null ? List.of(fromBefore, toBefore) : List.of(fromBefore),
+                List.of(Snapshot.of(savedFromInventory), Snapshot.of(savedInventory)));
+        changeFeed.recordChanged(List.of(savedFromInventory, savedInventory));
+
+        publishInventoryEvent(savedFromInventory, "TRANSFERRED");
         publishInventoryEvent(savedInventory, "TRANSFERRED");
 
         return mapToDTO(savedInventory);
@@ -307,19 +376,24 @@ public class InventoryServiceImpl implements InventoryService {
                 .orElseThrow(() -> new ResourceNotFoundException("Inventory not found with ID: " + id));
 
         // 🔥 VALIDATE LOCATION CAPACITY IF QUANTITY_ON_HAND IS BEING INCREASED
-        if (request.getQuantityOnHand() != null && request.getQuantityOnHand() > inventory.getQuantityOnHand()) {
-            Double additionalQuantity = request.getQuantityOnHand() - inventory.getQuantityOnHand();
-            validateLocationCapacity(inventory.getLocationId(), additionalQuantity, id);
+        if (request.getQuantityOnHand() != null) {
+            double additionalQuantity = Quantities.subtract(request.getQuantityOnHand(), inventory.getQuantityOnHand());
+            if (additionalQuantity > 0) {
+                validateLocationCapacity(inventory.getLocationId(), additionalQuantity);
+            }
         }
 
+        Double previousQuantity = inventory.getQuantityOnHand();
+        Snapshot before = Snapshot.of(inventory);
+
         if (request.getQuantityOnHand() != null) {
-            inventory.setQuantityOnHand(request.getQuantityOnHand());
+            inventory.setQuantityOnHand(Quantities.of(request.getQuantityOnHand()));
         }
         if (request.getQuantityReserved() != null) {
-            inventory.setQuantityReserved(request.getQuantityReserved());
+            inventory.setQuantityReserved(Quantities.of(request.getQuantityReserved()));
         }
         if (request.getQuantityDamaged() != null) {
-            inventory.setQuantityDamaged(request.getQuantityDamaged());
+            inventory.setQuantityDamaged(Quantities.of(request.getQuantityDamaged()));
         }
         if (request.getStatus() != null) {
             inventory.setStatus(request.getStatus());
@@ -338,12 +412,12 @@ public class InventoryServiceImpl implements InventoryService {
         }
 
         Inventory savedInventory = inventoryRepository.save(inventory);
+        locationOccupancyService.applyDelta(savedInventory.getLocationId(),
+                Quantities.subtract(savedInventory.getQuantityOnHand(), previousQuantity));
+        stockSummaryService.applyChange(before, Snapshot.of(savedInventory));
+        changeFeed.recordChanged(savedInventory);
 
         publishInventoryEvent(savedInventory, "UPDATED");
-
-        // 🚨 Check for low stock and create alert if needed
-        checkLowStockAndCreateAlert(savedInventory);
-
         return mapToDTO(savedInventory);
     }
 
@@ -355,6 +429,9 @@ public class InventoryServiceImpl implements InventoryService {
                 .orElseThrow(() -> new ResourceNotFoundException("Inventory not found with ID: " + id));
 
         inventoryRepository.delete(inventory);
+        locationOccupancyService.applyDelta(inventory.getLocationId(), -inventory.getQuantityOnHand());
+        stockSummaryService.applyChange(Snapshot.of(inventory), null);
+        changeFeed.recordDeleted(inventory);
 
         publishInventoryEvent(inventory, "DELETED");
     }
@@ -375,39 +452,244 @@ public class InventoryServiceImpl implements InventoryService {
     @Override
     @Transactional(readOnly = true)
     public List<InventoryWithItemDTO> getInventoriesWithItemByLocation(String locationId) {
-        return inventoryRepository.findByLocationId(locationId).stream()
-                .map(inv -> {
-                    ItemCacheDTO item = itemCacheService.getItem(inv.getItemId());
-                    return mapToEnrichedDTO(inv, item);
-                })
-                .collect(Collectors.toList());
+        return mapToEnrichedDTOs(inventoryRepository.findByLocationId(locationId));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<InventoryWithItemDTO> getInventoriesWithItemByWarehouse(String warehouseId) {
-        return inventoryRepository.findByWarehouseId(warehouseId).stream()
-                .map(inv -> {
-                    ItemCacheDTO item = itemCacheService.getItem(inv.getItemId());
-                    return mapToEnrichedDTO(inv, item);
-                })
-                .collect(Collectors.toList());
+        return mapToEnrichedDTOs(inventoryRepository.findByWarehouseId(warehouseId));
     }
 
+    // ===== KEYSET PAGINATION & STREAMING =====
+
     @Override
     @Transactional(readOnly = true)
-    public boolean checkStockAvailability(String itemId, String locationId, Double quantity) {
-        return inventoryRepository.findByItemIdAndLocationId(itemId, locationId)
-                .map(inv -> inv.getAvailableQuantity() >= quantity)
-                .orElse(false);
+    public CursorPage<InventoryDTO> getInventoriesPage(String warehouseId, String locationId, String cursor, int limit) {
+        return toCursorPage(fetchPage(warehouseId, locationId, cursor, limit), limit,
+                rows -> rows.stream().map(this::mapToDTO).collect(Collectors.toList()));
     }
 
     @Override
     @Transactional(readOnly = true)
+    public CursorPage<InventoryWithItemDTO> getInventoriesWithItemPage(String warehouseId, String locationId,
+                                                                       String cursor, int limit) {
+        return toCursorPage(fetchPage(warehouseId, locationId, cursor, limit), limit, this::mapToEnrichedDTOs);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamInventories(String warehouseId, String locationId, Consumer<? super InventoryDTO> sink) {
+        try (Stream<Inventory> rows = openInventoryStream(warehouseId, locationId)) {
+            rows.forEach(inventory -> {
+                sink.accept(mapToDTO(inventory));
+                entityManager.detach(inventory); // Keep the persistence context from growing with the result
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamInventoriesWithItems(String warehouseId, String locationId,
+                                           Consumer<? super InventoryWithItemDTO> sink) {
+        List<Inventory> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+        try (Stream<Inventory> rows = openInventoryStream(warehouseId, locationId)) {
+            rows.forEach(inventory -> {
+                chunk.add(inventory);
+                if (chunk.size() == STREAM_CHUNK_SIZE) {
+                    flushEnrichedChunk(chunk, sink);
+                }
+            });
+        }
+        flushEnrichedChunk(chunk, sink);
+    }
+
+    /**
+     * One query for all supplied criteria, in id order after the cursor
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<InventoryDTO> searchInventories(InventorySearchRequest request) {
+        validateSearch(request);
+        int limit = request.getLimit() != null ? request.getLimit() : DEFAULT_SEARCH_PAGE_SIZE;
+        log.info("Searching inventory: {}", request);
+
+        // One extra row tells us whether another page exists
+        List<Inventory> rows = inventoryRepository.findBy(
+                InventorySpecifications.matching(request, decodeCursor(request.getCursor()),
+                        reorderThresholdService.defaultReorderPoint()),
+                query -> query.sortBy(Sort.by("id")).limit(clampPageSize(limit) + 1).all());
+
+        return toCursorPage(rows, limit, page -> page.stream().map(this::mapToDTO).collect(Collectors.toList()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public InventoryChangePage getChanges(String since, int limit) {
+        return changeFeed.getChanges(since, limit, this::mapToDTO);
+    }
+
+    private void validateSearch(InventorySearchRequest request) {
+        if (request.getStatus() != null) {
+            try {
+                InventoryStatus.valueOf(request.getStatus());
+            } catch (IllegalArgumentException e) {
+                throw new InvalidOperationException("Invalid inventory status: " + request.getStatus());
+            }
+        }
+        if (request.getExpirationDateFrom() != null && request.getExpirationDateTo() != null
+                && request.getExpirationDateFrom().isAfter(request.getExpirationDateTo())) {
+            throw new InvalidOperationException("expirationDateFrom must not be after expirationDateTo");
+        }
+        if (request.getMinQuantityOnHand() != null && request.getMaxQuantityOnHand() != null
+                && request.getMinQuantityOnHand() > request.getMaxQuantityOnHand()) {
+            throw new InvalidOperationException("minQuantityOnHand must not exceed maxQuantityOnHand");
+        }
+        if (request.getMinAvailableQuantity() != null && request.getMaxAvailableQuantity() != null
+                && request.getMinAvailableQuantity() > request.getMaxAvailableQuantity()) {
+            throw new InvalidOperationException("minAvailableQuantity must not exceed maxAvailableQuantity");
+        }
+    }
+
+    private void flushEnrichedChunk(List<Inventory> chunk, Consumer<? super InventoryWithItemDTO> sink) {
+        mapToEnrichedDTOs(chunk).forEach(sink);
+        chunk.forEach(entityManager::detach);
+        chunk.clear();
+    }
+
+    private List<Inventory> fetchPage(String warehouseId, String locationId, String cursor, int limit) {
+        // One extra row tells us whether another page exists
+        Pageable pageable = PageRequest.of(0, clampPageSize(limit) + 1, Sort.by("id"));
+        String afterId = decodeCursor(cursor);
+
+        if (locationId != null) {
+            return inventoryRepository.findByLocationIdAndIdGreaterThan(locationId, afterId, pageable);
+        }
+        if (warehouseId != null) {
+            return inventoryRepository.findByWarehouseIdAndIdGreaterThan(warehouseId, afterId, pageable);
+        }
+        return inventoryRepository.findByIdGreaterThan(afterId, pageable);
+    }
+
+    private Stream<Inventory> openInventoryStream(String warehouseId, String locationId) {
+        if (locationId != null) {
+            return inventoryRepository.streamByLocationId(locationId);
+        }
+        if (warehouseId != null) {
+            return inventoryRepository.streamByWarehouseId(warehouseId);
+        }
+        return inventoryRepository.streamAll();
+    }
+
+    private <T> CursorPage<T> toCursorPage(List<Inventory> rows, int limit, Function<List<Inventory>, List<T>> mapper) {
+        int pageSize = clampPageSize(limit);
+        boolean hasMore = rows.size() > pageSize;
+        List<Inventory> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        return CursorPage.<T>builder()
+                .items(mapper.apply(page))
+                .size(page.size())
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? encodeCursor(page.get(page.size() - 1).getId()) : null)
+                .build();
+    }
+
+    private static int clampPageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private static String encodeCursor(String lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return "";
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidOperationException("Invalid pagination cursor: " + cursor);
+        }
+    }
+
+    // Availability reads are served by the ATP index, which falls back to the database on its own:
+    // no transaction is opened here, so an index hit never borrows a connection
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public boolean checkStockAvailability(String itemId, String locationId, Double quantity) {
+        return availabilityIndex.getAvailableQuantity(itemId, locationId) >= quantity;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Double getAvailableQuantity(String itemId, String locationId) {
-        return inventoryRepository.findByItemIdAndLocationId(itemId, locationId)
-                .map(Inventory::getAvailableQuantity)
-                .orElse(0.0);
+        return availabilityIndex.getAvailableQuantity(itemId, locationId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public AvailabilityBatchResult checkAvailabilityBatch(AvailabilityBatchRequest request) {
+        List<String[]> pairs = request.getLines().stream()
+                .map(line -> new String[]{line.getItemId(), line.getLocationId()})
+                .toList();
+        Map<String, Double> available = availabilityIndex.getAvailableQuantities(pairs);
+
+        List<AvailabilityBatchResult.Line> lines = new ArrayList<>(request.getLines().size());
+        for (AvailabilityBatchRequest.Line line : request.getLines()) {
+            double availableQty = available.getOrDefault(
+                    AvailabilityIndex.itemLocationKey(line.getItemId(), line.getLocationId()), 0.0);
+            lines.add(AvailabilityBatchResult.Line.builder()
+                    .itemId(line.getItemId())
+                    .locationId(line.getLocationId())
+                    .requestedQuantity(line.getRequestedQuantity())
+                    .availableQuantity(availableQty)
+                    .available(availableQty >= line.getRequestedQuantity())
+                    .build());
+        }
+
+        return AvailabilityBatchResult.builder()
+                .allAvailable(lines.stream().allMatch(AvailabilityBatchResult.Line::isAvailable))
+                .lines(lines)
+                .build();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Double getTotalAvailableQuantity(String itemId, String warehouseId) {
+        return availabilityIndex.getTotalAvailableQuantity(itemId, warehouseId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public InventorySummaryDTO getStockSummary(String itemId, String warehouseId) {
+        InventorySummaryDTO.InventorySummaryDTOBuilder summary = InventorySummaryDTO.builder()
+                .itemVariantId(itemId)
+                .itemName(findItemName(itemId));
+
+        if (warehouseId == null) {
+            ItemStockSummary totals = stockSummaryService.getItemSummary(itemId)
+                    .orElseThrow(() -> new ResourceNotFoundException("No stock summary for item: " + itemId));
+            return summary
+                    .totalQuantityOnHand(BigDecimal.valueOf(totals.getQuantityOnHand()))
+                    .totalQuantityReserved(BigDecimal.valueOf(totals.getQuantityReserved()))
+                    .totalQuantityAvailable(BigDecimal.valueOf(totals.getQuantityAvailable()))
+                    .locationCount(totals.getLocationCount().intValue())
+                    .warehouseCount((int) stockSummaryService.countStockedWarehouses(itemId))
+                    .build();
+        }
+
+        ItemWarehouseStockSummary totals = stockSummaryService.getItemWarehouseSummary(itemId, warehouseId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "No stock summary for item: " + itemId + " in warehouse: " + warehouseId));
+        return summary
+                .totalQuantityOnHand(BigDecimal.valueOf(totals.getQuantityOnHand()))
+                .totalQuantityReserved(BigDecimal.valueOf(totals.getQuantityReserved()))
+                .totalQuantityAvailable(BigDecimal.valueOf(totals.getQuantityAvailable()))
+                .locationCount(totals.getLocationCount().intValue())
+                .warehouseCount(totals.getLocationCount() > 0 ? 1 : 0)
+                .build();
     }
 
     // ========== HELPER METHODS ==========
@@ -418,9 +700,8 @@ public class InventoryServiceImpl implements InventoryService {
      * 
      * @param locationId Location ID to check
      * @param additionalQuantity Quantity to be added
-     * @param excludeInventoryId Inventory ID to exclude from current total (for updates)
      */
-    private void validateLocationCapacity(String locationId, Double additionalQuantity, String excludeInventoryId) {
+    private void validateLocationCapacity(String locationId, Double additionalQuantity) {
         log.debug("Validating location capacity for location: {}, additional quantity: {}", 
                 locationId, additionalQuantity);
 
@@ -445,13 +726,8 @@ public class InventoryServiceImpl implements InventoryService {
             return;
         }
 
-        // Calculate current total quantity at this location
-        List<Inventory> existingInventories = inventoryRepository.findByLocationId(locationId);
-        
-        Double currentTotalQuantity = existingInventories.stream()
-                .filter(inv -> excludeInventoryId == null || !inv.getId().equals(excludeInventoryId))
-                .mapToDouble(Inventory::getQuantityOnHand)
-                .sum();
+        // Current total quantity at this location (maintained aggregate, one keyed read)
+        Double currentTotalQuantity = locationOccupancyService.getOccupiedQuantity(locationId);
 
         Double newTotalQuantity = currentTotalQuantity + additionalQuantity;
         Double percentageFull = (newTotalQuantity / locationCapacity) * 100;
@@ -526,103 +802,44 @@ public class InventoryServiceImpl implements InventoryService {
     }
 
     private void publishInventoryEvent(Inventory inventory, String eventType) {
-        boolean isBelowThreshold = inventory.getQuantityOnHand() < 5.0;
-        
+        entityManager.flush(); // The event carries the row version written by this change
+        ReorderThreshold threshold = reorderThresholdService.resolve(
+                inventory.getItemId(), inventory.getLocationId(), inventory.getWarehouseId());
+        StockAlertLevel level = threshold.levelOf(inventory.getAvailableQuantity());
+
         InventoryEvent event = InventoryEvent.builder()
                 .inventoryId(inventory.getId())
                 .itemId(inventory.getItemId())
                 .warehouseId(inventory.getWarehouseId())
                 .locationId(inventory.getLocationId())
+                .lotId(inventory.getLotId())
+                .serialId(inventory.getSerialId())
+                .expiryDate(inventory.getExpiryDate())
+                .version(inventory.getVersion())
                 .quantityOnHand(inventory.getQuantityOnHand())
                 .quantityReserved(inventory.getQuantityReserved())
                 .availableQuantity(inventory.getAvailableQuantity())
+                .status(inventory.getStatus() != null ? inventory.getStatus().name() : null)
                 .eventType(eventType)
                 .timestamp(LocalDateTime.now())
-                // ✅ ADD THESE CRITICAL FIELDS:
-                .thresholdViolated(isBelowThreshold)
-                .minThreshold(5.0)  // Your threshold
-                .violationType(isBelowThreshold ? "LOW_STOCK" : null)
+                // Current standing only; stock.below.threshold is raised by StockThresholdMonitor on crossings
+                .thresholdViolated(level != StockAlertLevel.NORMAL)
+                .minThreshold(threshold.getMinQuantity())
+                .maxThreshold(threshold.getMaxQuantity())
+                .violationType(level != StockAlertLevel.NORMAL ? "LOW_STOCK" : null)
                 .build();
-    
+
         eventPublisher.publishInventoryEvent(event);
-        
-        if (isBelowThreshold) {
-            publishStockBelowThresholdEvent(inventory);
-        }
-    }
-    private void publishStockBelowThresholdEvent(Inventory inventory) {
-    StockBelowThresholdEvent event = StockBelowThresholdEvent.builder()
-            .itemId(inventory.getItemId())
-            .locationId(inventory.getLocationId())
-            .warehouseId(inventory.getWarehouseId())
-            .currentQuantity(inventory.getQuantityOnHand())
-            .threshold(5.0)
-            .alertLevel(inventory.getQuantityOnHand() < 3.0 ? "CRITICAL" : "WARNING")
-            .timestamp(LocalDateTime.now())
-            .build();
-            
-    eventPublisher.publishStockBelowThreshold(event);
-}
+    }
 
     /**
-     * 🚨 Check if inventory is low and create alert via AlertClient
-     *
-     * Thresholds:
-     * - CRITICAL: quantity < 5
-     * - WARNING: quantity < 10
+     * Item name for summaries; the item may not be synced to the cache yet
      */
-    private void checkLowStockAndCreateAlert(Inventory inventory) {
-        Double quantity = inventory.getAvailableQuantity(); // Available = OnHand - Reserved
-
-        // Define thresholds
-        final Double CRITICAL_THRESHOLD = 5.0;
-        final Double WARNING_THRESHOLD = 10.0;
-
-        log.debug("Checking low stock for item: {}, quantity: {}", inventory.getItemId(), quantity);
-
+    private String findItemName(String itemId) {
         try {
-            // CRITICAL ALERT: quantity < 5
-            if (quantity < CRITICAL_THRESHOLD) {
-                String message = String.format(
-                        "CRITICAL: Item %s has only %.2f units available at location %s (threshold: %.0f)",
-                        inventory.getItemId(),
-                        quantity,
-                        inventory.getLocationId(),
-                        CRITICAL_THRESHOLD
-                );
-
-                alertClient.createLowStockAlert(
-                        inventory.getItemId(),
-                        inventory.getLocationId(),
-                        quantity,
-                        CRITICAL_THRESHOLD
-                );
-
-                log.warn("🚨 CRITICAL LOW STOCK: {}", message);
-            }
-            // WARNING ALERT: quantity < 10
-            else if (quantity < WARNING_THRESHOLD) {
-                String message = String.format(
-                        "WARNING: Item %s has %.2f units available at location %s (threshold: %.0f)",
-                        inventory.getItemId(),
-                        quantity,
-                        inventory.getLocationId(),
-                        WARNING_THRESHOLD
-                );
-
-                alertClient.createLowStockAlert(
-                        inventory.getItemId(),
-                        inventory.getLocationId(),
-                        quantity,
-                        WARNING_THRESHOLD
-                );
-
-                log.warn("⚠️ WARNING LOW STOCK: {}", message);
-            }
-        } catch (Exception e) {
-            // Don't fail the inventory operation if alert creation fails
-            log.error("Failed to create low stock alert for item {}: {}",
-                    inventory.getItemId(), e.getMessage());
+            return itemCacheService.getItem(itemId).getName();
+        } catch (ResourceNotFoundException e) {
+            return null;
         }
     }
 
@@ -634,9 +851,9 @@ public class InventoryServiceImpl implements InventoryService {
                 .locationId(inventory.getLocationId())
                 .lotId(inventory.getLotId())
                 .serialId(inventory.getSerialId())
-                .quantityOnHand(inventory.getQuantityOnHand())
-                .quantityReserved(inventory.getQuantityReserved())
-                .quantityDamaged(inventory.getQuantityDamaged())
+                .quantityOnHand(Quantities.of(inventory.getQuantityOnHand()))
+                .quantityReserved(Quantities.of(inventory.getQuantityReserved()))
+                .quantityDamaged(inventory.getQuantityDamaged() != null ? Quantities.of(inventory.getQuantityDamaged()) : null)
                 .availableQuantity(inventory.getAvailableQuantity())
                 .uom(inventory.getUom())
                 .status(inventory.getStatus())
@@ -651,8 +868,21 @@ public class InventoryServiceImpl implements InventoryService {
                 .build();
     }
 
+    /**
+     * Enrich a list of inventories with one bulk cache lookup for their distinct items
+     * Rows whose item is not cached are returned without itemDetails
+     */
+    private List<InventoryWithItemDTO> mapToEnrichedDTOs(List<Inventory> inventories) {
+        Map<String, ItemCacheDTO> items = itemCacheService.getItemsById(
+                inventories.stream().map(Inventory::getItemId).toList());
+
+        return inventories.stream()
+                .map(inv -> mapToEnrichedDTO(inv, items.get(inv.getItemId())))
+                .collect(Collectors.toList());
+    }
+
     private InventoryWithItemDTO mapToEnrichedDTO(Inventory inventory, ItemCacheDTO item) {
-        InventoryWithItemDTO.ItemDetailsDTO itemDetails = InventoryWithItemDTO.ItemDetailsDTO.builder()
+        InventoryWithItemDTO.ItemDetailsDTO itemDetails = item == null ? null : InventoryWithItemDTO.ItemDetailsDTO.builder()
                 .sku(item.getSku())
                 .name(item.getName())
                 .categoryId(item.getCategoryId())
@@ -671,9 +901,9 @@ public class InventoryServiceImpl implements InventoryService {
                 .locationId(inventory.getLocationId())
                 .lotId(inventory.getLotId())
                 .serialId(inventory.getSerialId())
-                .quantityOnHand(inventory.getQuantityOnHand())
-                .quantityReserved(inventory.getQuantityReserved())
-                .quantityDamaged(inventory.getQuantityDamaged())
+                .quantityOnHand(Quantities.of(inventory.getQuantityOnHand()))
+                .quantityReserved(Quantities.of(inventory.getQuantityReserved()))
+                .quantityDamaged(inventory.getQuantityDamaged() != null ? Quantities.of(inventory.getQuantityDamaged()) : null)
                 .availableQuantity(inventory.getAvailableQuantity())
                 .uom(inventory.getUom())
                 .status(inventory.getStatus())
@@ -689,33 +919,9 @@ public class InventoryServiceImpl implements InventoryService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // The scan commits its checkpoints itself
     public int scanAllInventoryForAlerts() {
-        log.info("🔍 Starting scan of all inventory for low stock alerts...");
-
-        List<Inventory> allInventories = inventoryRepository.findAll();
-        int alertsCreated = 0;
-
-        for (Inventory inventory : allInventories) {
-            try {
-                Double availableQty = inventory.getAvailableQuantity();
-
-                // Only create alerts for items below WARNING threshold
-                if (availableQty < 10.0) {
-                    checkLowStockAndCreateAlert(inventory);
-                    alertsCreated++;
-                    log.info("✅ Alert created for item {} at location {} (qty: {})",
-                            inventory.getItemId(), inventory.getLocationId(), availableQty);
-                }
-            } catch (Exception e) {
-                log.error("❌ Failed to check/create alert for inventory {}: {}",
-                        inventory.getId(), e.getMessage());
-            }
-        }
-
-        log.info("🎯 Scan complete! Total inventories scanned: {}, Alerts created: {}",
-                allInventories.size(), alertsCreated);
-
-        return alertsCreated;
+        LowStockScanReport report = lowStockScanService.scan();
+        return (int) report.getAlertsRaised();
     }
-}
\ No newline at end of file
+}
@@ -5,6 +5,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Component
 @RequiredArgsConstructor
@@ -17,11 +19,26 @@ public class LotEventPublisher {
     private static final String LOT_UPDATED_TOPIC = "lot.updated";
     private static final String LOT_DELETED_TOPIC = "lot.deleted";
     private static final String LOT_STATUS_CHANGED_TOPIC = "lot.status.changed";
+    private static final String LOT_EXPIRED_TOPIC = "lot.expired";
 
     /**
      * Publish lot event based on event type
+     * Inside a transaction the event is sent after commit (consumers reload committed lots)
      */
     public void publishLotEvent(LotEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sendLotEvent(event);
+                }
+            });
+            return;
+        }
+        sendLotEvent(event);
+    }
+
+    private void sendLotEvent(LotEvent event) {
         String topic = getTopicByEventType(event.getEventType());
 
         log.info("Publishing lot event: {} to topic: {}", event.getEventType(), topic);
@@ -51,6 +68,7 @@ public class LotEventPublisher {
             case "UPDATED" -> LOT_UPDATED_TOPIC;
             case "DELETED" -> LOT_DELETED_TOPIC;
             case "STATUS_CHANGED" -> LOT_STATUS_CHANGED_TOPIC;
+            case "EXPIRED" -> LOT_EXPIRED_TOPIC;
             default -> LOT_UPDATED_TOPIC;
         };
     }
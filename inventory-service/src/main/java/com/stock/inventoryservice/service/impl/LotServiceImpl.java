@@ -1,18 +1,23 @@
 package com.stock.inventoryservice.service.impl;
 
 import com.stock.inventoryservice.dto.*;
+import com.stock.inventoryservice.dto.request.FefoAllocationRequest;
 import com.stock.inventoryservice.dto.request.LotCreateRequest;
 import com.stock.inventoryservice.dto.request.LotUpdateRequest;
 import com.stock.inventoryservice.entity.Lot;
 import com.stock.inventoryservice.entity.LotStatus;
 import com.stock.inventoryservice.event.dto.LotEvent;
 import com.stock.inventoryservice.exception.DuplicateResourceException;
+import com.stock.inventoryservice.exception.InvalidOperationException;
 import com.stock.inventoryservice.exception.ResourceNotFoundException;
 import com.stock.inventoryservice.repository.LotRepository;
+import com.stock.inventoryservice.service.ExpiryCalendar;
+import com.stock.inventoryservice.service.FefoLotAllocator;
 import com.stock.inventoryservice.service.LotService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
@@ -28,6 +33,8 @@ public class LotServiceImpl implements LotService {
 
     private final LotRepository lotRepository;
     private final LotEventPublisher eventPublisher;
+    private final FefoLotAllocator fefoLotAllocator;
+    private final ExpiryCalendar expiryCalendar;
 
     @Override
     public LotDTO createLot(LotCreateRequest request) {
@@ -126,7 +133,10 @@ public class LotServiceImpl implements LotService {
         log.debug("Fetching expired lots");
 
         LocalDate today = LocalDate.now();
-        return lotRepository.findByExpiryDateBefore(today).stream()
+        List<Lot> expired = expiryCalendar.isReady()
+                ? expiryCalendar.getLotsExpiringBefore(today)
+                : lotRepository.findByExpiryDateBefore(today);
+        return expired.stream()
                 .map(this::mapToDTO)
                 .collect(Collectors.toList());
     }
@@ -136,7 +146,10 @@ public class LotServiceImpl implements LotService {
     public List<LotDTO> getLotsExpiringBetween(LocalDate startDate, LocalDate endDate) {
         log.debug("Fetching lots expiring between {} and {}", startDate, endDate);
 
-        return lotRepository.findByExpiryDateBetween(startDate, endDate).stream()
+        List<Lot> expiring = expiryCalendar.isReady()
+                ? expiryCalendar.getLotsExpiringBetween(startDate, endDate)
+                : lotRepository.findByExpiryDateBetween(startDate, endDate);
+        return expiring.stream()
                 .map(this::mapToDTO)
                 .collect(Collectors.toList());
     }
@@ -239,6 +252,24 @@ public class LotServiceImpl implements LotService {
         return lot.getExpiryDate().isBefore(LocalDate.now());
     }
 
+    // ========== FEFO ALLOCATION ==========
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public FefoAllocationPlan allocateFefo(String itemId, String warehouseId, Double quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new InvalidOperationException("Quantity must be positive");
+        }
+        return fefoLotAllocator.allocate(itemId, warehouseId, quantity);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<FefoAllocationPlan> allocateFefoBulk(FefoAllocationRequest request) {
+        log.debug("Planning FEFO allocation for {} lines", request.getLines().size());
+        return fefoLotAllocator.allocateBulk(request.getLines());
+    }
+
     // ========== HELPER METHODS ==========
 
     private void publishLotEvent(Lot lot, String eventType) {
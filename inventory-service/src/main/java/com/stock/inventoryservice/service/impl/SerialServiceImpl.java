@@ -3,19 +3,26 @@ package com.stock.inventoryservice.service.impl;
 import com.stock.inventoryservice.dto.*;
 import com.stock.inventoryservice.dto.request.SerialCreateRequest;
 import com.stock.inventoryservice.dto.request.SerialUpdateRequest;
+import com.stock.inventoryservice.entity.Lot;
 import com.stock.inventoryservice.entity.Serial;
 import com.stock.inventoryservice.entity.SerialStatus;
 import com.stock.inventoryservice.event.dto.SerialEvent;
 import com.stock.inventoryservice.exception.DuplicateResourceException;
+import com.stock.inventoryservice.exception.InvalidOperationException;
 import com.stock.inventoryservice.exception.ResourceNotFoundException;
+import com.stock.inventoryservice.repository.LotRepository;
 import com.stock.inventoryservice.repository.SerialRepository;
 import com.stock.inventoryservice.service.SerialService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,7 +32,10 @@ import java.util.stream.Collectors;
 @Transactional
 public class SerialServiceImpl implements SerialService {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final SerialRepository serialRepository;
+    private final LotRepository lotRepository;
     private final SerialEventPublisher eventPublisher;
 
     @Override
@@ -46,6 +56,7 @@ public class SerialServiceImpl implements SerialService {
                 .code(request.getCode())
                 .itemId(request.getItemId())
                 .serialNumber(request.getSerialNumber())
+                .lotId(validLotId(request.getLotId(), request.getItemId()))
                 .locationId(request.getLocationId())
                 .status(request.getStatus() != null ? request.getStatus() : SerialStatus.IN_STOCK)
                 .build();
@@ -122,6 +133,26 @@ public class SerialServiceImpl implements SerialService {
                 .collect(Collectors.toList());
     }
 
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<SerialDTO> getSerialsByLotIdPage(String lotId, String cursor, int limit) {
+        log.debug("Fetching serial page for lot ID: {}", lotId);
+
+        // One extra row tells us whether another page exists
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Serial> rows = serialRepository.findByLotIdAndIdGreaterThan(
+                lotId, decodeCursor(cursor), PageRequest.of(0, pageSize + 1, Sort.by("id")));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Serial> page = hasMore ? rows.subList(0, pageSize) : rows;
+        return CursorPage.<SerialDTO>builder()
+                .items(page.stream().map(this::mapToDTO).collect(Collectors.toList()))
+                .size(page.size())
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? encodeCursor(page.get(page.size() - 1).getId()) : null)
+                .build();
+    }
     @Override
     @Transactional(readOnly = true)
     public List<SerialDTO> getSerialsByLocationId(String locationId) {
@@ -183,6 +214,9 @@ public class SerialServiceImpl implements SerialService {
         if (request.getLocationId() != null) {
             serial.setLocationId(request.getLocationId());
         }
+        if (request.getLotId() != null) {
+            serial.setLotId(validLotId(request.getLotId(), serial.getItemId()));
+        }
         if (request.getStatus() != null) {
             serial.setStatus(request.getStatus());
         }
@@ -273,13 +307,28 @@ public class SerialServiceImpl implements SerialService {
 
     // ========== HELPER METHODS ==========
 
+    /**
+     * A serial's lot must exist and belong to the same item
+     */
+    private String validLotId(String lotId, String itemId) {
+        if (lotId == null) {
+            return null;
+        }
+        Lot lot = lotRepository.findById(lotId)
+                .orElseThrow(() -> new ResourceNotFoundException("Lot not found with ID: " + lotId));
+        if (!lot.getItemId().equals(itemId)) {
+            throw new InvalidOperationException("Lot " + lotId + " does not belong to item " + itemId);
+        }
+        return lotId;
+    }
+
     private void publishSerialEvent(Serial serial, String eventType) {
         SerialEvent event = SerialEvent.builder()
                 .serialId(serial.getId())
                 .serialCode(serial.getCode())
                 .itemId(serial.getItemId())
                 .serialNumber(serial.getSerialNumber())
-                .lotId(null) // Serial entity doesn't have lotId
+                .lotId(serial.getLotId())
                 .locationId(serial.getLocationId())
                 .status(serial.getStatus().name())
                 .eventType(eventType)
@@ -289,12 +338,28 @@ public class SerialServiceImpl implements SerialService {
         eventPublisher.publishSerialEvent(event);
     }
 
+    private static String encodeCursor(String lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return "";
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidOperationException("Invalid pagination cursor: " + cursor);
+        }
+    }
+
     private SerialDTO mapToDTO(Serial serial) {
         return SerialDTO.builder()
                 .id(serial.getId())
                 .code(serial.getCode())
                 .itemId(serial.getItemId())
                 .serialNumber(serial.getSerialNumber())
+                .lotId(serial.getLotId())
                 .status(serial.getStatus())
                 .locationId(serial.getLocationId())
                 .createdAt(serial.getCreatedAt())
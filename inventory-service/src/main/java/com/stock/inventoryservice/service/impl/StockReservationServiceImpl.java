@@ -1,17 +1,45 @@
 package com.stock.inventoryservice.service.impl;
 
+import com.stock.inventoryservice.dto.BulkReservationResult;
+import com.stock.inventoryservice.dto.ReservationDTO;
+import com.stock.inventoryservice.dto.request.BulkReservationRequest;
+import com.stock.inventoryservice.dto.request.ReservationCreateRequest;
 import com.stock.inventoryservice.entity.Inventory;
+import com.stock.inventoryservice.entity.Quantities;
+import com.stock.inventoryservice.entity.Reservation;
+import com.stock.inventoryservice.entity.ReservationStatus;
+import com.stock.inventoryservice.exception.DuplicateResourceException;
 import com.stock.inventoryservice.exception.InsufficientStockException;
+import com.stock.inventoryservice.exception.InvalidOperationException;
 import com.stock.inventoryservice.exception.ResourceNotFoundException;
+import com.stock.inventoryservice.repository.InventoryBatchRepository;
 import com.stock.inventoryservice.repository.InventoryRepository;
+import com.stock.inventoryservice.repository.ReservationRepository;
+import com.stock.inventoryservice.service.InventoryChangeFeed;
+import com.stock.inventoryservice.service.LocationOccupancyService;
+import com.stock.inventoryservice.service.ReservationExpiryService;
 import com.stock.inventoryservice.service.StockReservationService;
+import com.stock.inventoryservice.service.StockSummaryService;
+import com.stock.inventoryservice.service.StockSummaryService.Snapshot;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
+/**
+ * Reservations are persisted holds: each one adds to Inventory.quantityReserved
+ * until it is released, fulfilled or expires (see ReservationExpiryService)
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -19,59 +47,218 @@ import java.math.BigDecimal;
 public class StockReservationServiceImpl implements StockReservationService {
 
     private final InventoryRepository inventoryRepository;
+    private final InventoryBatchRepository inventoryBatchRepository;
+    private final ReservationRepository reservationRepository;
+    private final ReservationExpiryService expiryService;
+    private final StockSummaryService stockSummaryService;
+    private final LocationOccupancyService locationOccupancyService;
+    private final InventoryChangeFeed changeFeed;
+    private final InventoryEventPublisher eventPublisher;
+
+    @Value("${inventory.reservations.default-ttl:15m}")
+    private Duration defaultTtl;
 
     @Override
     public void reserveStock(String inventoryId, BigDecimal quantity, String reservationId) {
-        log.info("Reserving {} units for inventory: {} (reservation: {})",
-                quantity, inventoryId, reservationId);
+        createReservation(ReservationCreateRequest.builder()
+                .reservationId(reservationId)
+                .inventoryId(inventoryId)
+                .quantity(Quantities.of(quantity))
+                .build());
+    }
 
-        Inventory inventory = inventoryRepository.findById(inventoryId)
-                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found with ID: " + inventoryId));
+    @Override
+    public ReservationDTO createReservation(ReservationCreateRequest request) {
+        String reservationId = request.getReservationId() != null
+                ? request.getReservationId() : UUID.randomUUID().toString();
+        log.info("Reserving {} units for inventory: {} (reservation: {})",
+                request.getQuantity(), request.getInventoryId(), reservationId);
 
-        Double availableQuantity = inventory.getAvailableQuantity();
+        if (reservationRepository.existsById(reservationId)) {
+            throw new DuplicateResourceException("Reservation already exists with ID: " + reservationId);
+        }
+        double quantity = Quantities.of(request.getQuantity());
 
-        if (BigDecimal.valueOf(availableQuantity).compareTo(quantity) < 0) {
+        // Check-and-increment in one guarded UPDATE
+        if (inventoryRepository.reserveIfAvailable(request.getInventoryId(), quantity) == 0) {
+            Inventory inventory = inventoryRepository.findById(request.getInventoryId())
+                    .orElseThrow(() -> new ResourceNotFoundException(
+                            "Inventory not found with ID: " + request.getInventoryId()));
             throw new InsufficientStockException(
-                    "Insufficient stock for reservation. Available: " + availableQuantity +
-                            ", Requested: " + quantity);
+                    "Insufficient stock for reservation. Available: " + inventory.getAvailableQuantity() +
+                            ", Requested: " + request.getQuantity());
         }
 
-        log.info("Stock reservation validated successfully");
+        Duration ttl = request.getTtlSeconds() != null ? Duration.ofSeconds(request.getTtlSeconds()) : defaultTtl;
+        Reservation reservation = reservationRepository.save(Reservation.builder()
+                .id(reservationId)
+                .inventoryId(request.getInventoryId())
+                .quantity(quantity)
+                .status(ReservationStatus.ACTIVE)
+                .referenceType(request.getReferenceType())
+                .referenceId(request.getReferenceId())
+                .expiresAt(LocalDateTime.now().plus(ttl))
+                .build());
+        expiryService.schedule(reservation.getId(), reservation.getExpiresAt());
+
+        Inventory inventory = inventoryRepository.findById(request.getInventoryId())
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Inventory not found with ID: " + request.getInventoryId()));
+        stockSummaryService.applyReservedDelta(inventory, quantity);
+        changeFeed.recordChanged(inventory);
+        eventPublisher.publishInventoryChange(inventory, "RESERVED", "Reservation " + reservationId);
+
+        log.info("Reservation {} created, expires at {}", reservationId, reservation.getExpiresAt());
+        return mapToDTO(reservation);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ReservationDTO getReservation(String reservationId) {
+        return reservationRepository.findById(reservationId)
+                .map(this::mapToDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("Reservation not found with ID: " + reservationId));
+    }
 
     @Override
     public void releaseReservation(String inventoryId, BigDecimal quantity, String reservationId) {
         log.info("Releasing reservation {} for inventory: {} ({} units)",
                 reservationId, inventoryId, quantity);
 
-        Inventory inventory = inventoryRepository.findById(inventoryId)
-                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found with ID: " + inventoryId));
-
-        // In a real system, you would remove the reservation from the reservations table
+        release(lockActive(reservationId), Quantities.of(quantity));
         log.info("Reservation released successfully");
     }
 
+    @Override
+    public ReservationDTO releaseReservation(String reservationId) {
+        log.info("Releasing reservation {}", reservationId);
+
+        Reservation reservation = lockActive(reservationId);
+        return mapToDTO(release(reservation, reservation.getQuantity()));
+    }
+
     @Override
     public void fulfillReservation(String inventoryId, BigDecimal quantity, String reservationId) {
         log.info("Fulfilling reservation {} for inventory: {} ({} units)",
                 reservationId, inventoryId, quantity);
 
-        Inventory inventory = inventoryRepository.findById(inventoryId)
-                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found with ID: " + inventoryId));
+        fulfill(lockActive(reservationId), Quantities.of(quantity));
+        log.info("Reservation fulfilled and stock deducted successfully");
+    }
 
-        Double newQuantity = inventory.getQuantityOnHand() - quantity.doubleValue();
+    @Override
+    public ReservationDTO fulfillReservation(String reservationId) {
+        log.info("Fulfilling reservation {}", reservationId);
 
-        if (newQuantity < 0) {
-            throw new InsufficientStockException(
-                    "Insufficient stock to fulfill reservation. Available: " + inventory.getQuantityOnHand() +
-                            ", Required: " + quantity);
+        Reservation reservation = lockActive(reservationId);
+        return mapToDTO(fulfill(reservation, reservation.getQuantity()));
+    }
+
+    /**
+     * Reserve many (inventory, quantity) lines in one transaction
+     *
+     * - All rows are locked up front in ascending id order, so concurrent bulk
+     *   reservations cannot deadlock each other
+     * - Lines are checked in request order against the locked rows (several lines
+     *   may draw on the same row)
+     * - The new reserved quantities are written back in one JDBC batch, and one
+     *   expiring reservation is recorded per reserved line
+     */
+    @Override
+    public BulkReservationResult reserveBulk(BulkReservationRequest request) {
+        boolean allOrNothing = !Boolean.FALSE.equals(request.getAllOrNothing());
+        log.info("Reserving {} lines in bulk (reference: {} {}, all-or-nothing: {})",
+                request.getLines().size(), request.getReferenceType(), request.getReferenceId(), allOrNothing);
+
+        Map<String, Inventory> rows = inventoryBatchRepository.lockByIds(
+                request.getLines().stream().map(BulkReservationRequest.Line::getInventoryId).toList());
+        Map<String, Snapshot> before = new LinkedHashMap<>();
+        rows.values().forEach(inventory -> before.put(inventory.getId(), Snapshot.of(inventory)));
+
+        Map<String, Inventory> touched = new LinkedHashMap<>();
+        List<BulkReservationResult.Line> results = new ArrayList<>(request.getLines().size());
+        int failed = 0;
+
+        for (BulkReservationRequest.Line line : request.getLines()) {
+            Inventory inventory = rows.get(line.getInventoryId());
+            BulkReservationResult.Line.LineBuilder result = BulkReservationResult.Line.builder()
+                    .inventoryId(line.getInventoryId())
+                    .requestedQuantity(line.getQuantity());
+
+            if (inventory == null) {
+                failed++;
+                results.add(result.reserved(false).error("Inventory not found with ID: " + line.getInventoryId()).build());
+                continue;
+            }
+
+            Double available = inventory.getAvailableQuantity();
+            if (available < line.getQuantity()) {
+                failed++;
+                results.add(result.reserved(false).availableQuantity(available)
+                        .error("Insufficient available stock. Available: " + available +
+                                ", Requested: " + line.getQuantity())
+                        .build());
+                continue;
+            }
+
+            inventory.setQuantityReserved(Quantities.add(inventory.getQuantityReserved(), line.getQuantity()));
+            touched.put(inventory.getId(), inventory);
+            results.add(result.reserved(true)
+                    .reservationId(UUID.randomUUID().toString())
+                    .availableQuantity(inventory.getAvailableQuantity())
+                    .build());
         }
 
-        inventory.setQuantityOnHand(newQuantity);
-        inventoryRepository.save(inventory);
+        if (allOrNothing && failed > 0) {
+            log.warn("⚠️ Bulk reservation rolled back: {} of {} lines cannot be reserved",
+                    failed, request.getLines().size());
+            // Nothing was written; report every line as not reserved
+            results.forEach(line -> {
+                line.setReserved(false);
+                line.setReservationId(null);
+            });
+            return BulkReservationResult.builder()
+                    .committed(false)
+                    .reservedLines(0)
+                    .failedLines(failed)
+                    .lines(results)
+                    .build();
+        }
 
-        log.info("Reservation fulfilled and stock deducted successfully");
+        inventoryBatchRepository.updateQuantities(touched.values());
+        stockSummaryService.applyChanges(touched.keySet().stream().map(before::get).toList(),
+                touched.values().stream().map(Snapshot::of).toList());
+        changeFeed.recordChanged(touched.values());
+
+        Duration ttl = request.getTtlSeconds() != null ? Duration.ofSeconds(request.getTtlSeconds()) : defaultTtl;
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+        List<Reservation> reservations = results.stream()
+                .filter(BulkReservationResult.Line::isReserved)
+                .map(line -> Reservation.builder()
+                        .id(line.getReservationId())
+                        .inventoryId(line.getInventoryId())
+                        .quantity(Quantities.of(line.getRequestedQuantity()))
+                        .status(ReservationStatus.ACTIVE)
+                        .referenceType(request.getReferenceType())
+                        .referenceId(request.getReferenceId())
+                        .expiresAt(expiresAt)
+                        .build())
+                .toList();
+        reservationRepository.saveAll(reservations);
+        reservations.forEach(reservation -> expiryService.schedule(reservation.getId(), expiresAt));
+
+        String reason = "Bulk reservation " + request.getReferenceType() + " " + request.getReferenceId();
+        touched.values().forEach(inventory -> eventPublisher.publishInventoryChange(inventory, "RESERVED", reason));
+
+        log.info("✅ Bulk reservation committed: {} lines reserved on {} rows, {} lines failed",
+                results.size() - failed, touched.size(), failed);
+
+        return BulkReservationResult.builder()
+                .committed(true)
+                .reservedLines(results.size() - failed)
+                .failedLines(failed)
+                .lines(results)
+                .build();
     }
 
     @Override
@@ -84,4 +271,95 @@ public class StockReservationServiceImpl implements StockReservationService {
 
         return BigDecimal.valueOf(inventory.getAvailableQuantity());
     }
-}
\ No newline at end of file
+
+    // ========== HELPER METHODS ==========
+
+    private Reservation lockActive(String reservationId) {
+        Reservation reservation = reservationRepository.findByIdForUpdate(reservationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Reservation not found with ID: " + reservationId));
+        if (reservation.getStatus() != ReservationStatus.ACTIVE) {
+            throw new InvalidOperationException(
+                    "Reservation " + reservationId + " is " + reservation.getStatus() + ", not ACTIVE");
+        }
+        return reservation;
+    }
+
+    /**
+     * Give back part or all of a hold; the reservation is RELEASED once nothing is left
+     */
+    private Reservation release(Reservation reservation, double quantity) {
+        if (quantity > reservation.getQuantity()) {
+            throw new InvalidOperationException("Cannot release more than reserved. Reserved: " + reservation.getQuantity());
+        }
+
+        if (inventoryRepository.releaseIfReserved(reservation.getInventoryId(), quantity) == 0) {
+            throw new InvalidOperationException(
+                    "Inventory " + reservation.getInventoryId() + " does not hold " + quantity + " reserved units");
+        }
+
+        reservation.setQuantity(Quantities.subtract(reservation.getQuantity(), quantity));
+        if (reservation.getQuantity() <= 0) {
+            reservation.setStatus(ReservationStatus.RELEASED);
+        }
+        Reservation saved = reservationRepository.save(reservation);
+
+        Inventory inventory = inventoryRepository.findById(reservation.getInventoryId())
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Inventory not found with ID: " + reservation.getInventoryId()));
+        stockSummaryService.applyReservedDelta(inventory, -quantity);
+        changeFeed.recordChanged(inventory);
+        eventPublisher.publishInventoryChange(inventory, "RELEASED", "Reservation " + reservation.getId() + " released");
+        return saved;
+    }
+
+    /**
+     * Consume part or all of a hold: the quantity leaves both on-hand and reserved
+     */
+    private Reservation fulfill(Reservation reservation, double quantity) {
+        if (quantity > reservation.getQuantity()) {
+            throw new InvalidOperationException("Cannot fulfill more than reserved. Reserved: " + reservation.getQuantity());
+        }
+
+        Inventory inventory = inventoryRepository.findById(reservation.getInventoryId())
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Inventory not found with ID: " + reservation.getInventoryId()));
+
+        double newQuantity = Quantities.subtract(inventory.getQuantityOnHand(), quantity);
+        if (newQuantity < 0) {
+            throw new InsufficientStockException(
+                    "Insufficient stock to fulfill reservation. Available: " + inventory.getQuantityOnHand() +
+                            ", Required: " + quantity);
+        }
+
+        Snapshot before = Snapshot.of(inventory);
+        inventory.setQuantityOnHand(newQuantity);
+        inventory.setQuantityReserved(Quantities.subtractToZero(inventory.getQuantityReserved(), quantity));
+        Inventory savedInventory = inventoryRepository.saveAndFlush(inventory);
+        locationOccupancyService.applyDelta(savedInventory.getLocationId(), -quantity);
+        stockSummaryService.applyChange(before, Snapshot.of(savedInventory));
+        changeFeed.recordChanged(savedInventory);
+
+        reservation.setQuantity(Quantities.subtract(reservation.getQuantity(), quantity));
+        if (reservation.getQuantity() <= 0) {
+            reservation.setStatus(ReservationStatus.FULFILLED);
+        }
+        Reservation saved = reservationRepository.save(reservation);
+
+        eventPublisher.publishInventoryChange(savedInventory, "UPDATED", "Reservation " + reservation.getId() + " fulfilled");
+        return saved;
+    }
+
+    private ReservationDTO mapToDTO(Reservation reservation) {
+        return ReservationDTO.builder()
+                .id(reservation.getId())
+                .inventoryId(reservation.getInventoryId())
+                .quantity(reservation.getQuantity())
+                .status(reservation.getStatus())
+                .referenceType(reservation.getReferenceType())
+                .referenceId(reservation.getReferenceId())
+                .expiresAt(reservation.getExpiresAt())
+                .createdAt(reservation.getCreatedAt())
+                .updatedAt(reservation.getUpdatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,193 @@
+package com.stock.inventoryservice.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Routing decisions are read straight from determineCurrentLookupKey with the transaction
+ * state set up by hand; replicas are mocked down to the JDBC calls of the lag query
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FakeReplica first = new FakeReplica();
+    private final FakeReplica second = new FakeReplica();
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", first.dataSource());
+        replicas.put("replica-2", second.dataSource());
+        routing = new ReplicaRoutingDataSource(mock(DataSource.class), replicas, Duration.ofSeconds(2),
+                Duration.ofMinutes(1), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readWriteTransactionsGoToThePrimary() {
+        routing.checkLag();
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("primary");
+        assertThat(routes("read-write")).isEqualTo(1.0);
+    }
+
+    @Test
+    void readsStayOnThePrimaryUntilTheFirstLagCheck() {
+        assertThat(routeReadOnly()).isEqualTo("primary");
+
+        routing.checkLag();
+
+        List<Object> reads = List.of(routeReadOnly(), routeReadOnly(), routeReadOnly());
+        assertThat(reads).containsOnly("replica-1", "replica-2");
+        assertThat(reads.get(1)).isNotEqualTo(reads.get(0)).isNotEqualTo(reads.get(2));
+        assertThat(routes("no-replica")).isEqualTo(1.0);
+        assertThat(routes("read-only")).isEqualTo(3.0);
+    }
+
+    @Test
+    void laggingAndUnreachableReplicasAreTakenOutOfRotationUntilTheyCatchUp() {
+        first.lagSeconds = 10.0;
+        second.down = true;
+        routing.checkLag();
+
+        assertThat(routeReadOnly()).isEqualTo("primary");
+        assertThat(meterRegistry.get("inventory.datasource.replica.lag").tag("replica", "replica-1").gauge().value())
+                .isEqualTo(10.0);
+        assertThat(meterRegistry.get("inventory.datasource.replica.lag").tag("replica", "replica-2").gauge().value())
+                .isNaN();
+
+        first.lagSeconds = 1.5;
+        routing.checkLag();
+
+        assertThat(List.of(routeReadOnly(), routeReadOnly())).containsOnly("replica-1");
+    }
+
+    @Test
+    void readsFollowingACommittedWriteStayOnThePrimaryForTheSameCaller() {
+        routing.checkLag();
+        authenticateAs("alice");
+
+        write(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(routeReadOnly()).isEqualTo("primary");
+        assertThat(routes("recent-write")).isEqualTo(1.0);
+
+        authenticateAs("bob");
+        assertThat(routeReadOnly()).asString().startsWith("replica-");
+        SecurityContextHolder.clearContext();
+        assertThat(routeReadOnly()).asString().startsWith("replica-");
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPinTheCallerToThePrimary() {
+        routing.checkLag();
+
+        write(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(routeReadOnly()).asString().startsWith("replica-");
+    }
+
+    @Test
+    void callersWithoutAUserArePinnedByThread() throws InterruptedException {
+        routing.checkLag();
+        write(TransactionSynchronization.STATUS_COMMITTED);
+
+        Object[] elsewhere = new Object[1];
+        Thread other = new Thread(() -> elsewhere[0] = routeReadOnly());
+        other.start();
+        other.join();
+
+        assertThat(routeReadOnly()).isEqualTo("primary");
+        assertThat(elsewhere[0]).asString().startsWith("replica-");
+    }
+
+    private void write(int completionStatus) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThat(routing.determineCurrentLookupKey()).isEqualTo("primary");
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(completionStatus));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private Object routeReadOnly() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            return routing.determineCurrentLookupKey();
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    private static void authenticateAs(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    private double routes(String reason) {
+        return meterRegistry.get("inventory.datasource.routes").tag("reason", reason).counter().count();
+    }
+
+    /**
+     * Answers the lag query with lagSeconds, or refuses connections while down
+     */
+    private static final class FakeReplica {
+        private volatile double lagSeconds = 0.0;
+        private volatile boolean down = false;
+
+        private DataSource dataSource() throws SQLException {
+            Statement statement = mock(Statement.class);
+            when(statement.executeQuery(anyString())).thenAnswer(invocation -> lagResult());
+            Connection connection = mock(Connection.class);
+            when(connection.createStatement()).thenReturn(statement);
+            DataSource dataSource = mock(DataSource.class);
+            when(dataSource.getConnection()).thenAnswer(invocation -> {
+                if (down) {
+                    throw new SQLException("Connection refused");
+                }
+                return connection;
+            });
+            return dataSource;
+        }
+
+        private ResultSet lagResult() throws SQLException {
+            ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+            when(metaData.getColumnCount()).thenReturn(1);
+            ResultSet resultSet = mock(ResultSet.class);
+            when(resultSet.getMetaData()).thenReturn(metaData);
+            when(resultSet.next()).thenReturn(true, false);
+            when(resultSet.getDouble(1)).thenReturn(lagSeconds);
+            return resultSet;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.stock.inventoryservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stock.inventoryservice.dto.InventoryDTO;
+import com.stock.inventoryservice.service.InventoryImportService;
+import com.stock.inventoryservice.service.InventoryService;
+import com.stock.inventoryservice.service.LocationOccupancyService;
+import com.stock.inventoryservice.service.StockReservationService;
+import com.stock.inventoryservice.service.StockSummaryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class InventoryControllerTest {
+
+    private final InventoryService inventoryService = mock(InventoryService.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        InventoryController controller = new InventoryController(inventoryService,
+                mock(InventoryImportService.class), mock(LocationOccupancyService.class),
+                mock(StockSummaryService.class), mock(StockReservationService.class), objectMapper);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void ndjsonStreamWritesOneObjectPerLine() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<InventoryDTO> sink = invocation.getArgument(2);
+            sink.accept(InventoryDTO.builder().id("a").itemId("item-1").quantityOnHand(1.5).build());
+            sink.accept(InventoryDTO.builder().id("b").itemId("item-2").quantityOnHand(2.0).build());
+            return null;
+        }).when(inventoryService).streamInventories(isNull(), isNull(), any(Consumer.class));
+
+        MvcResult started = mockMvc.perform(get("/api/inventory").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines[0], InventoryDTO.class).getId()).isEqualTo("a");
+        assertThat(objectMapper.readValue(lines[1], InventoryDTO.class).getQuantityOnHand()).isEqualTo(2.0);
+    }
+}
@@ -0,0 +1,66 @@
+package com.stock.inventoryservice.event.consumer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MovementDispatchPlanTest {
+
+    // Event name -> (item, location) rows it touches
+    private static final Map<String, List<String>> ROWS = Map.of(
+            "a", List.of("i1|l1"),
+            "b", List.of("i2|l1"),
+            "c", List.of("i1|l1", "i1|l2"),   // shares i1|l1 with a
+            "d", List.of("i1|l2", "i3|l3"),   // joins a's group through c
+            "e", List.of("i4|l4"),
+            "f", List.of("i5|l5"));
+
+    @Test
+    void keepsSinglePollWhenOneGroupIsAllowed() {
+        List<String> events = List.of("a", "b", "e");
+
+        assertThat(MovementDispatchPlan.split(events, ROWS::get, 1)).containsExactly(events);
+    }
+
+    @Test
+    void keepsSinglePollWhenEveryEventIsConnected() {
+        List<String> events = List.of("a", "c", "d");
+
+        assertThat(MovementDispatchPlan.split(events, ROWS::get, 4)).containsExactly(events);
+    }
+
+    @Test
+    void keepsEventsSharingRowsTransitivelyInOneGroupInPollOrder() {
+        List<List<String>> groups = MovementDispatchPlan.split(List.of("d", "b", "a", "e", "c"), ROWS::get, 4);
+
+        assertThat(groups).hasSize(3);
+        assertThat(groups).contains(List.of("d", "a", "c"), List.of("b"), List.of("e"));
+    }
+
+    @Test
+    void groupsTouchDisjointRows() {
+        List<List<String>> groups = MovementDispatchPlan.split(List.of("a", "b", "c", "d", "e", "f"), ROWS::get, 3);
+
+        for (int i = 0; i < groups.size(); i++) {
+            for (int j = i + 1; j < groups.size(); j++) {
+                List<String> rowsOfJ = groups.get(j).stream().flatMap(event -> ROWS.get(event).stream()).toList();
+                assertThat(groups.get(i).stream().flatMap(event -> ROWS.get(event).stream()))
+                        .doesNotContainAnyElementsOf(rowsOfJ);
+            }
+        }
+    }
+
+    @Test
+    void packsComponentsIntoAtMostMaxGroupsLargestFirst() {
+        // Components: {a, c, d} (3), {b}, {e}, {f} -> two groups of 3
+        List<List<String>> groups = MovementDispatchPlan.split(List.of("a", "b", "c", "d", "e", "f"), ROWS::get, 2);
+
+        assertThat(groups).hasSize(2);
+        assertThat(groups).contains(List.of("a", "c", "d"));
+        assertThat(groups).allSatisfy(group -> assertThat(group).hasSize(3));
+        assertThat(groups.stream().flatMap(List::stream)).containsExactlyInAnyOrder("a", "b", "c", "d", "e", "f");
+    }
+}
@@ -0,0 +1,97 @@
+package com.stock.inventoryservice.event.consumer;
+
+import com.stock.inventoryservice.entity.Inventory;
+import com.stock.inventoryservice.entity.InventoryStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MovementWorkingSetTest {
+
+    @Test
+    void rollbackRestoresRowsAndDropsCreatedRowsAndDeltas() {
+        Inventory existing = inventory("inv-1", "loc-1", 10.0);
+        MovementWorkingSet rows = new MovementWorkingSet(List.of(existing));
+
+        Inventory source = rows.find("item-1", "loc-1").orElseThrow();
+        source.setQuantityOnHand(4.0);
+        source.setStatus(InventoryStatus.QUARANTINED);
+        rows.save(source);
+        rows.applyOccupancyDelta("loc-1", -6.0);
+        Inventory target = rows.findOrCreate("item-1", "loc-2", () -> inventory(null, "loc-2", 6.0));
+        rows.save(target);
+        rows.applyOccupancyDelta("loc-2", 6.0);
+        rows.recordChange(source, "TRANSFER", -6.0);
+
+        rows.rollbackEvent();
+
+        assertThat(existing.getQuantityOnHand()).isEqualTo(10.0);
+        assertThat(existing.getStatus()).isEqualTo(InventoryStatus.AVAILABLE);
+        assertThat(rows.find("item-1", "loc-2")).isEmpty();
+        assertThat(rows.dirtyExistingRows()).isEmpty();
+        assertThat(rows.dirtyNewRows()).isEmpty();
+        assertThat(rows.occupancyDeltas()).isEmpty();
+        assertThat(rows.changes()).isEmpty();
+    }
+
+    @Test
+    void rollbackKeepsWhatEarlierEventsCommitted() {
+        Inventory existing = inventory("inv-1", "loc-1", 10.0);
+        MovementWorkingSet rows = new MovementWorkingSet(List.of(existing));
+
+        receive(rows, "loc-1", 2.0, "RECEIPT");
+        rows.commitEvent();
+        receive(rows, "loc-1", 5.0, "RECEIPT");
+        rows.rollbackEvent();
+
+        assertThat(existing.getQuantityOnHand()).isEqualTo(12.0);
+        assertThat(rows.dirtyExistingRows()).containsExactly(existing);
+        assertThat(rows.occupancyDeltas()).containsEntry("loc-1", 2.0);
+        assertThat(rows.changes()).singleElement()
+                .satisfies(change -> assertThat(change.netDelta()).isEqualTo(2.0));
+    }
+
+    @Test
+    void commitNetsDeltasPerRowAndLocationInMicroUnits() {
+        Inventory existing = inventory("inv-1", "loc-1", 0.0);
+        MovementWorkingSet rows = new MovementWorkingSet(List.of(existing));
+
+        receive(rows, "loc-1", 0.1, "RECEIPT");
+        rows.commitEvent();
+        receive(rows, "loc-1", 0.2, "ADJUSTMENT");
+        rows.commitEvent();
+        Inventory created = rows.findOrCreate("item-1", "loc-0", () -> inventory(null, "loc-0", 1.0));
+        rows.save(created);
+        rows.applyOccupancyDelta("loc-0", 1.0);
+        rows.commitEvent();
+
+        assertThat(rows.occupancyDeltas()).containsExactly(
+                Map.entry("loc-0", 1.0), Map.entry("loc-1", 0.3));
+        assertThat(rows.changes()).singleElement().satisfies(change -> {
+            assertThat(change.netDelta()).isEqualTo(0.3);
+            assertThat(change.reason()).isEqualTo("RECEIPT+ADJUSTMENT");
+        });
+        assertThat(rows.dirtyExistingRows()).containsExactly(existing);
+        assertThat(rows.dirtyNewRows()).containsExactly(created);
+        assertThat(created.getId()).isNotNull();
+    }
+
+    private static void receive(MovementWorkingSet rows, String locationId, double quantity, String reason) {
+        Inventory inventory = rows.find("item-1", locationId).orElseThrow();
+        inventory.setQuantityOnHand(inventory.getQuantityOnHand() + quantity);
+        rows.save(inventory);
+        rows.applyOccupancyDelta(locationId, quantity);
+        rows.recordChange(inventory, reason, quantity);
+    }
+
+    private static Inventory inventory(String id, String locationId, double onHand) {
+        return Inventory.builder()
+                .id(id).itemId("item-1").warehouseId("wh-1").locationId(locationId)
+                .quantityOnHand(onHand).quantityReserved(0.0).quantityDamaged(0.0)
+                .status(InventoryStatus.AVAILABLE)
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.stock.inventoryservice.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(CycleCountBatchRepository.class)
+class CycleCountBatchRepositoryTest extends PostgresRepositoryTest {
+
+    private static final String SESSION_ID = "session-1";
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private CycleCountBatchRepository cycleCountBatchRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void batchesWalkTheCandidatesInLocationOrderWithoutSplittingALocation() {
+        insertInventory("a-1", "wh-1", "loc-a", 10.0, null);
+        insertInventory("a-2", "wh-1", "loc-a", 10.0, null);
+        insertInventory("a-3", "wh-1", "loc-a", 10.0, TODAY.minusDays(30));
+        insertInventory("a-4", "wh-1", "loc-a", 10.0, TODAY);
+        insertInventory("b-1", "wh-1", "loc-b", 10.0, null);
+        insertInventory("c-1", "wh-2", "loc-c", 10.0, null);
+
+        assertThat(cycleCountBatchRepository.freeze(SESSION_ID, 1, "wh-1", TODAY, "", "", 2)).isEqualTo(2);
+        String[] last = cycleCountBatchRepository.findLastKey(SESSION_ID, 1);
+        assertThat(last).containsExactly("loc-a", "a-2");
+        assertThat(cycleCountBatchRepository.freezeRestOfLocation(SESSION_ID, 1, "wh-1", TODAY, last[0], last[1]))
+                .isEqualTo(1);
+        assertThat(cycleCountBatchRepository.findLastKey(SESSION_ID, 1)).containsExactly("loc-a", "a-3");
+
+        assertThat(cycleCountBatchRepository.freeze(SESSION_ID, 2, "wh-1", TODAY, "loc-a", "a-3", 2)).isEqualTo(1);
+        assertThat(cycleCountBatchRepository.findLastKey(SESSION_ID, 2)).containsExactly("loc-b", "b-1");
+        assertThat(cycleCountBatchRepository.findLastKey(SESSION_ID, 3)).isNull();
+    }
+
+    @Test
+    void countedLinesAreReconciledAndTheRestSkipped() {
+        insertInventory("a-1", "wh-1", "loc-a", 10.0, null);
+        insertInventory("a-2", "wh-1", "loc-a", 4.0, null);
+        insertInventory("a-3", "wh-1", "loc-a", 6.0, null);
+        insertInventory("b-1", "wh-1", "loc-b", 1.0, null);
+        cycleCountBatchRepository.freeze(SESSION_ID, 1, "wh-1", TODAY, "", "", 10);
+
+        Map<String, Double> counts = new LinkedHashMap<>();
+        counts.put("a-1", 12.5);
+        counts.put("a-2", 3.0);
+        counts.put("not-in-batch", 1.0);
+        counts.put("b-1", 1.0);
+        assertThat(cycleCountBatchRepository.recordCounts(SESSION_ID, 1, counts)).containsExactly("not-in-batch");
+
+        Map<String, Double> variances = cycleCountBatchRepository.computeVariances(SESSION_ID, 1);
+        assertThat(variances).containsOnly(Map.entry("a-1", 2.5), Map.entry("a-2", -1.0), Map.entry("b-1", 0.0));
+
+        jdbcTemplate.update("DELETE FROM inventory WHERE id = 'a-2'");
+        assertThat(cycleCountBatchRepository.markApplied(SESSION_ID, 1)).isEqualTo(3);
+        assertThat(cycleCountBatchRepository.skipPending(SESSION_ID, null)).isEqualTo(1);
+
+        assertThat(statuses()).containsExactly("a-1:APPLIED", "a-2:SKIPPED", "a-3:SKIPPED", "b-1:APPLIED");
+        assertThat(cycleCountBatchRepository.recordCounts(SESSION_ID, 1, Map.of("a-1", 1.0)))
+                .containsExactly("a-1");
+    }
+
+    private List<String> statuses() {
+        return jdbcTemplate.queryForList("SELECT inventory_id || ':' || status FROM cycle_count_line " +
+                "WHERE session_id = ? ORDER BY inventory_id", String.class, SESSION_ID);
+    }
+
+    private void insertInventory(String id, String warehouseId, String locationId, double onHand,
+                                 LocalDate lastCountDate) {
+        jdbcTemplate.update("INSERT INTO inventory (id, version, item_id, warehouse_id, location_id, " +
+                "quantity_on_hand, quantity_reserved, quantity_damaged, status, last_count_date) " +
+                "VALUES (?, 0, ?, ?, ?, ?, 0, 0, 'AVAILABLE', ?)", id, "item-" + id, warehouseId, locationId, onHand,
+                lastCountDate != null ? Date.valueOf(lastCountDate) : null);
+    }
+}
@@ -0,0 +1,181 @@
+package com.stock.inventoryservice.repository;
+
+import com.stock.inventoryservice.entity.Inventory;
+import com.stock.inventoryservice.entity.InventoryStatus;
+import com.stock.inventoryservice.service.InventoryUniqueKeyCheck;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Import({InventoryBatchRepository.class, InventoryUniqueKeyCheck.class})
+class InventoryBatchRepositoryTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private InventoryBatchRepository inventoryBatchRepository;
+    @Autowired
+    private InventoryUniqueKeyCheck uniqueKeyCheck;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void lockByItemAndLocationReturnsTheMatchingRowsInIdOrder() {
+        Inventory a = persistInventory("item-1", "loc-1");
+        Inventory b = persistInventory("item-2", "loc-1");
+        persistInventory("item-1", "loc-2");
+
+        List<Inventory> rows = inventoryBatchRepository.lockByItemAndLocation(List.of(
+                new String[]{"item-2", "loc-1"}, new String[]{"item-1", "loc-1"}, new String[]{"item-9", "loc-1"}));
+
+        assertThat(rows).extracting(Inventory::getId)
+                .containsExactlyElementsOf(List.of(a.getId(), b.getId()).stream().sorted().toList());
+        assertThat(rows).allSatisfy(row -> assertThat(row.getQuantityOnHand()).isEqualTo(10.0));
+    }
+
+    @Test
+    void updateQuantitiesWritesBackAndBumpsTheVersion() {
+        Inventory inventory = persistInventory("item-1", "loc-1");
+        Inventory locked = inventoryBatchRepository.lockByIds(List.of(inventory.getId())).get(inventory.getId());
+
+        locked.setQuantityReserved(2.5);
+        inventoryBatchRepository.updateQuantities(List.of(locked));
+
+        Map<String, Inventory> reread = inventoryBatchRepository.lockByIds(List.of(inventory.getId()));
+        assertThat(reread.get(inventory.getId()).getQuantityReserved()).isEqualTo(2.5);
+        assertThat(reread.get(inventory.getId()).getVersion()).isEqualTo(locked.getVersion());
+        assertThat(locked.getVersion()).isEqualTo(inventory.getVersion() + 1);
+    }
+
+    @Test
+    void upsertAllInsertsNewPairsAndOverwritesExistingOnesKeepingTheirReservation() {
+        Inventory existing = persistInventory("item-1", "loc-1");
+        jdbcTemplate.update("UPDATE inventory SET quantity_reserved = 4 WHERE id = ?", existing.getId());
+
+        inventoryBatchRepository.upsertAll(List.of(
+                imported(UUID.randomUUID().toString(), "item-1", "loc-1", 25.0),
+                imported("new-id", "item-2", "loc-1", 5.0)));
+        entityManager.clear();
+
+        List<Inventory> rows = inventoryBatchRepository.lockByItemAndLocation(List.of(
+                new String[]{"item-1", "loc-1"}, new String[]{"item-2", "loc-1"}));
+        assertThat(rows).hasSize(2);
+        Inventory updated = rows.stream().filter(row -> row.getItemId().equals("item-1")).findFirst().orElseThrow();
+        assertThat(updated.getId()).isEqualTo(existing.getId());
+        assertThat(updated.getQuantityOnHand()).isEqualTo(25.0);
+        assertThat(updated.getQuantityReserved()).isEqualTo(4.0);
+        assertThat(updated.getUom()).isEqualTo("EA");
+        assertThat(updated.getVersion()).isEqualTo(existing.getVersion() + 1);
+        Inventory inserted = rows.stream().filter(row -> row.getItemId().equals("item-2")).findFirst().orElseThrow();
+        assertThat(inserted.getId()).isEqualTo("new-id");
+        assertThat(inserted.getVersion()).isZero();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void lockByIdsHoldsRowLocksUntilTheTransactionEnds() {
+        String first = insertCommitted("item-1");
+        String second = insertCommitted("item-2");
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<String, Inventory> rows = inventoryBatchRepository.lockByIds(List.of(second, first, "missing"));
+
+                assertThat(rows).containsOnlyKeys(first, second);
+                assertThat(isLockedElsewhere(first)).isTrue();
+                assertThat(isLockedElsewhere(second)).isTrue();
+            });
+            assertThat(isLockedElsewhere(first)).isFalse();
+        } finally {
+            jdbcTemplate.update("DELETE FROM inventory WHERE id IN (?, ?)", first, second);
+        }
+    }
+
+    @Test
+    void uniqueKeyCheckAddsAMissingKeyWhenThereAreNoDuplicates() {
+        dropItemLocationKey();
+        persistInventory("item-1", "loc-1");
+        persistInventory("item-1", "loc-2");
+
+        uniqueKeyCheck.ensureItemLocationKey();
+
+        assertThat(inventoryBatchRepository.hasItemLocationKey()).isTrue();
+    }
+
+    @Test
+    void uniqueKeyCheckRefusesToStartOverDuplicatePairs() {
+        dropItemLocationKey();
+        persistInventory("item-1", "loc-1");
+        persistInventory("item-1", "loc-1");
+        persistInventory("item-2", "loc-1");
+
+        assertThat(inventoryBatchRepository.countDuplicateItemLocations()).isEqualTo(1);
+        assertThatThrownBy(uniqueKeyCheck::ensureItemLocationKey)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("1 (item_id, location_id) pairs");
+        assertThat(inventoryBatchRepository.hasItemLocationKey()).isFalse();
+    }
+
+    private String insertCommitted(String itemId) {
+        String id = UUID.randomUUID().toString();
+        jdbcTemplate.update("INSERT INTO inventory (id, version, item_id, warehouse_id, location_id, " +
+                "quantity_on_hand, quantity_reserved, quantity_damaged, status) " +
+                "VALUES (?, 0, ?, 'wh-1', 'loc-1', 10, 0, 0, 'AVAILABLE')", id, itemId);
+        return id;
+    }
+
+    private boolean isLockedElsewhere(String id) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT id FROM inventory WHERE id = ? FOR UPDATE NOWAIT")) {
+            statement.setString(1, id);
+            statement.executeQuery().close();
+            return false;
+        } catch (SQLException e) {
+            if ("55P03".equals(e.getSQLState())) { // lock_not_available
+                return true;
+            }
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void dropItemLocationKey() {
+        jdbcTemplate.execute("ALTER TABLE inventory DROP CONSTRAINT uk_inventory_item_location");
+        assertThat(inventoryBatchRepository.hasItemLocationKey()).isFalse();
+    }
+
+    private static Inventory imported(String id, String itemId, String locationId, double onHand) {
+        return Inventory.builder()
+                .id(id).itemId(itemId).warehouseId("wh-1").locationId(locationId)
+                .quantityOnHand(onHand).quantityReserved(0.0).quantityDamaged(0.0)
+                .uom("EA").status(InventoryStatus.AVAILABLE)
+                .build();
+    }
+
+    private Inventory persistInventory(String itemId, String locationId) {
+        return entityManager.persistAndFlush(Inventory.builder()
+                .itemId(itemId).warehouseId("wh-1").locationId(locationId)
+                .quantityOnHand(10.0).quantityReserved(0.0).quantityDamaged(0.0)
+                .status(InventoryStatus.AVAILABLE)
+                .build());
+    }
+}
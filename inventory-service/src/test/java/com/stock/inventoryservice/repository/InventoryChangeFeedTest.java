@@ -0,0 +1,147 @@
+package com.stock.inventoryservice.repository;
+
+import com.stock.inventoryservice.dto.InventoryChangeDTO;
+import com.stock.inventoryservice.dto.InventoryChangePage;
+import com.stock.inventoryservice.dto.InventoryDTO;
+import com.stock.inventoryservice.exception.InvalidOperationException;
+import com.stock.inventoryservice.service.InventoryChangeFeed;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The feed's ordering depends on which transactions have committed, so these tests
+ * commit for real and clean up afterwards
+ */
+@Import({InventoryChangeFeed.class, InventoryBatchRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryChangeFeedTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private InventoryChangeFeed changeFeed;
+    @Autowired
+    private InventoryBatchRepository inventoryBatchRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private DataSource dataSource;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM inventory_change");
+        jdbcTemplate.update("DELETE FROM inventory");
+    }
+
+    @Test
+    void laterCommitStaysBehindAnOlderTransactionThatIsStillRunning() throws Exception {
+        String slow = insertInventory("item-1");
+        String fast = insertInventory("item-2");
+        String token = read(null).getToken();
+
+        try (Connection running = dataSource.getConnection()) {
+            running.setAutoCommit(false);
+            try (PreparedStatement insert = running.prepareStatement(
+                    "INSERT INTO inventory_change (txid, inventory_id, change_type, changed_at) " +
+                    "VALUES (pg_current_xact_id()::text::bigint, ?, 'UPSERT', now())")) {
+                insert.setString(1, slow);
+                insert.executeUpdate();
+            }
+            record(fast);
+
+            InventoryChangePage blocked = read(token);
+            assertThat(blocked.getChanges()).isEmpty();
+            assertThat(blocked.getToken()).isNotBlank();
+
+            running.commit();
+        }
+
+        InventoryChangePage page = read(token);
+        assertThat(page.getChanges()).extracting(InventoryChangeDTO::getInventoryId).containsExactly(slow, fast);
+        assertThat(page.getChanges()).extracting(InventoryChangeDTO::getChangeType)
+                .containsOnly(InventoryChangeFeed.UPSERT);
+        assertThat(read(page.getToken()).getChanges()).isEmpty();
+    }
+
+    @Test
+    void rowChangedSeveralTimesAppearsOnceAtItsLatestPosition() {
+        String a = insertInventory("item-1");
+        String b = insertInventory("item-2");
+        String token = read(null).getToken();
+
+        record(a);
+        record(b);
+        record(a);
+
+        assertThat(read(token).getChanges()).extracting(InventoryChangeDTO::getInventoryId).containsExactly(b, a);
+    }
+
+    @Test
+    void pagesFollowOnFromTheirToken() {
+        List<String> ids = List.of(insertInventory("item-1"), insertInventory("item-2"), insertInventory("item-3"));
+        String token = read(null).getToken();
+        ids.forEach(this::record);
+
+        InventoryChangePage first = read(token, 2);
+        InventoryChangePage second = read(first.getToken(), 2);
+
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(first.getChanges()).extracting(InventoryChangeDTO::getInventoryId).containsExactlyElementsOf(ids.subList(0, 2));
+        assertThat(second.isHasMore()).isFalse();
+        assertThat(second.getChanges()).extracting(InventoryChangeDTO::getInventoryId).containsExactly(ids.get(2));
+    }
+
+    @Test
+    void deletedRowIsReportedAsDelete() {
+        String id = insertInventory("item-1");
+        String token = read(null).getToken();
+        record(id);
+        jdbcTemplate.update("DELETE FROM inventory WHERE id = ?", id);
+
+        assertThat(read(token).getChanges()).singleElement().satisfies(change -> {
+            assertThat(change.getChangeType()).isEqualTo(InventoryChangeFeed.DELETE);
+            assertThat(change.getInventory()).isNull();
+        });
+    }
+
+    @Test
+    void malformedTokenIsRejected() {
+        assertThatThrownBy(() -> read("bm90LWEtdG9rZW4"))
+                .isInstanceOf(InvalidOperationException.class);
+    }
+
+    private String insertInventory(String itemId) {
+        String id = UUID.randomUUID().toString();
+        jdbcTemplate.update("INSERT INTO inventory (id, version, item_id, warehouse_id, location_id, " +
+                "quantity_on_hand, quantity_reserved, quantity_damaged, status) " +
+                "VALUES (?, 0, ?, 'wh-1', 'loc-1', 10, 0, 0, 'AVAILABLE')", id, itemId);
+        return id;
+    }
+
+    private void record(String inventoryId) {
+        transactionTemplate.executeWithoutResult(status -> changeFeed.recordChangedIds(List.of(inventoryId)));
+    }
+
+    private InventoryChangePage read(String token) {
+        return read(token, 100);
+    }
+
+    private InventoryChangePage read(String token, int limit) {
+        return changeFeed.getChanges(token, limit, inventory -> InventoryDTO.builder().id(inventory.getId()).build());
+    }
+}
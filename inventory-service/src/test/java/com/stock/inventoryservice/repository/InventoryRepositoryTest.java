@@ -0,0 +1,116 @@
+package com.stock.inventoryservice.repository;
+
+import com.stock.inventoryservice.entity.Inventory;
+import com.stock.inventoryservice.entity.InventoryStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InventoryRepositoryTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void reserveIfAvailableReservesUpToTheQuantityOnHand() {
+        Inventory inventory = persistInventory(10.0, 4.0);
+
+        assertThat(inventoryRepository.reserveIfAvailable(inventory.getId(), 6.0)).isEqualTo(1);
+
+        Inventory reserved = inventoryRepository.findById(inventory.getId()).orElseThrow();
+        assertThat(reserved.getQuantityReserved()).isEqualTo(10.0);
+        assertThat(reserved.getVersion()).isEqualTo(inventory.getVersion() + 1);
+    }
+
+    @Test
+    void reserveIfAvailableRefusesToOverReserve() {
+        Inventory inventory = persistInventory(10.0, 4.0);
+
+        assertThat(inventoryRepository.reserveIfAvailable(inventory.getId(), 6.000001)).isZero();
+        assertThat(inventoryRepository.reserveIfAvailable("missing", 1.0)).isZero();
+
+        assertThat(inventoryRepository.findById(inventory.getId()).orElseThrow().getQuantityReserved()).isEqualTo(4.0);
+    }
+
+    @Test
+    void reserveIfAvailableComparesInMicroUnits() {
+        Inventory inventory = persistInventory(0.3, 0.1);
+
+        // 0.1 + 0.2 is 0.30000000000000004 as a double
+        assertThat(inventoryRepository.reserveIfAvailable(inventory.getId(), 0.2)).isEqualTo(1);
+        assertThat(inventoryRepository.findById(inventory.getId()).orElseThrow().getQuantityReserved()).isEqualTo(0.3);
+    }
+
+    @Test
+    void releaseIfReservedReleasesOnlyWhatIsReserved() {
+        Inventory inventory = persistInventory(10.0, 4.0);
+
+        assertThat(inventoryRepository.releaseIfReserved(inventory.getId(), 5.0)).isZero();
+        assertThat(inventoryRepository.releaseIfReserved(inventory.getId(), 4.0)).isEqualTo(1);
+
+        assertThat(inventoryRepository.findById(inventory.getId()).orElseThrow().getQuantityReserved()).isZero();
+    }
+
+    @Test
+    void keysetQueriesPageInIdOrderWithinTheFilter() {
+        List<String> ids = Stream.of("loc-1", "loc-2", "loc-1", "loc-1")
+                .map(locationId -> persistInventory("wh-1", locationId).getId())
+                .toList();
+        persistInventory("wh-2", "loc-3");
+        List<String> loc1 = Stream.of(ids.get(0), ids.get(2), ids.get(3)).sorted().toList();
+        PageRequest twoById = PageRequest.of(0, 2, Sort.by("id"));
+
+        List<Inventory> first = inventoryRepository.findByLocationIdAndIdGreaterThan("loc-1", "", twoById);
+        List<Inventory> second = inventoryRepository.findByLocationIdAndIdGreaterThan(
+                "loc-1", first.get(1).getId(), twoById);
+
+        assertThat(first).extracting(Inventory::getId).containsExactlyElementsOf(loc1.subList(0, 2));
+        assertThat(second).extracting(Inventory::getId).containsExactly(loc1.get(2));
+        assertThat(inventoryRepository.findByWarehouseIdAndIdGreaterThan("wh-1", "", PageRequest.of(0, 10, Sort.by("id"))))
+                .extracting(Inventory::getId).containsExactlyElementsOf(ids.stream().sorted().toList());
+    }
+
+    @Test
+    void streamQueriesReturnRowsInIdOrder() {
+        List<String> ids = Stream.of("wh-1", "wh-2", "wh-1")
+                .map(warehouseId -> persistInventory(warehouseId, "loc-" + warehouseId).getId())
+                .toList();
+
+        try (Stream<Inventory> rows = inventoryRepository.streamByWarehouseId("wh-1")) {
+            assertThat(rows.map(Inventory::getId)).containsExactly(
+                    Stream.of(ids.get(0), ids.get(2)).sorted().toArray(String[]::new));
+        }
+        try (Stream<Inventory> rows = inventoryRepository.streamAll()) {
+            assertThat(rows.map(Inventory::getId)).containsExactlyElementsOf(ids.stream().sorted().toList());
+        }
+    }
+
+    private Inventory persistInventory(String warehouseId, String locationId) {
+        Inventory inventory = entityManager.persistAndFlush(Inventory.builder()
+                .itemId("item-" + System.nanoTime()).warehouseId(warehouseId).locationId(locationId)
+                .quantityOnHand(1.0).quantityReserved(0.0).quantityDamaged(0.0)
+                .status(InventoryStatus.AVAILABLE)
+                .build());
+        entityManager.clear();
+        return inventory;
+    }
+
+    private Inventory persistInventory(double onHand, double reserved) {
+        Inventory inventory = entityManager.persistAndFlush(Inventory.builder()
+                .itemId("item-1").warehouseId("wh-1").locationId("loc-1")
+                .quantityOnHand(onHand).quantityReserved(reserved).quantityDamaged(0.0)
+                .status(InventoryStatus.AVAILABLE)
+                .build());
+        entityManager.clear();
+        return inventory;
+    }
+}
@@ -0,0 +1,79 @@
+package com.stock.inventoryservice.repository;
+
+import com.stock.inventoryservice.dto.OccupancyReconciliationReport;
+import com.stock.inventoryservice.entity.Inventory;
+import com.stock.inventoryservice.entity.InventoryStatus;
+import com.stock.inventoryservice.entity.LocationOccupancy;
+import com.stock.inventoryservice.service.LocationOccupancyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(LocationOccupancyService.class)
+class LocationOccupancyRepositoryTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private LocationOccupancyRepository occupancyRepository;
+    @Autowired
+    private LocationOccupancyService occupancyService;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void applyDeltaCreatesTheRowThenAddsToIt() {
+        occupancyRepository.applyDelta("loc-1", 5.0);
+        occupancyRepository.applyDelta("loc-1", -1.5);
+
+        assertThat(total("loc-1")).isEqualTo(3.5);
+    }
+
+    @Test
+    void insertMissingOnlyCreatesRowsForStockedLocationsWithoutOne() {
+        persistInventory("item-1", "loc-1", 4.0);
+        persistInventory("item-1", "loc-2", 6.0);
+        occupancyRepository.applyDelta("loc-1", 4.0);
+
+        int inserted = occupancyRepository.insertMissing(List.of("loc-1", "loc-2", "loc-3"));
+
+        assertThat(inserted).isEqualTo(1);
+        assertThat(total("loc-1")).isEqualTo(4.0);
+        assertThat(total("loc-2")).isZero();
+        assertThat(occupancyRepository.existsById("loc-3")).isFalse();
+    }
+
+    @Test
+    void reconcileRebuildsDriftedAndMissingTotalsAndZeroesOrphans() {
+        persistInventory("item-1", "loc-1", 4.0);
+        persistInventory("item-2", "loc-1", 1.0);
+        persistInventory("item-1", "loc-2", 6.0);
+        occupancyRepository.applyDelta("loc-1", 7.0);
+        occupancyRepository.applyDelta("loc-9", 2.0);
+
+        OccupancyReconciliationReport report = occupancyService.reconcile();
+
+        assertThat(total("loc-1")).isEqualTo(5.0);
+        assertThat(total("loc-2")).isEqualTo(6.0);
+        assertThat(total("loc-9")).isZero();
+        assertThat(report.getLocationsChecked()).isEqualTo(2);
+        assertThat(report.getLocationsDrifted()).isEqualTo(2);
+        assertThat(report.getOrphansCleared()).isEqualTo(1);
+    }
+
+    private void persistInventory(String itemId, String locationId, double onHand) {
+        entityManager.persistAndFlush(Inventory.builder()
+                .itemId(itemId).warehouseId("wh-1").locationId(locationId)
+                .quantityOnHand(onHand).quantityReserved(0.0).quantityDamaged(0.0)
+                .status(InventoryStatus.AVAILABLE)
+                .build());
+    }
+
+    private double total(String locationId) {
+        entityManager.clear();
+        return occupancyRepository.findById(locationId).map(LocationOccupancy::getTotalQuantity).orElseThrow();
+    }
+}
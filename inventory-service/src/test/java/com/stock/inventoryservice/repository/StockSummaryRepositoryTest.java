@@ -0,0 +1,68 @@
+package com.stock.inventoryservice.repository;
+
+import com.stock.inventoryservice.entity.Inventory;
+import com.stock.inventoryservice.entity.InventoryStatus;
+import com.stock.inventoryservice.entity.ItemStockSummary;
+import com.stock.inventoryservice.entity.ItemWarehouseStockSummary;
+import com.stock.inventoryservice.repository.ItemStockSummaryRepository.ItemStockTotal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StockSummaryRepositoryTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private ItemStockSummaryRepository itemSummaryRepository;
+    @Autowired
+    private ItemWarehouseStockSummaryRepository warehouseSummaryRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void applyDeltaCreatesTheSummaryRowsThenAddsToThem() {
+        itemSummaryRepository.applyDelta("item-1", 10.0, 2.0, 1.0, 8.0, 1);
+        itemSummaryRepository.applyDelta("item-1", -4.0, 0.0, 0.0, -4.0, 0);
+        warehouseSummaryRepository.applyDelta("item-1", "wh-1", 10.0, 2.0, 1.0, 8.0, 1);
+        warehouseSummaryRepository.applyDelta("item-1", "wh-1", 0.0, 1.0, 0.0, -1.0, 1);
+        entityManager.clear();
+
+        ItemStockSummary item = itemSummaryRepository.findById("item-1").orElseThrow();
+        assertThat(item.getQuantityOnHand()).isEqualTo(6.0);
+        assertThat(item.getQuantityAvailable()).isEqualTo(4.0);
+        assertThat(item.getLocationCount()).isEqualTo(1);
+
+        ItemWarehouseStockSummary warehouse = warehouseSummaryRepository
+                .findById(new ItemWarehouseStockSummary.Key("item-1", "wh-1")).orElseThrow();
+        assertThat(warehouse.getQuantityReserved()).isEqualTo(3.0);
+        assertThat(warehouse.getQuantityAvailable()).isEqualTo(7.0);
+        assertThat(warehouse.getLocationCount()).isEqualTo(2);
+    }
+
+    @Test
+    void sumByItemAndWarehouseCountsOnlyAvailableRowsAsAvailable() {
+        persistInventory("loc-1", InventoryStatus.AVAILABLE, 10.0, 2.0);
+        persistInventory("loc-2", InventoryStatus.QUARANTINED, 5.0, 0.0);
+        persistInventory("loc-3", InventoryStatus.AVAILABLE, 0.0, 0.0);
+
+        List<ItemStockTotal> totals = itemSummaryRepository.sumByItemAndWarehouse(List.of("item-1"));
+
+        assertThat(totals).singleElement().satisfies(total -> {
+            assertThat(total.getQuantityOnHand()).isEqualTo(15.0);
+            assertThat(total.getQuantityReserved()).isEqualTo(2.0);
+            assertThat(total.getQuantityAvailable()).isEqualTo(8.0);
+            assertThat(total.getLocationCount()).isEqualTo(2);
+        });
+    }
+
+    private void persistInventory(String locationId, InventoryStatus status, double onHand, double reserved) {
+        entityManager.persistAndFlush(Inventory.builder()
+                .itemId("item-1").warehouseId("wh-1").locationId(locationId)
+                .quantityOnHand(onHand).quantityReserved(reserved).quantityDamaged(0.0)
+                .status(status)
+                .build());
+    }
+}
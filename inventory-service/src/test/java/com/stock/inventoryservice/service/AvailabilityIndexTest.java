@@ -0,0 +1,132 @@
+package com.stock.inventoryservice.service;
+
+import com.stock.inventoryservice.entity.Inventory;
+import com.stock.inventoryservice.entity.InventoryStatus;
+import com.stock.inventoryservice.event.dto.InventoryEvent;
+import com.stock.inventoryservice.repository.InventoryBatchRepository;
+import com.stock.inventoryservice.repository.InventoryRepository;
+import com.stock.inventoryservice.service.AvailabilityIndex.Consistency;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AvailabilityIndexTest {
+
+    private final InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+    private final InventoryBatchRepository inventoryBatchRepository = mock(InventoryBatchRepository.class);
+    private final StockSummaryService stockSummaryService = mock(StockSummaryService.class);
+
+    @Test
+    void appliesEventsInVersionOrder() {
+        AvailabilityIndex index = loadedIndex(Consistency.EVENTUAL, Duration.ofMinutes(1));
+
+        index.apply(event("inv-1", 2L, "UPDATED", 8.0, 2.0));
+        index.apply(event("inv-1", 1L, "UPDATED", 100.0, 0.0));
+        index.apply(event("inv-1", 2L, "UPDATED", 100.0, 0.0));
+
+        assertThat(index.getAvailableQuantity("item-1", "loc-1")).isEqualTo(6.0);
+        assertThat(index.getTotalAvailableQuantity("item-1", null)).isEqualTo(6.0);
+        assertThat(index.getTotalAvailableQuantity("item-1", "wh-1")).isEqualTo(6.0);
+    }
+
+    @Test
+    void tombstoneKeepsLateEventsFromResurrectingADeletedRow() {
+        AvailabilityIndex index = loadedIndex(Consistency.EVENTUAL, Duration.ofMinutes(1));
+
+        index.apply(event("inv-1", 1L, "CREATED", 5.0, 0.0));
+        index.apply(event("inv-1", 2L, "DELETED", null, null));
+        index.apply(event("inv-1", 1L, "UPDATED", 5.0, 0.0));
+
+        assertThat(index.getAvailableQuantity("item-1", "loc-1")).isZero();
+        assertThat(index.getTotalAvailableQuantity("item-1", null)).isZero();
+    }
+
+    @Test
+    void boundedReadsGoToTheDatabaseWhileAWriteIsPending() {
+        AvailabilityIndex index = loadedIndex(Consistency.BOUNDED, Duration.ZERO);
+        when(inventoryRepository.findByItemIdAndLocationId("item-1", "loc-1"))
+                .thenReturn(Optional.of(inventory(3L, 9.0, 1.0)));
+
+        index.apply(event("inv-1", 2L, "UPDATED", 10.0, 0.0));
+        index.markPending("inv-1", 3L);
+
+        assertThat(index.getAvailableQuantity("item-1", "loc-1")).isEqualTo(8.0);
+        verify(inventoryRepository).findByItemIdAndLocationId("item-1", "loc-1");
+    }
+
+    @Test
+    void staleEventDoesNotClearThePendingMarkerOfANewerWrite() {
+        AvailabilityIndex index = loadedIndex(Consistency.BOUNDED, Duration.ZERO);
+        when(inventoryRepository.findByItemIdAndLocationId("item-1", "loc-1"))
+                .thenReturn(Optional.of(inventory(3L, 9.0, 1.0)));
+
+        index.markPending("inv-1", 3L);
+        index.apply(event("inv-1", 2L, "UPDATED", 10.0, 0.0));
+
+        assertThat(index.getAvailableQuantity("item-1", "loc-1")).isEqualTo(8.0);
+
+        index.apply(event("inv-1", 3L, "UPDATED", 9.0, 1.0));
+
+        assertThat(index.getAvailableQuantity("item-1", "loc-1")).isEqualTo(8.0);
+        verify(inventoryRepository).findByItemIdAndLocationId("item-1", "loc-1");
+    }
+
+    @Test
+    void healReReadsOverdueRowsAndClearsTheirMarker() {
+        AvailabilityIndex index = loadedIndex(Consistency.BOUNDED, Duration.ZERO);
+        when(inventoryRepository.findById("inv-1")).thenReturn(Optional.of(inventory(3L, 9.0, 1.0)));
+
+        index.markPending("inv-1", 3L);
+        index.healOverdueRows();
+
+        assertThat(index.getAvailableQuantity("item-1", "loc-1")).isEqualTo(8.0);
+        verify(inventoryRepository, never()).findByItemIdAndLocationId(anyString(), anyString());
+    }
+
+    @Test
+    void strongReadsAlwaysGoToTheDatabase() {
+        AvailabilityIndex index = loadedIndex(Consistency.STRONG, Duration.ofMinutes(1));
+        when(stockSummaryService.getTotalAvailableQuantity("item-1", null)).thenReturn(4.0);
+
+        index.apply(event("inv-1", 1L, "CREATED", 5.0, 0.0));
+
+        assertThat(index.getTotalAvailableQuantity("item-1", null)).isEqualTo(4.0);
+    }
+
+    private AvailabilityIndex loadedIndex(Consistency consistency, Duration maxLag) {
+        when(inventoryRepository.findAtpRowsAfter(anyString(), any())).thenReturn(List.of());
+        AvailabilityIndex index = new AvailabilityIndex(inventoryRepository, inventoryBatchRepository,
+                stockSummaryService, new SimpleMeterRegistry(), consistency, maxLag, Duration.ofMinutes(10), 100);
+        index.bootstrap();
+        return index;
+    }
+
+    private static InventoryEvent event(String inventoryId, Long version, String eventType,
+                                        Double onHand, Double reserved) {
+        return InventoryEvent.builder()
+                .inventoryId(inventoryId).version(version).eventType(eventType)
+                .itemId("item-1").warehouseId("wh-1").locationId("loc-1")
+                .quantityOnHand(onHand).quantityReserved(reserved)
+                .status("AVAILABLE")
+                .build();
+    }
+
+    private static Inventory inventory(Long version, double onHand, double reserved) {
+        return Inventory.builder()
+                .id("inv-1").version(version).itemId("item-1").warehouseId("wh-1").locationId("loc-1")
+                .quantityOnHand(onHand).quantityReserved(reserved).quantityDamaged(0.0)
+                .status(InventoryStatus.AVAILABLE)
+                .build();
+    }
+}
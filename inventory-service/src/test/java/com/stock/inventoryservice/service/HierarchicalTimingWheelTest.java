@@ -0,0 +1,83 @@
+package com.stock.inventoryservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK_MS = 1000;
+
+    // 8 slots x 3 levels: level 0 covers 8 ticks, level 1 64 ticks, level 2 512 ticks
+    private final HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK_MS, 8, 3, 0);
+
+    @Test
+    void firesLevelZeroTimerOnItsTick() {
+        wheel.schedule("a", 3 * TICK_MS);
+
+        assertThat(advanceTo(2)).isEmpty();
+        assertThat(advanceTo(3)).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void pastDeadlineFiresOnNextTick() {
+        advanceTo(10);
+        wheel.schedule("late", 2 * TICK_MS);
+
+        assertThat(advanceTo(11)).containsExactly("late");
+    }
+
+    @Test
+    void cascadesTimerFromHigherLevelsDownToItsTick() {
+        wheel.schedule("level1", 20 * TICK_MS);
+        wheel.schedule("level2", 100 * TICK_MS);
+
+        assertThat(advanceTo(19)).isEmpty();
+        assertThat(advanceTo(20)).containsExactly("level1");
+        assertThat(advanceTo(99)).isEmpty();
+        assertThat(advanceTo(100)).containsExactly("level2");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void firesTimersDueOnTheSameTickTogether() {
+        wheel.schedule("a", 70 * TICK_MS);
+        wheel.schedule("b", 70 * TICK_MS);
+        wheel.schedule("c", 71 * TICK_MS);
+
+        assertThat(advanceTo(70)).containsExactlyInAnyOrder("a", "b");
+        assertThat(advanceTo(71)).containsExactly("c");
+    }
+
+    @Test
+    void parksTimerBeyondRangeUntilItsBucketComesRound() {
+        // 1300 ticks is beyond the 512-tick range of the wheel
+        wheel.schedule("parked", 1300 * TICK_MS);
+        assertThat(wheel.size()).isEqualTo(1);
+
+        assertThat(advanceTo(1299)).isEmpty();
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(advanceTo(1300)).containsExactly("parked");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void catchesUpAfterLongPause() {
+        wheel.schedule("a", 5 * TICK_MS);
+        wheel.schedule("b", 300 * TICK_MS);
+        wheel.schedule("c", 2000 * TICK_MS);
+
+        assertThat(advanceTo(600)).containsExactly("a", "b");
+        assertThat(advanceTo(2000)).containsExactly("c");
+    }
+
+    private List<String> advanceTo(long tick) {
+        List<String> due = new ArrayList<>();
+        wheel.advance(tick * TICK_MS, due::add);
+        return due;
+    }
+}
@@ -0,0 +1,226 @@
+package com.stock.inventoryservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stock.inventoryservice.client.LocationClient;
+import com.stock.inventoryservice.dto.InventoryImportReport;
+import com.stock.inventoryservice.dto.InventoryImportReport.RowError;
+import com.stock.inventoryservice.dto.cache.ItemCacheDTO;
+import com.stock.inventoryservice.dto.external.LocationResponseDTO;
+import com.stock.inventoryservice.entity.Inventory;
+import com.stock.inventoryservice.entity.InventoryStatus;
+import com.stock.inventoryservice.event.dto.InventoryImportedEvent;
+import com.stock.inventoryservice.exception.InvalidOperationException;
+import com.stock.inventoryservice.repository.InventoryBatchRepository;
+import com.stock.inventoryservice.service.impl.InventoryEventPublisher;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * The batch repository is backed by an in-memory map keyed by (item, location) that
+ * follows the upsert's rules: existing rows keep their id and reservation, the version bumps
+ */
+@ExtendWith(MockitoExtension.class)
+class InventoryImportServiceTest {
+
+    private static final Set<String> KNOWN_ITEMS = Set.of("item-1", "item-2", "item-3");
+
+    @Mock
+    private InventoryBatchRepository inventoryBatchRepository;
+    @Mock
+    private ItemCacheService itemCacheService;
+    @Mock
+    private LocationClient locationClient;
+    @Mock
+    private LocationOccupancyService locationOccupancyService;
+    @Mock
+    private StockSummaryService stockSummaryService;
+    @Mock
+    private InventoryChangeFeed changeFeed;
+    @Mock
+    private InventoryEventPublisher eventPublisher;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<String, Inventory> stored = new HashMap<>();
+    private InventoryImportService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new InventoryImportService(inventoryBatchRepository, itemCacheService, locationClient,
+                locationOccupancyService, stockSummaryService, changeFeed, eventPublisher, transactionTemplate,
+                new ObjectMapper().findAndRegisterModules(),
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(service, "chunkSize", 2);
+        ReflectionTestUtils.setField(service, "maxReportedErrors", 100);
+
+        lenient().when(itemCacheService.getItemsById(any())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return ids.stream().filter(KNOWN_ITEMS::contains).distinct()
+                    .collect(Collectors.toMap(Function.identity(), id -> ItemCacheDTO.builder().id(id).build()));
+        });
+        lenient().when(locationClient.getLocationById(anyString())).thenAnswer(invocation ->
+                LocationResponseDTO.builder().id(invocation.getArgument(0)).isActive(true).build());
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(inventoryBatchRepository.lockByItemAndLocation(any())).thenAnswer(invocation -> {
+            List<String[]> pairs = invocation.getArgument(0);
+            return pairs.stream().map(pair -> stored.get(pair[0] + "|" + pair[1])).filter(Objects::nonNull)
+                    .sorted(Comparator.comparing(Inventory::getId)).toList();
+        });
+        lenient().doAnswer(invocation -> {
+            Collection<Inventory> rows = invocation.getArgument(0);
+            rows.forEach(this::upsert);
+            return null;
+        }).when(inventoryBatchRepository).upsertAll(any());
+    }
+
+    @Test
+    void csvRowsAreWrittenChunkByChunkWithOneImportedEventPerChunk() {
+        InventoryImportReport report = importCsv("""
+                itemId,warehouseId,locationId,lotId,quantityOnHand,uom,status
+                item-1,wh-1,loc-1,"LOT,1",10,EA,AVAILABLE
+                item-2,wh-1,loc-1,,5.5,EA,AVAILABLE
+                item-3,wh-1,loc-2,,1,EA,AVAILABLE
+                """);
+
+        assertThat(report.getRowsRead()).isEqualTo(3);
+        assertThat(report.getRowsInserted()).isEqualTo(3);
+        assertThat(report.getRowsFailed()).isZero();
+        assertThat(report.getChunks()).isEqualTo(2);
+        assertThat(stored.get("item-1|loc-1").getLotId()).isEqualTo("LOT,1");
+
+        ArgumentCaptor<InventoryImportedEvent> events = ArgumentCaptor.forClass(InventoryImportedEvent.class);
+        verify(eventPublisher, times(2)).publishInventoryImported(events.capture());
+        assertThat(events.getAllValues()).extracting(InventoryImportedEvent::getChunk).containsExactly(1, 2);
+        assertThat(events.getAllValues()).extracting(InventoryImportedEvent::getRowsInserted).containsExactly(2, 1);
+        verify(locationOccupancyService).applyDelta("loc-1", 15.5);
+        verify(locationOccupancyService).applyDelta("loc-2", 1.0);
+    }
+
+    @Test
+    void invalidRowsAreReportedAndTheRestAreStillImported() {
+        InventoryImportReport report = importNdjson("""
+                {"itemId":"item-1","warehouseId":"wh-1","locationId":"loc-1","quantityOnHand":10,"uom":"EA","status":"AVAILABLE"}
+                {"itemId":"item-2","warehouseId":"wh-1","locationId":"loc-1","quantityOnHand":10,"status":"AVAILABLE"}
+
+                {"itemId":"item-9","warehouseId":"wh-1","locationId":"loc-1","quantityOnHand":10,"uom":"EA","status":"AVAILABLE"}
+                not json
+                {"itemId":"item-3","warehouseId":"wh-1","locationId":"loc-1","quantityOnHand":"ten","uom":"EA","status":"AVAILABLE"}
+                """);
+
+        assertThat(report.getRowsRead()).isEqualTo(5);
+        assertThat(report.getRowsInserted()).isEqualTo(1);
+        assertThat(report.getRowsFailed()).isEqualTo(4);
+        assertThat(report.getErrors()).extracting(RowError::getRow).containsExactly(2L, 3L, 4L, 5L);
+        assertThat(report.getErrors()).extracting(RowError::getMessage).satisfiesExactly(
+                message -> assertThat(message).startsWith("uom:"),
+                message -> assertThat(message).isEqualTo("Item not found in cache: item-9"),
+                message -> assertThat(message).startsWith("Not a JSON object"),
+                message -> assertThat(message).startsWith("Unreadable value"));
+        assertThat(stored).containsOnlyKeys("item-1|loc-1");
+    }
+
+    @Test
+    void existingRowsAndRepeatedKeysCountAsUpdates() {
+        upsert(inventory("existing-id", "item-1", "loc-1", 4.0, 3.0));
+
+        InventoryImportReport report = importNdjson("""
+                {"itemId":"item-1","warehouseId":"wh-1","locationId":"loc-1","quantityOnHand":6,"uom":"EA","status":"AVAILABLE"}
+                {"itemId":"item-1","warehouseId":"wh-1","locationId":"loc-1","quantityOnHand":9,"uom":"EA","status":"AVAILABLE"}
+                """);
+
+        assertThat(report.getRowsInserted()).isZero();
+        assertThat(report.getRowsUpdated()).isEqualTo(2);
+        Inventory row = stored.get("item-1|loc-1");
+        assertThat(row.getId()).isEqualTo("existing-id");
+        assertThat(row.getQuantityOnHand()).isEqualTo(9.0);
+        assertThat(row.getQuantityReserved()).isEqualTo(3.0);
+        verify(locationOccupancyService).applyDelta("loc-1", 5.0);
+        verify(eventPublisher).toEvent(row, "UPDATED", "Bulk import " + report.getImportId());
+    }
+
+    @Test
+    void rowsForAnInactiveLocationFailWithoutWritingTheChunk() {
+        when(locationClient.getLocationById("loc-9"))
+                .thenReturn(LocationResponseDTO.builder().id("loc-9").isActive(false).build());
+
+        InventoryImportReport report = importCsv("""
+                itemId,warehouseId,locationId,quantityOnHand,uom,status
+                item-1,wh-1,loc-9,10,EA,AVAILABLE
+                """);
+
+        assertThat(report.getRowsFailed()).isEqualTo(1);
+        assertThat(report.getErrors()).singleElement().extracting(RowError::getMessage)
+                .isEqualTo("Cannot add inventory to inactive location: loc-9");
+        assertThat(report.getChunks()).isZero();
+        verifyNoInteractions(transactionTemplate, eventPublisher);
+    }
+
+    @Test
+    void csvWithoutAHeaderIsRejected() {
+        assertThatThrownBy(() -> importCsv(""))
+                .isInstanceOf(InvalidOperationException.class)
+                .hasMessageContaining("header row is required");
+    }
+
+    private InventoryImportReport importCsv(String body) {
+        return service.importInventories(stream(body), "text/csv; charset=utf-8");
+    }
+
+    private InventoryImportReport importNdjson(String body) {
+        return service.importInventories(stream(body), "application/x-ndjson");
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void upsert(Inventory row) {
+        String key = row.getItemId() + "|" + row.getLocationId();
+        Inventory existing = stored.get(key);
+        Inventory written = inventory(existing != null ? existing.getId() : row.getId(), row.getItemId(),
+                row.getLocationId(), row.getQuantityOnHand(),
+                existing != null ? existing.getQuantityReserved() : row.getQuantityReserved());
+        written.setLotId(row.getLotId());
+        written.setVersion(existing != null ? existing.getVersion() + 1 : 0L);
+        stored.put(key, written);
+    }
+
+    private static Inventory inventory(String id, String itemId, String locationId, double onHand, double reserved) {
+        return Inventory.builder()
+                .id(id).itemId(itemId).warehouseId("wh-1").locationId(locationId)
+                .quantityOnHand(onHand).quantityReserved(reserved).quantityDamaged(0.0)
+                .uom("EA").status(InventoryStatus.AVAILABLE)
+                .build();
+    }
+}
@@ -0,0 +1,127 @@
+package com.stock.inventoryservice.service;
+
+import com.stock.inventoryservice.dto.request.ReorderThresholdRequest;
+import com.stock.inventoryservice.entity.ReorderThreshold;
+import com.stock.inventoryservice.entity.ReorderThresholdScope;
+import com.stock.inventoryservice.exception.InvalidOperationException;
+import com.stock.inventoryservice.repository.ReorderThresholdRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReorderThresholdServiceTest {
+
+    @Mock
+    private ReorderThresholdRepository thresholdRepository;
+
+    private ReorderThresholdService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ReorderThresholdService(thresholdRepository, 5.0, 10.0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+    }
+
+    @Test
+    void mostSpecificScopeWinsThenTheServiceDefaults() {
+        when(thresholdRepository.findAll()).thenReturn(List.of(
+                threshold(ReorderThresholdScope.ITEM_LOCATION, "item-1", "loc-1", null, 1.0, 2.0),
+                threshold(ReorderThresholdScope.ITEM, "item-1", null, null, 3.0, 4.0),
+                threshold(ReorderThresholdScope.WAREHOUSE, null, null, "wh-1", 20.0, 40.0)));
+
+        assertThat(service.resolve("item-1", "loc-1", "wh-1").getReorderPoint()).isEqualTo(2.0);
+        assertThat(service.resolve("item-1", "loc-2", "wh-1").getReorderPoint()).isEqualTo(4.0);
+        assertThat(service.resolve("item-2", "loc-1", "wh-1").getReorderPoint()).isEqualTo(40.0);
+        assertThat(service.resolve("item-2", "loc-1", null).getReorderPoint()).isEqualTo(10.0);
+        assertThat(service.resolve("item-2", "loc-1", "wh-2").getMinQuantity()).isEqualTo(5.0);
+        assertThat(service.highestReorderPoint()).isEqualTo(40.0);
+        verify(thresholdRepository, times(1)).findAll();
+    }
+
+    @Test
+    void highestReorderPointIsNeverBelowTheDefault() {
+        when(thresholdRepository.findAll()).thenReturn(List.of(
+                threshold(ReorderThresholdScope.ITEM, "item-1", null, null, 1.0, 2.0)));
+
+        assertThat(service.highestReorderPoint()).isEqualTo(10.0);
+    }
+
+    @Test
+    void upsertIsOnlyVisibleOnceTheTransactionCommits() {
+        when(thresholdRepository.findAll()).thenReturn(List.of());
+        when(thresholdRepository.findByScopeKey("ITEM:item-1")).thenReturn(Optional.empty());
+        when(thresholdRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.upsert(request(ReorderThresholdScope.ITEM, "item-1", null, 2.0, 30.0, null));
+
+        assertThat(service.resolve("item-1", "loc-1", "wh-1").getReorderPoint()).isEqualTo(10.0);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(service.resolve("item-1", "loc-1", "wh-1").getReorderPoint()).isEqualTo(30.0);
+        assertThat(service.resolve("item-2", "loc-1", "wh-1").getReorderPoint()).isEqualTo(10.0);
+    }
+
+    @Test
+    void reloadReplacesTheLocalCopy() {
+        when(thresholdRepository.findAll()).thenReturn(
+                List.of(threshold(ReorderThresholdScope.ITEM, "item-1", null, null, 1.0, 2.0)),
+                List.of());
+
+        assertThat(service.resolve("item-1", "loc-1", null).getReorderPoint()).isEqualTo(2.0);
+        service.reload();
+        assertThat(service.resolve("item-1", "loc-1", null).getReorderPoint()).isEqualTo(10.0);
+    }
+
+    @Test
+    void inconsistentThresholdsAreRejected() {
+        assertThatThrownBy(() -> service.upsert(request(ReorderThresholdScope.ITEM_LOCATION, "item-1", null, 1.0, 2.0, null)))
+                .isInstanceOf(InvalidOperationException.class)
+                .hasMessageContaining("Missing identifiers");
+        assertThatThrownBy(() -> service.upsert(request(ReorderThresholdScope.ITEM, "item-1", null, 5.0, 2.0, null)))
+                .isInstanceOf(InvalidOperationException.class)
+                .hasMessageContaining("cannot exceed the reorder point");
+        assertThatThrownBy(() -> service.upsert(request(ReorderThresholdScope.ITEM, "item-1", null, 1.0, 5.0, 4.0)))
+                .isInstanceOf(InvalidOperationException.class)
+                .hasMessageContaining("cannot be below the reorder point");
+        verify(thresholdRepository, never()).saveAndFlush(any());
+    }
+
+    private static ReorderThresholdRequest request(ReorderThresholdScope scope, String itemId, String locationId,
+                                                   double min, double reorderPoint, Double max) {
+        return ReorderThresholdRequest.builder()
+                .scope(scope).itemId(itemId).locationId(locationId)
+                .minQuantity(min).reorderPoint(reorderPoint).maxQuantity(max)
+                .build();
+    }
+
+    private static ReorderThreshold threshold(ReorderThresholdScope scope, String itemId, String locationId,
+                                              String warehouseId, double min, double reorderPoint) {
+        return ReorderThreshold.builder()
+                .scope(scope)
+                .scopeKey(ReorderThreshold.scopeKey(scope, itemId, locationId, warehouseId))
+                .itemId(itemId).locationId(locationId).warehouseId(warehouseId)
+                .minQuantity(min).reorderPoint(reorderPoint)
+                .build();
+    }
+}
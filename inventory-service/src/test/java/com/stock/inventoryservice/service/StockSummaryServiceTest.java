@@ -0,0 +1,126 @@
+package com.stock.inventoryservice.service;
+
+import com.stock.inventoryservice.entity.Inventory;
+import com.stock.inventoryservice.entity.InventoryStatus;
+import com.stock.inventoryservice.repository.InventoryRepository;
+import com.stock.inventoryservice.repository.ItemStockSummaryRepository;
+import com.stock.inventoryservice.repository.ItemWarehouseStockSummaryRepository;
+import com.stock.inventoryservice.service.StockSummaryService.Snapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class StockSummaryServiceTest {
+
+    @Mock
+    private ItemStockSummaryRepository itemSummaryRepository;
+    @Mock
+    private ItemWarehouseStockSummaryRepository warehouseSummaryRepository;
+    @Mock
+    private InventoryRepository inventoryRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private StockThresholdMonitor stockThresholdMonitor;
+
+    @InjectMocks
+    private StockSummaryService service;
+
+    @Test
+    void transferWithinAWarehouseNetsToTheLocationCountOnly() {
+        List<Snapshot> before = List.of(snapshot("inv-1", "item-1", "wh-1", 10.0, 2.0),
+                snapshot("inv-2", "item-1", "wh-1", 0.0, 0.0));
+        List<Snapshot> after = List.of(snapshot("inv-1", "item-1", "wh-1", 6.0, 2.0),
+                snapshot("inv-2", "item-1", "wh-1", 4.0, 0.0));
+
+        service.applyChanges(before, after);
+
+        verify(itemSummaryRepository).applyDelta("item-1", 0.0, 0.0, 0.0, 0.0, 1L);
+        verify(warehouseSummaryRepository).applyDelta("item-1", "wh-1", 0.0, 0.0, 0.0, 0.0, 1L);
+        verify(stockThresholdMonitor).evaluate(before, after);
+    }
+
+    @Test
+    void unchangedTotalsWriteNoSummaryRows() {
+        List<Snapshot> before = List.of(snapshot("inv-1", "item-1", "wh-1", 10.0, 2.0));
+        List<Snapshot> after = List.of(snapshot("inv-1", "item-1", "wh-1", 10.0, 2.0));
+
+        service.applyChanges(before, after);
+
+        verify(itemSummaryRepository, never()).applyDelta(anyString(), anyDouble(), anyDouble(), anyDouble(),
+                anyDouble(), anyLong());
+        verifyNoInteractions(warehouseSummaryRepository);
+    }
+
+    @Test
+    void transferAcrossWarehousesMovesTheWarehouseTotalsOnly() {
+        service.applyChanges(
+                List.of(snapshot("inv-1", "item-1", "wh-1", 10.0, 0.0), snapshot("inv-2", "item-1", "wh-2", 1.0, 0.0)),
+                List.of(snapshot("inv-1", "item-1", "wh-1", 7.0, 0.0), snapshot("inv-2", "item-1", "wh-2", 4.0, 0.0)));
+
+        verify(itemSummaryRepository, never()).applyDelta(anyString(), anyDouble(), anyDouble(), anyDouble(),
+                anyDouble(), anyLong());
+        InOrder order = inOrder(warehouseSummaryRepository);
+        order.verify(warehouseSummaryRepository).applyDelta("item-1", "wh-1", -3.0, 0.0, 0.0, -3.0, 0L);
+        order.verify(warehouseSummaryRepository).applyDelta("item-1", "wh-2", 3.0, 0.0, 0.0, 3.0, 0L);
+    }
+
+    @Test
+    void summaryRowsAreWrittenInKeyOrder() {
+        service.applyChanges(List.of(),
+                List.of(snapshot("inv-2", "item-b", "wh-1", 1.0, 0.0), snapshot("inv-1", "item-a", "wh-1", 1.0, 0.0)));
+
+        InOrder order = inOrder(itemSummaryRepository);
+        order.verify(itemSummaryRepository).applyDelta("item-a", 1.0, 0.0, 0.0, 1.0, 1L);
+        order.verify(itemSummaryRepository).applyDelta("item-b", 1.0, 0.0, 0.0, 1.0, 1L);
+    }
+
+    @Test
+    void reservedDeltaMovesReservedAndAvailableOnly() {
+        Inventory after = inventory(InventoryStatus.AVAILABLE, 10.0, 6.0);
+
+        service.applyReservedDelta(after, 2.0);
+
+        verify(itemSummaryRepository).applyDelta("item-1", 0.0, 2.0, 0.0, -2.0, 0L);
+    }
+
+    @Test
+    void rowsThatAreNotAvailableDoNotCountAsAvailable() {
+        Snapshot quarantined = Snapshot.of(inventory(InventoryStatus.QUARANTINED, 10.0, 2.0));
+
+        assertThat(quarantined.available()).isZero();
+        assertThat(quarantined.onHand()).isEqualTo(10.0);
+        assertThat(quarantined.locations()).isEqualTo(1);
+        assertThat(Snapshot.of(inventory(InventoryStatus.AVAILABLE, 0.0, 0.0)).locations()).isZero();
+    }
+
+    private static Snapshot snapshot(String inventoryId, String itemId, String warehouseId,
+                                     double onHand, double reserved) {
+        return new Snapshot(inventoryId, itemId, warehouseId, "loc-" + inventoryId, onHand, reserved, 0.0,
+                onHand - reserved, onHand > 0 ? 1 : 0);
+    }
+
+    private static Inventory inventory(InventoryStatus status, double onHand, double reserved) {
+        return Inventory.builder()
+                .id("inv-1").itemId("item-1").warehouseId("wh-1").locationId("loc-1")
+                .quantityOnHand(onHand).quantityReserved(reserved).quantityDamaged(0.0)
+                .status(status)
+                .build();
+    }
+}
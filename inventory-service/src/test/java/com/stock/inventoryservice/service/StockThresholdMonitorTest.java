@@ -0,0 +1,143 @@
+package com.stock.inventoryservice.service;
+
+import com.stock.inventoryservice.client.AlertClient;
+import com.stock.inventoryservice.dto.cache.ItemCacheDTO;
+import com.stock.inventoryservice.entity.ReorderThreshold;
+import com.stock.inventoryservice.entity.StockAlertLevel;
+import com.stock.inventoryservice.event.EventPublisher;
+import com.stock.inventoryservice.event.StockBelowThresholdEvent;
+import com.stock.inventoryservice.service.StockSummaryService.Snapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Threshold for every row: critical below 5, warning below 10, refill to 50
+ */
+@ExtendWith(MockitoExtension.class)
+class StockThresholdMonitorTest {
+
+    @Mock
+    private ReorderThresholdService reorderThresholdService;
+    @Mock
+    private ItemCacheService itemCacheService;
+    @Mock
+    private EventPublisher eventPublisher;
+    @Mock
+    private AlertClient alertClient;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private StockThresholdMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        monitor = new StockThresholdMonitor(reorderThresholdService, itemCacheService, eventPublisher, alertClient,
+                meterRegistry);
+        lenient().when(reorderThresholdService.resolve(anyString(), anyString(), anyString()))
+                .thenReturn(ReorderThreshold.builder().minQuantity(5.0).reorderPoint(10.0).maxQuantity(50.0).build());
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+    }
+
+    @Test
+    void droppingBelowTheReorderPointAlertsOnceAfterCommit() {
+        when(itemCacheService.getItemsById(List.of("item-1")))
+                .thenReturn(Map.of("item-1", ItemCacheDTO.builder().id("item-1").name("Widget").sku("W-1").build()));
+
+        monitor.evaluate(List.of(snapshot(12.0, 0.0)), List.of(snapshot(12.0, 4.0)));
+        verifyNoInteractions(eventPublisher, alertClient);
+        commit();
+
+        ArgumentCaptor<StockBelowThresholdEvent> event = ArgumentCaptor.forClass(StockBelowThresholdEvent.class);
+        verify(eventPublisher).publishStockBelowThreshold(event.capture());
+        assertThat(event.getValue().getAlertLevel()).isEqualTo("WARNING");
+        assertThat(event.getValue().getPreviousAlertLevel()).isEqualTo("NORMAL");
+        assertThat(event.getValue().getCurrentQuantity()).isEqualTo(8.0);
+        assertThat(event.getValue().getThreshold()).isEqualTo(10.0);
+        assertThat(event.getValue().getReorderQuantity()).isEqualTo(42.0);
+        assertThat(event.getValue().getItemName()).isEqualTo("Widget");
+        verify(alertClient).createLowStockAlert("item-1", "loc-1", 8.0, 10.0, StockAlertLevel.WARNING);
+        assertThat(meterRegistry.get("inventory.lowstock.crossings").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void stayingAtTheSameLevelOrRecoveringRaisesNothing() {
+        monitor.evaluate(List.of(snapshot(8.0, 0.0)), List.of(snapshot(7.0, 0.0)));
+        monitor.evaluate(List.of(snapshot(3.0, 0.0)), List.of(snapshot(8.0, 0.0)));
+        monitor.evaluate(List.of(snapshot(8.0, 0.0)), List.of(snapshot(20.0, 0.0)));
+
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+    }
+
+    @Test
+    void warningDroppingToCriticalAlertsAgainAgainstTheMinimum() {
+        monitor.evaluate(List.of(snapshot(8.0, 0.0)), List.of(snapshot(4.0, 0.0)));
+        commit();
+
+        ArgumentCaptor<StockBelowThresholdEvent> event = ArgumentCaptor.forClass(StockBelowThresholdEvent.class);
+        verify(eventPublisher).publishStockBelowThreshold(event.capture());
+        assertThat(event.getValue().getAlertLevel()).isEqualTo("CRITICAL");
+        assertThat(event.getValue().getPreviousAlertLevel()).isEqualTo("WARNING");
+        assertThat(event.getValue().getThreshold()).isEqualTo(5.0);
+    }
+
+    @Test
+    void newRowStartsFromNormal() {
+        monitor.evaluate(List.of(), List.of(snapshot(2.0, 0.0)));
+        commit();
+
+        verify(alertClient).createLowStockAlert("item-1", "loc-1", 2.0, 5.0, StockAlertLevel.CRITICAL);
+    }
+
+    @Test
+    void rolledBackChangeRaisesNothing() {
+        monitor.evaluate(List.of(snapshot(12.0, 0.0)), List.of(snapshot(2.0, 0.0)));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verifyNoInteractions(eventPublisher, alertClient, itemCacheService);
+    }
+
+    @Test
+    void itemLookupFailureStillSendsTheAlert() {
+        when(itemCacheService.getItemsById(any())).thenThrow(new IllegalStateException("cache down"));
+
+        monitor.evaluate(List.of(snapshot(12.0, 0.0)), List.of(snapshot(2.0, 0.0)));
+        commit();
+
+        ArgumentCaptor<StockBelowThresholdEvent> event = ArgumentCaptor.forClass(StockBelowThresholdEvent.class);
+        verify(eventPublisher).publishStockBelowThreshold(event.capture());
+        assertThat(event.getValue().getItemName()).isNull();
+    }
+
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    }
+
+    private static Snapshot snapshot(double onHand, double reserved) {
+        return new Snapshot("inv-1", "item-1", "wh-1", "loc-1", onHand, reserved, 0.0, onHand - reserved,
+                onHand > 0 ? 1 : 0);
+    }
+}
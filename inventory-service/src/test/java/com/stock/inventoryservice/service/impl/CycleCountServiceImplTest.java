@@ -0,0 +1,202 @@
+package com.stock.inventoryservice.service.impl;
+
+import com.stock.inventoryservice.dto.CycleCountBatchDTO;
+import com.stock.inventoryservice.dto.CycleCountReconciliationResult;
+import com.stock.inventoryservice.entity.CycleCountSession;
+import com.stock.inventoryservice.entity.CycleCountSessionStatus;
+import com.stock.inventoryservice.entity.Inventory;
+import com.stock.inventoryservice.entity.InventoryStatus;
+import com.stock.inventoryservice.exception.InvalidOperationException;
+import com.stock.inventoryservice.exception.ResourceNotFoundException;
+import com.stock.inventoryservice.repository.CycleCountBatchRepository;
+import com.stock.inventoryservice.repository.CycleCountLineRepository;
+import com.stock.inventoryservice.repository.CycleCountSessionRepository;
+import com.stock.inventoryservice.repository.InventoryBatchRepository;
+import com.stock.inventoryservice.service.InventoryChangeFeed;
+import com.stock.inventoryservice.service.LocationOccupancyService;
+import com.stock.inventoryservice.service.StockSummaryService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CycleCountServiceImplTest {
+
+    private static final String SESSION_ID = "session-1";
+
+    @Mock
+    private CycleCountSessionRepository sessionRepository;
+    @Mock
+    private CycleCountLineRepository lineRepository;
+    @Mock
+    private CycleCountBatchRepository cycleCountBatchRepository;
+    @Mock
+    private InventoryBatchRepository inventoryBatchRepository;
+    @Mock
+    private LocationOccupancyService locationOccupancyService;
+    @Mock
+    private StockSummaryService stockSummaryService;
+    @Mock
+    private InventoryChangeFeed changeFeed;
+    @Mock
+    private InventoryEventPublisher eventPublisher;
+
+    @InjectMocks
+    private CycleCountServiceImpl service;
+
+    @Test
+    void reconcileBatchNetsVariancesInMicroUnits() {
+        CycleCountSession session = session(1);
+        when(sessionRepository.findByIdForUpdate(SESSION_ID)).thenReturn(Optional.of(session));
+        Map<String, Double> variances = new LinkedHashMap<>();
+        variances.put("inv-1", 0.1);
+        variances.put("inv-2", 0.2);
+        variances.put("inv-3", -5.0);
+        variances.put("inv-4", 0.0);
+        variances.put("inv-deleted", 1.0);
+        when(cycleCountBatchRepository.computeVariances(SESSION_ID, 1)).thenReturn(variances);
+        Inventory one = inventory("inv-1", "loc-a", 1.1);
+        Inventory two = inventory("inv-2", "loc-a", 2.0);
+        Inventory three = inventory("inv-3", "loc-b", 3.0);
+        Inventory four = inventory("inv-4", "loc-b", 7.0);
+        Map<String, Inventory> rows = rows(one, two, three, four);
+        when(inventoryBatchRepository.lockByIds(variances.keySet())).thenReturn(rows);
+        when(cycleCountBatchRepository.skipPending(SESSION_ID, 1)).thenReturn(2);
+
+        CycleCountReconciliationResult result = service.reconcileBatch(SESSION_ID, 1);
+
+        assertThat(one.getQuantityOnHand()).isEqualTo(1.2);
+        assertThat(two.getQuantityOnHand()).isEqualTo(2.2);
+        assertThat(three.getQuantityOnHand()).isZero();
+        assertThat(four.getQuantityOnHand()).isEqualTo(7.0);
+        assertThat(rows.values()).allSatisfy(row -> assertThat(row.getLastCountDate()).isEqualTo(LocalDate.now()));
+
+        assertThat(result.getLinesApplied()).isEqualTo(4);
+        assertThat(result.getLinesSkipped()).isEqualTo(3);
+        assertThat(result.getLinesWithVariance()).isEqualTo(3);
+        assertThat(result.getNetVariance()).isEqualTo(-4.7);
+        assertThat(result.getAbsoluteVariance()).isEqualTo(5.3);
+        assertThat(session.getLinesApplied()).isEqualTo(4L);
+
+        // Per-location deltas, in location order; the clamped row only gives back what it had
+        InOrder order = inOrder(locationOccupancyService);
+        order.verify(locationOccupancyService).applyDelta("loc-a", 0.3);
+        order.verify(locationOccupancyService).applyDelta("loc-b", -3.0);
+        verify(inventoryBatchRepository).updateQuantities(rows.values());
+        verify(stockSummaryService).applyChanges(any(), any());
+        verify(changeFeed).recordChanged(rows.values());
+        verify(cycleCountBatchRepository).markApplied(SESSION_ID, 1);
+        Stream.of(one, two, three).forEach(row ->
+                verify(eventPublisher).publishInventoryChange(row, "ADJUSTED", "Cycle count session-1 batch 1"));
+        verify(eventPublisher, never()).publishInventoryChange(eq(four), anyString(), anyString());
+    }
+
+    @Test
+    void reconcileBatchRejectsABatchThatWasNeverFrozen() {
+        when(sessionRepository.findByIdForUpdate(SESSION_ID)).thenReturn(Optional.of(session(1)));
+
+        assertThatThrownBy(() -> service.reconcileBatch(SESSION_ID, 2))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verifyNoInteractions(cycleCountBatchRepository, inventoryBatchRepository);
+    }
+
+    @Test
+    void reconcileBatchRejectsAClosedSession() {
+        CycleCountSession session = session(1);
+        session.setStatus(CycleCountSessionStatus.COMPLETED);
+        when(sessionRepository.findByIdForUpdate(SESSION_ID)).thenReturn(Optional.of(session));
+
+        assertThatThrownBy(() -> service.reconcileBatch(SESSION_ID, 1))
+                .isInstanceOf(InvalidOperationException.class);
+    }
+
+    @Test
+    void fullBatchIsExtendedToTheEndOfItsLastLocation() {
+        CycleCountSession session = session(0);
+        when(sessionRepository.findByIdForUpdate(SESSION_ID)).thenReturn(Optional.of(session));
+        when(sessionRepository.findById(SESSION_ID)).thenReturn(Optional.of(session));
+        when(cycleCountBatchRepository.freeze(SESSION_ID, 1, "wh-1", session.getCountedBefore(), "", "", 2))
+                .thenReturn(2);
+        when(cycleCountBatchRepository.findLastKey(SESSION_ID, 1))
+                .thenReturn(new String[]{"loc-a", "inv-2"}, new String[]{"loc-a", "inv-3"});
+        when(cycleCountBatchRepository.freezeRestOfLocation(SESSION_ID, 1, "wh-1", session.getCountedBefore(),
+                "loc-a", "inv-2")).thenReturn(1);
+
+        CycleCountBatchDTO batch = service.freezeNextBatch(SESSION_ID);
+
+        assertThat(batch.getBatchNo()).isEqualTo(1);
+        assertThat(session.getBatchesFrozen()).isEqualTo(1);
+        assertThat(session.getLinesFrozen()).isEqualTo(3L);
+        assertThat(session.getLastLocationId()).isEqualTo("loc-a");
+        assertThat(session.getLastInventoryId()).isEqualTo("inv-3");
+        assertThat(session.getExhausted()).isFalse();
+    }
+
+    @Test
+    void shortBatchExhaustsTheSession() {
+        CycleCountSession session = session(0);
+        when(sessionRepository.findByIdForUpdate(SESSION_ID)).thenReturn(Optional.of(session));
+        when(sessionRepository.findById(SESSION_ID)).thenReturn(Optional.of(session));
+        when(cycleCountBatchRepository.freeze(SESSION_ID, 1, "wh-1", session.getCountedBefore(), "", "", 2))
+                .thenReturn(1);
+        when(cycleCountBatchRepository.findLastKey(SESSION_ID, 1)).thenReturn(new String[]{"loc-a", "inv-1"});
+
+        service.freezeNextBatch(SESSION_ID);
+
+        assertThat(session.getExhausted()).isTrue();
+        assertThat(session.getLinesFrozen()).isEqualTo(1L);
+        verify(cycleCountBatchRepository, never()).freezeRestOfLocation(any(), anyInt(), any(), any(), any(), any());
+    }
+
+    private static CycleCountSession session(int batchesFrozen) {
+        return CycleCountSession.builder()
+                .id(SESSION_ID)
+                .warehouseId("wh-1")
+                .countedBefore(LocalDate.now())
+                .batchSize(2)
+                .status(CycleCountSessionStatus.OPEN)
+                .batchesFrozen(batchesFrozen)
+                .linesFrozen(0L)
+                .linesApplied(0L)
+                .lastLocationId("")
+                .lastInventoryId("")
+                .exhausted(false)
+                .build();
+    }
+
+    private static Map<String, Inventory> rows(Inventory... inventories) {
+        Map<String, Inventory> rows = new LinkedHashMap<>();
+        List.of(inventories).forEach(inventory -> rows.put(inventory.getId(), inventory));
+        return rows;
+    }
+
+    private static Inventory inventory(String id, String locationId, double onHand) {
+        return Inventory.builder()
+                .id(id).itemId("item-1").warehouseId("wh-1").locationId(locationId)
+                .quantityOnHand(onHand).quantityReserved(0.0).quantityDamaged(0.0)
+                .status(InventoryStatus.AVAILABLE)
+                .build();
+    }
+}
@@ -0,0 +1,157 @@
+package com.stock.inventoryservice.service.impl;
+
+import com.stock.inventoryservice.client.AlertClient;
+import com.stock.inventoryservice.client.LocationClient;
+import com.stock.inventoryservice.dto.CursorPage;
+import com.stock.inventoryservice.dto.InventoryDTO;
+import com.stock.inventoryservice.dto.InventoryWithItemDTO;
+import com.stock.inventoryservice.entity.Inventory;
+import com.stock.inventoryservice.entity.InventoryStatus;
+import com.stock.inventoryservice.exception.InvalidOperationException;
+import com.stock.inventoryservice.repository.InventoryRepository;
+import com.stock.inventoryservice.service.AvailabilityIndex;
+import com.stock.inventoryservice.service.ExpiryCalendar;
+import com.stock.inventoryservice.service.InventoryChangeFeed;
+import com.stock.inventoryservice.service.ItemCacheService;
+import com.stock.inventoryservice.service.LocationOccupancyService;
+import com.stock.inventoryservice.service.LowStockScanService;
+import com.stock.inventoryservice.service.ReorderThresholdService;
+import com.stock.inventoryservice.service.StockSummaryService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryServiceImplTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+    @Mock
+    private ItemCacheService itemCacheService;
+    @Mock
+    private InventoryEventPublisher eventPublisher;
+    @Mock
+    private LocationClient locationClient;
+    @Mock
+    private AlertClient alertClient;
+    @Mock
+    private LocationOccupancyService locationOccupancyService;
+    @Mock
+    private LowStockScanService lowStockScanService;
+    @Mock
+    private ReorderThresholdService reorderThresholdService;
+    @Mock
+    private AvailabilityIndex availabilityIndex;
+    @Mock
+    private StockSummaryService stockSummaryService;
+    @Mock
+    private InventoryChangeFeed changeFeed;
+    @Mock
+    private ExpiryCalendar expiryCalendar;
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private InventoryServiceImpl service;
+
+    @Test
+    void keysetPageFetchesOneExtraRowAndHandsBackTheLastIdAsCursor() {
+        when(inventoryRepository.findByWarehouseIdAndIdGreaterThan(eq("wh-1"), eq(""), any(Pageable.class)))
+                .thenReturn(inventories("a", "b", "c"));
+
+        CursorPage<InventoryDTO> page = service.getInventoriesPage("wh-1", null, null, 2);
+
+        assertThat(page.getItems()).extracting(InventoryDTO::getId).containsExactly("a", "b");
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(page.getNextCursor()).isNotNull();
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(inventoryRepository).findByWarehouseIdAndIdGreaterThan(eq("wh-1"), eq(""), pageable.capture());
+        assertThat(pageable.getValue().getPageSize()).isEqualTo(3);
+        assertThat(pageable.getValue().getSort().getOrderFor("id")).isNotNull();
+
+        when(inventoryRepository.findByWarehouseIdAndIdGreaterThan(eq("wh-1"), eq("b"), any(Pageable.class)))
+                .thenReturn(inventories("c"));
+
+        CursorPage<InventoryDTO> last = service.getInventoriesPage("wh-1", null, page.getNextCursor(), 2);
+
+        assertThat(last.getItems()).extracting(InventoryDTO::getId).containsExactly("c");
+        assertThat(last.isHasMore()).isFalse();
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    @Test
+    void keysetPageSizeIsCapped() {
+        when(inventoryRepository.findByIdGreaterThan(eq(""), any(Pageable.class))).thenReturn(List.of());
+
+        service.getInventoriesPage(null, null, null, 50_000);
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(inventoryRepository).findByIdGreaterThan(eq(""), pageable.capture());
+        assertThat(pageable.getValue().getPageSize()).isEqualTo(1001);
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> service.getInventoriesPage(null, "loc-1", "not base64!", 10))
+                .isInstanceOf(InvalidOperationException.class);
+    }
+
+    @Test
+    void streamWritesEveryRowInOrderAndDetachesIt() {
+        List<Inventory> rows = inventories("a", "b", "c");
+        when(inventoryRepository.streamByLocationId("loc-1")).thenReturn(rows.stream());
+
+        List<String> written = new ArrayList<>();
+        service.streamInventories(null, "loc-1", dto -> written.add(dto.getId()));
+
+        assertThat(written).containsExactly("a", "b", "c");
+        rows.forEach(row -> verify(entityManager).detach(row));
+    }
+
+    @Test
+    void enrichedStreamResolvesItemsOncePerChunk() {
+        List<Inventory> rows = inventories(IntStream.range(0, 501).mapToObj(i -> String.format("%04d", i))
+                .toArray(String[]::new));
+        when(inventoryRepository.streamAll()).thenReturn(Stream.of(rows.toArray(Inventory[]::new)));
+        when(itemCacheService.getItemsById(anyList())).thenReturn(Map.of());
+
+        List<InventoryWithItemDTO> written = new ArrayList<>();
+        service.streamInventoriesWithItems(null, null, written::add);
+
+        assertThat(written).hasSize(501);
+        verify(itemCacheService, times(2)).getItemsById(anyList());
+    }
+
+    private static List<Inventory> inventories(String... ids) {
+        List<Inventory> rows = new ArrayList<>();
+        for (String id : ids) {
+            rows.add(Inventory.builder()
+                    .id(id).itemId("item-1").warehouseId("wh-1").locationId("loc-1")
+                    .quantityOnHand(1.0).quantityReserved(0.0).quantityDamaged(0.0)
+                    .status(InventoryStatus.AVAILABLE)
+                    .build());
+        }
+        return rows;
+    }
+}
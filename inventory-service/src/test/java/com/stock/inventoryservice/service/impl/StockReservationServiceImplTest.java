@@ -0,0 +1,164 @@
+package com.stock.inventoryservice.service.impl;
+
+import com.stock.inventoryservice.dto.BulkReservationResult;
+import com.stock.inventoryservice.dto.request.BulkReservationRequest;
+import com.stock.inventoryservice.entity.Inventory;
+import com.stock.inventoryservice.entity.InventoryStatus;
+import com.stock.inventoryservice.entity.Reservation;
+import com.stock.inventoryservice.entity.ReservationStatus;
+import com.stock.inventoryservice.repository.InventoryBatchRepository;
+import com.stock.inventoryservice.repository.InventoryRepository;
+import com.stock.inventoryservice.repository.ReservationRepository;
+import com.stock.inventoryservice.service.InventoryChangeFeed;
+import com.stock.inventoryservice.service.LocationOccupancyService;
+import com.stock.inventoryservice.service.ReservationExpiryService;
+import com.stock.inventoryservice.service.StockSummaryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceImplTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+    @Mock
+    private InventoryBatchRepository inventoryBatchRepository;
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private ReservationExpiryService expiryService;
+    @Mock
+    private StockSummaryService stockSummaryService;
+    @Mock
+    private LocationOccupancyService locationOccupancyService;
+    @Mock
+    private InventoryChangeFeed changeFeed;
+    @Mock
+    private InventoryEventPublisher eventPublisher;
+
+    @InjectMocks
+    private StockReservationServiceImpl service;
+
+    private Inventory inventory;
+    private Reservation reservation;
+
+    @BeforeEach
+    void setUp() {
+        inventory = Inventory.builder()
+                .id("inv-1").version(1L).itemId("item-1").warehouseId("wh-1").locationId("loc-1")
+                .quantityOnHand(10.0).quantityReserved(4.0).quantityDamaged(0.0)
+                .status(InventoryStatus.AVAILABLE)
+                .build();
+        reservation = Reservation.builder()
+                .id("res-1").inventoryId("inv-1").quantity(4.0).status(ReservationStatus.ACTIVE)
+                .build();
+    }
+
+    @Test
+    void fullFulfillLowersOccupancyOfTheLocation() {
+        stubFulfill();
+
+        service.fulfillReservation("res-1");
+
+        verify(locationOccupancyService).applyDelta("loc-1", -4.0);
+        assertThat(inventory.getQuantityOnHand()).isEqualTo(6.0);
+        assertThat(inventory.getQuantityReserved()).isZero();
+        assertThat(reservation.getStatus()).isEqualTo(ReservationStatus.FULFILLED);
+    }
+
+    @Test
+    void partialFulfillLowersOccupancyByTheFulfilledQuantity() {
+        stubFulfill();
+
+        service.fulfillReservation("inv-1", new BigDecimal("1.5"), "res-1");
+
+        verify(locationOccupancyService).applyDelta("loc-1", -1.5);
+        assertThat(inventory.getQuantityOnHand()).isEqualTo(8.5);
+        assertThat(inventory.getQuantityReserved()).isEqualTo(2.5);
+        assertThat(reservation.getQuantity()).isEqualTo(2.5);
+        assertThat(reservation.getStatus()).isEqualTo(ReservationStatus.ACTIVE);
+    }
+
+    @Test
+    void allOrNothingBulkReservationWritesNothingWhenOneLineDoesNotFit() {
+        when(inventoryBatchRepository.lockByIds(List.of("inv-1", "inv-2", "missing")))
+                .thenReturn(Map.of("inv-1", inventory, "inv-2", secondRow(3.0)));
+
+        BulkReservationResult result = service.reserveBulk(bulk(true,
+                line("inv-1", 5.0), line("inv-2", 4.0), line("missing", 1.0)));
+
+        assertThat(result.isCommitted()).isFalse();
+        assertThat(result.getReservedLines()).isZero();
+        assertThat(result.getFailedLines()).isEqualTo(2);
+        assertThat(result.getLines()).noneMatch(BulkReservationResult.Line::isReserved);
+        assertThat(result.getLines()).allMatch(line -> line.getReservationId() == null);
+        verify(inventoryBatchRepository, never()).updateQuantities(anyCollection());
+        verifyNoInteractions(reservationRepository, eventPublisher, stockSummaryService);
+    }
+
+    @Test
+    void partialBulkReservationReservesTheLinesThatFitInRequestOrder() {
+        when(inventoryBatchRepository.lockByIds(List.of("inv-1", "inv-1", "inv-2")))
+                .thenReturn(Map.of("inv-1", inventory, "inv-2", secondRow(3.0)));
+
+        BulkReservationResult result = service.reserveBulk(bulk(false,
+                line("inv-1", 4.0), line("inv-1", 4.0), line("inv-2", 3.0)));
+
+        assertThat(result.isCommitted()).isTrue();
+        assertThat(result.getLines()).extracting(BulkReservationResult.Line::isReserved)
+                .containsExactly(true, false, true);
+        assertThat(result.getLines().get(1).getAvailableQuantity()).isEqualTo(2.0);
+        assertThat(inventory.getQuantityReserved()).isEqualTo(8.0);
+        verify(inventoryBatchRepository).updateQuantities(argThat(rows -> rows.size() == 2));
+        verify(reservationRepository).saveAll(argThat(reservations -> ((List<?>) reservations).size() == 2));
+        verify(eventPublisher, times(2)).publishInventoryChange(any(Inventory.class), eq("RESERVED"), anyString());
+    }
+
+    private void stubFulfill() {
+        when(reservationRepository.findByIdForUpdate("res-1")).thenReturn(Optional.of(reservation));
+        when(inventoryRepository.findById("inv-1")).thenReturn(Optional.of(inventory));
+        when(inventoryRepository.saveAndFlush(any(Inventory.class))).thenAnswer(call -> call.getArgument(0));
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(call -> call.getArgument(0));
+    }
+
+    private static Inventory secondRow(double onHand) {
+        return Inventory.builder()
+                .id("inv-2").version(1L).itemId("item-2").warehouseId("wh-1").locationId("loc-2")
+                .quantityOnHand(onHand).quantityReserved(0.0).quantityDamaged(0.0)
+                .status(InventoryStatus.AVAILABLE)
+                .build();
+    }
+
+    private static BulkReservationRequest bulk(boolean allOrNothing, BulkReservationRequest.Line... lines) {
+        return BulkReservationRequest.builder()
+                .referenceType("ORDER").referenceId("order-1")
+                .allOrNothing(allOrNothing).ttlSeconds(60L)
+                .lines(List.of(lines))
+                .build();
+    }
+
+    private static BulkReservationRequest.Line line(String inventoryId, double quantity) {
+        return BulkReservationRequest.Line.builder().inventoryId(inventoryId).quantity(quantity).build();
+    }
+}
@@ -170,8 +170,10 @@ public class LocationServiceImpl implements LocationService {
         log.info("Location updated successfully with ID: {}", updatedLocation.getId());
 
         String warehouseName = getWarehouseName(updatedLocation.getWarehouseId());
+        LocationDTO dto = mapToDTO(updatedLocation, warehouseName);
+        eventPublisher.publishLocationUpdated(dto);
 
-        return mapToDTO(updatedLocation, warehouseName);
+        return dto;
     }
 
     @Override
@@ -183,6 +185,7 @@ public class LocationServiceImpl implements LocationService {
 
         locationRepository.delete(location);
         log.info("Location deleted successfully with ID: {}", id);
+        eventPublisher.publishLocationDeleted(id);
     }
 
     @Override
@@ -193,8 +196,9 @@ public class LocationServiceImpl implements LocationService {
                 .orElseThrow(() -> new RuntimeException("Location not found with ID: " + id));
 
         location.setIsActive(true);
-        locationRepository.save(location);
+        Location savedLocation = locationRepository.save(location);
         log.info("Location activated successfully with ID: {}", id);
+        eventPublisher.publishLocationUpdated(mapToDTO(savedLocation, getWarehouseName(savedLocation.getWarehouseId())));
     }
 
     @Override
@@ -205,8 +209,9 @@ public class LocationServiceImpl implements LocationService {
                 .orElseThrow(() -> new RuntimeException("Location not found with ID: " + id));
 
         location.setIsActive(false);
-        locationRepository.save(location);
+        Location savedLocation = locationRepository.save(location);
         log.info("Location deactivated successfully with ID: {}", id);
+        eventPublisher.publishLocationUpdated(mapToDTO(savedLocation, getWarehouseName(savedLocation.getWarehouseId())));
     }
 
     // Helper methods
@@ -1,5 +1,8 @@
 package com.stock.movementservice.client;
 
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
@@ -13,6 +16,10 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * 🔥 Client to communicate with Inventory Service
  * Checks stock availability before movement execution
@@ -98,6 +105,47 @@ public class InventoryClient {
         }
     }
 
+    /**
+     * ✅ Get available quantities for many (item, location) pairs in one round-trip
+     * Returns available quantity keyed by "itemId|locationId"
+     */
+    public Map<String, Double> getAvailableQuantities(List<AvailabilityLine> lines) {
+        log.debug("Getting available quantities for {} lines", lines.size());
+
+        try {
+            String url = inventoryServiceUrl + "/api/inventory/availability/batch";
+
+            // Create headers with Bearer token
+            HttpHeaders headers = createHeadersWithToken();
+            HttpEntity<AvailabilityBatchRequest> entity = new HttpEntity<>(new AvailabilityBatchRequest(lines), headers);
+
+            ResponseEntity<AvailabilityBatchResult> response = restTemplate.exchange(
+                    url,
+                    HttpMethod.POST,
+                    entity,
+                    AvailabilityBatchResult.class
+            );
+
+            Map<String, Double> available = new HashMap<>();
+            AvailabilityBatchResult result = response.getBody();
+            if (result != null && result.getLines() != null) {
+                for (AvailabilityLine line : result.getLines()) {
+                    available.put(key(line.getItemId(), line.getLocationId()),
+                            line.getAvailableQuantity() != null ? line.getAvailableQuantity() : 0.0);
+                }
+            }
+            log.debug("Available quantities: {}", available);
+            return available;
+        } catch (Exception e) {
+            log.error("Error getting available quantities", e);
+            throw new RuntimeException("Failed to get available quantities: " + e.getMessage());
+        }
+    }
+
+    public static String key(String itemId, String locationId) {
+        return itemId + "|" + locationId;
+    }
+
     /**
      * 🔥 Create HTTP headers with Bearer token from security context
      */
@@ -124,4 +172,36 @@ public class InventoryClient {
 
         return headers;
     }
+
+    /**
+     * One line of a batch availability check (request and response)
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AvailabilityLine {
+        private String itemId;
+        private String locationId;
+        private Double requestedQuantity;
+        private Double availableQuantity;
+
+        public AvailabilityLine(String itemId, String locationId, Double requestedQuantity) {
+            this(itemId, locationId, requestedQuantity, null);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AvailabilityBatchRequest {
+        private List<AvailabilityLine> lines;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AvailabilityBatchResult {
+        private boolean allAvailable;
+        private List<AvailabilityLine> lines;
+    }
 }
@@ -2,9 +2,12 @@ package com.stock.movementservice.event;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.UUID;
+
 /**
  * 🔥 REAL KAFKA EVENT PUBLISHER
  * Sends events to actual Kafka topics (not internal Spring events)
@@ -22,6 +25,9 @@ public class MovementKafkaEventPublisher {
     private static final String MOVEMENT_CANCELLED_TOPIC = "movement.cancelled";
     private static final String MOVEMENT_STATUS_CHANGED_TOPIC = "movement.status.changed";
 
+    @Value("${movement.events.completed-partition-key:WAREHOUSE}")
+    private MovementPartitionKey completedPartitionKey;
+
     /**
      * Publish movement created event to Kafka
      */
@@ -44,12 +50,15 @@ public class MovementKafkaEventPublisher {
 
     /**
      * 🔥 Publish movement completed event to Kafka
+     * Keyed by movement.events.completed-partition-key, so movements touching the same
+     * stock rows reach inventory-service in order, on one partition
      */
     public void publishMovementCompletedEvent(MovementCompletedEvent event) {
-        log.info("📤 Publishing movement.completed to Kafka: {}", event.getMovementId());
+        String key = completedKey(event);
+        log.info("📤 Publishing movement.completed to Kafka: {} (key {})", event.getMovementId(), key);
         
         try {
-            kafkaTemplate.send(MOVEMENT_COMPLETED_TOPIC, event.getMovementId().toString(), event)
+            kafkaTemplate.send(MOVEMENT_COMPLETED_TOPIC, key, event)
                     .whenComplete((result, ex) -> {
                         if (ex == null) {
                             log.info("✅ Successfully published movement.completed to Kafka offset: {}", 
@@ -66,6 +75,35 @@ public class MovementKafkaEventPublisher {
         }
     }
 
+    /**
+     * Record key of a movement.completed event; falls back to the next coarser key
+     * (then to the movement id) when the event lacks the fields
+     */
+    private String completedKey(MovementCompletedEvent event) {
+        if (completedPartitionKey == MovementPartitionKey.ITEM_LOCATION
+                && event.getLines() != null && !event.getLines().isEmpty()) {
+            MovementCompletedEvent.MovementLineData line = event.getLines().get(0);
+            UUID locationId = firstNonNull(line.getFromLocationId(), event.getSourceLocationId(),
+                    line.getToLocationId(), event.getDestinationLocationId());
+            if (line.getItemId() != null && locationId != null) {
+                return line.getItemId() + "|" + locationId;
+            }
+        }
+        if (completedPartitionKey != MovementPartitionKey.MOVEMENT && event.getWarehouseId() != null) {
+            return event.getWarehouseId().toString();
+        }
+        return event.getMovementId().toString();
+    }
+
+    private static UUID firstNonNull(UUID... ids) {
+        for (UUID id : ids) {
+            if (id != null) {
+                return id;
+            }
+        }
+        return null;
+    }
+
     /**
      * Publish movement cancelled event to Kafka
      */
@@ -0,0 +1,11 @@
+package com.stock.movementservice.event;
+
+/**
+ * Record key of movement.completed, which decides the partition (and so the ordering)
+ * of each movement. Consumers only see movements in order when they share a key.
+ */
+public enum MovementPartitionKey {
+    MOVEMENT,       // movementId: spreads evenly, no ordering between movements
+    WAREHOUSE,      // warehouseId: every movement of a warehouse in order (stock rows never span warehouses)
+    ITEM_LOCATION   // First line's item and location: finer spread, orders single-line movements per row only
+}
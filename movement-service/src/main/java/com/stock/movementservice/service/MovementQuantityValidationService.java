@@ -12,6 +12,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 🔥 Service to validate inventory quantities before movement execution
@@ -36,6 +37,7 @@ public class MovementQuantityValidationService {
         // Only validate for movements that REDUCE inventory
         if (requiresQuantityValidation(type)) {
             List<String> errors = new ArrayList<>();
+            List<LineToCheck> linesToCheck = new ArrayList<>();
 
             for (MovementLineRequestDto line : request.getLines()) {
                 String locationId = determineSourceLocation(request, line, type);
@@ -45,7 +47,6 @@ public class MovementQuantityValidationService {
                     continue;
                 }
 
-                Double requestedQty = line.getRequestedQuantity();
                 String itemId = line.getItemId() != null ? line.getItemId().toString() : null;
 
                 if (itemId == null) {
@@ -53,22 +54,36 @@ public class MovementQuantityValidationService {
                     continue;
                 }
 
-                // Check available quantity at source location
-                try {
-                    Double availableQty = inventoryClient.getAvailableQuantity(itemId, locationId);
+                if (line.getRequestedQuantity() == null) {
+                    errors.add("Line " + line.getLineNumber() + ": Requested quantity is required");
+                    continue;
+                }
+
+                linesToCheck.add(new LineToCheck(line.getLineNumber(), itemId, locationId, line.getRequestedQuantity()));
+            }
+
+            // Check available quantity at source locations (one batch call for all lines)
+            try {
+                Map<String, Double> available = fetchAvailableQuantities(linesToCheck);
+
+                for (LineToCheck line : linesToCheck) {
+                    Double availableQty = available.getOrDefault(
+                            InventoryClient.key(line.itemId(), line.locationId()), 0.0);
 
                     log.debug("Item: {}, Location: {}, Available: {}, Requested: {}",
-                            itemId, locationId, availableQty, requestedQty);
+                            line.itemId(), line.locationId(), availableQty, line.requestedQty());
 
-                    if (availableQty < requestedQty) {
+                    if (availableQty < line.requestedQty()) {
                         errors.add(String.format(
                                 "Line %d: Insufficient stock for item %s at location %s. Available: %.2f, Requested: %.2f",
-                                line.getLineNumber(), itemId, locationId, availableQty, requestedQty
+                                line.lineNumber(), line.itemId(), line.locationId(), availableQty, line.requestedQty()
                         ));
                     }
-                } catch (Exception e) {
-                    log.error("Error checking availability for item {} at location {}", itemId, locationId, e);
-                    errors.add("Line " + line.getLineNumber() + ": Unable to verify stock availability - " + e.getMessage());
+                }
+            } catch (Exception e) {
+                log.error("Error checking availability for {} lines", linesToCheck.size(), e);
+                for (LineToCheck line : linesToCheck) {
+                    errors.add("Line " + line.lineNumber() + ": Unable to verify stock availability - " + e.getMessage());
                 }
             }
 
@@ -96,6 +111,7 @@ public class MovementQuantityValidationService {
         }
 
         List<String> errors = new ArrayList<>();
+        List<LineToCheck> linesToCheck = new ArrayList<>();
 
         for (MovementLine line : lines) {
             // Get location ID - prefer line's fromLocationId, fallback to movement's sourceLocationId
@@ -111,7 +127,6 @@ public class MovementQuantityValidationService {
                 continue;
             }
 
-            Double requestedQty = line.getRequestedQuantity();
             String itemId = line.getItemId() != null ? line.getItemId().toString() : null;
 
             if (itemId == null) {
@@ -119,21 +134,35 @@ public class MovementQuantityValidationService {
                 continue;
             }
 
-            try {
-                Double availableQty = inventoryClient.getAvailableQuantity(itemId, locationId);
+            if (line.getRequestedQuantity() == null) {
+                errors.add("Line " + line.getLineNumber() + ": Requested quantity is required");
+                continue;
+            }
+
+            linesToCheck.add(new LineToCheck(line.getLineNumber(), itemId, locationId, line.getRequestedQuantity()));
+        }
+
+        try {
+            Map<String, Double> available = fetchAvailableQuantities(linesToCheck);
+
+            for (LineToCheck line : linesToCheck) {
+                Double availableQty = available.getOrDefault(
+                        InventoryClient.key(line.itemId(), line.locationId()), 0.0);
 
                 log.debug("Item: {}, Location: {}, Available: {}, Requested: {}",
-                        itemId, locationId, availableQty, requestedQty);
+                        line.itemId(), line.locationId(), availableQty, line.requestedQty());
 
-                if (availableQty < requestedQty) {
+                if (availableQty < line.requestedQty()) {
                     errors.add(String.format(
                             "Line %d: Insufficient stock for item %s. Available: %.2f, Requested: %.2f",
-                            line.getLineNumber(), itemId, availableQty, requestedQty
+                            line.lineNumber(), line.itemId(), availableQty, line.requestedQty()
                     ));
                 }
-            } catch (Exception e) {
-                log.error("Error checking availability for item {} at location {}", itemId, locationId, e);
-                errors.add("Line " + line.getLineNumber() + ": Unable to verify stock - " + e.getMessage());
+            }
+        } catch (Exception e) {
+            log.error("Error checking availability for {} lines", linesToCheck.size(), e);
+            for (LineToCheck line : linesToCheck) {
+                errors.add("Line " + line.lineNumber() + ": Unable to verify stock - " + e.getMessage());
             }
         }
 
@@ -146,6 +175,18 @@ public class MovementQuantityValidationService {
         log.info("✅ All existing lines validated successfully");
     }
 
+    /**
+     * 🔥 Fetch available quantities of all lines in one batch call
+     */
+    private Map<String, Double> fetchAvailableQuantities(List<LineToCheck> lines) {
+        if (lines.isEmpty()) {
+            return Map.of();
+        }
+        return inventoryClient.getAvailableQuantities(lines.stream()
+                .map(line -> new InventoryClient.AvailabilityLine(line.itemId(), line.locationId(), line.requestedQty()))
+                .toList());
+    }
+
     /**
      * 🔥 Determine if movement type requires quantity validation
      *
@@ -226,4 +267,7 @@ public class MovementQuantityValidationService {
             throw new RuntimeException("Unable to verify stock availability: " + e.getMessage());
         }
     }
+
+    private record LineToCheck(Integer lineNumber, String itemId, String locationId, Double requestedQty) {
+    }
 }